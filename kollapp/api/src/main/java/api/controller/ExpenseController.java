@@ -1,13 +1,17 @@
 package api.controller;
 
 import api.service.ExpenseService;
+import core.Balance;
+import core.ChangeSet;
 import core.Expense;
+import core.Transfer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/expenses")
@@ -20,19 +24,37 @@ public class ExpenseController {
      * Handles GET requests to load expenses for a specific group.
      *
      * @param groupName the name of the group whose expenses are to be loaded
-     * @return a ResponseEntity containing a list of expenses for the specified group,
-     *         or an INTERNAL_SERVER_ERROR status if an exception occurs
+     * @return a ResponseEntity containing a list of expenses for the specified group, with its version in
+     *         the {@value ChangeSet#VERSION_HEADER} header, or an INTERNAL_SERVER_ERROR status if an exception occurs
      */
     @GetMapping("/groups/{groupName}")
     public ResponseEntity<List<Expense>> loadGroupExpenses(@PathVariable String groupName) {
         try {
+            long version = expenseService.getGroupExpensesVersion(groupName);
             List<Expense> expenses = expenseService.loadGroupExpenses(groupName);
-            return ResponseEntity.ok(expenses);
+            return ResponseEntity.ok().header(ChangeSet.VERSION_HEADER, Long.toString(version)).body(expenses);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Handles GET requests for the changes of a group's expenses since a version.
+     *
+     * @param groupName the name of the group
+     * @param since the version the client holds
+     * @return a ResponseEntity containing the expenses changed or removed since the version, keyed by their
+     *         identifier, or a snapshot hint if the expenses have to be loaded again
+     */
+    @GetMapping("/groups/{groupName}/changes")
+    public ResponseEntity<ChangeSet<Expense>> getGroupExpenseChanges(@PathVariable String groupName, @RequestParam long since) {
+        try {
+            return ResponseEntity.ok(expenseService.getGroupExpenseChanges(groupName, since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Updates the expenses for a specific group.
      *
@@ -50,4 +72,74 @@ public class ExpenseController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Handles GET requests for the precomputed balances of a group.
+     *
+     * @param groupName the name of the group whose balances are to be returned
+     * @return a ResponseEntity containing the balances of the group keyed by username,
+     *         or status 400 (Bad Request) if there is an IllegalArgumentException
+     */
+    @GetMapping("/groups/{groupName}/balances")
+    public ResponseEntity<Map<String, Balance>> getGroupBalances(@PathVariable String groupName) {
+        try {
+            return ResponseEntity.ok(expenseService.getGroupBalances(groupName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Handles GET requests for the precomputed balance of a user across all groups.
+     *
+     * @param username the username whose balance is to be returned
+     * @return a ResponseEntity containing the total balance of the user,
+     *         or status 400 (Bad Request) if there is an IllegalArgumentException
+     */
+    @GetMapping("/users/{username}/balances")
+    public ResponseEntity<Balance> getUserBalance(@PathVariable String username) {
+        try {
+            return ResponseEntity.ok(expenseService.getUserBalance(username));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Handles GET requests for the settlement plan of a group, the minimal set of
+     * transfers that clears every outstanding balance.
+     *
+     * @param groupName the name of the group to compute the plan for
+     * @return a ResponseEntity containing the transfers of the plan,
+     *         or status 400 (Bad Request) if there is an IllegalArgumentException
+     */
+    @GetMapping("/groups/{groupName}/settlement-plan")
+    public ResponseEntity<List<Transfer>> getSettlementPlan(@PathVariable String groupName) {
+        try {
+            return ResponseEntity.ok(expenseService.getSettlementPlan(groupName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Applies a settlement plan, marking every outstanding settlement of the group as settled.
+     *
+     * @param groupName the name of the group to apply the plan to
+     * @param plan the settlement plan the members have carried out
+     * @return a ResponseEntity with status 200 (OK) if the plan was applied,
+     *         status 409 (Conflict) if the plan is out of date,
+     *         or status 400 (Bad Request) if there is an IllegalArgumentException
+     */
+    @PostMapping("/groups/{groupName}/settlement-plan/apply")
+    public ResponseEntity<String> applySettlementPlan(@PathVariable String groupName, @RequestBody List<Transfer> plan) {
+        try {
+            int settled = expenseService.applySettlementPlan(groupName, plan);
+            return ResponseEntity.ok("Settled " + settled + " settlements.");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
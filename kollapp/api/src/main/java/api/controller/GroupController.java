@@ -1,6 +1,9 @@
 package api.controller;
 
+import core.ChangeSet;
 import core.UserGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +20,8 @@ import java.util.Optional;
 @RequestMapping("/api/v1/groups")
 public class GroupController {
 
+    private static final Logger LOG = LoggerFactory.getLogger(GroupController.class);
+
     @Autowired
     private GroupService groupService;
 
@@ -33,14 +38,27 @@ public class GroupController {
         public void setGroupName(String groupName) { this.groupName = groupName; }
     }
 
-    // GET /groups/{groupName}
+    // GET /groups/{groupName}, with the version of the members in the X-Change-Version header
     @GetMapping("/{groupName}")
     public ResponseEntity<UserGroup> getGroup(@PathVariable String groupName) {
+        long version = groupService.getGroupVersion(groupName);
         Optional<UserGroup> groupOpt = groupService.getGroup(groupName);
-        return groupOpt.map(ResponseEntity::ok)
+        return groupOpt.map(group -> ResponseEntity.ok()
+                               .header(ChangeSet.VERSION_HEADER, Long.toString(version))
+                               .body(group))
                        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    // GET /groups/{groupName}/changes?since={version}, the members who joined or left since the version
+    @GetMapping("/{groupName}/changes")
+    public ResponseEntity<ChangeSet<String>> getGroupChanges(@PathVariable String groupName, @RequestParam long since) {
+        try {
+            return ResponseEntity.ok(groupService.getGroupChanges(groupName, since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     // POST /groups/{username}/{groupName}
     @PostMapping("/{username}/{groupName}")
     public ResponseEntity<Void> createGroup(
@@ -59,14 +77,14 @@ public class GroupController {
     @PostMapping(value = "/{groupName}/assignUser", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<Void> assignUserToGroup(@PathVariable String groupName, @RequestParam String username) {
         try {
-            System.out.println("Assigning user to group: " + username + " in group: " + groupName);
+            LOG.debug("Assigning user {} to group {}", username, groupName);
             groupService.assignUserToGroup(username, groupName);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
-            System.err.println("IllegalArgumentException: " + e.getMessage());
+            LOG.info("Rejected assigning user {} to group {}: {}", username, groupName, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
-            System.err.println("Exception: " + e.getMessage());
+            LOG.error("Failed to assign user {} to group {}", username, groupName, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -1,6 +1,9 @@
 package api.controller;
 
 import api.service.ToDoListService;
+import core.ChangeSet;
+import core.ReplicatedToDoList;
+import core.Task;
 import core.ToDoList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,13 +22,14 @@ public class ToDoListController {
      * GET /todolists/{username}
      *
      * @param username the username of the user
-     * @return the to-do list of the user
+     * @return the to-do list of the user, with its version in the {@value ChangeSet#VERSION_HEADER} header
      */
     @GetMapping("/{username}")
     public ResponseEntity<ToDoList> loadToDoList(@PathVariable String username) {
         try {
+            long version = toDoListService.getToDoListVersion(username);
             ToDoList toDoList = toDoListService.loadToDoList(username);
-            return ResponseEntity.ok(toDoList);
+            return ResponseEntity.ok().header(ChangeSet.VERSION_HEADER, Long.toString(version)).body(toDoList);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -66,36 +70,186 @@ public class ToDoListController {
         }
     }
 
+    /**
+     * Returns the changes of a user's to-do list since a version.
+     * GET /todolists/{username}/changes?since={version}
+     *
+     * @param username the username of the user
+     * @param since the version the client holds
+     * @return the changed and removed tasks, or a snapshot hint if the list has to be loaded again
+     */
+    @GetMapping("/{username}/changes")
+    public ResponseEntity<ChangeSet<Task>> getToDoListChanges(@PathVariable String username, @RequestParam long since) {
+        try {
+            return ResponseEntity.ok(toDoListService.getToDoListChanges(username, since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     /**
      * Loads the to-do list for a specific user group.
      * GET /todolists/groups/{groupName}
      *
      * @param groupName the name of the user group
-     * @return the to-do list of the group
+     * @return the to-do list of the group, with its version in the {@value ChangeSet#VERSION_HEADER} header
      */
     @GetMapping("/groups/{groupName}")
     public ResponseEntity<ToDoList> loadGroupToDoList(@PathVariable String groupName) {
         try {
+            long version = toDoListService.getGroupToDoListVersion(groupName);
             ToDoList toDoList = toDoListService.loadGroupToDoList(groupName);
-            return ResponseEntity.ok(toDoList);
+            return ResponseEntity.ok().header(ChangeSet.VERSION_HEADER, Long.toString(version)).body(toDoList);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
 
     /**
-     * Updates the to-do list for a specific user group.
+     * Returns the changes of a group's to-do list since a version.
+     * GET /todolists/groups/{groupName}/changes?since={version}
+     *
+     * @param groupName the name of the user group
+     * @param since the version the client holds
+     * @return the changed and removed tasks, or a snapshot hint if the list has to be loaded again
+     */
+    @GetMapping("/groups/{groupName}/changes")
+    public ResponseEntity<ChangeSet<Task>> getGroupToDoListChanges(@PathVariable String groupName, @RequestParam long since) {
+        try {
+            return ResponseEntity.ok(toDoListService.getGroupToDoListChanges(groupName, since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Updates the to-do list for a specific user group, if it was loaded at the current version. Edits
+     * of a list loaded earlier are sent with PATCH instead, so they are merged.
      * PUT /todolists/groups/{groupName}
      *
      * @param groupName the name of the user group
+     * @param baseVersion the version the list was loaded at, from the {@value ChangeSet#VERSION_HEADER}
+     *        header
      * @param toDoList  the updated to-do list
-     * @return HTTP status indicating the outcome
+     * @return HTTP status indicating the outcome: 428 without a version, 409 if the list changed since
      */
     @PutMapping("/groups/{groupName}")
-    public ResponseEntity<Void> updateGroupToDoList(@PathVariable String groupName, @RequestBody ToDoList toDoList) {
+    public ResponseEntity<Void> updateGroupToDoList(@PathVariable String groupName,
+            @RequestHeader(value = ChangeSet.VERSION_HEADER, required = false) Long baseVersion,
+            @RequestBody ToDoList toDoList) {
+        if (baseVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        try {
+            toDoListService.updateGroupToDoList(groupName, toDoList, baseVersion);
+            return ResponseEntity.ok().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Merges an edit into the to-do list of a specific user group, keeping the edits other members made
+     * at the same time.
+     * PATCH /todolists/groups/{groupName}
+     *
+     * @param groupName the name of the user group
+     * @param edit the edit, usually holding only the changed tasks and the removed ones
+     * @return the merged to-do list, with its version in the {@value ChangeSet#VERSION_HEADER} header
+     */
+    @PatchMapping("/groups/{groupName}")
+    public ResponseEntity<ToDoList> mergeGroupToDoList(@PathVariable String groupName,
+            @RequestBody ReplicatedToDoList edit) {
+        try {
+            long version = toDoListService.getGroupToDoListVersion(groupName);
+            ToDoList toDoList = toDoListService.mergeGroupToDoList(groupName, edit);
+            return ResponseEntity.ok().header(ChangeSet.VERSION_HEADER, Long.toString(version)).body(toDoList);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Updates a single task in the to-do list of a specific user.
+     * PUT /todolists/{username}/tasks/{taskId}
+     *
+     * @param username the username of the user
+     * @param taskId the identifier of the task
+     * @param task the updated task
+     * @return HTTP status indicating the outcome
+     */
+    @PutMapping("/{username}/tasks/{taskId}")
+    public ResponseEntity<Void> updateTask(@PathVariable String username, @PathVariable long taskId, @RequestBody Task task) {
+        try {
+            task.setId(taskId);
+            toDoListService.updateTask(username, task);
+            return ResponseEntity.ok().build();
+        } catch (IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Removes a single task from the to-do list of a specific user.
+     * DELETE /todolists/{username}/tasks/{taskId}
+     *
+     * @param username the username of the user
+     * @param taskId the identifier of the task
+     * @return HTTP status indicating the outcome
+     */
+    @DeleteMapping("/{username}/tasks/{taskId}")
+    public ResponseEntity<Void> removeTask(@PathVariable String username, @PathVariable long taskId) {
+        try {
+            toDoListService.removeTask(username, taskId);
+            return ResponseEntity.ok().build();
+        } catch (IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Updates a single task in the to-do list of a specific user group.
+     * PUT /todolists/groups/{groupName}/tasks/{taskId}
+     *
+     * @param groupName the name of the user group
+     * @param taskId the identifier of the task
+     * @param task the updated task
+     * @return HTTP status indicating the outcome
+     */
+    @PutMapping("/groups/{groupName}/tasks/{taskId}")
+    public ResponseEntity<Void> updateGroupTask(@PathVariable String groupName, @PathVariable long taskId, @RequestBody Task task) {
+        try {
+            task.setId(taskId);
+            toDoListService.updateGroupTask(groupName, task);
+            return ResponseEntity.ok().build();
+        } catch (IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Removes a single task from the to-do list of a specific user group.
+     * DELETE /todolists/groups/{groupName}/tasks/{taskId}
+     *
+     * @param groupName the name of the user group
+     * @param taskId the identifier of the task
+     * @return HTTP status indicating the outcome
+     */
+    @DeleteMapping("/groups/{groupName}/tasks/{taskId}")
+    public ResponseEntity<Void> removeGroupTask(@PathVariable String groupName, @PathVariable long taskId) {
         try {
-            toDoListService.updateGroupToDoList(groupName, toDoList);
+            toDoListService.removeGroupTask(groupName, taskId);
             return ResponseEntity.ok().build();
+        } catch (IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -1,6 +1,8 @@
 package api.controller;
 
 import core.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +17,8 @@ import org.springframework.http.MediaType;
 @RequestMapping("/api/v1/users")
 public class UserController {
 
+    private static final Logger LOG = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
     
@@ -79,14 +83,14 @@ public class UserController {
     @PostMapping(value = "/{username}/assignGroup", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<Void> assignGroupToUser(@PathVariable String username, @RequestParam String groupName) {
         try {
-            System.out.println("Assigning group to user: " + groupName + " for user: " + username);
+            LOG.debug("Assigning group {} to user {}", groupName, username);
             userService.assignGroupToUser(username, groupName);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
-            System.err.println("IllegalArgumentException: " + e.getMessage());
+            LOG.info("Rejected assigning group {} to user {}: {}", groupName, username, e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            System.err.println("Exception: " + e.getMessage());
+            LOG.error("Failed to assign group {} to user {}", groupName, username, e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -0,0 +1,39 @@
+package api.diagnostics;
+
+import core.logging.CorrelationId;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Gives every request a {@link CorrelationId}: the one the client sent in the {@code X-Correlation-Id}
+ * header, or a new one if it is missing or malformed. It is kept in the MDC while the request is
+ * handled, so it appears in every log line, and returned to the client in the same header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(CorrelationId.HEADER);
+        if (!CorrelationId.isValid(correlationId)) {
+            correlationId = CorrelationId.create();
+        }
+        CorrelationId.set(correlationId);
+        response.setHeader(CorrelationId.HEADER, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CorrelationId.clear();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package api.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A continuous Flight Recorder recording of the server, kept in a ring buffer on disk so the last
+ * minutes can be dumped to a file when something goes wrong.
+ *
+ * <p>The recording is off unless the server is started with {@code kollapp.jfr.enabled=true}. It uses
+ * the JDK's low-overhead {@code default} settings plus the KollApp events, and keeps at most
+ * {@code kollapp.jfr.max-age} (default 30 minutes) or {@code kollapp.jfr.max-size} bytes (default
+ * 250 MB) of data. Dumps are written to {@code kollapp.jfr.dump-dir}, the temporary directory by
+ * default, through {@link FlightRecordingEndpoint}.</p>
+ */
+@Component
+public class FlightRecording implements InitializingBean, DisposableBean {
+    static final String RECORDING_NAME = "kollapp";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final long maxSize;
+    private final Path dumpDirectory;
+    private Recording recording;
+
+    /**
+     * Constructs the recording from the {@code kollapp.jfr} properties. Nothing is recorded until
+     * {@link #start()} is called, which Spring does once the bean is created.
+     *
+     * @param enabled whether to record at all
+     * @param maxAge the age after which recorded data is discarded
+     * @param maxSize the size in bytes after which the oldest recorded data is discarded
+     * @param dumpDirectory the directory to write dumps to
+     * @throws IllegalArgumentException if the age or size is not positive
+     */
+    @Autowired
+    public FlightRecording(@Value("${kollapp.jfr.enabled:false}") boolean enabled,
+            @Value("${kollapp.jfr.max-age:30m}") Duration maxAge,
+            @Value("${kollapp.jfr.max-size:262144000}") long maxSize,
+            @Value("${kollapp.jfr.dump-dir:${java.io.tmpdir}}") String dumpDirectory) {
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Recording max age must be positive");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Recording max size must be positive");
+        }
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDirectory = Paths.get(dumpDirectory);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException, ParseException {
+        start();
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    /**
+     * Starts the recording if it is enabled and not already running.
+     *
+     * @throws IOException if the settings cannot be read
+     * @throws ParseException if the settings cannot be parsed
+     */
+    public synchronized void start() throws IOException, ParseException {
+        if (!enabled || recording != null) {
+            return;
+        }
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        started.setName(RECORDING_NAME);
+        started.enable(StorageEvent.class);
+        started.enable(SerializationEvent.class);
+        started.enable(LockWaitEvent.class);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize);
+        started.start();
+        recording = started;
+    }
+
+    /**
+     * Stops the recording and discards its data.
+     */
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Returns whether the recording is running.
+     *
+     * @return true if the recording is running
+     */
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Describes the recording, for the read operation of the endpoint.
+     *
+     * @return the state and limits of the recording
+     */
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("state", recording == null ? "OFF" : recording.getState().name());
+        status.put("maxAge", maxAge.toString());
+        status.put("maxSize", maxSize);
+        status.put("dumpDirectory", dumpDirectory.toAbsolutePath().toString());
+        if (recording != null) {
+            status.put("startTime", String.valueOf(recording.getStartTime()));
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    /**
+     * Writes everything recorded so far to a new file in the dump directory. The recording keeps running.
+     *
+     * @return the file that was written
+     * @throws IllegalStateException if the recording is not running
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No recording is running; start the server with kollapp.jfr.enabled=true");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve("kollapp-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr")
+                .toAbsolutePath();
+        recording.dump(file);
+        return file;
+    }
+}
@@ -0,0 +1,73 @@
+package api.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The Actuator endpoint {@code /actuator/jfr} for the continuous {@link FlightRecording}.
+ *
+ * <p>{@code GET} returns the state of the recording. {@code POST} dumps the recording to a file on the
+ * server and returns its path and size, or 409 Conflict if the recording is not running.</p>
+ *
+ * <p>Since every dump writes a file on the server, the endpoint is not exposed over HTTP by default. It
+ * is exposed by adding {@code jfr} to {@code management.endpoints.web.exposure.include}, which should only
+ * be done where the actuator endpoints require authentication.</p>
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+    static final int STATUS_CONFLICT = 409;
+
+    private final FlightRecording recording;
+
+    /**
+     * Constructs the endpoint.
+     *
+     * @param recording the recording to report on and dump
+     */
+    @Autowired
+    public FlightRecordingEndpoint(FlightRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Returns the state of the recording.
+     *
+     * @return the state and limits of the recording
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        return recording.status();
+    }
+
+    /**
+     * Dumps the recording to a file.
+     *
+     * @return the path and size of the file, or the reason no file was written
+     * @throws IOException if the file cannot be written
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> dump() throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        Path file;
+        try {
+            file = recording.dump();
+        } catch (IllegalStateException e) {
+            body.put("error", e.getMessage());
+            return new WebEndpointResponse<>(body, STATUS_CONFLICT);
+        }
+        body.put("file", file.toString());
+        body.put("bytes", Files.size(file));
+        return new WebEndpointResponse<>(body);
+    }
+}
@@ -0,0 +1,52 @@
+package api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a thread that had to wait for an entity lock held by another thread.
+ * Uncontended acquisitions are not recorded.
+ */
+@Name("kollapp.LockWait")
+@Label("Entity Lock Wait")
+@Category({"KollApp", "Locking"})
+@Description("Waiting for an entity lock held by another thread")
+public class LockWaitEvent extends Event {
+    @Label("Lock")
+    @Description("The entity the lock guards, for example todolists")
+    private String lock;
+
+    @Label("Operation")
+    @Description("The service method that waited")
+    private String operation;
+
+    @Label("Key")
+    @Description("The username or group name the operation was for")
+    private String key;
+
+    @Label("Queue Length")
+    @Description("Threads waiting for the lock when this thread started waiting")
+    private int queueLength;
+
+    /**
+     * Ends the event and commits it with the given details if it is enabled and above its threshold.
+     *
+     * @param lock the entity the lock guards
+     * @param operation the service method that waited
+     * @param key the username or group name the operation was for
+     * @param queueLength the threads waiting for the lock when this thread started waiting
+     */
+    public void commit(String lock, String operation, String key, int queueLength) {
+        end();
+        if (shouldCommit()) {
+            this.lock = lock;
+            this.operation = operation;
+            this.key = key;
+            this.queueLength = queueLength;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for parsing or producing the JSON of one entity file with Jackson.
+ */
+@Name("kollapp.Serialization")
+@Label("JSON Serialization")
+@Category({"KollApp", "Storage"})
+@Description("Parsing or producing the JSON of one entity file")
+public class SerializationEvent extends Event {
+    @Label("Entity")
+    @Description("The entity directory, for example todolists")
+    private String entity;
+
+    @Label("Key")
+    @Description("The name of the file without its extension, usually a username or group name")
+    private String key;
+
+    @Label("Operation")
+    @Description("read for parsing, write for producing")
+    private String operation;
+
+    @Label("Type")
+    @Description("The Java type that was read or written")
+    private String type;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it with the given details if it is enabled and above its threshold.
+     *
+     * @param entity the entity directory
+     * @param key the name of the file without its extension
+     * @param operation {@code read} or {@code write}
+     * @param type the Java type that was read or written
+     * @param bytes the size of the JSON
+     */
+    public void commit(String entity, String key, String operation, String type, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.entity = entity;
+            this.key = key;
+            this.operation = operation;
+            this.type = type;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package api.diagnostics;
+
+import java.util.Locale;
+
+/**
+ * The time one request spends in each phase on the server, reported to the client in a
+ * {@code Server-Timing} header by {@link ServerTimingFilter}.
+ *
+ * <p>The storage and locking code adds to the timing of the current thread through
+ * {@link #record(Phase, long)}; outside a request there is no current timing and nothing is recorded.
+ * Whatever is not spent in one of the phases is reported as {@code logic}, and the whole time until the
+ * header is written as {@code total}.</p>
+ */
+public final class ServerTiming {
+    /**
+     * The name of the response header.
+     */
+    public static final String HEADER = "Server-Timing";
+
+    /**
+     * A measured phase of a request.
+     */
+    public enum Phase {
+        /** Waiting for an entity lock held by another request, or for the writer of a group. */
+        LOCK("lock"),
+        /** Reading the bytes of entity files. */
+        READ("read"),
+        /** Parsing entity files with Jackson. */
+        DESERIALIZE("deserialize"),
+        /** Producing entity files with Jackson. */
+        SERIALIZE("serialize"),
+        /** Writing the bytes of entity files. */
+        WRITE("write");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        /**
+         * Returns the name of the phase in the header.
+         *
+         * @return the metric name
+         */
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start;
+    private final long[] nanos = new long[Phase.values().length];
+
+    private ServerTiming(long start) {
+        this.start = start;
+    }
+
+    /**
+     * Starts timing a request on the current thread.
+     *
+     * @return the new timing
+     */
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stops timing on the current thread. Later calls to {@link #record} are ignored.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the timing of the request running on the current thread.
+     *
+     * @return the timing, or null outside a request
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Continues timing a request on the current thread, for a thread doing part of the work of a request
+     * while the request's own thread waits for it.
+     *
+     * @param timing the timing to continue, or null to stop timing on the current thread
+     */
+    public static void attach(ServerTiming timing) {
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+    }
+
+    /**
+     * Adds time to a phase of the request running on the current thread, if any.
+     *
+     * @param phase the phase the time was spent in
+     * @param nanos the time in nanoseconds
+     */
+    public static void record(Phase phase, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Returns the time recorded for a phase so far.
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Formats the timing as the value of a {@code Server-Timing} header, with durations in milliseconds,
+     * for example {@code lock;dur=0.000, read;dur=1.204, ..., logic;dur=0.310, total;dur=2.011}.
+     *
+     * @return the header value
+     */
+    public String toHeaderValue() {
+        long total = System.nanoTime() - start;
+        long phases = 0;
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            long phaseNanos = nanos[phase.ordinal()];
+            phases += phaseNanos;
+            append(header, phase.getMetricName(), phaseNanos);
+        }
+        append(header, "logic", Math.max(0, total - phases));
+        append(header, "total", total);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
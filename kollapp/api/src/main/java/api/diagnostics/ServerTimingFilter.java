@@ -0,0 +1,90 @@
+package api.diagnostics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Times every request with a {@link ServerTiming} and adds the result as a {@code Server-Timing} header.
+ *
+ * <p>Headers cannot be changed once the body has started, so the header is added the moment the
+ * response body is first requested, or after the request if it has no body. The time to write the
+ * response body itself is therefore not included.</p>
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        TimingResponse timed = new TimingResponse(response, timing);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            timed.addTimingHeader();
+            ServerTiming.end();
+        }
+    }
+
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+        private final ServerTiming timing;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addTimingHeader() {
+            if (!added && !isCommitted()) {
+                setHeader(ServerTiming.HEADER, timing.toHeaderValue());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            addTimingHeader();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            addTimingHeader();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for reading or writing the bytes of one entity file. The duration covers the
+ * file I/O only; parsing and producing the JSON is recorded as a {@link SerializationEvent}.
+ */
+@Name("kollapp.StorageOperation")
+@Label("Storage Operation")
+@Category({"KollApp", "Storage"})
+@Description("Reading or writing the bytes of one entity file")
+public class StorageEvent extends Event {
+    @Label("Entity")
+    @Description("The entity directory, for example todolists")
+    private String entity;
+
+    @Label("Key")
+    @Description("The name of the file without its extension, usually a username or group name")
+    private String key;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it with the given details if it is enabled and above its threshold.
+     *
+     * @param entity the entity directory
+     * @param key the name of the file without its extension
+     * @param operation {@code read} or {@code write}
+     * @param bytes the size of the file
+     */
+    public void commit(String entity, String key, String operation, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.entity = entity;
+            this.key = key;
+            this.operation = operation;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
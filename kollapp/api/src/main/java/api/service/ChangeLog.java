@@ -0,0 +1,188 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Change;
+import core.ChangeSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * The recent changes of the aggregates a service stores, such as the to-do list of each user, so clients
+ * holding a version of an aggregate can fetch only what changed since.
+ *
+ * <p>Every change gets a sequence number that is higher than that of all earlier changes in the log.
+ * Numbers start from the clock, a thousand per millisecond, when the log is created, so they keep
+ * growing across restarts. The log is kept in memory and holds the last {@value #DEFAULT_CAPACITY}
+ * changes of each aggregate by default. If a client asks for changes since a version the log no longer
+ * covers, because older changes were dropped or the version is from before a restart, it gets a
+ * {@linkplain ChangeSet#snapshot snapshot hint} and loads the whole aggregate again.</p>
+ *
+ * <p>The version of an aggregate is the number of its last change. A service writing an aggregate
+ * records the changes after writing it, as the only writer of the aggregate, and a load reads the
+ * version before the aggregate, so a client may get a change again that its copy already has, but never
+ * misses one. Changes replace or remove whole parts, so applying one twice does no harm.</p>
+ *
+ * @param <T> the type of the parts of the aggregates, for example {@link core.Task}
+ */
+public class ChangeLog<T> {
+
+    /**
+     * The number of changes kept per aggregate by default.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final long start;
+    private final Map<String, Entries<T>> logs = new HashMap<>();
+    private long last;
+
+    /**
+     * Constructs a log keeping {@value #DEFAULT_CAPACITY} changes per aggregate.
+     */
+    public ChangeLog() {
+        this(DEFAULT_CAPACITY, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a log.
+     *
+     * @param capacity the number of changes kept per aggregate
+     * @param clock the time source in milliseconds the sequence numbers start from
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    ChangeLog(int capacity, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.start = clock.getAsLong() * 1000;
+        this.last = start;
+    }
+
+    /**
+     * Returns the version of an aggregate.
+     *
+     * @param aggregate the key of the aggregate, for example a username
+     * @return the sequence number of its last change, or the start of the log if it has none
+     */
+    public synchronized long getVersion(String aggregate) {
+        Entries<T> entries = logs.get(aggregate);
+        return entries == null ? start : entries.version;
+    }
+
+    /**
+     * Appends changes of an aggregate, dropping its oldest changes beyond the capacity.
+     *
+     * @param aggregate the key of the aggregate
+     * @param changes the changes, oldest first; their sequence numbers are set
+     * @return the new version of the aggregate
+     */
+    public synchronized long append(String aggregate, List<Change<T>> changes) {
+        if (changes.isEmpty()) {
+            return getVersion(aggregate);
+        }
+        Entries<T> entries = logs.computeIfAbsent(aggregate, key -> new Entries<>(start));
+        for (Change<T> change : changes) {
+            change.setSequence(++last);
+            entries.changes.addLast(change);
+            if (entries.changes.size() > capacity) {
+                entries.floor = entries.changes.removeFirst().getSequence();
+            }
+        }
+        entries.version = last;
+        return last;
+    }
+
+    /**
+     * Forgets the changes of an aggregate that was replaced without knowing what changed, so clients
+     * load it again.
+     *
+     * @param aggregate the key of the aggregate
+     * @return the new version of the aggregate
+     */
+    public synchronized long reset(String aggregate) {
+        Entries<T> entries = logs.computeIfAbsent(aggregate, key -> new Entries<>(start));
+        entries.changes.clear();
+        entries.floor = ++last;
+        entries.version = last;
+        return last;
+    }
+
+    /**
+     * Returns the changes of an aggregate made after a version.
+     *
+     * @param aggregate the key of the aggregate
+     * @param since the version the client holds
+     * @return the changes after the version, or a snapshot hint if the log does not cover it
+     */
+    public synchronized ChangeSet<T> since(String aggregate, long since) {
+        Entries<T> entries = logs.get(aggregate);
+        long version = entries == null ? start : entries.version;
+        long floor = entries == null ? start : entries.floor;
+        if (since < floor || since > version) {
+            return ChangeSet.snapshot(version);
+        }
+        List<Change<T>> changes = new ArrayList<>();
+        if (entries != null) {
+            for (Change<T> change : entries.changes) {
+                if (change.getSequence() > since) {
+                    changes.add(change);
+                }
+            }
+        }
+        return new ChangeSet<>(version, false, changes);
+    }
+
+    /**
+     * Computes the changes that turn one version of an aggregate into another. Parts are compared by
+     * their JSON, so only parts that would be written differently count as changed.
+     *
+     * @param <T> the type of the parts
+     * @param mapper the mapper the parts are written with
+     * @param before the parts before, by key
+     * @param after the parts after, by key, in the order the upserts are listed in
+     * @return upserts of the new and changed parts, then removes of the missing ones, last key first
+     */
+    public static <T> List<Change<T>> diff(ObjectMapper mapper, Map<String, T> before, Map<String, T> after) {
+        List<Change<T>> changes = new ArrayList<>();
+        for (Map.Entry<String, T> part : after.entrySet()) {
+            T previous = before.get(part.getKey());
+            if (previous == null || !json(mapper, previous).equals(json(mapper, part.getValue()))) {
+                changes.add(Change.upsert(part.getKey(), part.getValue()));
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            changes.add(Change.remove(removed.get(i)));
+        }
+        return changes;
+    }
+
+    private static JsonNode json(ObjectMapper mapper, Object value) {
+        return Objects.requireNonNull(mapper.valueToTree(value));
+    }
+
+    private static final class Entries<T> {
+        private final Deque<Change<T>> changes = new ArrayDeque<>();
+        private long floor;
+        private long version;
+
+        private Entries(long start) {
+            this.floor = start;
+            this.version = start;
+        }
+    }
+}
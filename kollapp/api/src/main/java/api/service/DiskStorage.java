@@ -0,0 +1,109 @@
+package api.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@link Storage} that reads and writes the files on disk.
+ */
+final class DiskStorage implements Storage {
+    static final DiskStorage INSTANCE = new DiskStorage();
+
+    private DiskStorage() {
+    }
+
+    @Override
+    public byte[] read(Path file) throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    /**
+     * Writes the bytes to a temporary file next to the file, then moves it over the file, so a reader
+     * sees either the old or the new contents, never a partly written file, without taking a lock.
+     *
+     * <p>The temporary file is forced to disk before the move and the directory after it, so the new
+     * contents survive a crash once this returns. A batch of changes written together costs one write
+     * and one force.</p>
+     */
+    @Override
+    public void write(Path file, byte[] bytes) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary;
+        try {
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        } catch (NoSuchFileException e) {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory(directory);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Forces a directory entry change, such as a move, to disk. Some platforms, Windows among them, cannot
+     * open a directory for this and persist the entry with the file instead, so failing to open it is
+     * ignored.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public boolean exists(Path file) {
+        return Files.exists(file);
+    }
+
+    @Override
+    public boolean delete(Path file) throws IOException {
+        return Files.deleteIfExists(file);
+    }
+
+    @Override
+    public List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public long size(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+}
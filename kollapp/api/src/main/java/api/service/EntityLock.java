@@ -0,0 +1,97 @@
+package api.service;
+
+import api.diagnostics.LockWaitEvent;
+import api.diagnostics.ServerTiming;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lock a service holds while it reads or rewrites the whole file of an entity, so concurrent
+ * requests never see a half-written file or overwrite each other's changes.
+ *
+ * <p>Loads take the lock {@linkplain #lockShared shared}, so requests reading the same entity run at the
+ * same time and can share one disk read in {@link JsonStore}. Updates take it {@linkplain #lock
+ * exclusively}. Both are re-entrant, and a thread holding the exclusive lock may also take the shared
+ * one, so an update can load the entity it is about to change.</p>
+ *
+ * <p>A thread that has to wait for another thread commits a {@link LockWaitEvent} with the operation
+ * and key it waited for, so contention shows up in a Flight Recorder recording. Uncontended
+ * acquisitions cost a single {@code tryLock}. The wait is also added to the {@code lock} phase of the
+ * request's {@link ServerTiming}.</p>
+ */
+public class EntityLock {
+    private final String entity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a lock for an entity.
+     *
+     * @param entity the entity the lock guards, for example {@code todolists}
+     */
+    public EntityLock(String entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Acquires the lock exclusively, waiting for other threads to release it if necessary. Every call
+     * must be followed by {@link #unlock()} in a {@code finally} block.
+     *
+     * @param operation the service method acquiring the lock
+     * @param key the username or group name the operation is for
+     */
+    public void lock(String operation, String key) {
+        acquire(lock.writeLock(), operation, key);
+    }
+
+    /**
+     * Releases the exclusive lock once.
+     *
+     * @throws IllegalMonitorStateException if the current thread does not hold the lock
+     */
+    public void unlock() {
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * Acquires the lock shared with other readers, waiting for a thread holding it exclusively if
+     * necessary. Every call must be followed by {@link #unlockShared()} in a {@code finally} block.
+     *
+     * @param operation the service method acquiring the lock
+     * @param key the username or group name the operation is for
+     */
+    public void lockShared(String operation, String key) {
+        acquire(lock.readLock(), operation, key);
+    }
+
+    /**
+     * Releases the shared lock once.
+     *
+     * @throws IllegalMonitorStateException if the current thread does not hold the shared lock
+     */
+    public void unlockShared() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * Returns whether the current thread holds the lock exclusively.
+     *
+     * @return true if the current thread holds the lock exclusively
+     */
+    public boolean isHeldByCurrentThread() {
+        return lock.isWriteLockedByCurrentThread();
+    }
+
+    private void acquire(Lock target, String operation, String key) {
+        if (target.tryLock()) {
+            return;
+        }
+        LockWaitEvent event = new LockWaitEvent();
+        event.begin();
+        int queueLength = lock.getQueueLength();
+        long start = System.nanoTime();
+        target.lock();
+        ServerTiming.record(ServerTiming.Phase.LOCK, System.nanoTime() - start);
+        event.commit(entity, operation, key, queueLength);
+    }
+}
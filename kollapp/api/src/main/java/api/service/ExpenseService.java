@@ -2,21 +2,55 @@ package api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import core.Balance;
+import core.BalanceLedger;
+import core.ChangeSet;
+import core.DebtSimplifier;
 import core.Expense;
+import core.IdGenerator;
+import core.Settlement;
+import core.Transfer;
 import core.UserGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Service class for managing the expenses of groups, stored as one JSON file per group.
+ *
+ * <p>Keeps a {@link BalanceLedger} per group for the balance endpoints, and records the expenses each
+ * update adds, changes or removes in a {@link ChangeLog}, keyed by their identifier, so clients can catch
+ * up with {@link #getGroupExpenseChanges(String, long)}. The changes are found by comparing the update with
+ * the expenses the service last wrote for the group, so the file is not read again on every update.</p>
+ *
+ * <p>The expenses of a group are changed one at a time by the shared {@link GroupExecutor}, and read
+ * without waiting for it.</p>
+ */
 @Service
 public class ExpenseService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ExpenseService.class);
+
     private final ObjectMapper mapper;
+    private final JsonStore store;
+    private final GroupExecutor executor = GroupExecutor.getShared();
     private final String groupExpensePath;
+    private final ChangeLog<Expense> changes = new ChangeLog<>();
+    private final Map<String, Map<String, Expense>> written = new ConcurrentHashMap<>();
+    private final Map<String, BalanceLedger> ledgers = new ConcurrentHashMap<>();
+    private final Map<String, Balance> userBalances = new ConcurrentHashMap<>();
+    private boolean ledgersIndexed;
 
     /**
      * Service class for handling expenses.
@@ -28,12 +62,62 @@ public class ExpenseService {
      * It also sets up the file path for storing group expenses data.
      */
     public ExpenseService() {
+        this(Paths.get("..", "persistence", "src", "main", "java", "persistence", "groupexpenses"));
+    }
+
+    /**
+     * Constructs an ExpenseService that stores group expenses under the given storage root.
+     *
+     * @param storageLocation the storage root to use
+     */
+    public ExpenseService(StorageLocation storageLocation) {
+        this(storageLocation, WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs an ExpenseService that stores group expenses under the given storage root, buffering
+     * its writes through the given write-behind log.
+     *
+     * @param storageLocation the storage root to use
+     * @param writeBehind the write-behind log to buffer writes through
+     */
+    @Autowired
+    public ExpenseService(StorageLocation storageLocation, WriteBehind writeBehind) {
+        this(storageLocation.resolve("groupexpenses"), storageLocation.getStorage(), writeBehind);
+    }
+
+    /**
+     * Constructs an ExpenseService that stores group expenses in the given directory.
+     *
+     * @param groupExpensePath the directory for storing group expenses
+     */
+    public ExpenseService(Path groupExpensePath) {
+        this(groupExpensePath, WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs an ExpenseService that stores group expenses in the given directory, buffering its
+     * writes through the given write-behind log.
+     *
+     * @param groupExpensePath the directory for storing group expenses
+     * @param writeBehind the write-behind log to buffer writes through
+     */
+    public ExpenseService(Path groupExpensePath, WriteBehind writeBehind) {
+        this(groupExpensePath, Storage.disk(), writeBehind);
+    }
+
+    ExpenseService(Path groupExpensePath, Storage storage, WriteBehind writeBehind) {
+        if (groupExpensePath == null) {
+            throw new NullPointerException("Group expense path cannot be null");
+        }
+        if (writeBehind == null) {
+            throw new NullPointerException("Write-behind cannot be null");
+        }
         this.mapper = new ObjectMapper();
         this.mapper.registerModule(new JavaTimeModule());
+        this.store = new JsonStore(mapper, storage, writeBehind);
 
-        this.groupExpensePath = Paths.get("..", "persistence", "src", "main", "java",
-        "persistence", "groupexpenses").toAbsolutePath()
-        .normalize().toString() + File.separator;
+        this.groupExpensePath = groupExpensePath.toAbsolutePath().normalize().toString() + File.separator;
     }
 
 
@@ -52,7 +136,8 @@ public class ExpenseService {
     }
 
     /**
-     * Updates the expenses for a specified user group.
+     * Updates the expenses for a specified user group. Expenses saved before identifiers were introduced
+     * are assigned one.
      *
      * @param groupName the name of the group whose expenses are to be updated
      * @param expenses the list of expenses to be saved for the group
@@ -64,8 +149,184 @@ public class ExpenseService {
         if (expenses == null) {
             throw new IllegalArgumentException("Expenses list cannot be null");
         }
-        UserGroup group = new UserGroup(groupName);
-        saveExpensesForGroup(group, expenses);
+        executor.execute(groupName, "updateGroupExpenses", () -> {
+            for (Expense expense : expenses) {
+                if (expense.getId() == 0) {
+                    expense.setId(IdGenerator.nextId());
+                }
+            }
+            UserGroup group = new UserGroup(groupName);
+            saveExpensesForGroup(group, expenses);
+            refreshLedger(groupName, expenses);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the precomputed balances of every user with outstanding amounts in a group.
+     *
+     * @param groupName the name of the group whose balances are to be returned
+     * @return the balances of the group, keyed by username
+     */
+    public Map<String, Balance> getGroupBalances(String groupName) {
+        if (groupName == null) {
+            throw new IllegalArgumentException("Group name cannot be null");
+        }
+        indexLedgers();
+        BalanceLedger ledger = ledgers.get(groupName);
+        store.recordCacheLookup("ledgers", ledger != null);
+        return ledger != null ? ledger.getBalances() : Map.of();
+    }
+
+    /**
+     * Returns the precomputed balance of a user, summed over every group the user has expenses in.
+     *
+     * @param username the username whose balance is to be returned
+     * @return the total balance of the user
+     */
+    public Balance getUserBalance(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username cannot be null");
+        }
+        indexLedgers();
+        Balance balance = userBalances.get(username);
+        store.recordCacheLookup("balances", balance != null);
+        return balance != null ? balance : new Balance(username);
+    }
+
+    /**
+     * Computes the minimal set of transfers that clears every outstanding balance in a group.
+     *
+     * @param groupName the name of the group to compute the plan for
+     * @return the transfers of the settlement plan
+     */
+    public List<Transfer> getSettlementPlan(String groupName) {
+        return DebtSimplifier.simplify(getGroupBalances(groupName).values());
+    }
+
+    /**
+     * Applies a settlement plan to a group by marking every outstanding settlement as settled
+     * and saving the expenses in a single write. The plan must match the current plan of the group,
+     * so a plan computed before other changes to the expenses is rejected.
+     *
+     * @param groupName the name of the group to apply the plan to
+     * @param plan the settlement plan the client has carried out
+     * @return the number of settlements that were marked as settled
+     * @throws IllegalArgumentException if the group name or plan is null
+     * @throws IllegalStateException if the plan does not match the current plan of the group
+     */
+    public int applySettlementPlan(String groupName, List<Transfer> plan) {
+        if (groupName == null) {
+            throw new IllegalArgumentException("Group name cannot be null");
+        }
+        if (plan == null) {
+            throw new IllegalArgumentException("Settlement plan cannot be null");
+        }
+        return executor.execute(groupName, "applySettlementPlan", () -> {
+            if (!getSettlementPlan(groupName).equals(plan)) {
+                throw new IllegalStateException("Settlement plan is out of date for group: " + groupName);
+            }
+            List<Expense> expenses = loadGroupExpenses(groupName);
+            int settled = 0;
+            for (Expense expense : expenses) {
+                for (Settlement settlement : expense.getSettlements()) {
+                    if (!settlement.isSettled()) {
+                        expense.settleParticipant(settlement.getUsername());
+                        settled++;
+                    }
+                }
+            }
+            if (settled > 0) {
+                updateGroupExpenses(groupName, expenses);
+            }
+            return settled;
+        });
+    }
+
+    /**
+     * Returns the version of a group's expenses, to send along with them. It is read before the
+     * expenses, so changes made in between are sent again by {@link #getGroupExpenseChanges}.
+     *
+     * @param groupName the name of the group
+     * @return the version of the expenses
+     */
+    public long getGroupExpensesVersion(String groupName) {
+        return changes.getVersion(groupName);
+    }
+
+    /**
+     * Returns the changes of a group's expenses made after a version. Each change is keyed by the
+     * identifier of the expense.
+     *
+     * @param groupName the name of the group
+     * @param since the version the client holds
+     * @return the changed and removed expenses, or a snapshot hint if the changes since the version are
+     *     no longer known
+     * @throws IllegalArgumentException if the group name is null
+     */
+    public ChangeSet<Expense> getGroupExpenseChanges(String groupName, long since) {
+        if (groupName == null) {
+            throw new IllegalArgumentException("Group name cannot be null");
+        }
+        return changes.since(groupName, since);
+    }
+
+    /**
+     * Builds the ledgers of every stored group the first time balances are requested.
+     * Later updates keep the ledgers current, so the expense files are only scanned once.
+     */
+    private synchronized void indexLedgers() {
+        if (ledgersIndexed) {
+            return;
+        }
+        List<File> files;
+        try {
+            files = store.list(new File(groupExpensePath));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to list group expenses in: " + groupExpensePath, e);
+        }
+        for (File file : files) {
+            String groupName = file.getName().substring(0, file.getName().length() - ".json".length());
+            refreshLedger(groupName, loadExpensesForGroup(new UserGroup(groupName)));
+        }
+        ledgersIndexed = true;
+    }
+
+    /**
+     * Replaces the ledger of a group and moves the difference into the per-user totals.
+     *
+     * @param groupName the name of the group whose ledger is replaced
+     * @param expenses the current expenses of the group
+     */
+    private synchronized void refreshLedger(String groupName, List<Expense> expenses) {
+        BalanceLedger newLedger = BalanceLedger.fromExpenses(expenses);
+        BalanceLedger oldLedger = ledgers.put(groupName, newLedger);
+        if (oldLedger != null) {
+            for (Balance balance : oldLedger.getBalances().values()) {
+                updateUserBalance(balance, false);
+            }
+        }
+        for (Balance balance : newLedger.getBalances().values()) {
+            updateUserBalance(balance, true);
+        }
+    }
+
+    private void updateUserBalance(Balance delta, boolean add) {
+        Balance updated = new Balance(delta.getUsername());
+        Balance current = userBalances.get(delta.getUsername());
+        if (current != null) {
+            updated.add(current);
+        }
+        if (add) {
+            updated.add(delta);
+        } else {
+            updated.subtract(delta);
+        }
+        if (Math.abs(updated.getOwed()) < 1e-9 && Math.abs(updated.getOwing()) < 1e-9) {
+            userBalances.remove(delta.getUsername());
+        } else {
+            userBalances.put(delta.getUsername(), updated);
+        }
     }
 
     /**
@@ -76,14 +337,15 @@ public class ExpenseService {
      */
     private List<Expense> loadExpensesForGroup(UserGroup group) {
         File file = new File(groupExpensePath + group.getGroupName() + ".json");
-        if (!file.exists()) {
-            System.out.println("Warning: Expense file for group " + group.getGroupName() + " not found.");
+        if (!store.exists(file)) {
+            LOG.debug("No expense file for group {}", group.getGroupName());
             return new ArrayList<>(); 
         }
         try {
-            return mapper.readValue(file, mapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
+            return store.read("groupexpenses", file,
+                mapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
         } catch (IOException e) {
-            System.out.println("Error: Failed to load expenses for group " + group.getGroupName() + ". " + e.getMessage());
+            LOG.warn("Failed to load expenses for group {}", group.getGroupName(), e);
             return new ArrayList<>();
         }
     }
@@ -91,7 +353,10 @@ public class ExpenseService {
     /**
      * Saves the list of expenses for a given user group to a JSON file.
      * The file is named after the group's name and stored in the directory specified by groupExpensePath.
-     * If the necessary directories do not exist, they will be created.
+     * If the necessary directories do not exist, the storage backend creates them.
+     * The expenses that differ from the ones last written are logged. The stored ones are only read for
+     * the first update of a group; if they cannot be read, the log of the group is reset so clients load
+     * the expenses again.
      *
      * @param group the user group for which the expenses are being saved
      * @param expenses the list of expenses to save
@@ -100,14 +365,51 @@ public class ExpenseService {
     private void saveExpensesForGroup(UserGroup group, List<Expense> expenses) {
         File file = new File(groupExpensePath + group.getGroupName() + ".json");
         try {
-            File parentDir = file.getParentFile();
-            // Check if parent directory exists or can be created
-            if (!parentDir.exists() && !parentDir.mkdirs()) {
-                throw new IllegalArgumentException("Failed to create directory structure for path: " + groupExpensePath);
+            Map<String, Expense> previous = written.get(group.getGroupName());
+            if (previous == null) {
+                previous = readStored(file);
+            }
+            Map<String, Expense> current = byId(copy(expenses));
+            store.write("groupexpenses", file, expenses);
+            written.put(group.getGroupName(), current);
+            if (previous != null) {
+                changes.append(group.getGroupName(), ChangeLog.diff(mapper, previous, current));
+            } else {
+                changes.reset(group.getGroupName());
             }
-            mapper.writeValue(file, expenses);
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to save expenses for group: " + group.getGroupName(), e);
         }
     }
+
+    /**
+     * Reads the stored expenses of a group by identifier, or returns null if they cannot be read.
+     */
+    private Map<String, Expense> readStored(File file) {
+        if (!store.exists(file)) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return byId(store.read("groupexpenses", file,
+                mapper.getTypeFactory().constructCollectionType(List.class, Expense.class)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Expense> byId(List<Expense> expenses) {
+        Map<String, Expense> ids = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            ids.put(Long.toString(expense.getId()), expense);
+        }
+        return ids;
+    }
+
+    /**
+     * Copies expenses through JSON, so the logged changes do not see later changes to the caller's list.
+     */
+    private List<Expense> copy(List<Expense> expenses) {
+        return mapper.convertValue(expenses,
+            mapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
+    }
 }
@@ -4,21 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import core.GroupChat;
 import core.Message;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 
 /**
  * Service class for handling group chat operations without a handler.
+ *
+ * <p>Chats are changed one at a time per group by the shared {@link GroupExecutor}, and read without
+ * waiting for it. Messages sent to a group while its chat is being written are queued, and added to the
+ * chat with one write and one force to disk, after which all their requests return.</p>
  */
 @Service
 public class GroupChatService {
 
-    private final ObjectMapper mapper;
+    private final JsonStore store;
+    private final GroupExecutor executor = GroupExecutor.getShared();
     private final Path groupChatPath;
 
     public GroupChatService() {
@@ -28,10 +33,25 @@ public class GroupChatService {
         );
     }
 
+    /**
+     * Constructs a GroupChatService that stores group chats under the given storage root.
+     *
+     * @param storageLocation the storage root to use
+     */
+    @Autowired
+    public GroupChatService(StorageLocation storageLocation) {
+        this(storageLocation.resolve("groupchat"), storageLocation.getStorage());
+    }
+
     public GroupChatService(Path groupChatPath) {
+        this(groupChatPath, Storage.disk());
+    }
+
+    GroupChatService(Path groupChatPath, Storage storage) {
         this.groupChatPath = groupChatPath;
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        this.store = new JsonStore(mapper, storage, WriteBehind.disabled());
     }
 
     /**
@@ -41,18 +61,20 @@ public class GroupChatService {
      * @throws IllegalArgumentException if the group chat already exists
      */
     public void createGroupChat(String groupName) {
-        Path groupChatFilePath = groupChatPath.resolve(groupName + ".json");
-        if (Files.exists(groupChatFilePath)) {
-            throw new IllegalArgumentException("Group chat with name '" + groupName + "' already exists.");
-        }
+        executor.execute(groupName, "createGroupChat", () -> {
+            Path groupChatFilePath = groupChatPath.resolve(groupName + ".json");
+            if (store.exists(groupChatFilePath.toFile())) {
+                throw new IllegalArgumentException("Group chat with name '" + groupName + "' already exists.");
+            }
 
-        GroupChat groupChat = new GroupChat();
-        try {
-            Files.createDirectories(groupChatPath);
-            mapper.writeValue(groupChatFilePath.toFile(), groupChat);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create group chat", e);
-        }
+            GroupChat groupChat = new GroupChat();
+            try {
+                store.write("groupchat", groupChatFilePath.toFile(), groupChat);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create group chat", e);
+            }
+            return null;
+        });
     }
 
     /**
@@ -64,31 +86,35 @@ public class GroupChatService {
      */
     public GroupChat getGroupChat(String groupName) {
         Path groupChatFilePath = groupChatPath.resolve(groupName + ".json");
-        if (!Files.exists(groupChatFilePath)) {
+        if (!store.exists(groupChatFilePath.toFile())) {
             throw new IllegalArgumentException("Group chat with name '" + groupName + "' does not exist.");
         }
 
         try {
-            return mapper.readValue(groupChatFilePath.toFile(), GroupChat.class);
+            return store.read("groupchat", groupChatFilePath.toFile(), GroupChat.class);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load group chat", e);
         }
     }
 
     /**
-     * Sends a message to the specified group chat.
+     * Sends a message to the specified group chat. Returns once the message is stored, together with the
+     * other messages queued for the group.
      *
      * @param groupName the name of the group chat
      * @param message   the message to send
-     * @throws IllegalArgumentException if the group chat does not exist
+     * @throws IllegalArgumentException if the group chat does not exist or the message is null
      */
     public void sendMessage(String groupName, Message message) {
-        GroupChat groupChat = getGroupChat(groupName);
-        groupChat.addMessage(message);
-
-        Path groupChatFilePath = groupChatPath.resolve(groupName + ".json");
         try {
-            mapper.writeValue(groupChatFilePath.toFile(), groupChat);
+            executor.executeBatched(groupName, "sendMessage", batch -> {
+                Path groupChatFilePath = groupChatPath.resolve(groupName + ".json");
+                String key = groupChatFilePath.toString();
+                GroupChat groupChat = batch.get(key, () -> getGroupChat(groupName));
+                groupChat.addMessage(message);
+                batch.write(key, () -> store.write("groupchat", groupChatFilePath.toFile(), groupChat));
+                return null;
+            });
         } catch (IOException e) {
             throw new RuntimeException("Failed to update group chat file", e);
         }
@@ -0,0 +1,457 @@
+package api.service;
+
+import api.diagnostics.ServerTiming;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Makes the changes to the data of a group, such as its chat, expenses, to-do list and members, one at a
+ * time, instead of having request threads lock the files they change.
+ *
+ * <p>Every group has a mailbox that changes are queued in, in the order they arrive. A small pool of
+ * threads works through the mailboxes, and at most one thread works on a group at a time, so the
+ * changes of a group never overlap, while the changes of different groups are made in parallel. A thread
+ * makes up to {@value #MAX_RUN} changes of a group before it moves on to other groups. Reads do not go
+ * through the mailbox: the storage replaces files atomically, so a read sees a file either before or
+ * after a change.</p>
+ *
+ * <p>The request thread waits until its change is made and gets its result or exception, so the
+ * services keep their synchronous methods. The wait counts as the {@code lock} phase of the request's
+ * {@link ServerTiming}, and the change itself adds to the request's timing as if it ran on the request
+ * thread. A change made while making another change of the same group, such as a service method calling
+ * another one, is made right away.</p>
+ *
+ * <p>Changes queued behind each other can be batched with {@link #executeBatched}: while a thread works
+ * through a mailbox, such changes share a {@link Batch}, which keeps one copy of the data they change and
+ * writes it once after the last of them, before their requests return. Other changes see those writes,
+ * because the batch is written before another change is made. If a batched change fails, it may have
+ * changed the shared data halfway, so the batch drops its data and writes, and the changes batched before
+ * it are made again on freshly loaded data; batched changes must therefore only change the data they get
+ * from the batch.</p>
+ *
+ * <p>Two meters, tagged with the service method making the change, show how well changes are batched:</p>
+ * <ul>
+ *   <li>{@code kollapp.groups.queue.delay} times how long a change waited in its mailbox</li>
+ *   <li>{@code kollapp.groups.batch.size} records how many changes a batch write was made for</li>
+ * </ul>
+ */
+public class GroupExecutor {
+    /**
+     * The number of changes of a group a thread makes before it moves on to other groups.
+     */
+    public static final int MAX_RUN = 64;
+
+    static final String QUEUE_DELAY_TIMER = "kollapp.groups.queue.delay";
+    static final String BATCH_SIZE_SUMMARY = "kollapp.groups.batch.size";
+
+    private static final Logger LOG = LoggerFactory.getLogger(GroupExecutor.class);
+    private static final GroupExecutor SHARED =
+            new GroupExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final ThreadLocal<Mailbox> CURRENT = new ThreadLocal<>();
+
+    private final ExecutorService pool;
+    private final MeterRegistry registry;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queueDelays = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an executor that records its metrics in the global registry.
+     *
+     * @param threads the number of threads working through the mailboxes
+     * @throws IllegalArgumentException if the number of threads is less than 1
+     */
+    public GroupExecutor(int threads) {
+        this(threads, Metrics.globalRegistry);
+    }
+
+    GroupExecutor(int threads, MeterRegistry registry) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1");
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "group-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the executor the services share, so all changes of a group go through one mailbox. It has
+     * a thread for every two processors, and at least two.
+     *
+     * @return the shared executor
+     */
+    public static GroupExecutor getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Makes a change of a group once the changes queued before it are made, and waits for it.
+     *
+     * @param <T> the type of the result
+     * @param group the name of the group
+     * @param operation the service method making the change
+     * @param change the change
+     * @return the result of the change
+     */
+    public <T> T execute(String group, String operation, Supplier<T> change) {
+        try {
+            return submit(group, operation, batch -> change.get(), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes a change of a group that may share its data with the changes queued next to it, and waits
+     * until the change is made and its batch is written.
+     *
+     * @param <T> the type of the result
+     * @param group the name of the group
+     * @param operation the service method making the change
+     * @param change the change, given the current batch
+     * @return the result of the change
+     * @throws IOException if the change or writing its batch fails
+     */
+    public <T> T executeBatched(String group, String operation, BatchedChange<T> change) throws IOException {
+        return submit(group, operation, change, true);
+    }
+
+    /**
+     * Returns whether the current thread is making a change of a group.
+     *
+     * @param group the name of the group
+     * @return true if the current thread is the writer of the group
+     */
+    public boolean isWriter(String group) {
+        Mailbox current = CURRENT.get();
+        return current != null && current.owner == this && current.group.equals(group);
+    }
+
+    /**
+     * Returns the number of changes of a group waiting in its mailbox.
+     *
+     * @param group the name of the group
+     * @return the number of changes not yet started
+     */
+    public int getQueueLength(String group) {
+        Mailbox mailbox = mailboxes.get(group);
+        return mailbox == null ? 0 : mailbox.queue.size();
+    }
+
+    private <T> T submit(String group, String operation, BatchedChange<T> change, boolean batched)
+            throws IOException {
+        if (group == null) {
+            throw new IllegalArgumentException("Group name cannot be null");
+        }
+        if (isWriter(group)) {
+            Mailbox mailbox = CURRENT.get();
+            if (!batched) {
+                mailbox.finishBatch();
+            }
+            return change.apply(mailbox.batch);
+        }
+        Task<T> task = new Task<>(operation, change, batched, ServerTiming.current());
+        Mailbox mailbox = mailboxes.computeIfAbsent(group, key -> new Mailbox(this, key));
+        mailbox.queue.add(task);
+        mailbox.schedule();
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation + " of " + group, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Timer queueDelay(String operation) {
+        return queueDelays.computeIfAbsent(operation,
+            key -> Timer.builder(QUEUE_DELAY_TIMER).tags("operation", key).register(registry));
+    }
+
+    private DistributionSummary batchSize(String operation) {
+        return batchSizes.computeIfAbsent(operation,
+            key -> DistributionSummary.builder(BATCH_SIZE_SUMMARY).tags("operation", key).register(registry));
+    }
+
+    /**
+     * A change that can share data with the changes batched with it.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface BatchedChange<T> {
+
+        /**
+         * Makes the change.
+         *
+         * @param batch the batch the change is part of
+         * @return the result of the change
+         * @throws IOException if the change fails
+         */
+        T apply(Batch batch) throws IOException;
+    }
+
+    /**
+     * Loads the data a batch shares.
+     *
+     * @param <S> the type of the data
+     */
+    @FunctionalInterface
+    public interface Loader<S> {
+
+        /**
+         * Loads the data.
+         *
+         * @return the data
+         * @throws IOException if the data cannot be loaded
+         */
+        S load() throws IOException;
+    }
+
+    /**
+     * Writes the data a batch changed.
+     */
+    @FunctionalInterface
+    public interface Write {
+
+        /**
+         * Writes the data.
+         *
+         * @throws IOException if the data cannot be written
+         */
+        void write() throws IOException;
+    }
+
+    /**
+     * The data shared by changes batched together, and the writes that are made once after the last
+     * of them. Only the thread working on the group uses it.
+     */
+    public static final class Batch {
+        private final Map<String, Object> data = new HashMap<>();
+        private final Map<String, Write> writes = new LinkedHashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Returns the data kept under a key, loading it if no change of the batch has yet.
+         *
+         * @param <S> the type of the data
+         * @param key the key of the data, for example the path of its file
+         * @param loader loads the data
+         * @return the data
+         * @throws IOException if the data cannot be loaded
+         */
+        @SuppressWarnings("unchecked")
+        public <S> S get(String key, Loader<S> loader) throws IOException {
+            Object value = data.get(key);
+            if (value == null) {
+                value = loader.load();
+                data.put(key, value);
+            }
+            return (S) value;
+        }
+
+        /**
+         * Sets the write for the data under a key, made once after the last change of the batch. It
+         * replaces a write set before for the key.
+         *
+         * @param key the key of the data
+         * @param write writes the data
+         */
+        public void write(String key, Write write) {
+            writes.put(key, write);
+        }
+
+        private void flush() throws IOException {
+            try {
+                for (Write write : writes.values()) {
+                    write.write();
+                }
+            } finally {
+                discard();
+            }
+        }
+
+        private void discard() {
+            writes.clear();
+            data.clear();
+        }
+    }
+
+    private static final class Task<T> {
+        private final String operation;
+        private final BatchedChange<T> change;
+        private final boolean batched;
+        private final ServerTiming timing;
+        private final long queued = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        private Task(String operation, BatchedChange<T> change, boolean batched, ServerTiming timing) {
+            this.operation = operation;
+            this.change = change;
+            this.batched = batched;
+            this.timing = timing;
+        }
+
+        private void run(Batch batch) {
+            try {
+                value = change.apply(batch);
+                if (!batched) {
+                    result.complete(value);
+                }
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void complete() {
+            result.complete(value);
+        }
+    }
+
+    private static final class Mailbox {
+        private final GroupExecutor owner;
+        private final String group;
+        private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Batch batch = new Batch();
+        private final List<Task<?>> waiting = new ArrayList<>();
+
+        private Mailbox(GroupExecutor owner, String group) {
+            this.owner = owner;
+            this.group = group;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                owner.pool.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            CURRENT.set(this);
+            try {
+                for (int i = 0; i < MAX_RUN; i++) {
+                    Task<?> task = queue.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    if (!task.batched) {
+                        finishBatch();
+                    }
+                    long delay = System.nanoTime() - task.queued;
+                    owner.queueDelay(task.operation).record(delay, TimeUnit.NANOSECONDS);
+                    ServerTiming.attach(task.timing);
+                    ServerTiming.record(ServerTiming.Phase.LOCK, delay);
+                    run(task);
+                }
+                finishBatch();
+            } finally {
+                CURRENT.remove();
+                ServerTiming.attach(null);
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * Makes a change. A batched change waits for its batch to be written, unless it fails, in which
+         * case the batch is made again without it.
+         */
+        private void run(Task<?> task) {
+            ServerTiming.attach(task.timing);
+            task.run(batch);
+            ServerTiming.attach(null);
+            if (!task.batched) {
+                return;
+            }
+            if (task.result.isCompletedExceptionally()) {
+                redoBatch();
+            } else if (!task.result.isDone()) {
+                waiting.add(task);
+            }
+        }
+
+        /**
+         * Drops the data and writes of the batch, which a failed change may have left half changed, and
+         * makes the changes still waiting for the batch again, in order. A change that fails again is
+         * left out in turn.
+         */
+        private void redoBatch() {
+            batch.discard();
+            List<Task<?>> redo = new ArrayList<>(waiting);
+            waiting.clear();
+            for (Task<?> task : redo) {
+                run(task);
+            }
+        }
+
+        /**
+         * Writes the batch, then lets the requests of its changes return. The writes are timed for the
+         * request of the last change.
+         */
+        private void finishBatch() {
+            if (waiting.isEmpty() && batch.writes.isEmpty()) {
+                batch.data.clear();
+                return;
+            }
+            if (!waiting.isEmpty()) {
+                owner.batchSize(waiting.get(0).operation).record(waiting.size());
+            }
+            ServerTiming.attach(waiting.isEmpty() ? null : waiting.get(waiting.size() - 1).timing);
+            try {
+                batch.flush();
+                waiting.forEach(Task::complete);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Failed to write a batch of {} changes of group {}: {}", waiting.size(), group,
+                        e.getMessage());
+                waiting.forEach(task -> task.result.completeExceptionally(e));
+            } finally {
+                waiting.clear();
+                ServerTiming.attach(null);
+            }
+        }
+    }
+}
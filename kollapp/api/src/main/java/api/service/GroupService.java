@@ -2,6 +2,7 @@ package api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import core.ChangeSet;
 import core.ToDoList;
 import core.User;
 import core.UserGroup;
@@ -10,9 +11,11 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -21,6 +24,12 @@ import java.util.Optional;
  * Group and to-do list data is stored as JSON files.
  * 
  * <p>Uses Jackson for JSON handling and UserService for user validation.</p>
+ *
+ * <p>Members who join or leave a group are recorded in a {@link ChangeLog}, keyed by username, so
+ * clients can catch up with {@link #getGroupChanges(String, long)}.</p>
+ *
+ * <p>Groups are changed one at a time per group by the shared {@link GroupExecutor}, which also makes
+ * the changes to their chats, expenses and to-do lists, and read without waiting for it.</p>
  * 
  * @see UserService
  * @see UserGroup
@@ -31,13 +40,15 @@ public class GroupService {
 
     private final UserService userService;
     private final ObjectMapper mapper;
+    private final JsonStore store;
+    private final GroupExecutor executor = GroupExecutor.getShared();
+    private final ChangeLog<String> changes = new ChangeLog<>();
     private final Path groupPath;
     private final Path groupToDoListPath;
 
     /**
      * Constructs a GroupService with default paths for group and group to-do list storage.
      */
-    @Autowired
     public GroupService() {
         this(
                 Paths.get("..", "persistence", "src", "main", "java", "persistence", "groups").toAbsolutePath().normalize(),
@@ -46,6 +57,17 @@ public class GroupService {
         );
     }
 
+    /**
+     * Constructs a GroupService that stores groups and group to-do lists under the given storage root.
+     *
+     * @param storageLocation the storage root to use
+     */
+    @Autowired
+    public GroupService(StorageLocation storageLocation) {
+        this(storageLocation.resolve("groups"), storageLocation.resolve("grouptodolists"),
+            new UserService(storageLocation), storageLocation.getStorage());
+    }
+
     /**
      * Constructs a GroupService with specified paths for group and group to-do list storage.
      * 
@@ -54,11 +76,16 @@ public class GroupService {
      * @param userService the UserService for validating user existence
      */
     public GroupService(Path groupPath, Path groupToDoListPath, UserService userService) {
+        this(groupPath, groupToDoListPath, userService, Storage.disk());
+    }
+
+    GroupService(Path groupPath, Path groupToDoListPath, UserService userService, Storage storage) {
         this.groupPath = groupPath;
         this.groupToDoListPath = groupToDoListPath;
-        this.userService = new UserService(Paths.get(userService.getUserPath()));
+        this.userService = new UserService(Paths.get(userService.getUserPath()), userService.getStorage());
         this.mapper = new ObjectMapper();
         this.mapper.registerModule(new JavaTimeModule());
+        this.store = new JsonStore(mapper, storage, WriteBehind.disabled());
     }
 
     /**
@@ -71,11 +98,11 @@ public class GroupService {
     public Optional<UserGroup> getGroup(String groupName) {
         Path groupFilePath = groupPath.resolve(groupName + ".json");
         File file = groupFilePath.toFile();
-        if (!file.exists()) {
+        if (!store.exists(file)) {
             return Optional.empty();
         }
         try {
-            return Optional.of(mapper.readValue(file, UserGroup.class));
+            return Optional.of(store.read("groups", file, UserGroup.class));
         } catch (IOException e) {
             throw new IllegalArgumentException("Error reading the group file: " + e.getMessage(), e);
         }
@@ -100,15 +127,17 @@ public class GroupService {
         Path groupFilePath = groupPath.resolve(groupName + ".json");
         Path groupToDoListFilePath = groupToDoListPath.resolve(groupName + ".json");
 
-        try {
-            Files.createDirectories(groupPath);
-            Files.createDirectories(groupToDoListPath);
-
-            mapper.writeValue(groupFilePath.toFile(), userGroup);
-            mapper.writeValue(groupToDoListFilePath.toFile(), toDoList);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create group: " + groupName, e);
-        }
+        executor.execute(groupName, "createGroup", () -> {
+            List<String> previousUsers = getGroup(groupName).map(UserGroup::getUsers).orElse(List.of());
+            try {
+                store.write("groups", groupFilePath.toFile(), userGroup);
+                store.write("grouptodolists", groupToDoListFilePath.toFile(), toDoList);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create group: " + groupName, e);
+            }
+            recordMembers(groupName, previousUsers, userGroup.getUsers());
+            return null;
+        });
     }
 
     /**
@@ -123,18 +152,23 @@ public class GroupService {
         User user = userService.getUser(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
 
-        UserGroup userGroup = getGroup(groupName)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found: " + groupName));
+        executor.execute(groupName, "assignUserToGroup", () -> {
+            UserGroup userGroup = getGroup(groupName)
+                    .orElseThrow(() -> new IllegalArgumentException("Group not found: " + groupName));
+            List<String> previousUsers = List.copyOf(userGroup.getUsers());
 
-        userGroup.addUser(user.getUsername());
+            userGroup.addUser(user.getUsername());
 
-        Path groupFilePath = groupPath.resolve(groupName + ".json");
+            Path groupFilePath = groupPath.resolve(groupName + ".json");
 
-        try {
-            mapper.writeValue(groupFilePath.toFile(), userGroup);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to update group file for group: " + groupName, e);
-        }
+            try {
+                store.write("groups", groupFilePath.toFile(), userGroup);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to update group file for group: " + groupName, e);
+            }
+            recordMembers(groupName, previousUsers, userGroup.getUsers());
+            return null;
+        });
     }
 
     /**
@@ -145,7 +179,7 @@ public class GroupService {
      */
     public boolean groupExists(String groupName) {
         Path groupFilePath = groupPath.resolve(groupName + ".json");
-        return groupFilePath.toFile().exists();
+        return store.exists(groupFilePath.toFile());
     }
 
     public String validateGroupAssignment(String username, String groupName) {
@@ -164,11 +198,49 @@ public class GroupService {
                 .orElseThrow(() -> new IllegalArgumentException("Group not found: " + groupName));
 
         // Check if user is already in the group
-        if (userGroup.getUsers().contains(username)) {
+        if (userGroup.containsUser(username)) {
             return "User is already a member of this group";
         }
 
         // No error message
         return "";
-    }   
-}
\ No newline at end of file
+    }
+
+    /**
+     * Returns the version of a group's members, to send along with the group. It is read before the
+     * group, so changes made in between are sent again by {@link #getGroupChanges(String, long)}.
+     *
+     * @param groupName the name of the group
+     * @return the version of the members
+     */
+    public long getGroupVersion(String groupName) {
+        return changes.getVersion(groupName);
+    }
+
+    /**
+     * Returns the members who joined or left a group after a version, keyed by username.
+     *
+     * @param groupName the name of the group
+     * @param since the version the client holds
+     * @return the changes, or a snapshot hint if the changes since the version are no longer known
+     * @throws IllegalArgumentException if the group does not exist
+     */
+    public ChangeSet<String> getGroupChanges(String groupName, long since) {
+        if (!groupExists(groupName)) {
+            throw new IllegalArgumentException("Group not found: " + groupName);
+        }
+        return changes.since(groupName, since);
+    }
+
+    private void recordMembers(String groupName, List<String> before, List<String> after) {
+        changes.append(groupName, ChangeLog.diff(mapper, byUsername(before), byUsername(after)));
+    }
+
+    private static Map<String, String> byUsername(List<String> users) {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (String user : users) {
+            members.put(user, user);
+        }
+        return members;
+    }
+}
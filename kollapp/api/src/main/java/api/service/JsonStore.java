@@ -0,0 +1,352 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import api.diagnostics.SerializationEvent;
+import api.diagnostics.ServerTiming;
+import api.diagnostics.ServerTiming.Phase;
+import api.diagnostics.StorageEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes the JSON files of the services and records how long each step takes.
+ *
+ * <p>File I/O and Jackson are timed separately, so a slow request can be attributed to the disk or to
+ * serialization. Every meter is tagged with the entity directory, for example {@code todolists}, and the
+ * operation, {@code read} or {@code write}:</p>
+ * <ul>
+ *   <li>{@code kollapp.storage.io} times reading or writing the bytes of a file</li>
+ *   <li>{@code kollapp.storage.serialization} times parsing or producing the JSON</li>
+ *   <li>{@code kollapp.storage.payload} records the file sizes in bytes</li>
+ *   <li>{@code kollapp.storage.errors} counts failed reads and writes</li>
+ *   <li>{@code kollapp.storage.coalesced} counts reads that shared another caller's disk read, tagged
+ *   with the entity only</li>
+ *   <li>{@code kollapp.cache.requests} counts lookups in the services' caches, see {@link #recordCacheLookup}</li>
+ * </ul>
+ *
+ * <p>Each step is also committed as a Flight Recorder event, {@link StorageEvent} and
+ * {@link SerializationEvent}, with the name of the file as key, so a recording shows which entity was
+ * slow and not only how slow the entity kind is.</p>
+ *
+ * <p>The same durations are added to the {@link ServerTiming} of the current request, so they appear in
+ * its {@code Server-Timing} header.</p>
+ *
+ * <p>Concurrent reads of the same file share one disk read: the first caller reads the bytes and the
+ * callers arriving while it does wait for them instead of opening the file again. Each caller still
+ * parses its own copy, because the services change the values they load. Shared reads are counted by
+ * {@code kollapp.storage.coalesced} and are not timed as I/O, which stays one measurement per disk read.
+ * A write ends the sharing of a read that started before it, so callers arriving after the write read
+ * the file again and never get the contents it replaced.</p>
+ *
+ * <p>The files are kept in a {@link Storage}, on disk by default or in memory for
+ * {@code kollapp.storage.backend=memory}; the meters are the same for both, so the two can be compared.</p>
+ *
+ * <p>With {@link WriteBehind} enabled for an entity, writes are appended to its write-ahead log and the
+ * file is replaced later; {@code kollapp.storage.io} then times the append. Reads and {@link #exists} see
+ * the contents that are not yet flushed, and reading them is not timed as I/O.</p>
+ *
+ * <p>Meters are registered in the global registry by default, which Spring Boot connects to its own
+ * registries, so services created with {@code new} are measured as well. Each meter is registered the first
+ * time its tags are used and kept, so reads and writes do not look it up in the registry.</p>
+ */
+public class JsonStore {
+    static final String IO_TIMER = "kollapp.storage.io";
+    static final String SERIALIZATION_TIMER = "kollapp.storage.serialization";
+    static final String PAYLOAD_SUMMARY = "kollapp.storage.payload";
+    static final String ERROR_COUNTER = "kollapp.storage.errors";
+    static final String CACHE_COUNTER = "kollapp.cache.requests";
+    static final String COALESCED_COUNTER = "kollapp.storage.coalesced";
+
+    private final ObjectMapper mapper;
+    private final MeterRegistry registry;
+    private final Storage storage;
+    private final FileReader reader;
+    private final WriteBehind writeBehind;
+    private final Map<Path, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> ioTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> serializationTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> payloads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a store that keeps its files on disk and records its metrics in the global registry.
+     *
+     * @param mapper the mapper to read and write JSON with
+     */
+    public JsonStore(ObjectMapper mapper) {
+        this(mapper, WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs a store that keeps its files on disk, records its metrics in the global registry and
+     * buffers writes through the given write-behind log.
+     *
+     * @param mapper the mapper to read and write JSON with
+     * @param writeBehind the write-behind log for the entities it handles
+     */
+    public JsonStore(ObjectMapper mapper, WriteBehind writeBehind) {
+        this(mapper, Storage.disk(), writeBehind);
+    }
+
+    /**
+     * Constructs a store that keeps its files in the given backend and records its metrics in the global
+     * registry. Writes are only buffered through the write-behind log when the files are kept on disk.
+     *
+     * @param mapper the mapper to read and write JSON with
+     * @param storage the backend to keep the files in
+     * @param writeBehind the write-behind log for the entities it handles
+     */
+    public JsonStore(ObjectMapper mapper, Storage storage, WriteBehind writeBehind) {
+        this(mapper, Metrics.globalRegistry, storage, storage::read,
+                storage == Storage.disk() ? writeBehind : WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs a store that keeps its files on disk and records its metrics in the given registry.
+     *
+     * @param mapper the mapper to read and write JSON with
+     * @param registry the registry to record metrics in
+     */
+    public JsonStore(ObjectMapper mapper, MeterRegistry registry) {
+        this(mapper, registry, Storage.disk()::read);
+    }
+
+    JsonStore(ObjectMapper mapper, MeterRegistry registry, FileReader reader) {
+        this(mapper, registry, reader, WriteBehind.disabled());
+    }
+
+    JsonStore(ObjectMapper mapper, MeterRegistry registry, FileReader reader, WriteBehind writeBehind) {
+        this(mapper, registry, Storage.disk(), reader, writeBehind);
+    }
+
+    JsonStore(ObjectMapper mapper, MeterRegistry registry, Storage storage, FileReader reader,
+            WriteBehind writeBehind) {
+        this.mapper = mapper;
+        this.registry = registry;
+        this.storage = storage;
+        this.reader = reader;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Reads a JSON file.
+     *
+     * @param <T> the type to read
+     * @param entity the entity directory the file belongs to, used as a tag
+     * @param file the file to read
+     * @param type the type to read
+     * @return the parsed value
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public <T> T read(String entity, File file, Class<T> type) throws IOException {
+        return read(entity, file, mapper.constructType(type));
+    }
+
+    /**
+     * Reads a JSON file into a generic type, such as a list of expenses.
+     *
+     * @param <T> the type to read
+     * @param entity the entity directory the file belongs to, used as a tag
+     * @param file the file to read
+     * @param type the type to read
+     * @return the parsed value
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public <T> T read(String entity, File file, JavaType type) throws IOException {
+        String key = key(file);
+        try {
+            long start = System.nanoTime();
+            Path path = file.toPath().toAbsolutePath();
+            byte[] bytes = writeBehind.pending(path);
+            boolean diskAccess = false;
+            if (bytes == null) {
+                CompletableFuture<byte[]> flight = new CompletableFuture<>();
+                CompletableFuture<byte[]> leader = inFlight.putIfAbsent(path, flight);
+                diskAccess = leader == null;
+                bytes = diskAccess ? readBytes(entity, key, path, flight) : awaitBytes(entity, leader);
+            }
+            long read = System.nanoTime();
+            SerializationEvent serialization = new SerializationEvent();
+            serialization.begin();
+            T value = mapper.readValue(bytes, type);
+            serialization.commit(entity, key, "read", type.toString(), bytes.length);
+            record(entity, "read", diskAccess, read - start, System.nanoTime() - read, bytes.length);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            errors(entity, "read").increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a value to a JSON file, replacing its contents. The value is serialized completely before
+     * the file is opened.
+     *
+     * @param entity the entity directory the file belongs to, used as a tag
+     * @param file the file to write
+     * @param value the value to write
+     * @throws IOException if the value cannot be serialized or the file cannot be written
+     */
+    public void write(String entity, File file, Object value) throws IOException {
+        String key = key(file);
+        try {
+            long start = System.nanoTime();
+            SerializationEvent serialization = new SerializationEvent();
+            serialization.begin();
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            serialization.commit(entity, key, "write", value == null ? "null" : value.getClass().getName(),
+                    bytes.length);
+            long serialized = System.nanoTime();
+            StorageEvent io = new StorageEvent();
+            io.begin();
+            if (writeBehind.handles(entity)) {
+                writeBehind.write(entity, file.toPath(), bytes);
+            } else {
+                storage.write(file.toPath(), bytes);
+            }
+            inFlight.remove(file.toPath().toAbsolutePath());
+            io.commit(entity, key, "write", bytes.length);
+            record(entity, "write", true, System.nanoTime() - serialized, serialized - start, bytes.length);
+        } catch (IOException | RuntimeException e) {
+            errors(entity, "write").increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether a JSON file exists, counting contents that are written but not yet flushed.
+     *
+     * @param file the file to check
+     * @return true if the file exists or has contents waiting to be flushed
+     */
+    public boolean exists(File file) {
+        return writeBehind.pending(file.toPath()) != null || storage.exists(file.toPath());
+    }
+
+    /**
+     * Deletes a JSON file if it exists.
+     *
+     * @param file the file to delete
+     * @return true if the file existed
+     * @throws IOException if the file cannot be deleted
+     */
+    public boolean delete(File file) throws IOException {
+        return storage.delete(file.toPath());
+    }
+
+    /**
+     * Lists the JSON files in a directory.
+     *
+     * @param directory the directory to list
+     * @return the files, empty if the directory does not exist
+     * @throws IOException if the directory cannot be listed
+     */
+    public List<File> list(File directory) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (Path file : storage.list(directory.toPath())) {
+            files.add(file.toFile());
+        }
+        return files;
+    }
+
+    /**
+     * Counts a lookup in one of the services' in-memory caches.
+     *
+     * @param cache the name of the cache, used as a tag
+     * @param hit whether the value was found in the cache
+     */
+    public void recordCacheLookup(String cache, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        cacheCounters.computeIfAbsent(cache + "/" + result,
+                key -> Counter.builder(CACHE_COUNTER).tags("cache", cache, "result", result).register(registry))
+                .increment();
+    }
+
+    private byte[] readBytes(String entity, String key, Path path, CompletableFuture<byte[]> flight)
+            throws IOException {
+        try {
+            StorageEvent io = new StorageEvent();
+            io.begin();
+            byte[] bytes = reader.read(path);
+            io.commit(entity, key, "read", bytes.length);
+            flight.complete(bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(path, flight);
+        }
+    }
+
+    private byte[] awaitBytes(String entity, CompletableFuture<byte[]> leader) throws IOException {
+        coalescedCounters.computeIfAbsent(entity,
+                key -> Counter.builder(COALESCED_COUNTER).tags("entity", entity).register(registry)).increment();
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void record(String entity, String operation, boolean diskAccess, long ioNanos, long serializationNanos,
+            int bytes) {
+        boolean read = "read".equals(operation);
+        ServerTiming.record(read ? Phase.READ : Phase.WRITE, ioNanos);
+        ServerTiming.record(read ? Phase.DESERIALIZE : Phase.SERIALIZE, serializationNanos);
+        String key = entity + "/" + operation;
+        if (diskAccess) {
+            ioTimers.computeIfAbsent(key, ignored -> Timer.builder(IO_TIMER)
+                    .tags("entity", entity, "operation", operation).register(registry))
+                    .record(ioNanos, TimeUnit.NANOSECONDS);
+        }
+        serializationTimers.computeIfAbsent(key, ignored -> Timer.builder(SERIALIZATION_TIMER)
+                .tags("entity", entity, "operation", operation).register(registry))
+                .record(serializationNanos, TimeUnit.NANOSECONDS);
+        payloads.computeIfAbsent(key, ignored -> DistributionSummary.builder(PAYLOAD_SUMMARY).baseUnit("bytes")
+                .tags("entity", entity, "operation", operation).register(registry))
+                .record(bytes);
+    }
+
+    private static String key(File file) {
+        String name = file.getName();
+        return name.endsWith(".json") ? name.substring(0, name.length() - ".json".length()) : name;
+    }
+
+    private Counter errors(String entity, String operation) {
+        return errorCounters.computeIfAbsent(entity + "/" + operation, key -> Counter.builder(ERROR_COUNTER)
+                .tags("entity", entity, "operation", operation).register(registry));
+    }
+
+    /**
+     * Reads the bytes of a file; replaced in tests to control when a read finishes.
+     */
+    @FunctionalInterface
+    interface FileReader {
+        byte[] read(Path path) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package api.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link Storage} that keeps every file in memory, in one concurrent map per directory, so the services
+ * run without any disk I/O. Files are still stored as JSON bytes, so each read parses a fresh copy just
+ * like on disk, and serialization costs stay part of the measurements.
+ *
+ * <p>A directory can be filled from disk with {@link #load(Path)}, for example from a generated dataset,
+ * and written back with {@link #snapshot(Path)}. Nothing is written to disk otherwise.</p>
+ */
+public class MemoryStorage implements Storage {
+    private final Map<Path, Map<Path, byte[]>> directories = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] read(Path file) throws IOException {
+        Path path = normalize(file);
+        byte[] bytes = directory(path.getParent()).get(path);
+        if (bytes == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The array is kept as it is, so it must not be changed afterwards.</p>
+     */
+    @Override
+    public void write(Path file, byte[] bytes) {
+        Path path = normalize(file);
+        directory(path.getParent()).put(path, bytes);
+    }
+
+    @Override
+    public boolean exists(Path file) {
+        Path path = normalize(file);
+        return directory(path.getParent()).containsKey(path);
+    }
+
+    @Override
+    public boolean delete(Path file) {
+        Path path = normalize(file);
+        return directory(path.getParent()).remove(path) != null;
+    }
+
+    @Override
+    public List<Path> list(Path directory) {
+        List<Path> files = new ArrayList<>();
+        for (Path file : directory(normalize(directory)).keySet()) {
+            if (file.getFileName().toString().endsWith(".json")) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    @Override
+    public long size(Path file) {
+        Path path = normalize(file);
+        byte[] bytes = directory(path.getParent()).get(path);
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /**
+     * Reads the JSON files of a directory on disk into memory, replacing the ones kept for it.
+     *
+     * @param directory the directory to read, which may not exist
+     * @return the number of files read
+     * @throws IOException if a file cannot be read
+     */
+    public int load(Path directory) throws IOException {
+        Path path = normalize(directory);
+        List<Path> files = DiskStorage.INSTANCE.list(path);
+        Map<Path, byte[]> contents = directory(path);
+        contents.clear();
+        for (Path file : files) {
+            contents.put(normalize(file), Files.readAllBytes(file));
+        }
+        return files.size();
+    }
+
+    /**
+     * Writes the files kept for a directory to disk, and deletes the JSON files on disk that are no
+     * longer kept, such as removed users.
+     *
+     * @param directory the directory to write
+     * @return the number of files written
+     * @throws IOException if a file cannot be written or deleted
+     */
+    public int snapshot(Path directory) throws IOException {
+        Path path = normalize(directory);
+        Map<Path, byte[]> contents = Map.copyOf(directory(path));
+        Files.createDirectories(path);
+        for (Path file : DiskStorage.INSTANCE.list(path)) {
+            if (!contents.containsKey(normalize(file))) {
+                Files.deleteIfExists(file);
+            }
+        }
+        for (Map.Entry<Path, byte[]> file : contents.entrySet()) {
+            Files.write(file.getKey(), file.getValue());
+        }
+        return contents.size();
+    }
+
+    private Map<Path, byte[]> directory(Path directory) {
+        return directories.computeIfAbsent(directory, ignored -> new ConcurrentHashMap<>());
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
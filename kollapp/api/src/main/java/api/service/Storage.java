@@ -0,0 +1,78 @@
+package api.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Where {@link JsonStore} keeps the bytes of the JSON files: on disk, or in memory with
+ * {@link MemoryStorage}. Files are addressed by their path under the storage root in both cases, so the
+ * services do not know which backend they use.
+ *
+ * @see StorageLocation#getStorage()
+ */
+public interface Storage {
+
+    /**
+     * Returns the backend that reads and writes the files on disk.
+     *
+     * @return the shared disk backend
+     */
+    static Storage disk() {
+        return DiskStorage.INSTANCE;
+    }
+
+    /**
+     * Reads the contents of a file.
+     *
+     * @param file the file to read
+     * @return the contents
+     * @throws java.nio.file.NoSuchFileException if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    byte[] read(Path file) throws IOException;
+
+    /**
+     * Replaces the contents of a file, creating it and its directory if needed.
+     *
+     * @param file the file to write
+     * @param bytes the new contents
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file, byte[] bytes) throws IOException;
+
+    /**
+     * Returns whether a file exists.
+     *
+     * @param file the file to check
+     * @return true if the file exists
+     */
+    boolean exists(Path file);
+
+    /**
+     * Deletes a file if it exists.
+     *
+     * @param file the file to delete
+     * @return true if the file existed
+     * @throws IOException if the file cannot be deleted
+     */
+    boolean delete(Path file) throws IOException;
+
+    /**
+     * Lists the JSON files directly in a directory.
+     *
+     * @param directory the directory to list
+     * @return the {@code .json} files, empty if the directory does not exist
+     * @throws IOException if the directory cannot be listed
+     */
+    List<Path> list(Path directory) throws IOException;
+
+    /**
+     * Returns the size of a file.
+     *
+     * @param file the file to measure
+     * @return the size in bytes, 0 if the file does not exist
+     * @throws IOException if the size cannot be read
+     */
+    long size(Path file) throws IOException;
+}
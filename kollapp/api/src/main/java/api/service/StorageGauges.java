@@ -0,0 +1,86 @@
+package api.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the number of files and their total size in each entity directory, on disk or in memory, as
+ * the gauges {@code kollapp.storage.files} and {@code kollapp.storage.size}, tagged with the entity
+ * directory.
+ *
+ * <p>Listing a directory with many files is not free, so the directories are scanned at most once
+ * per {@link #MAX_AGE} no matter how often the gauges are read.</p>
+ */
+@Component
+public class StorageGauges implements MeterBinder {
+    static final String FILES_GAUGE = "kollapp.storage.files";
+    static final String SIZE_GAUGE = "kollapp.storage.size";
+    static final Duration MAX_AGE = Duration.ofSeconds(10);
+
+    private final StorageLocation storageLocation;
+    private Map<String, long[]> usage = Map.of();
+    private long scannedAt;
+    private boolean scanned;
+
+    /**
+     * Constructs the gauges for the directories under the given storage root.
+     *
+     * @param storageLocation the storage root to measure
+     */
+    @Autowired
+    public StorageGauges(StorageLocation storageLocation) {
+        this.storageLocation = storageLocation;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String directory : StorageLocation.DIRECTORIES) {
+            Gauge.builder(FILES_GAUGE, this, gauges -> gauges.usage(directory)[0])
+                    .description("Number of JSON files in the entity directory")
+                    .tag("entity", directory)
+                    .register(registry);
+            Gauge.builder(SIZE_GAUGE, this, gauges -> gauges.usage(directory)[1])
+                    .description("Total size of the JSON files in the entity directory")
+                    .baseUnit("bytes")
+                    .tag("entity", directory)
+                    .register(registry);
+        }
+    }
+
+    private synchronized long[] usage(String directory) {
+        long now = System.nanoTime();
+        if (!scanned || now - scannedAt > MAX_AGE.toNanos()) {
+            Map<String, long[]> scan = new HashMap<>();
+            for (String entity : StorageLocation.DIRECTORIES) {
+                scan.put(entity, scan(storageLocation.getStorage(), storageLocation.resolve(entity)));
+            }
+            usage = scan;
+            scannedAt = now;
+            scanned = true;
+        }
+        return usage.get(directory);
+    }
+
+    private static long[] scan(Storage storage, Path directory) {
+        try {
+            List<Path> files = storage.list(directory);
+            long size = 0;
+            for (Path file : files) {
+                size += storage.size(file);
+            }
+            return new long[] {files.size(), size};
+        } catch (IOException e) {
+            return new long[] {0, 0};
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The root directory under which the services store their JSON files, one subdirectory per entity.
+ *
+ * <p>Defaults to the persistence module, and can be changed with the {@code kollapp.storage.root}
+ * property, for example to run the server against a temporary store.</p>
+ *
+ * <p>The files are kept on disk unless {@code kollapp.storage.backend} is {@code memory}. Then they are
+ * kept in a {@link MemoryStorage}, filled from the JSON files under the root when the server starts, so
+ * the services run at memory speed and nothing is written to disk. With
+ * {@code kollapp.storage.memory.snapshot-on-shutdown=true} the files are written back under the root when
+ * the server stops; otherwise every change is lost.</p>
+ */
+@Component
+public class StorageLocation implements DisposableBean {
+
+    /**
+     * The backend that keeps the files on disk.
+     */
+    public static final String DISK = "disk";
+
+    /**
+     * The backend that keeps the files in memory.
+     */
+    public static final String MEMORY = "memory";
+
+    private static final Logger LOG = LoggerFactory.getLogger(StorageLocation.class);
+
+    /**
+     * The default storage root, relative to the working directory of the api module.
+     */
+    public static final String DEFAULT_ROOT = "../persistence/src/main/java/persistence";
+
+    /**
+     * The subdirectories the services store their entities in.
+     */
+    public static final List<String> DIRECTORIES =
+            List.of("users", "groups", "todolists", "grouptodolists", "groupchat", "groupexpenses");
+
+    private final Path root;
+    private final Storage storage;
+    private final boolean snapshotOnShutdown;
+
+    /**
+     * Constructs a StorageLocation for the default storage root.
+     */
+    public StorageLocation() {
+        this(DEFAULT_ROOT);
+    }
+
+    /**
+     * Constructs a StorageLocation for the given storage root.
+     *
+     * @param root the storage root directory
+     */
+    public StorageLocation(String root) {
+        this(root, DISK, false);
+    }
+
+    /**
+     * Constructs a StorageLocation for the given storage root and backend. The in-memory backend reads
+     * the JSON files under the root right away.
+     *
+     * @param root the storage root directory
+     * @param backend {@link #DISK} or {@link #MEMORY}
+     * @param snapshotOnShutdown whether {@link #destroy()} writes the in-memory files back under the root
+     * @throws IllegalArgumentException if the root is blank or the backend is unknown
+     * @throws UncheckedIOException if the files cannot be read into memory
+     */
+    @Autowired
+    public StorageLocation(@Value("${kollapp.storage.root:" + DEFAULT_ROOT + "}") String root,
+            @Value("${kollapp.storage.backend:" + DISK + "}") String backend,
+            @Value("${kollapp.storage.memory.snapshot-on-shutdown:false}") boolean snapshotOnShutdown) {
+        if (root == null || root.isBlank()) {
+            throw new IllegalArgumentException("Storage root cannot be empty");
+        }
+        this.root = Paths.get(root);
+        this.snapshotOnShutdown = snapshotOnShutdown;
+        if (DISK.equals(backend)) {
+            this.storage = Storage.disk();
+        } else if (MEMORY.equals(backend)) {
+            this.storage = load();
+        } else {
+            throw new IllegalArgumentException("Unknown storage backend: " + backend);
+        }
+    }
+
+    /**
+     * Writes the in-memory files back under the root if {@code snapshot-on-shutdown} is set.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    @Override
+    public void destroy() throws IOException {
+        if (!isInMemory() || !snapshotOnShutdown) {
+            return;
+        }
+        int files = 0;
+        for (String directory : DIRECTORIES) {
+            files += ((MemoryStorage) storage).snapshot(resolve(directory));
+        }
+        LOG.info("Wrote {} files from memory to {}", files, root.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Returns the backend the services keep their files in.
+     *
+     * @return the storage backend
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Returns whether the files are kept in memory instead of on disk.
+     *
+     * @return true for the in-memory backend
+     */
+    public boolean isInMemory() {
+        return storage instanceof MemoryStorage;
+    }
+
+    /**
+     * Returns the directory for one kind of entity.
+     *
+     * @param directory the name of the subdirectory, for example {@code "users"}
+     * @return the absolute, normalized path to the subdirectory
+     */
+    public Path resolve(String directory) {
+        return root.resolve(directory).toAbsolutePath().normalize();
+    }
+
+    private MemoryStorage load() {
+        MemoryStorage memory = new MemoryStorage();
+        int files = 0;
+        try {
+            for (String directory : DIRECTORIES) {
+                files += memory.load(resolve(directory));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the storage root into memory", e);
+        }
+        LOG.info("Read {} files from {} into memory", files, root.toAbsolutePath().normalize());
+        return memory;
+    }
+}
@@ -2,14 +2,22 @@ package api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import core.ChangeSet;
+import core.HybridClock;
+import core.ReplicatedToDoList;
+import core.Task;
 import core.ToDoList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class for managing to-do lists for individual users and groups.
@@ -17,6 +25,22 @@ import java.nio.file.Paths;
  * storing each to-do list as a JSON file.
  * 
  * <p>Uses Jackson for JSON handling and UserService for user validation.</p>
+ *
+ * <p>Every write is compared with the list as it was before, and the tasks that were added, changed or
+ * removed are recorded in a {@link ChangeLog}, so clients can catch up with
+ * {@link #getToDoListChanges(String, long)} instead of loading the whole list. The tasks of each user's
+ * list are kept as last written, so the stored list is only read for the first write after a start.</p>
+ *
+ * <p>Group to-do lists are stored as a {@link ReplicatedToDoList}, so edits that members make at the
+ * same time can be merged with {@link #mergeGroupToDoList(String, ReplicatedToDoList)} instead of one
+ * replacing the other. The stored JSON can still be read as a plain {@link ToDoList}. A whole list
+ * is only accepted by {@link #updateGroupToDoList(String, ToDoList, long)} if it was loaded at the current
+ * version, so a stale list does not undo what other members changed since. The tombstones of removed
+ * tasks are dropped after {@link #TOMBSTONE_RETENTION}.</p>
+ *
+ * <p>Group to-do lists are changed one at a time per group by the shared {@link GroupExecutor}, and read
+ * without waiting for it. Merges queued behind each other are applied to one copy of the list, which is
+ * written once for all of them.</p>
  * 
  * @see UserService
  * @see ToDoList
@@ -24,23 +48,56 @@ import java.nio.file.Paths;
 @Service
 public class ToDoListService {
 
+    /**
+     * How long the tombstones of tasks removed from a group's to-do list are kept, counted back from the
+     * latest edit of the list. A member's edit of a list loaded longer ago can bring a removed task back.
+     */
+    public static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
     private final UserService userService;
     private final ObjectMapper mapper;
+    private final JsonStore store;
+    private final ChangeLog<Task> changes = new ChangeLog<>();
+    private final Map<String, Map<String, Task>> written = new ConcurrentHashMap<>();
+    private final HybridClock clock = new HybridClock();
+    private final EntityLock lock = new EntityLock("todolists");
+    private final GroupExecutor executor = GroupExecutor.getShared();
     private final Path toDoListPath;
     private final Path groupToDoListPath;
 
     /**
      * Constructs a ToDoListService with default paths for user and group to-do lists.
      */
-    @Autowired
     public ToDoListService() {
         this(
-            Paths.get("..", "persistence", "src", "main", "java", "persistence", "todolists").toAbsolutePath().normalize(),
-            Paths.get("..", "persistence", "src", "main", "java", "persistence", "grouptodolists").toAbsolutePath().normalize(),
-            new UserService()
+                Paths.get("..", "persistence", "src", "main", "java", "persistence", "todolists").toAbsolutePath().normalize(),
+                Paths.get("..", "persistence", "src", "main", "java", "persistence", "grouptodolists").toAbsolutePath().normalize(),
+                new UserService()
         );
     }
 
+    /**
+     * Constructs a ToDoListService that stores user and group to-do lists under the given storage root.
+     *
+     * @param storageLocation the storage root to use
+     */
+    public ToDoListService(StorageLocation storageLocation) {
+        this(storageLocation, WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs a ToDoListService that stores user and group to-do lists under the given storage root,
+     * buffering its writes through the given write-behind log.
+     *
+     * @param storageLocation the storage root to use
+     * @param writeBehind the write-behind log to buffer writes through
+     */
+    @Autowired
+    public ToDoListService(StorageLocation storageLocation, WriteBehind writeBehind) {
+        this(storageLocation.resolve("todolists"), storageLocation.resolve("grouptodolists"),
+            new UserService(storageLocation), storageLocation.getStorage(), writeBehind);
+    }
+
     /**
      * Constructs a ToDoListService with specified paths for user and group to-do lists.
      * 
@@ -49,14 +106,34 @@ public class ToDoListService {
      * @param userService the UserService for validating user existence
      */
     public ToDoListService(Path toDoListPath, Path groupToDoListPath, UserService userService) {
-        if (toDoListPath == null || groupToDoListPath == null || userService == null) {
+        this(toDoListPath, groupToDoListPath, userService, WriteBehind.disabled());
+    }
+
+    /**
+     * Constructs a ToDoListService with specified paths for user and group to-do lists, buffering its
+     * writes through the given write-behind log.
+     *
+     * @param toDoListPath the path for storing user to-do lists
+     * @param groupToDoListPath the path for storing group to-do lists
+     * @param userService the UserService for validating user existence
+     * @param writeBehind the write-behind log to buffer writes through
+     */
+    public ToDoListService(Path toDoListPath, Path groupToDoListPath, UserService userService,
+            WriteBehind writeBehind) {
+        this(toDoListPath, groupToDoListPath, userService, Storage.disk(), writeBehind);
+    }
+
+    ToDoListService(Path toDoListPath, Path groupToDoListPath, UserService userService, Storage storage,
+            WriteBehind writeBehind) {
+        if (toDoListPath == null || groupToDoListPath == null || userService == null || writeBehind == null) {
             throw new NullPointerException("Arguments cannot be null");
         }
         this.toDoListPath = toDoListPath;
         this.groupToDoListPath = groupToDoListPath;
-        this.userService = new UserService(Paths.get(userService.getUserPath()));
+        this.userService = new UserService(Paths.get(userService.getUserPath()), userService.getStorage());
         this.mapper = new ObjectMapper();
         this.mapper.registerModule(new JavaTimeModule());
+        this.store = new JsonStore(mapper, storage, writeBehind);
     }
 
     /**
@@ -66,17 +143,21 @@ public class ToDoListService {
      * @throws IllegalArgumentException if the user does not exist or assignment fails
      */
     public void assignToDoList(String username) {
-        if (userService.userExists(username)) {
-            ToDoList toDoList = new ToDoList();
-            Path filePath = toDoListPath.resolve(username + ".json");
-            try {
-                Files.createDirectories(toDoListPath);
-                mapper.writeValue(filePath.toFile(), toDoList);
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to assign to-do list to user: " + username, e);
+        lock.lock("assignToDoList", username);
+        try {
+            if (userService.userExists(username)) {
+                ToDoList toDoList = new ToDoList();
+                Path filePath = toDoListPath.resolve(username + ".json");
+                try {
+                    write("todolists", username, filePath.toFile(), toDoList);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Failed to assign to-do list to user: " + username, e);
+                }
+            } else {
+                throw new IllegalArgumentException("User not found: " + username);
             }
-        } else {
-            throw new IllegalArgumentException("User not found: " + username);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -88,18 +169,23 @@ public class ToDoListService {
      * @throws IllegalArgumentException if the user or to-do list file does not exist, or loading fails
      */
     public ToDoList loadToDoList(String username) {
-        if (userService.userExists(username)) {
-            Path filePath = toDoListPath.resolve(username + ".json");
-            if (!Files.exists(filePath)) {
-                throw new IllegalArgumentException("To-do list file does not exist for user: " + username);
-            }
-            try {
-                return mapper.readValue(filePath.toFile(), ToDoList.class);
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to load to-do list for user: " + username, e);
+        lock.lockShared("loadToDoList", username);
+        try {
+            if (userService.userExists(username)) {
+                Path filePath = toDoListPath.resolve(username + ".json");
+                if (!store.exists(filePath.toFile())) {
+                    throw new IllegalArgumentException("To-do list file does not exist for user: " + username);
+                }
+                try {
+                    return store.read("todolists", filePath.toFile(), ToDoList.class);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Failed to load to-do list for user: " + username, e);
+                }
+            } else {
+                throw new IllegalArgumentException("User not found: " + username);
             }
-        } else {
-            throw new IllegalArgumentException("User not found: " + username);
+        } finally {
+            lock.unlockShared();
         }
     }
 
@@ -111,16 +197,20 @@ public class ToDoListService {
      * @throws IllegalArgumentException if the user does not exist or updating fails
      */
     public void updateToDoList(String username, ToDoList toDoList) {
-        if (userService.userExists(username)) {
-            Path filePath = toDoListPath.resolve(username + ".json");
-            try {
-                Files.createDirectories(toDoListPath);
-                mapper.writeValue(filePath.toFile(), toDoList);
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Failed to update to-do list for user: " + username, e);
+        lock.lock("updateToDoList", username);
+        try {
+            if (userService.userExists(username)) {
+                Path filePath = toDoListPath.resolve(username + ".json");
+                try {
+                    write("todolists", username, filePath.toFile(), toDoList);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Failed to update to-do list for user: " + username, e);
+                }
+            } else {
+                throw new IllegalArgumentException("User not found: " + username);
             }
-        } else {
-            throw new IllegalArgumentException("User not found: " + username);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -133,30 +223,321 @@ public class ToDoListService {
      */
     public ToDoList loadGroupToDoList(String groupName) {
         Path filePath = groupToDoListPath.resolve(groupName + ".json");
-        if (!Files.exists(filePath)) {
+        if (!store.exists(filePath.toFile())) {
             return new ToDoList();
         }
         try {
-            return mapper.readValue(filePath.toFile(), ToDoList.class);
+            return store.read("grouptodolists", filePath.toFile(), ToDoList.class);
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to load group to-do list for group: " + groupName, e);
         }
     }
 
     /**
-     * Updates the to-do list for a group.
+     * Updates the to-do list for a group. Tasks and fields that differ from the stored list are stamped
+     * as changed now, so they win over earlier edits merged later. The list must have been edited from
+     * the stored one as it is now, as {@link #updateGroupTask} does; a list a client loaded earlier is
+     * updated with {@link #updateGroupToDoList(String, ToDoList, long)}.
      * 
      * @param groupName the group name whose to-do list is to be updated
      * @param toDoList the ToDoList object to save
      * @throws IllegalArgumentException if updating fails
      */
     public void updateGroupToDoList(String groupName, ToDoList toDoList) {
-        Path filePath = groupToDoListPath.resolve(groupName + ".json");
+        executor.execute(groupName, "updateGroupToDoList", () -> {
+            try {
+                GroupCopy copy = readGroup(groupName);
+                copy.replica.assign(toDoList, clock.next());
+                return copy.write();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to update group to-do list for group: " + groupName, e);
+            }
+        });
+    }
+
+    /**
+     * Updates the to-do list for a group if it was loaded at the current version. If the list changed
+     * since, the update is rejected, unless it holds the same tasks as the stored list already, so a
+     * resent update succeeds.
+     *
+     * @param groupName the group name whose to-do list is to be updated
+     * @param toDoList the ToDoList object to save
+     * @param baseVersion the {@linkplain #getGroupToDoListVersion version} the list was loaded at
+     * @throws IllegalArgumentException if updating fails
+     * @throws IllegalStateException if the list changed since the version
+     */
+    public void updateGroupToDoList(String groupName, ToDoList toDoList, long baseVersion) {
+        executor.execute(groupName, "updateGroupToDoList", () -> {
+            try {
+                GroupCopy copy = readGroup(groupName);
+                ReplicatedToDoList delta = ReplicatedToDoList.delta(copy.replica.toToDoList(), toDoList,
+                        clock.next());
+                if (delta.isEmpty()) {
+                    return null;
+                }
+                if (changes.getVersion(groupKey(groupName)) != baseVersion) {
+                    throw new IllegalStateException("To-do list of group " + groupName
+                            + " changed since version " + baseVersion);
+                }
+                copy.replica.merge(delta);
+                return copy.write();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to update group to-do list for group: " + groupName, e);
+            }
+        });
+    }
+
+    /**
+     * Merges an edit of a group's to-do list, usually a {@linkplain ReplicatedToDoList#delta delta}, into
+     * the stored list. Merging the same edit again changes nothing, so a failed request can be resent.
+     * Edits of a group merged at the same time are written together.
+     *
+     * @param groupName the group name whose to-do list is edited
+     * @param edit the edit to merge
+     * @return the merged to-do list
+     * @throws IllegalArgumentException if the edit is null or saving fails
+     */
+    public ToDoList mergeGroupToDoList(String groupName, ReplicatedToDoList edit) {
+        if (edit == null) {
+            throw new IllegalArgumentException("Edit cannot be null");
+        }
         try {
-            Files.createDirectories(groupToDoListPath);
-            mapper.writeValue(filePath.toFile(), toDoList);
+            return executor.executeBatched(groupName, "mergeGroupToDoList", batch -> {
+                String key = groupToDoListPath.resolve(groupName + ".json").toString();
+                GroupCopy copy = batch.get(key, () -> readGroup(groupName));
+                clock.observe(edit.getLatestStamp());
+                copy.replica.merge(edit);
+                batch.write(key, copy::write);
+                return copy.replica.toToDoList();
+            });
         } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to update group to-do list for group: " + groupName, e);
+            throw new IllegalArgumentException("Failed to merge group to-do list for group: " + groupName, e);
+        }
+    }
+
+    /**
+     * Replaces a single task in a user's to-do list, matched by its identifier.
+     *
+     * @param username the username whose to-do list contains the task
+     * @param task the updated task
+     * @throws IllegalArgumentException if the user or to-do list does not exist, or saving fails
+     * @throws IndexOutOfBoundsException if the to-do list has no task with the identifier
+     */
+    public void updateTask(String username, Task task) {
+        lock.lock("updateTask", username);
+        try {
+            ToDoList toDoList = loadToDoList(username);
+            toDoList.updateTask(task);
+            updateToDoList(username, toDoList);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a single task from a user's to-do list.
+     *
+     * @param username the username whose to-do list contains the task
+     * @param taskId the identifier of the task to remove
+     * @throws IllegalArgumentException if the user or to-do list does not exist, or saving fails
+     * @throws IndexOutOfBoundsException if the to-do list has no task with the identifier
+     */
+    public void removeTask(String username, long taskId) {
+        lock.lock("removeTask", username);
+        try {
+            ToDoList toDoList = loadToDoList(username);
+            toDoList.removeTask(taskId);
+            updateToDoList(username, toDoList);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a single task in a group's to-do list, matched by its identifier.
+     *
+     * @param groupName the group name whose to-do list contains the task
+     * @param task the updated task
+     * @throws IllegalArgumentException if loading or saving fails
+     * @throws IndexOutOfBoundsException if the to-do list has no task with the identifier
+     */
+    public void updateGroupTask(String groupName, Task task) {
+        executor.execute(groupName, "updateGroupTask", () -> {
+            ToDoList toDoList = loadGroupToDoList(groupName);
+            toDoList.updateTask(task);
+            updateGroupToDoList(groupName, toDoList);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a single task from a group's to-do list.
+     *
+     * @param groupName the group name whose to-do list contains the task
+     * @param taskId the identifier of the task to remove
+     * @throws IllegalArgumentException if loading or saving fails
+     * @throws IndexOutOfBoundsException if the to-do list has no task with the identifier
+     */
+    public void removeGroupTask(String groupName, long taskId) {
+        executor.execute(groupName, "removeGroupTask", () -> {
+            ToDoList toDoList = loadGroupToDoList(groupName);
+            toDoList.removeTask(taskId);
+            updateGroupToDoList(groupName, toDoList);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the version of a user's to-do list, to send along with the list. It is read before the
+     * list, so changes made in between are sent again by {@link #getToDoListChanges(String, long)}.
+     *
+     * @param username the username whose to-do list is meant
+     * @return the version of the list
+     */
+    public long getToDoListVersion(String username) {
+        return changes.getVersion(username);
+    }
+
+    /**
+     * Returns the changes of a user's to-do list made after a version.
+     *
+     * @param username the username whose to-do list is meant
+     * @param since the version the client holds
+     * @return the changed and removed tasks, keyed by task identifier, or a snapshot hint if the changes
+     *     since the version are no longer known
+     * @throws IllegalArgumentException if the user does not exist
+     */
+    public ChangeSet<Task> getToDoListChanges(String username, long since) {
+        if (!userService.userExists(username)) {
+            throw new IllegalArgumentException("User not found: " + username);
+        }
+        return changes.since(username, since);
+    }
+
+    /**
+     * Returns the version of a group's to-do list, to send along with the list.
+     *
+     * @param groupName the group name whose to-do list is meant
+     * @return the version of the list
+     */
+    public long getGroupToDoListVersion(String groupName) {
+        return changes.getVersion(groupKey(groupName));
+    }
+
+    /**
+     * Returns the changes of a group's to-do list made after a version.
+     *
+     * @param groupName the group name whose to-do list is meant
+     * @param since the version the client holds
+     * @return the changed and removed tasks, keyed by task identifier, or a snapshot hint if the changes
+     *     since the version are no longer known
+     */
+    public ChangeSet<Task> getGroupToDoListChanges(String groupName, long since) {
+        return changes.since(groupKey(groupName), since);
+    }
+
+    /**
+     * Writes a user's to-do list and logs the tasks that differ from the list last written. The stored list
+     * is read if none was written since the start; if it cannot be read, the log of the list is reset
+     * instead, so clients load it again.
+     */
+    private void write(String entity, String aggregate, File file, ToDoList toDoList) throws IOException {
+        Map<String, Task> previous = written.get(aggregate);
+        if (previous == null) {
+            previous = readStored(entity, file);
+        }
+        written.put(aggregate, write(entity, aggregate, file, toDoList, previous, toDoList));
+    }
+
+    /**
+     * Reads the tasks of a stored to-do list by identifier, or returns null if it cannot be read.
+     */
+    private Map<String, Task> readStored(String entity, File file) {
+        if (!store.exists(file)) {
+            return Map.of();
+        }
+        try {
+            return tasksById(store.read(entity, file, ToDoList.class));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the stored copy of a group's to-do list to edit. A copy that cannot be read is replaced.
+     */
+    private GroupCopy readGroup(String groupName) {
+        File file = groupToDoListPath.resolve(groupName + ".json").toFile();
+        ReplicatedToDoList replica = new ReplicatedToDoList();
+        Map<String, Task> previous = Map.of();
+        if (store.exists(file)) {
+            try {
+                replica = store.read("grouptodolists", file, ReplicatedToDoList.class);
+                previous = tasksById(replica.toToDoList());
+            } catch (IOException e) {
+                previous = null;
+            }
+        }
+        clock.observe(replica.getLatestStamp());
+        return new GroupCopy(groupName, file, replica, previous);
+    }
+
+    /**
+     * Writes a to-do list and logs the tasks that differ from the previous ones, or resets the log of the
+     * list if they are not known.
+     *
+     * @return the tasks written, by identifier
+     */
+    private Map<String, Task> write(String entity, String aggregate, File file, Object value,
+            Map<String, Task> previous, ToDoList toDoList) throws IOException {
+        Map<String, Task> tasks = tasksById(toDoList);
+        store.write(entity, file, value);
+        if (previous != null) {
+            changes.append(aggregate, ChangeLog.diff(mapper, previous, tasks));
+        } else {
+            changes.reset(aggregate);
+        }
+        return tasks;
+    }
+
+    private static Map<String, Task> tasksById(ToDoList toDoList) {
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        for (Task task : toDoList.getTasks()) {
+            tasks.put(Long.toString(task.getId()), new Task(task));
+        }
+        return tasks;
+    }
+
+    private static String groupKey(String groupName) {
+        return "groups/" + groupName;
+    }
+
+    /**
+     * A copy of a group's to-do list being edited, with the list as it was stored before.
+     */
+    private final class GroupCopy {
+        private final String groupName;
+        private final File file;
+        private final ReplicatedToDoList replica;
+        private final Map<String, Task> previous;
+
+        private GroupCopy(String groupName, File file, ReplicatedToDoList replica, Map<String, Task> previous) {
+            this.groupName = groupName;
+            this.file = file;
+            this.replica = replica;
+            this.previous = previous;
+        }
+
+        /**
+         * Writes the copy back, logging the tasks that changed since it was read, and drops the tombstones
+         * that are older than its latest edit by more than {@link #TOMBSTONE_RETENTION}.
+         */
+        private ToDoList write() throws IOException {
+            long latest = HybridClock.timeOf(replica.getLatestStamp());
+            replica.pruneRemoved(HybridClock.stampAt(latest - TOMBSTONE_RETENTION.toMillis()));
+            ToDoList merged = replica.toToDoList();
+            ToDoListService.this.write("grouptodolists", groupKey(groupName), file, replica, previous, merged);
+            return merged;
         }
     }
-}
\ No newline at end of file
+}
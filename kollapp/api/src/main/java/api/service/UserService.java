@@ -29,14 +29,24 @@ public class UserService {
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     private final String userPath;
     private final ObjectMapper mapper = new ObjectMapper();
+    private final Storage storage;
+    private final JsonStore store;
 
     /**
      * Constructs a UserService with a default path for user data storage.
      */
-    @Autowired
     public UserService() {
-        this.userPath = Paths.get("..", "persistence", "src", "main", "java", "persistence", "users") + File.separator;
-        this.mapper.registerModule(new JavaTimeModule());
+        this(Paths.get("..", "persistence", "src", "main", "java", "persistence", "users"));
+    }
+
+    /**
+     * Constructs a UserService that stores users under the given storage root.
+     *
+     * @param storageLocation the storage root to use
+     */
+    @Autowired
+    public UserService(StorageLocation storageLocation) {
+        this(storageLocation.resolve("users"), storageLocation.getStorage());
     }
 
     /**
@@ -45,8 +55,14 @@ public class UserService {
      * @param userPath the path where user data will be stored
      */
     public UserService(Path userPath) {
+        this(userPath, Storage.disk());
+    }
+
+    UserService(Path userPath, Storage storage) {
         this.userPath = userPath + File.separator;
         this.mapper.registerModule(new JavaTimeModule());
+        this.storage = storage;
+        this.store = new JsonStore(mapper, storage, WriteBehind.disabled());
     }
 
     /**
@@ -64,7 +80,7 @@ public class UserService {
         User userWithHashedPassword = new User(user.getUsername(), hashedPassword);
         
         File file = new File(userPath + userWithHashedPassword.getUsername() + ".json");
-        mapper.writeValue(file, userWithHashedPassword);
+        store.write("users", file, userWithHashedPassword);
     }
 
     /**
@@ -81,7 +97,7 @@ public class UserService {
         }
 
         try {
-            User user = mapper.readValue(file, User.class);
+            User user = store.read("users", file, User.class);
             if (passwordEncoder.matches(password, user.getHashedPassword())) {
                 return Optional.of(user);
             } else {
@@ -101,8 +117,10 @@ public class UserService {
     public void removeUser(String username) {
         if (userExists(username)) {
             File file = new File(userPath + username + ".json");
-            if (file.exists() && !file.delete()) {
-                throw new RuntimeException("Failed to delete user file: " + file.getAbsolutePath());
+            try {
+                store.delete(file);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to delete user file: " + file.getAbsolutePath(), e);
             }
         }
     }
@@ -179,7 +197,7 @@ public class UserService {
 
         File file = new File(userPath + user.getUsername() + ".json");
         try {
-            mapper.writeValue(file, user);
+            store.write("users", file, user);
         } catch (IOException e) {
             throw new RuntimeException("Failed to update user file for user: " + user.getUsername());
         }
@@ -198,7 +216,7 @@ public class UserService {
 
         File file = new File(userPath + username + ".json");
         try {
-            User user = mapper.readValue(file, User.class);
+            User user = store.read("users", file, User.class);
             return Optional.of(user);
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to retrieve user");
@@ -213,11 +231,15 @@ public class UserService {
      */
     public boolean userExists(String username) {
         File file = new File(userPath + username + ".json");
-        return file.exists();
+        return store.exists(file);
     }
 
     public String getUserPath() {
         return this.userPath;
     }
+
+    Storage getStorage() {
+        return storage;
+    }
     
 }
\ No newline at end of file
@@ -0,0 +1,493 @@
+package api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Optional write-behind buffering for the aggregates that change most often: the user and group to-do
+ * lists and the group expenses.
+ *
+ * <p>With {@code kollapp.storage.write-behind.enabled=true}, {@link JsonStore} does not replace the JSON
+ * file of such an aggregate on every change. It appends the new contents to a write-ahead log, keeps them
+ * in memory and acknowledges the change. A flusher thread writes the file once the aggregate has not
+ * changed for {@code flush-interval} (default 500 ms), or at the latest {@code max-delay} (default 5 s)
+ * after its first unflushed change, so a burst of changes to one list costs one file write. Everything is
+ * flushed at once when more than {@code max-pending-bytes} (default 16 MB) are waiting. Reads see the
+ * unflushed contents, so the buffering is invisible to clients.</p>
+ *
+ * <p>The log is stored in the {@code wal} directory of the storage root and is emptied whenever nothing is
+ * waiting to be flushed. Each record holds the file and its complete new contents with a CRC-32, because
+ * the services replace whole aggregates. After a crash, the last record of each file is written back when
+ * the server starts, up to the first torn or corrupt record, so every acknowledged change survives as
+ * long as {@code sync} (default true) forces each record to disk. The log is replayed even if write-behind
+ * has been turned off since, into the backend the files are now kept in. A graceful shutdown flushes everything and empties the log.</p>
+ *
+ * <p>Which entity directories are buffered is set with {@code entities}. Only the directories listed in
+ * {@link #SUPPORTED_ENTITIES} are allowed, because the other services check for files on disk directly.
+ * Write-behind is turned off when the files are kept in memory.</p>
+ */
+@Component
+public class WriteBehind implements InitializingBean, DisposableBean {
+    /**
+     * The entity directories that may be buffered.
+     */
+    public static final Set<String> SUPPORTED_ENTITIES = Set.of("todolists", "grouptodolists", "groupexpenses");
+
+    static final String WAL_DIRECTORY = "wal";
+    static final String WAL_FILE = "write-behind.log";
+    static final String APPEND_TIMER = "kollapp.storage.wal.append";
+    static final String FLUSH_COUNTER = "kollapp.storage.wal.flushes";
+    static final String PENDING_GAUGE = "kollapp.storage.wal.pending";
+    static final long WAL_LIMIT = 4;
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBehind.class);
+    private static final WriteBehind DISABLED = new WriteBehind();
+
+    private final boolean enabled;
+    private final Set<String> entities;
+    private final long flushIntervalNanos;
+    private final long maxDelayNanos;
+    private final long maxPendingBytes;
+    private final boolean sync;
+    private final Path walFile;
+    private final Storage storage;
+    private final MeterRegistry registry;
+    private final Object walLock = new Object();
+    private final Object flushLock = new Object();
+    private final Map<Path, Entry> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private FileChannel wal;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private WriteBehind() {
+        this.enabled = false;
+        this.entities = Set.of();
+        this.flushIntervalNanos = 0;
+        this.maxDelayNanos = 0;
+        this.maxPendingBytes = 0;
+        this.sync = false;
+        this.walFile = null;
+        this.storage = Storage.disk();
+        this.registry = Metrics.globalRegistry;
+    }
+
+    /**
+     * Constructs the buffering from the {@code kollapp.storage.write-behind} properties, with the log in the
+     * {@code wal} directory of the storage root and the files in its backend. Nothing is buffered until {@link #start()} is called,
+     * which Spring does once the bean is created.
+     *
+     * @param storageLocation the storage root to keep the log under, and the backend to write the files to
+     * @param enabled whether to buffer writes at all
+     * @param entities the entity directories to buffer
+     * @param flushInterval how long an aggregate must be unchanged before it is written
+     * @param maxDelay how long an aggregate may wait at most before it is written
+     * @param maxPendingBytes the number of waiting bytes above which everything is written
+     * @param sync whether to force every log record to disk before acknowledging the change
+     * @throws IllegalArgumentException if an entity is not supported or a limit is not positive
+     */
+    @Autowired
+    public WriteBehind(StorageLocation storageLocation,
+            @Value("${kollapp.storage.write-behind.enabled:false}") boolean enabled,
+            @Value("${kollapp.storage.write-behind.entities:todolists,grouptodolists,groupexpenses}")
+                List<String> entities,
+            @Value("${kollapp.storage.write-behind.flush-interval:500ms}") Duration flushInterval,
+            @Value("${kollapp.storage.write-behind.max-delay:5s}") Duration maxDelay,
+            @Value("${kollapp.storage.write-behind.max-pending-bytes:16777216}") long maxPendingBytes,
+            @Value("${kollapp.storage.write-behind.sync:true}") boolean sync) {
+        this(storageLocation.resolve(WAL_DIRECTORY), enabled && !storageLocation.isInMemory(), entities,
+                flushInterval, maxDelay, maxPendingBytes, sync, storageLocation.getStorage(),
+                Metrics.globalRegistry);
+    }
+
+    /**
+     * Constructs the buffering with the log in the given directory and the files on disk.
+     *
+     * @param walDirectory the directory to keep the log in
+     * @param enabled whether to buffer writes at all
+     * @param entities the entity directories to buffer
+     * @param flushInterval how long an aggregate must be unchanged before it is written
+     * @param maxDelay how long an aggregate may wait at most before it is written
+     * @param maxPendingBytes the number of waiting bytes above which everything is written
+     * @param sync whether to force every log record to disk before acknowledging the change
+     * @param registry the registry to record metrics in
+     * @throws IllegalArgumentException if an entity is not supported or a limit is not positive
+     */
+    public WriteBehind(Path walDirectory, boolean enabled, Collection<String> entities, Duration flushInterval,
+            Duration maxDelay, long maxPendingBytes, boolean sync, MeterRegistry registry) {
+        this(walDirectory, enabled, entities, flushInterval, maxDelay, maxPendingBytes, sync, Storage.disk(), registry);
+    }
+
+    /**
+     * Constructs the buffering with the log in the given directory and the files in the given backend.
+     *
+     * @param walDirectory the directory to keep the log in
+     * @param enabled whether to buffer writes at all
+     * @param entities the entity directories to buffer
+     * @param flushInterval how long an aggregate must be unchanged before it is written
+     * @param maxDelay how long an aggregate may wait at most before it is written
+     * @param maxPendingBytes the number of waiting bytes above which everything is written
+     * @param sync whether to force every log record to disk before acknowledging the change
+     * @param storage the backend that flushed and replayed files are written to
+     * @param registry the registry to record metrics in
+     * @throws IllegalArgumentException if an entity is not supported or a limit is not positive
+     */
+    public WriteBehind(Path walDirectory, boolean enabled, Collection<String> entities, Duration flushInterval,
+            Duration maxDelay, long maxPendingBytes, boolean sync, Storage storage, MeterRegistry registry) {
+        if (walDirectory == null || entities == null || storage == null || registry == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        for (String entity : entities) {
+            if (!SUPPORTED_ENTITIES.contains(entity)) {
+                throw new IllegalArgumentException("Write-behind is not supported for: " + entity);
+            }
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        if (maxDelay == null || maxDelay.compareTo(flushInterval) < 0) {
+            throw new IllegalArgumentException("Max delay cannot be shorter than the flush interval");
+        }
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("Max pending bytes must be positive");
+        }
+        this.enabled = enabled;
+        this.entities = Set.copyOf(entities);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxPendingBytes = maxPendingBytes;
+        this.sync = sync;
+        this.walFile = walDirectory.resolve(WAL_FILE).toAbsolutePath().normalize();
+        this.storage = storage;
+        this.registry = registry;
+    }
+
+    /**
+     * Returns a shared instance that buffers nothing, for services constructed without Spring.
+     *
+     * @return the disabled instance
+     */
+    public static WriteBehind disabled() {
+        return DISABLED;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        start();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        close();
+    }
+
+    /**
+     * Replays the log left by a crash and, if buffering is enabled, opens a new log and starts the flusher.
+     *
+     * @throws IOException if the log cannot be replayed or opened
+     */
+    public synchronized void start() throws IOException {
+        if (walFile == null || running) {
+            return;
+        }
+        recover();
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(walFile.getParent());
+        wal = FileChannel.open(walFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Gauge.builder(PENDING_GAUGE, pendingBytes, AtomicLong::get)
+                .description("Bytes written to the write-ahead log but not yet to their files")
+                .baseUnit("bytes")
+                .register(registry);
+        running = true;
+        flusher = new Thread(this::runFlusher, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher, writes every waiting aggregate to its file and empties the log. If a file cannot be
+     * written, the log is kept so the change is replayed on the next start.
+     *
+     * @throws IOException if a waiting aggregate cannot be written
+     */
+    public void close() throws IOException {
+        Thread stopped;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            stopped = flusher;
+            flusher = null;
+        }
+        LockSupport.unpark(stopped);
+        try {
+            stopped.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (flushLock) {
+            synchronized (walLock) {
+                try {
+                    IOException failure = writeDue(Long.MAX_VALUE);
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    wal.truncate(0);
+                } finally {
+                    wal.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether writes to the given entity directory are buffered.
+     *
+     * @param entity the entity directory
+     * @return true if buffering is enabled for the entity
+     */
+    public boolean handles(String entity) {
+        return enabled && entities.contains(entity);
+    }
+
+    /**
+     * Records the new contents of a file in the log and keeps them until they are flushed. Returns once the
+     * record is in the log, and forced to disk if {@code sync} is set. Before {@link #start()} and after
+     * {@link #close()} the file is written directly.
+     *
+     * @param entity the entity directory the file belongs to, used as a tag
+     * @param file the file to replace
+     * @param bytes the new contents of the file
+     * @throws IOException if the record cannot be appended to the log
+     */
+    public void write(String entity, Path file, byte[] bytes) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        long start = System.nanoTime();
+        synchronized (walLock) {
+            if (wal == null || !wal.isOpen()) {
+                storage.write(path, bytes);
+                return;
+            }
+            append(path, bytes);
+            long now = System.nanoTime();
+            Entry previous = pending.get(path);
+            pending.put(path, new Entry(entity, bytes, previous == null ? now : previous.firstWrite, now));
+            pendingBytes.addAndGet(bytes.length - (previous == null ? 0 : previous.bytes.length));
+        }
+        Timer.builder(APPEND_TIMER).tags("entity", entity).register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (pendingBytes.get() > maxPendingBytes) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Returns the contents of a file that have been acknowledged but not yet written to it.
+     *
+     * @param file the file to look up
+     * @return the waiting contents, or null if the file is up to date
+     */
+    public byte[] pending(Path file) {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Entry entry = pending.get(file.toAbsolutePath().normalize());
+        return entry == null ? null : entry.bytes;
+    }
+
+    /**
+     * Writes every waiting aggregate to its file now, and empties the log if nothing is left waiting.
+     *
+     * @throws IOException if a waiting aggregate cannot be written
+     */
+    public void flush() throws IOException {
+        flush(Long.MAX_VALUE);
+    }
+
+    private void runFlusher() {
+        long tick = Math.max(flushIntervalNanos / 4, TimeUnit.MILLISECONDS.toNanos(1));
+        while (running) {
+            LockSupport.parkNanos(this, tick);
+            try {
+                flush(pendingBytes.get() > maxPendingBytes ? Long.MAX_VALUE : System.nanoTime());
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Write-behind flush failed, retrying", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the waiting aggregates that are due at the given time, or all of them for
+     * {@link Long#MAX_VALUE}, and empties the log if nothing is left waiting. Flushes are serialized, so an
+     * older version of a file can never be written after a newer one.
+     *
+     * <p>Under steady changes to many aggregates there may always be something waiting, so once the log is
+     * larger than {@link #WAL_LIMIT} times {@code max-pending-bytes} everything is written while appends
+     * are held back, which lets the log be emptied.</p>
+     */
+    private void flush(long now) throws IOException {
+        synchronized (flushLock) {
+            IOException failure;
+            synchronized (walLock) {
+                if (wal == null || !wal.isOpen()) {
+                    return;
+                }
+                if (wal.size() > WAL_LIMIT * maxPendingBytes) {
+                    failure = writeDue(Long.MAX_VALUE);
+                    truncateIfEmpty();
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return;
+                }
+            }
+            failure = writeDue(now);
+            synchronized (walLock) {
+                truncateIfEmpty();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private IOException writeDue(long now) {
+        IOException failure = null;
+        for (Map.Entry<Path, Entry> waiting : pending.entrySet()) {
+            Entry entry = waiting.getValue();
+            if (now != Long.MAX_VALUE && now - entry.lastWrite < flushIntervalNanos
+                    && now - entry.firstWrite < maxDelayNanos) {
+                continue;
+            }
+            try {
+                storage.write(waiting.getKey(), entry.bytes);
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+                continue;
+            }
+            if (pending.remove(waiting.getKey(), entry)) {
+                pendingBytes.addAndGet(-entry.bytes.length);
+            }
+            Counter.builder(FLUSH_COUNTER).tags("entity", entry.entity).register(registry).increment();
+        }
+        return failure;
+    }
+
+    private void truncateIfEmpty() throws IOException {
+        if (pending.isEmpty() && wal.isOpen() && wal.size() > 0) {
+            wal.truncate(0);
+            wal.position(0);
+        }
+    }
+
+    private void append(Path path, byte[] bytes) throws IOException {
+        byte[] name = path.toString().getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(bytes);
+        ByteBuffer record = ByteBuffer.allocate(4 + name.length + 4 + bytes.length + 8);
+        record.putInt(name.length).put(name).putInt(bytes.length).put(bytes).putLong(crc.getValue()).flip();
+        while (record.hasRemaining()) {
+            wal.write(record);
+        }
+        if (sync) {
+            wal.force(false);
+        }
+    }
+
+    /**
+     * Writes back the last logged contents of each file to the storage backend, so they reach the files the
+     * services read in either backend, and deletes the log. Reading stops at the first
+     * record that is incomplete or fails its checksum, which is where a crash interrupted an append.
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(walFile)) {
+            return;
+        }
+        Map<Path, byte[]> latest = new LinkedHashMap<>();
+        long remaining = Files.size(walFile);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(walFile)))) {
+            while (remaining > 0) {
+                int nameLength = in.readInt();
+                if (nameLength <= 0 || nameLength > remaining) {
+                    break;
+                }
+                byte[] name = in.readNBytes(nameLength);
+                int length = in.readInt();
+                if (length < 0 || length > remaining) {
+                    break;
+                }
+                byte[] bytes = in.readNBytes(length);
+                long checksum = in.readLong();
+                CRC32 crc = new CRC32();
+                crc.update(name);
+                crc.update(bytes);
+                if (name.length != nameLength || bytes.length != length || crc.getValue() != checksum) {
+                    break;
+                }
+                latest.put(Paths.get(new String(name, StandardCharsets.UTF_8)), bytes);
+                remaining -= 4 + nameLength + 4 + length + 8;
+            }
+        } catch (EOFException e) {
+            LOG.warn("Write-ahead log {} ends in an incomplete record, ignoring it", walFile);
+        }
+        for (Map.Entry<Path, byte[]> file : latest.entrySet()) {
+            storage.write(file.getKey(), file.getValue());
+        }
+        Files.delete(walFile);
+        if (!latest.isEmpty()) {
+            LOG.info("Replayed {} files from write-ahead log {}", latest.size(), walFile);
+        }
+    }
+
+    private static final class Entry {
+        private final String entity;
+        private final byte[] bytes;
+        private final long firstWrite;
+        private final long lastWrite;
+
+        private Entry(String entity, byte[] bytes, long firstWrite, long lastWrite) {
+            this.entity = entity;
+            this.bytes = bytes;
+            this.firstWrite = firstWrite;
+            this.lastWrite = lastWrite;
+        }
+    }
+}
@@ -11,6 +11,11 @@ module api {
     requires spring.boot;
     requires spring.boot.autoconfigure;
     requires spring.security.crypto;
+    requires spring.boot.actuator;
+    requires org.apache.tomcat.embed.core;
+    requires micrometer.core;
+    requires org.slf4j;
+    requires jdk.jfr;
 
     requires java.sql;
     requires java.naming;
@@ -19,10 +24,12 @@ module api {
 
     exports api.controller;
     exports api.service;
+    exports api.diagnostics;
     exports api;
 
     opens api.controller to spring.core, spring.beans, spring.context, spring.web, com.fasterxml.jackson.databind;
     opens api.service to spring.core, spring.beans, spring.context, com.fasterxml.jackson.databind;
+    opens api.diagnostics to spring.core, spring.beans, spring.context, spring.web;
     opens api to spring.core, spring.beans, spring.context, spring.web, com.fasterxml.jackson.databind;
 
 }
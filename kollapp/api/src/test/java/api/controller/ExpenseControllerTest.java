@@ -1,7 +1,11 @@
 package api.controller;
 
 import api.service.ExpenseService;
+import core.Balance;
+import core.Change;
+import core.ChangeSet;
 import core.Expense;
+import core.Transfer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -17,6 +21,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -135,4 +140,104 @@ class ExpenseControllerTest {
                 .content(invalidJson))
             .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test successful retrieval of group balances")
+    @Tag("balances")
+    public void getGroupBalances_Success() throws Exception {
+        String groupName = "testGroup";
+        Balance balance = new Balance("user1");
+        balance.setOwed(50.0);
+
+        when(expenseService.getGroupBalances(groupName)).thenReturn(Map.of("user1", balance));
+
+        mockMvc.perform(get("/api/v1/expenses/groups/{groupName}/balances", groupName))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.user1.owed").value(50.0))
+            .andExpect(jsonPath("$.user1.net").value(50.0));
+
+        verify(expenseService).getGroupBalances(groupName);
+    }
+
+    @Test
+    @DisplayName("Test successful retrieval of user balance")
+    @Tag("balances")
+    public void getUserBalance_Success() throws Exception {
+        String username = "user2";
+        Balance balance = new Balance(username);
+        balance.setOwing(25.0);
+
+        when(expenseService.getUserBalance(username)).thenReturn(balance);
+
+        mockMvc.perform(get("/api/v1/expenses/users/{username}/balances", username))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username").value(username))
+            .andExpect(jsonPath("$.owing").value(25.0))
+            .andExpect(jsonPath("$.net").value(-25.0));
+
+        verify(expenseService).getUserBalance(username);
+    }
+
+    @Test
+    @DisplayName("Test successful retrieval of settlement plan")
+    @Tag("settlement-plan")
+    public void getSettlementPlan_Success() throws Exception {
+        String groupName = "testGroup";
+        when(expenseService.getSettlementPlan(groupName)).thenReturn(List.of(new Transfer("user1", "user3", 10.0)));
+
+        mockMvc.perform(get("/api/v1/expenses/groups/{groupName}/settlement-plan", groupName))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].from").value("user1"))
+            .andExpect(jsonPath("$[0].to").value("user3"))
+            .andExpect(jsonPath("$[0].amount").value(10.0));
+    }
+
+    @Test
+    @DisplayName("Test applying a settlement plan")
+    @Tag("settlement-plan")
+    public void applySettlementPlan_Success() throws Exception {
+        String groupName = "testGroup";
+        List<Transfer> plan = List.of(new Transfer("user1", "user3", 10.0));
+        when(expenseService.applySettlementPlan(eq(groupName), anyList())).thenReturn(2);
+
+        mockMvc.perform(post("/api/v1/expenses/groups/{groupName}/settlement-plan/apply", groupName)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plan)))
+            .andExpect(status().isOk());
+
+        verify(expenseService).applySettlementPlan(eq(groupName), eq(plan));
+    }
+
+    @Test
+    @DisplayName("Test applying an outdated settlement plan returns conflict")
+    @Tag("settlement-plan")
+    public void applySettlementPlan_WhenOutdated_ReturnsConflict() throws Exception {
+        String groupName = "testGroup";
+        when(expenseService.applySettlementPlan(eq(groupName), anyList()))
+            .thenThrow(new IllegalStateException("Settlement plan is out of date"));
+
+        mockMvc.perform(post("/api/v1/expenses/groups/{groupName}/settlement-plan/apply", groupName)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Test getting the changes of a group's expenses")
+    @Tag("changes")
+    public void getGroupExpenseChanges_ReturnsChanges() throws Exception {
+        Expense expense = new Expense("Taxi", 20.0, "user1", Arrays.asList("user1", "user2"));
+        when(expenseService.getGroupExpensesVersion("testGroup")).thenReturn(3L);
+        when(expenseService.loadGroupExpenses("testGroup")).thenReturn(List.of(expense));
+        when(expenseService.getGroupExpenseChanges("testGroup", 3L))
+            .thenReturn(new ChangeSet<>(4L, false, List.of(Change.upsert("1", expense))));
+
+        mockMvc.perform(get("/api/v1/expenses/groups/{groupName}", "testGroup"))
+            .andExpect(header().string(ChangeSet.VERSION_HEADER, "3"));
+        mockMvc.perform(get("/api/v1/expenses/groups/{groupName}/changes", "testGroup").param("since", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(4))
+            .andExpect(jsonPath("$.changes[0].key").value("1"))
+            .andExpect(jsonPath("$.changes[0].value.description").value("Taxi"));
+    }
+}
@@ -1,6 +1,8 @@
 package api.controller;
 
 import api.service.GroupService;
+import core.Change;
+import core.ChangeSet;
 import core.UserGroup;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.anyString;
@@ -226,4 +229,36 @@ class GroupControllerTest {
 
         verify(groupService).groupExists(groupName);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test getting group sends the version of its members")
+    @Tag("changes")
+    public void getGroup_SendsVersionHeader() throws Exception {
+        String groupName = "testGroup";
+        when(groupService.getGroupVersion(groupName)).thenReturn(42L);
+        when(groupService.getGroup(groupName)).thenReturn(Optional.of(new UserGroup(groupName)));
+
+        mockMvc.perform(get("/api/v1/groups/{groupName}", groupName))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeSet.VERSION_HEADER, "42"));
+    }
+
+    @Test
+    @DisplayName("Test getting the membership changes of a group")
+    @Tag("changes")
+    public void getGroupChanges_ReturnsChanges() throws Exception {
+        String groupName = "testGroup";
+        when(groupService.getGroupChanges(groupName, 41L))
+            .thenReturn(new ChangeSet<>(42L, false, List.of(Change.upsert("testUser2", "testUser2"))));
+        when(groupService.getGroupChanges("nonExistentGroup", 41L)).thenThrow(new IllegalArgumentException());
+
+        mockMvc.perform(get("/api/v1/groups/{groupName}/changes", groupName).param("since", "41"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(42))
+            .andExpect(jsonPath("$.snapshotRequired").value(false))
+            .andExpect(jsonPath("$.changes[0].type").value("UPSERT"))
+            .andExpect(jsonPath("$.changes[0].key").value("testUser2"));
+        mockMvc.perform(get("/api/v1/groups/{groupName}/changes", "nonExistentGroup").param("since", "41"))
+            .andExpect(status().isNotFound());
+    }
+}
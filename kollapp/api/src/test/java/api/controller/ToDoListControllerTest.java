@@ -1,6 +1,10 @@
 package api.controller;
 
 import api.service.ToDoListService;
+import core.Change;
+import core.ChangeSet;
+import core.ReplicatedToDoList;
+import core.Task;
 import core.ToDoList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,8 +19,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -161,14 +168,15 @@ class ToDoListControllerTest {
     public void updateGroupToDoList_Success() throws Exception {
         String groupName = "testGroup";
         ToDoList toDoList = new ToDoList();
-        doNothing().when(toDoListService).updateGroupToDoList(anyString(), any(ToDoList.class));
+        doNothing().when(toDoListService).updateGroupToDoList(anyString(), any(ToDoList.class), anyLong());
 
         mockMvc.perform(put("/api/v1/todolists/groups/{groupName}", groupName)
+                .header(ChangeSet.VERSION_HEADER, "42")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(toDoList)))
             .andExpect(status().isOk());
 
-        verify(toDoListService).updateGroupToDoList(eq(groupName), any(ToDoList.class));
+        verify(toDoListService).updateGroupToDoList(eq(groupName), any(ToDoList.class), eq(42L));
     }
 
     @Test
@@ -177,13 +185,162 @@ class ToDoListControllerTest {
     public void updateGroupToDoList_BadRequest() throws Exception {
         String groupName = "testGroup";
         ToDoList toDoList = new ToDoList();
-        doThrow(new IllegalArgumentException()).when(toDoListService).updateGroupToDoList(anyString(), any(ToDoList.class));
+        doThrow(new IllegalArgumentException()).when(toDoListService)
+            .updateGroupToDoList(anyString(), any(ToDoList.class), anyLong());
 
         mockMvc.perform(put("/api/v1/todolists/groups/{groupName}", groupName)
+                .header(ChangeSet.VERSION_HEADER, "42")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(toDoList)))
             .andExpect(status().isBadRequest());
 
-        verify(toDoListService).updateGroupToDoList(eq(groupName), any(ToDoList.class));
+        verify(toDoListService).updateGroupToDoList(eq(groupName), any(ToDoList.class), eq(42L));
+    }
+
+    @Test
+    @DisplayName("Test update of group's ToDoList without a version or after it changed")
+    @Tag("update-group-todolist")
+    public void updateGroupToDoList_StaleOrUnversioned() throws Exception {
+        String groupName = "testGroup";
+        String body = objectMapper.writeValueAsString(new ToDoList());
+        doThrow(new IllegalStateException()).when(toDoListService)
+            .updateGroupToDoList(anyString(), any(ToDoList.class), eq(41L));
+
+        mockMvc.perform(put("/api/v1/todolists/groups/{groupName}", groupName)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(put("/api/v1/todolists/groups/{groupName}", groupName)
+                .header(ChangeSet.VERSION_HEADER, "41")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isConflict());
+
+        verify(toDoListService, times(1)).updateGroupToDoList(anyString(), any(ToDoList.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test merging an edit into a group's ToDoList")
+    @Tag("merge-group-todolist")
+    public void mergeGroupToDoList_ReturnsMergedList() throws Exception {
+        ToDoList edited = new ToDoList();
+        Task task = new Task("Clean");
+        edited.addTask(task);
+        when(toDoListService.getGroupToDoListVersion("testGroup")).thenReturn(4L);
+        when(toDoListService.mergeGroupToDoList(eq("testGroup"), argThat(edit -> edit.getTasks().size() == 1)))
+            .thenReturn(edited);
+        when(toDoListService.mergeGroupToDoList(eq("brokenGroup"), any(ReplicatedToDoList.class)))
+            .thenThrow(new IllegalArgumentException());
+        String delta = objectMapper.writeValueAsString(ReplicatedToDoList.delta(new ToDoList(), edited, 1));
+
+        mockMvc.perform(patch("/api/v1/todolists/groups/{groupName}", "testGroup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(delta))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeSet.VERSION_HEADER, "4"))
+            .andExpect(jsonPath("$.tasks[0].taskName").value("Clean"));
+        mockMvc.perform(patch("/api/v1/todolists/groups/{groupName}", "brokenGroup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(delta))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test successful update of a single task")
+    @Tag("update-task")
+    public void updateTask_Success() throws Exception {
+        String username = "testUser";
+        Task task = new Task("Edited task");
+        doNothing().when(toDoListService).updateTask(anyString(), any(Task.class));
+
+        mockMvc.perform(put("/api/v1/todolists/{username}/tasks/{taskId}", username, 42L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk());
+
+        verify(toDoListService).updateTask(eq(username), argThat(t -> t.getId() == 42L));
+    }
+
+    @Test
+    @DisplayName("Test update of a task that is not in the list")
+    @Tag("update-task")
+    public void updateTask_NotFound() throws Exception {
+        String username = "testUser";
+        doThrow(new IndexOutOfBoundsException()).when(toDoListService).updateTask(anyString(), any(Task.class));
+
+        mockMvc.perform(put("/api/v1/todolists/{username}/tasks/{taskId}", username, 42L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Task("Edited task"))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test removal of a single task")
+    @Tag("remove-task")
+    public void removeTask() throws Exception {
+        String username = "testUser";
+        doNothing().when(toDoListService).removeTask(username, 42L);
+        doThrow(new IndexOutOfBoundsException()).when(toDoListService).removeTask(username, 7L);
+
+        mockMvc.perform(delete("/api/v1/todolists/{username}/tasks/{taskId}", username, 42L))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/todolists/{username}/tasks/{taskId}", username, 7L))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test update and removal of a single group task")
+    @Tag("group-task")
+    public void groupTask() throws Exception {
+        String groupName = "testGroup";
+        doNothing().when(toDoListService).updateGroupTask(anyString(), any(Task.class));
+        doThrow(new IllegalArgumentException()).when(toDoListService).removeGroupTask(groupName, 42L);
+
+        mockMvc.perform(put("/api/v1/todolists/groups/{groupName}/tasks/{taskId}", groupName, 42L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Task("Group task"))))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/todolists/groups/{groupName}/tasks/{taskId}", groupName, 42L))
+            .andExpect(status().isBadRequest());
+
+        verify(toDoListService).updateGroupTask(eq(groupName), argThat(t -> t.getId() == 42L));
+    }
+
+    @Test
+    @DisplayName("Test loading a ToDoList sends its version")
+    @Tag("changes")
+    public void loadToDoList_SendsVersionHeader() throws Exception {
+        when(toDoListService.getToDoListVersion("testUser")).thenReturn(7L);
+        when(toDoListService.loadToDoList("testUser")).thenReturn(new ToDoList());
+        when(toDoListService.getGroupToDoListVersion("testGroup")).thenReturn(9L);
+        when(toDoListService.loadGroupToDoList("testGroup")).thenReturn(new ToDoList());
+
+        mockMvc.perform(get("/api/v1/todolists/{username}", "testUser"))
+            .andExpect(header().string(ChangeSet.VERSION_HEADER, "7"));
+        mockMvc.perform(get("/api/v1/todolists/groups/{groupName}", "testGroup"))
+            .andExpect(header().string(ChangeSet.VERSION_HEADER, "9"));
+    }
+
+    @Test
+    @DisplayName("Test getting the changes of a user's and a group's ToDoList")
+    @Tag("changes")
+    public void getToDoListChanges_ReturnsChanges() throws Exception {
+        Task task = new Task("Milk");
+        when(toDoListService.getToDoListChanges("testUser", 7L))
+            .thenReturn(new ChangeSet<>(8L, false, List.of(Change.upsert(Long.toString(task.getId()), task))));
+        when(toDoListService.getGroupToDoListChanges("testGroup", 1L)).thenReturn(ChangeSet.snapshot(9L));
+        when(toDoListService.getToDoListChanges("unknown", 7L)).thenThrow(new IllegalArgumentException());
+
+        mockMvc.perform(get("/api/v1/todolists/{username}/changes", "testUser").param("since", "7"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(8))
+            .andExpect(jsonPath("$.changes[0].key").value(Long.toString(task.getId())))
+            .andExpect(jsonPath("$.changes[0].value.taskName").value("Milk"));
+        mockMvc.perform(get("/api/v1/todolists/groups/{groupName}/changes", "testGroup").param("since", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.snapshotRequired").value(true))
+            .andExpect(jsonPath("$.changes").isEmpty());
+        mockMvc.perform(get("/api/v1/todolists/{username}/changes", "unknown").param("since", "7"))
+            .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+}
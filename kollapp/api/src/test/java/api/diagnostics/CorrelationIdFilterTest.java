@@ -0,0 +1,62 @@
+package api.diagnostics;
+
+import core.logging.CorrelationId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("diagnostics")
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    private String handle(String header, MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/alice");
+        if (header != null) {
+            request.addHeader(CorrelationId.HEADER, header);
+        }
+        AtomicReference<String> duringRequest = new AtomicReference<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
+                duringRequest.set(CorrelationId.current());
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return duringRequest.get();
+    }
+
+    @Test
+    @DisplayName("The correlation id sent by the client is used while handling the request and returned")
+    void clientIdIsAdopted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals("client-42", handle("client-42", response));
+        assertEquals("client-42", response.getHeader(CorrelationId.HEADER));
+        assertNull(CorrelationId.current(), "The id should not leak to the next request on the thread");
+    }
+
+    @Test
+    @DisplayName("Requests without a valid correlation id get a new one")
+    void missingOrInvalidIdIsReplaced() throws Exception {
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        String created = handle(null, missing);
+        assertTrue(CorrelationId.isValid(created));
+        assertEquals(created, missing.getHeader(CorrelationId.HEADER));
+
+        MockHttpServletResponse invalid = new MockHttpServletResponse();
+        String replaced = handle("bad\"id", invalid);
+        assertNotEquals("bad\"id", replaced);
+        assertTrue(CorrelationId.isValid(replaced));
+    }
+}
@@ -0,0 +1,57 @@
+package api.diagnostics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("diagnostics")
+class FlightRecordingEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Dumping without a running recording is a conflict")
+    void dumpWithoutRecordingIsConflict() throws Exception {
+        FlightRecording recording = new FlightRecording(false, Duration.ofMinutes(5), 10_000_000,
+                tempDir.toString());
+        FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(recording);
+
+        WebEndpointResponse<Map<String, Object>> response = endpoint.dump();
+
+        assertEquals(FlightRecordingEndpoint.STATUS_CONFLICT, response.getStatus());
+        assertTrue(response.getBody().containsKey("error"));
+        assertEquals(false, endpoint.status().get("enabled"));
+    }
+
+    @Test
+    @DisplayName("Dumping a running recording returns the file and its size")
+    void dumpReturnsFile() throws Exception {
+        FlightRecording recording = new FlightRecording(true, Duration.ofMinutes(5), 10_000_000,
+                tempDir.toString());
+        recording.start();
+        try {
+            FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(recording);
+
+            WebEndpointResponse<Map<String, Object>> response = endpoint.dump();
+
+            assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+            Path file = Paths.get((String) response.getBody().get("file"));
+            assertEquals(tempDir.toAbsolutePath(), file.getParent());
+            assertEquals(Files.size(file), response.getBody().get("bytes"));
+            assertEquals("RUNNING", endpoint.status().get("state"));
+        } finally {
+            recording.stop();
+        }
+    }
+}
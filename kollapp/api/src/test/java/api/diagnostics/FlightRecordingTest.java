@@ -0,0 +1,87 @@
+package api.diagnostics;
+
+import api.service.JsonStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("diagnostics")
+class FlightRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FlightRecording recording;
+
+    @AfterEach
+    void tearDown() {
+        if (recording != null) {
+            recording.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Nothing is recorded unless the recording is enabled")
+    void disabledRecordingDoesNotStart() throws Exception {
+        recording = new FlightRecording(false, Duration.ofMinutes(5), 10_000_000, tempDir.toString());
+        recording.start();
+
+        assertFalse(recording.isRunning());
+        assertEquals("OFF", recording.status().get("state"));
+        assertThrows(IllegalStateException.class, recording::dump);
+    }
+
+    @Test
+    @DisplayName("Dumps contain storage and serialization events with their entity and key")
+    void dumpContainsStorageEvents() throws Exception {
+        recording = new FlightRecording(true, Duration.ofMinutes(5), 10_000_000, tempDir.toString());
+        recording.start();
+        assertTrue(recording.isRunning());
+
+        JsonStore store = new JsonStore(new ObjectMapper(), new SimpleMeterRegistry());
+        File file = tempDir.resolve("alice.json").toFile();
+        store.write("users", file, new User("alice", "hash"));
+        store.read("users", file, User.class);
+
+        Path dump = recording.dump();
+        assertTrue(Files.size(dump) > 0);
+        assertTrue(recording.isRunning());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent read = events.stream()
+                .filter(event -> event.getEventType().getName().equals("kollapp.StorageOperation"))
+                .filter(event -> "read".equals(event.getString("operation")))
+                .findFirst().orElseThrow();
+        assertEquals("users", read.getString("entity"));
+        assertEquals("alice", read.getString("key"));
+        assertEquals(file.length(), read.getLong("bytes"));
+        assertTrue(events.stream()
+                .filter(event -> event.getEventType().getName().equals("kollapp.Serialization"))
+                .anyMatch(event -> "write".equals(event.getString("operation"))
+                        && User.class.getName().equals(event.getString("type"))));
+    }
+
+    @Test
+    @DisplayName("Limits must be positive")
+    void invalidLimitsAreRejected() {
+        String dir = tempDir.toString();
+        assertThrows(IllegalArgumentException.class, () -> new FlightRecording(true, Duration.ZERO, 1, dir));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FlightRecording(true, Duration.ofMinutes(1), 0, dir));
+    }
+}
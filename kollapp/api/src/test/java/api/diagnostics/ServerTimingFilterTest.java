@@ -0,0 +1,76 @@
+package api.diagnostics;
+
+import api.diagnostics.ServerTiming.Phase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("diagnostics")
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @Test
+    @DisplayName("The header is added before the body is written and includes the storage phases")
+    void headerIsAddedBeforeBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse servletResponse) throws IOException {
+                ServerTiming.record(Phase.READ, 2_000_000);
+                servletResponse.getWriter().write("{}");
+                servletResponse.flushBuffer();
+                ServerTiming.record(Phase.WRITE, 1_000_000);
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/alice"), response,
+                new MockFilterChain(servlet));
+
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.contains("read;dur=2.000"), header);
+        assertTrue(header.contains("write;dur=0.000"), "Time after the body was started is not reported");
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Responses without a body and errors get the header too")
+    void headerIsAddedWithoutBody() throws Exception {
+        MockHttpServletResponse empty = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("HEAD", "/api/v1/users/alice"), empty, new MockFilterChain());
+        assertNotNull(empty.getHeader(ServerTiming.HEADER));
+
+        MockHttpServletResponse error = new MockHttpServletResponse();
+        HttpServlet failing = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse servletResponse) throws IOException {
+                servletResponse.sendError(404);
+            }
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/bob"), error, new MockFilterChain(failing));
+        assertEquals(404, error.getStatus());
+        assertNotNull(error.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    @DisplayName("The timing of a request does not leak to the thread afterwards")
+    void timingEndsWithRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), new MockFilterChain());
+
+        ServerTiming.record(Phase.READ, 1_000_000);
+        ServerTiming next = ServerTiming.begin();
+        assertEquals(0, next.getNanos(Phase.READ));
+        ServerTiming.end();
+    }
+}
@@ -0,0 +1,59 @@
+package api.diagnostics;
+
+import api.diagnostics.ServerTiming.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("diagnostics")
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.end();
+    }
+
+    @Test
+    @DisplayName("Phases are added up for the request on the current thread")
+    void phasesAreAddedUp() {
+        ServerTiming timing = ServerTiming.begin();
+
+        ServerTiming.record(Phase.READ, TimeUnit.MILLISECONDS.toNanos(2));
+        ServerTiming.record(Phase.READ, TimeUnit.MILLISECONDS.toNanos(3));
+        ServerTiming.record(Phase.LOCK, 500_000);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), timing.getNanos(Phase.READ));
+        assertEquals(500_000, timing.getNanos(Phase.LOCK));
+        assertEquals(0, timing.getNanos(Phase.WRITE));
+    }
+
+    @Test
+    @DisplayName("Time recorded outside a request is ignored")
+    void recordingOutsideRequestIsIgnored() {
+        ServerTiming.record(Phase.WRITE, 1_000_000);
+
+        ServerTiming timing = ServerTiming.begin();
+        assertEquals(0, timing.getNanos(Phase.WRITE));
+        ServerTiming.end();
+        ServerTiming.record(Phase.WRITE, 1_000_000);
+        assertEquals(0, timing.getNanos(Phase.WRITE));
+    }
+
+    @Test
+    @DisplayName("The header lists every phase, the remaining logic time and the total in milliseconds")
+    void headerListsPhases() {
+        ServerTiming timing = ServerTiming.begin();
+        ServerTiming.record(Phase.DESERIALIZE, 1_250_000);
+
+        String header = timing.toHeaderValue();
+
+        assertTrue(header.startsWith("lock;dur=0.000, read;dur=0.000, deserialize;dur=1.250, "
+                + "serialize;dur=0.000, write;dur=0.000, logic;dur="), header);
+        assertTrue(header.contains(", total;dur="), header);
+    }
+}
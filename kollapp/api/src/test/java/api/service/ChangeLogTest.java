@@ -0,0 +1,84 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Change;
+import core.ChangeSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class ChangeLogTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final ChangeLog<String> log = new ChangeLog<>(3, () -> NOW);
+
+    private static List<String> keys(ChangeSet<String> changes) {
+        return changes.getChanges().stream().map(Change::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Changes since a version are returned in order with increasing sequence numbers")
+    void returnsChangesSinceVersion() {
+        long start = log.getVersion("alice");
+        assertEquals(NOW * 1000, start);
+
+        long first = log.append("alice", List.of(Change.upsert("1", "milk")));
+        long second = log.append("alice", List.of(Change.upsert("2", "bread"), Change.remove("1")));
+        log.append("bob", List.of(Change.upsert("3", "eggs")));
+
+        assertEquals(List.of("1", "2", "1"), keys(log.since("alice", start)));
+        ChangeSet<String> changes = log.since("alice", first);
+        assertFalse(changes.isSnapshotRequired());
+        assertEquals(second, changes.getVersion());
+        assertEquals(List.of(Change.Type.UPSERT, Change.Type.REMOVE),
+            changes.getChanges().stream().map(Change::getType).collect(Collectors.toList()));
+        assertTrue(log.since("alice", second).getChanges().isEmpty());
+        assertEquals(second, log.getVersion("alice"));
+    }
+
+    @Test
+    @DisplayName("Versions the log no longer covers get a snapshot hint")
+    void hintsSnapshotWhenTruncated() {
+        long start = log.getVersion("alice");
+        log.append("alice", List.of(Change.upsert("1", "a"), Change.upsert("2", "b")));
+        long kept = log.append("alice", List.of(Change.upsert("3", "c"), Change.upsert("4", "d")));
+
+        assertTrue(log.since("alice", start).isSnapshotRequired());
+        assertTrue(log.since("alice", start - 5).isSnapshotRequired());
+        assertTrue(log.since("alice", kept + 1).isSnapshotRequired());
+        assertEquals(List.of("3", "4"), keys(log.since("alice", kept - 2)));
+
+        long reset = log.reset("alice");
+        assertTrue(log.since("alice", kept).isSnapshotRequired());
+        assertTrue(log.since("alice", reset).getChanges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("The diff lists new and changed parts, then removed parts last key first")
+    void diffsByKey() {
+        Map<String, String> before = new LinkedHashMap<>();
+        before.put("0", "milk");
+        before.put("1", "bread");
+        before.put("2", "eggs");
+        before.put("3", "tea");
+        Map<String, String> after = new LinkedHashMap<>();
+        after.put("0", "milk");
+        after.put("1", "butter");
+
+        List<Change<String>> changes = ChangeLog.diff(new ObjectMapper(), before, after);
+
+        assertEquals(List.of("1", "3", "2"), changes.stream().map(Change::getKey).collect(Collectors.toList()));
+        assertEquals("butter", changes.get(0).getValue());
+        assertEquals(Change.Type.REMOVE, changes.get(1).getType());
+        assertThrows(IllegalArgumentException.class, () -> new ChangeLog<String>(0, () -> NOW));
+    }
+}
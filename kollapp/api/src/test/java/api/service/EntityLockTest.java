@@ -0,0 +1,103 @@
+package api.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class EntityLockTest {
+
+    private static final String LOCK_WAIT_EVENT = "kollapp.LockWait";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("The lock is re-entrant like a synchronized method")
+    void lockIsReentrant() {
+        EntityLock lock = new EntityLock("todolists");
+
+        lock.lock("updateTask", "alice");
+        lock.lock("loadToDoList", "alice");
+        lock.unlock();
+        assertTrue(lock.isHeldByCurrentThread());
+        lock.unlock();
+        assertFalse(lock.isHeldByCurrentThread());
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+    }
+
+    @Test
+    @DisplayName("Readers share the lock, and the exclusive holder may read too")
+    void sharedLockAllowsConcurrentReaders() throws Exception {
+        EntityLock lock = new EntityLock("grouptodolists");
+
+        lock.lockShared("loadGroupToDoList", "friends");
+        Thread reader = new Thread(() -> {
+            lock.lockShared("loadGroupToDoList", "friends");
+            lock.unlockShared();
+        });
+        reader.start();
+        reader.join(5_000);
+        assertFalse(reader.isAlive(), "A second reader should not wait for the first");
+        lock.unlockShared();
+
+        lock.lock("updateGroupTask", "friends");
+        lock.lockShared("loadGroupToDoList", "friends");
+        lock.unlockShared();
+        lock.unlock();
+        assertThrows(IllegalMonitorStateException.class, lock::unlockShared);
+    }
+
+    @Test
+    @DisplayName("Only contended acquisitions are recorded as lock waits")
+    void contendedAcquisitionsAreRecorded() throws Exception {
+        EntityLock lock = new EntityLock("groupchat");
+        Path dump = tempDir.resolve("locks.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(LOCK_WAIT_EVENT);
+            recording.start();
+
+            lock.lock("getGroupChat", "uncontended");
+            lock.unlock();
+
+            lock.lock("sendMessage", "holder");
+            CountDownLatch waiting = new CountDownLatch(1);
+            Thread waiter = new Thread(() -> {
+                waiting.countDown();
+                lock.lock("getGroupChat", "friends");
+                lock.unlock();
+            });
+            waiter.start();
+            waiting.await();
+            while (waiter.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            lock.unlock();
+            waiter.join();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(LOCK_WAIT_EVENT))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("groupchat", event.getString("lock"));
+        assertEquals("getGroupChat", event.getString("operation"));
+        assertEquals("friends", event.getString("key"));
+        assertFalse(event.getDuration().isNegative());
+    }
+}
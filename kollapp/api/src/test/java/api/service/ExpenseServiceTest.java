@@ -1,6 +1,7 @@
 package api.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -11,6 +12,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +24,11 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import core.Balance;
+import core.Change;
+import core.ChangeSet;
 import core.Expense;
+import core.Transfer;
 
 @Tag("service")
 class ExpenseServiceTest {
@@ -145,6 +151,74 @@ class ExpenseServiceTest {
         assertEquals("Group name cannot be null", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Test group balances reflect stored and updated expenses")
+    public void getGroupBalances_AfterUpdate_ReflectsOutstandingShares() {
+        String groupName = "testGroup";
+        List<String> participants = Arrays.asList("user1", "user2", "user3");
+        Expense expense = new Expense("Dinner", 90.0, "user1", new ArrayList<>(participants));
+        expenseService.updateGroupExpenses(groupName, new ArrayList<>(List.of(expense)));
+
+        Map<String, Balance> balances = expenseService.getGroupBalances(groupName);
+        assertEquals(60.0, balances.get("user1").getOwed(), 1e-9);
+        assertEquals(30.0, balances.get("user2").getOwing(), 1e-9);
+        assertEquals(30.0, balances.get("user3").getOwing(), 1e-9);
+
+        expense.settleParticipant("user2");
+        expenseService.updateGroupExpenses(groupName, new ArrayList<>(List.of(expense)));
+
+        balances = expenseService.getGroupBalances(groupName);
+        assertEquals(30.0, balances.get("user1").getOwed(), 1e-9);
+        assertTrue(!balances.containsKey("user2"));
+    }
+
+    @Test
+    @DisplayName("Test user balance sums stored expense files across groups")
+    public void getUserBalance_SumsAcrossGroups() throws IOException {
+        List<String> participants = Arrays.asList("user1", "user2");
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValue(new File(tempDir.toString(), "groupA.json"),
+            List.of(new Expense("Rent", 100.0, "user1", new ArrayList<>(participants))));
+        mapper.writeValue(new File(tempDir.toString(), "groupB.json"),
+            List.of(new Expense("Food", 40.0, "user2", new ArrayList<>(participants))));
+
+        Balance balance = expenseService.getUserBalance("user1");
+        assertEquals(50.0, balance.getOwed(), 1e-9);
+        assertEquals(20.0, balance.getOwing(), 1e-9);
+        assertEquals(30.0, balance.getNet(), 1e-9);
+        assertEquals(0.0, expenseService.getUserBalance("unknown").getNet());
+    }
+
+    @Test
+    @DisplayName("Test applying the current settlement plan settles every outstanding share")
+    public void applySettlementPlan_WithCurrentPlan_SettlesAll() {
+        String groupName = "testGroup";
+        List<Expense> expenses = new ArrayList<>(List.of(
+            new Expense("Taxi", 20.0, "user2", new ArrayList<>(Arrays.asList("user1", "user2"))),
+            new Expense("Lunch", 20.0, "user3", new ArrayList<>(Arrays.asList("user2", "user3")))));
+        expenseService.updateGroupExpenses(groupName, expenses);
+
+        List<Transfer> plan = expenseService.getSettlementPlan(groupName);
+        assertEquals(List.of(new Transfer("user1", "user3", 10.0)), plan);
+
+        assertEquals(2, expenseService.applySettlementPlan(groupName, plan));
+        assertTrue(expenseService.loadGroupExpenses(groupName).stream().allMatch(Expense::isFullySettled));
+        assertTrue(expenseService.getGroupBalances(groupName).isEmpty());
+        assertTrue(expenseService.getSettlementPlan(groupName).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test applying an outdated settlement plan throws exception")
+    public void applySettlementPlan_WithOutdatedPlan_ThrowsException() {
+        String groupName = "testGroup";
+        expenseService.updateGroupExpenses(groupName, new ArrayList<>(List.of(
+            new Expense("Taxi", 20.0, "user2", new ArrayList<>(Arrays.asList("user1", "user2"))))));
+
+        List<Transfer> outdated = List.of(new Transfer("user1", "user2", 5.0));
+        assertThrows(IllegalStateException.class, () -> expenseService.applySettlementPlan(groupName, outdated));
+        assertThrows(IllegalArgumentException.class, () -> expenseService.applySettlementPlan(groupName, null));
+    }
+
     private Expense createTestExpense(String description, double amount, String paidBy, List<String> participants) {
         Expense expense = new Expense();
         expense.setDescription(description);
@@ -153,4 +227,45 @@ class ExpenseServiceTest {
         expense.setParticipants(new ArrayList<>(participants));
         return expense;
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test constructing the service with a storage directory")
+    public void constructor_WithPath_StoresExpensesInDirectory() {
+        Path directory = tempDir.resolve("custom");
+        ExpenseService service = new ExpenseService(directory);
+        List<Expense> expenses = List.of(createTestExpense("Taxi", 20.0, "user1", Arrays.asList("user1", "user2")));
+
+        service.updateGroupExpenses("testGroup", expenses);
+
+        assertTrue(directory.resolve("testGroup.json").toFile().exists());
+        assertEquals(1, service.loadGroupExpenses("testGroup").size());
+        assertThrows(NullPointerException.class, () -> new ExpenseService((Path) null));
+    }
+
+    @Test
+    @DisplayName("Test changes since a version are keyed by expense identifier")
+    public void getGroupExpenseChanges_AfterUpdates_ListsChangedExpenses() {
+        String groupName = "testGroup";
+        List<String> participants = Arrays.asList("user1", "user2");
+        long version = expenseService.getGroupExpensesVersion(groupName);
+        expenseService.updateGroupExpenses(groupName, new ArrayList<>(List.of(
+            createTestExpense("Taxi", 20.0, "user1", participants),
+            createTestExpense("Food", 30.0, "user2", participants),
+            createTestExpense("Tea", 5.0, "user2", participants))));
+        long added = expenseService.getGroupExpensesVersion(groupName);
+        List<Expense> stored = expenseService.loadGroupExpenses(groupName);
+        Expense food = stored.get(1);
+        food.setAmount(35.0);
+
+        expenseService.updateGroupExpenses(groupName, new ArrayList<>(List.of(food, stored.get(2))));
+
+        assertEquals(5, expenseService.getGroupExpenseChanges(groupName, version).getChanges().size());
+        ChangeSet<Expense> changes = expenseService.getGroupExpenseChanges(groupName, added);
+        assertFalse(changes.isSnapshotRequired());
+        assertEquals(List.of(Long.toString(food.getId()), Long.toString(stored.get(0).getId())),
+            changes.getChanges().stream().map(Change::getKey).toList());
+        assertEquals(35.0, changes.getChanges().get(0).getValue().getAmount());
+        assertEquals(Change.Type.REMOVE, changes.getChanges().get(1).getType());
+        assertThrows(IllegalArgumentException.class, () -> expenseService.getGroupExpenseChanges(null, version));
+    }
+}
@@ -11,8 +11,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -244,4 +248,49 @@ public class GroupChatServiceTest {
         assertEquals(message.getAuthor(), savedChat.getMessages().get(0).getAuthor());
         assertEquals(message.getText(), savedChat.getMessages().get(0).getText());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Messages sent to a group at the same time are all stored")
+    @Tag("groupchat")
+    void testConcurrentSendMessage() throws Exception {
+        String groupName = "busyGroup";
+        groupChatService.createGroupChat(groupName);
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Message message = new Message("user" + i, "Message " + i);
+            sends.add(CompletableFuture.runAsync(() -> groupChatService.sendMessage(groupName, message)));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        List<Message> messages = groupChatService.getMessages(groupName);
+        assertEquals(20, messages.size());
+        assertEquals(20, messages.stream().map(Message::getAuthor).distinct().count());
+    }
+
+    @Test
+    @DisplayName("A message that fails among messages sent at the same time does not stop the others")
+    @Tag("groupchat")
+    void testConcurrentSendMessageWithFailure() throws Exception {
+        String groupName = "busyGroup";
+        groupChatService.createGroupChat(groupName);
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Message message = i % 5 == 2 ? null : new Message("user" + i, "Message " + i);
+            sends.add(CompletableFuture.runAsync(() -> groupChatService.sendMessage(groupName, message)));
+        }
+        int failed = 0;
+        for (CompletableFuture<Void> send : sends) {
+            try {
+                send.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                failed++;
+            }
+        }
+
+        assertEquals(4, failed);
+        assertEquals(16, groupChatService.getMessages(groupName).size());
+    }
+}
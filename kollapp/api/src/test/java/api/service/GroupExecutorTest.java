@@ -0,0 +1,209 @@
+package api.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class GroupExecutorTest {
+
+    @Test
+    @DisplayName("Changes of a group run one at a time, and changes of other groups run beside them")
+    void changesOfAGroupRunOneAtATime() throws Exception {
+        GroupExecutor executor = new GroupExecutor(2);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> executor.execute("friends", "first", () -> {
+            blocked.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(
+            () -> executor.execute("friends", "second", () -> executor.isWriter("friends")));
+        String other = executor.execute("family", "other", () -> "done");
+
+        assertEquals("done", other, "Another group should not wait for the blocked one");
+        assertFalse(second.isDone(), "The second change should wait for the first");
+        release.countDown();
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        first.get(5, TimeUnit.SECONDS);
+        assertFalse(executor.isWriter("friends"));
+    }
+
+    @Test
+    @DisplayName("Batched changes share their data and are written once before their requests return")
+    void batchedChangesAreWrittenOnce() throws Exception {
+        GroupExecutor executor = new GroupExecutor(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = CompletableFuture.runAsync(() -> executor.execute("friends", "block", () -> {
+            blocked.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger loads = new AtomicInteger();
+        List<List<String>> writes = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> changes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String message = "message " + i;
+            changes.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return executor.executeBatched("friends", "send", batch -> {
+                        List<String> messages = batch.get("chat", () -> {
+                            loads.incrementAndGet();
+                            return new ArrayList<>();
+                        });
+                        messages.add(message);
+                        batch.write("chat", () -> writes.add(List.copyOf(messages)));
+                        return writes.size();
+                    });
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueueLength("friends") < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        for (CompletableFuture<Integer> change : changes) {
+            assertEquals(0, change.get(5, TimeUnit.SECONDS), "Changes should run before the batch is written");
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, writes.size());
+        assertEquals(3, writes.get(0).size());
+    }
+
+    @Test
+    @DisplayName("A failing batched change leaves nothing written, and the changes batched before it are made again")
+    void failingBatchedChangeIsNotWritten() throws Exception {
+        GroupExecutor executor = new GroupExecutor(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = CompletableFuture.runAsync(() -> executor.execute("friends", "block", () -> {
+            blocked.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger loads = new AtomicInteger();
+        List<List<String>> writes = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> changes = new ArrayList<>();
+        for (String message : List.of("hello", "fail", "bye")) {
+            changes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    executor.executeBatched("friends", "send", batch -> {
+                        List<String> messages = batch.get("chat", () -> {
+                            loads.incrementAndGet();
+                            return new ArrayList<>();
+                        });
+                        messages.add(message);
+                        if (message.equals("fail")) {
+                            throw new IllegalArgumentException("Message rejected");
+                        }
+                        batch.write("chat", () -> writes.add(List.copyOf(messages)));
+                        return null;
+                    });
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executor.getQueueLength("friends") < changes.size() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        changes.get(0).get(5, TimeUnit.SECONDS);
+        ExecutionException failed = assertThrows(ExecutionException.class,
+            () -> changes.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals("Message rejected", failed.getCause().getMessage());
+        changes.get(2).get(5, TimeUnit.SECONDS);
+        assertEquals(2, loads.get(), "The batch should be loaded again after the failed change");
+        assertEquals(List.of(List.of("hello", "bye")), writes);
+
+        assertThrows(IllegalArgumentException.class, () -> executor.executeBatched("friends", "send", batch -> {
+            batch.write("chat", () -> writes.add(List.of("half written")));
+            throw new IllegalArgumentException("Message rejected");
+        }));
+        assertEquals(1, writes.size(), "A failed change should not be written");
+    }
+
+    @Test
+    @DisplayName("The queueing delay of every change and the size of every batch are recorded")
+    void recordsQueueDelayAndBatchSize() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GroupExecutor executor = new GroupExecutor(1, registry);
+
+        executor.execute("friends", "createGroupChat", () -> null);
+        executor.executeBatched("friends", "sendMessage", batch -> {
+            batch.write("chat", () -> { });
+            return null;
+        });
+
+        assertEquals(1, registry.get(GroupExecutor.QUEUE_DELAY_TIMER).tag("operation", "createGroupChat").timer()
+            .count());
+        assertEquals(1, registry.get(GroupExecutor.QUEUE_DELAY_TIMER).tag("operation", "sendMessage").timer()
+            .count());
+        DistributionSummary batches = registry.get(GroupExecutor.BATCH_SIZE_SUMMARY).tag("operation", "sendMessage")
+            .summary();
+        assertEquals(1, batches.count());
+        assertEquals(1, batches.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Exceptions reach the caller, and a change made by the writer of a group runs right away")
+    void exceptionsAndNestedChanges() {
+        GroupExecutor executor = new GroupExecutor(1);
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+            () -> executor.execute("friends", "fail", () -> {
+                throw new IllegalArgumentException("Group not found: friends");
+            }));
+        assertEquals("Group not found: friends", thrown.getMessage());
+        assertThrows(IOException.class, () -> executor.executeBatched("friends", "write", batch -> {
+            batch.write("chat", () -> {
+                throw new IOException("Disk full");
+            });
+            return null;
+        }));
+
+        int nested = executor.execute("friends", "outer",
+            () -> executor.execute("friends", "inner", () -> 42));
+        assertEquals(42, nested);
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(null, "fail", () -> null));
+        assertThrows(IllegalArgumentException.class, () -> new GroupExecutor(0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
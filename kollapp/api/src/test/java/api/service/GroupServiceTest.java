@@ -7,6 +7,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -15,6 +16,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import core.Change;
+import core.ChangeSet;
 import core.User;
 import core.UserGroup;
 
@@ -276,4 +279,24 @@ public class GroupServiceTest {
         String result = groupService.validateGroupAssignment(user2.getUsername(), groupName);
         assertEquals("", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test members who join a group are listed in its changes")
+    @Tag("changes")
+    public void testGroupChangesListJoinedMembers() {
+        String groupName = "testGroup";
+        long version = groupService.getGroupVersion(groupName);
+        groupService.createGroup(user.getUsername(), groupName);
+        long created = groupService.getGroupVersion(groupName);
+
+        groupService.assignUserToGroup(user2.getUsername(), groupName);
+
+        assertEquals(2, groupService.getGroupChanges(groupName, version).getChanges().size());
+        ChangeSet<String> changes = groupService.getGroupChanges(groupName, created);
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(Change.Type.UPSERT, changes.getChanges().get(0).getType());
+        assertEquals(user2.getUsername(), changes.getChanges().get(0).getKey());
+        assertEquals(List.of(), groupService.getGroupChanges(groupName, changes.getVersion()).getChanges());
+        assertThrows(IllegalArgumentException.class, () -> groupService.getGroupChanges("nonExistentGroup", version));
+    }
+}
@@ -0,0 +1,227 @@
+package api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.User;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class JsonStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+    private JsonStore store;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        store = new JsonStore(new ObjectMapper(), registry);
+    }
+
+    @Test
+    @DisplayName("Reads and writes are timed separately for I/O and serialization")
+    void readAndWriteAreTimed() throws IOException {
+        File file = tempDir.resolve("alice.json").toFile();
+
+        store.write("users", file, new User("alice", "hash"));
+        User user = store.read("users", file, User.class);
+
+        assertEquals("alice", user.getUsername());
+        for (String operation : new String[] {"read", "write"}) {
+            assertEquals(1, registry.get(JsonStore.IO_TIMER).tags("entity", "users", "operation", operation)
+                    .timer().count());
+            assertEquals(1, registry.get(JsonStore.SERIALIZATION_TIMER)
+                    .tags("entity", "users", "operation", operation).timer().count());
+            assertEquals(file.length(), registry.get(JsonStore.PAYLOAD_SUMMARY)
+                    .tags("entity", "users", "operation", operation).summary().totalAmount());
+        }
+    }
+
+    @Test
+    @DisplayName("Failed reads are counted and rethrown")
+    void failedReadsAreCounted() throws IOException {
+        File missing = tempDir.resolve("missing.json").toFile();
+        File invalid = tempDir.resolve("invalid.json").toFile();
+        Files.writeString(invalid.toPath(), "{not json");
+
+        assertThrows(IOException.class, () -> store.read("groups", missing, User.class));
+        assertThrows(IOException.class, () -> store.read("groups", invalid, User.class));
+
+        assertEquals(2, registry.get(JsonStore.ERROR_COUNTER).tags("entity", "groups", "operation", "read")
+                .counter().count());
+        assertTrue(registry.find(JsonStore.IO_TIMER).timers().isEmpty(), "Failed reads should not be timed");
+    }
+
+    @Test
+    @DisplayName("Cache lookups are counted by result")
+    void cacheLookupsAreCounted() {
+        store.recordCacheLookup("ledgers", true);
+        store.recordCacheLookup("ledgers", true);
+        store.recordCacheLookup("ledgers", false);
+
+        assertEquals(2, registry.get(JsonStore.CACHE_COUNTER).tags("cache", "ledgers", "result", "hit")
+                .counter().count());
+        assertEquals(1, registry.get(JsonStore.CACHE_COUNTER).tags("cache", "ledgers", "result", "miss")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Services record their storage operations in the global registry")
+    void servicesUseGlobalRegistry() {
+        SimpleMeterRegistry global = new SimpleMeterRegistry();
+        Metrics.addRegistry(global);
+        try {
+            GroupChatService service = new GroupChatService(new StorageLocation(tempDir.toString()));
+            service.createGroupChat("metricsGroup");
+            service.getGroupChat("metricsGroup");
+
+            assertEquals(1, global.get(JsonStore.IO_TIMER).tags("entity", "groupchat", "operation", "write")
+                    .timer().count());
+            assertEquals(1, global.get(JsonStore.IO_TIMER).tags("entity", "groupchat", "operation", "read")
+                    .timer().count());
+        } finally {
+            Metrics.removeRegistry(global);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private List<Thread> readConcurrently(JsonStore blockingStore, File file, int readers, List<Object> results) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    results.add(blockingStore.read("groupchat", file, User.class));
+                } catch (IOException | RuntimeException e) {
+                    results.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        return threads;
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        while (registry.find(JsonStore.COALESCED_COUNTER).counter() == null
+                || registry.get(JsonStore.COALESCED_COUNTER).counter().count() < expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent reads of the same file share one disk read but get their own values")
+    void concurrentReadsAreCoalesced() throws Exception {
+        File file = tempDir.resolve("popular.json").toFile();
+        store.write("groupchat", file, new User("popular", "hash"));
+        AtomicInteger diskReads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        JsonStore blockingStore = new JsonStore(new ObjectMapper(), registry, path -> {
+            diskReads.incrementAndGet();
+            await(release);
+            return Files.readAllBytes(path);
+        });
+
+        List<Object> results = new CopyOnWriteArrayList<>();
+        List<Thread> threads = readConcurrently(blockingStore, file, 5, results);
+        awaitCoalesced(4);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, diskReads.get());
+        assertEquals(5, results.size());
+        assertEquals(5, results.stream().distinct().count(), "Every caller should get its own value");
+        for (Object result : results) {
+            assertEquals("popular", ((User) result).getUsername());
+        }
+        assertEquals(1, registry.get(JsonStore.IO_TIMER).tags("entity", "groupchat", "operation", "read")
+                .timer().count(), "Only the disk read should be timed");
+        assertEquals(5, registry.get(JsonStore.SERIALIZATION_TIMER)
+                .tags("entity", "groupchat", "operation", "read").timer().count());
+
+        blockingStore.read("groupchat", file, User.class);
+        assertEquals(2, diskReads.get(), "A read after the shared one finished should read the file again");
+    }
+
+    @Test
+    @DisplayName("A failed shared read fails every caller waiting for it")
+    void failedSharedReadFailsAllCallers() throws Exception {
+        File file = tempDir.resolve("broken.json").toFile();
+        CountDownLatch release = new CountDownLatch(1);
+        JsonStore blockingStore = new JsonStore(new ObjectMapper(), registry, path -> {
+            await(release);
+            throw new IOException("Disk on fire");
+        });
+
+        List<Object> results = new CopyOnWriteArrayList<>();
+        List<Thread> threads = readConcurrently(blockingStore, file, 3, results);
+        awaitCoalesced(2);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(3, results.size());
+        for (Object result : results) {
+            assertInstanceOf(IOException.class, result);
+            assertTrue(((IOException) result).getMessage().contains("Disk on fire"));
+        }
+        assertEquals(3, registry.get(JsonStore.ERROR_COUNTER).tags("entity", "groupchat", "operation", "read")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Reads and existence checks see writes that are not yet flushed")
+    void readsSeePendingWrites() throws IOException {
+        WriteBehind writeBehind = new WriteBehind(tempDir.resolve("wal"), true, WriteBehind.SUPPORTED_ENTITIES,
+            Duration.ofHours(1), Duration.ofHours(1), Long.MAX_VALUE, true, registry);
+        writeBehind.start();
+        try {
+            JsonStore bufferedStore = new JsonStore(new ObjectMapper(), registry, Files::readAllBytes, writeBehind);
+            File file = tempDir.resolve("alice.json").toFile();
+
+            bufferedStore.write("todolists", file, new User("alice", "hash"));
+
+            assertFalse(file.exists());
+            assertTrue(bufferedStore.exists(file));
+            assertEquals("alice", bufferedStore.read("todolists", file, User.class).getUsername());
+            assertNull(registry.find(JsonStore.IO_TIMER).tags("operation", "read").timer(),
+                "Reading pending contents should not be timed as I/O");
+
+            writeBehind.flush();
+            assertTrue(file.exists());
+            assertEquals("alice", bufferedStore.read("todolists", file, User.class).getUsername());
+        } finally {
+            writeBehind.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class MemoryStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Files are written, read, listed and deleted without touching the disk")
+    void keepsFilesInMemory() throws IOException {
+        MemoryStorage storage = new MemoryStorage();
+        Path directory = tempDir.resolve("users");
+        Path alice = directory.resolve("alice.json");
+
+        storage.write(alice, bytes("{}"));
+        storage.write(directory.resolve("notes.txt"), bytes("x"));
+
+        assertTrue(storage.exists(alice));
+        assertArrayEquals(bytes("{}"), storage.read(directory.resolve("..").resolve("users").resolve("alice.json")));
+        assertEquals(List.of(alice), storage.list(directory));
+        assertEquals(2, storage.size(alice));
+        assertFalse(Files.exists(directory), "Nothing should be written to disk");
+
+        assertTrue(storage.delete(alice));
+        assertFalse(storage.delete(alice));
+        assertFalse(storage.exists(alice));
+        assertThrows(NoSuchFileException.class, () -> storage.read(alice));
+        assertEquals(0, storage.size(alice));
+        assertTrue(storage.list(tempDir.resolve("missing")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Loading reads the JSON files of a directory on disk")
+    void loadsDirectory() throws IOException {
+        Path directory = Files.createDirectories(tempDir.resolve("groups"));
+        Files.writeString(directory.resolve("flat.json"), "{\"groupName\":\"flat\"}");
+        Files.writeString(directory.resolve("readme.txt"), "ignored");
+        MemoryStorage storage = new MemoryStorage();
+
+        assertEquals(1, storage.load(directory));
+        assertEquals(0, storage.load(tempDir.resolve("missing")));
+
+        Files.delete(directory.resolve("flat.json"));
+        assertArrayEquals(bytes("{\"groupName\":\"flat\"}"), storage.read(directory.resolve("flat.json")));
+        assertFalse(storage.exists(directory.resolve("readme.txt")));
+    }
+
+    @Test
+    @DisplayName("A snapshot writes the files kept in memory and deletes the ones removed since loading")
+    void snapshotsDirectory() throws IOException {
+        Path directory = Files.createDirectories(tempDir.resolve("users"));
+        Files.writeString(directory.resolve("removed.json"), "{}");
+        Files.writeString(directory.resolve("kept.json"), "{\"old\":true}");
+        MemoryStorage storage = new MemoryStorage();
+        storage.load(directory);
+
+        storage.delete(directory.resolve("removed.json"));
+        storage.write(directory.resolve("kept.json"), bytes("{\"old\":false}"));
+        storage.write(directory.resolve("added.json"), bytes("{}"));
+
+        assertEquals(2, storage.snapshot(directory));
+        assertFalse(Files.exists(directory.resolve("removed.json")));
+        assertEquals("{\"old\":false}", Files.readString(directory.resolve("kept.json")));
+        assertEquals("{}", Files.readString(directory.resolve("added.json")));
+    }
+}
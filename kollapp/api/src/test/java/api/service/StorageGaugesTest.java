@@ -0,0 +1,52 @@
+package api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class StorageGaugesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Gauges report the number and size of JSON files per entity directory")
+    void gaugesReportDirectoryUsage() throws IOException {
+        Files.createDirectories(tempDir.resolve("users"));
+        Files.writeString(tempDir.resolve("users").resolve("a.json"), "12345");
+        Files.writeString(tempDir.resolve("users").resolve("b.json"), "123");
+        Files.writeString(tempDir.resolve("users").resolve("notes.txt"), "ignored");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new StorageGauges(new StorageLocation(tempDir.toString())).bindTo(registry);
+
+        assertEquals(2, registry.get(StorageGauges.FILES_GAUGE).tag("entity", "users").gauge().value());
+        assertEquals(8, registry.get(StorageGauges.SIZE_GAUGE).tag("entity", "users").gauge().value());
+        assertEquals(0, registry.get(StorageGauges.FILES_GAUGE).tag("entity", "groupchat").gauge().value(),
+                "Missing directories should count as empty");
+        assertEquals(StorageLocation.DIRECTORIES.size() * 2, registry.getMeters().size());
+    }
+
+    @Test
+    @DisplayName("Directories are rescanned only after the maximum age")
+    void scansAreCached() throws IOException {
+        Files.createDirectories(tempDir.resolve("groups"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new StorageGauges(new StorageLocation(tempDir.toString())).bindTo(registry);
+        assertEquals(0, registry.get(StorageGauges.FILES_GAUGE).tag("entity", "groups").gauge().value());
+
+        Files.writeString(tempDir.resolve("groups").resolve("g.json"), "{}");
+
+        assertEquals(0, registry.get(StorageGauges.FILES_GAUGE).tag("entity", "groups").gauge().value(),
+                "A scan younger than the maximum age should be reused");
+    }
+}
@@ -0,0 +1,100 @@
+package api.service;
+
+import core.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class StorageLocationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Default storage root points to the persistence module")
+    void defaultRoot() {
+        Path expected = Paths.get("..", "persistence", "src", "main", "java", "persistence", "users")
+                .toAbsolutePath().normalize();
+
+        assertEquals(expected, new StorageLocation().resolve("users"));
+    }
+
+    @Test
+    @DisplayName("Services store their files under a custom storage root")
+    void customRoot() throws IOException {
+        StorageLocation storageLocation = new StorageLocation(tempDir.toString());
+        Files.createDirectories(storageLocation.resolve("users"));
+        UserService userService = new UserService(storageLocation);
+        ToDoListService toDoListService = new ToDoListService(storageLocation);
+
+        userService.saveUser(new User("storageUser", "password123"));
+        toDoListService.assignToDoList("storageUser");
+
+        assertTrue(Files.exists(tempDir.resolve("users").resolve("storageUser.json")));
+        assertTrue(Files.exists(tempDir.resolve("todolists").resolve("storageUser.json")));
+    }
+
+    @Test
+    @DisplayName("Blank storage root is rejected")
+    void blankRoot() {
+        assertThrows(IllegalArgumentException.class, () -> new StorageLocation(" "));
+    }
+
+    @Test
+    @DisplayName("The in-memory backend reads the storage root at startup and never writes to it")
+    void memoryBackend() throws IOException {
+        new UserService(new StorageLocation(tempDir.toString())).saveUser(new User("existing", "password123"));
+        StorageLocation storageLocation = new StorageLocation(tempDir.toString(), StorageLocation.MEMORY, false);
+        UserService userService = new UserService(storageLocation);
+        ToDoListService toDoListService = new ToDoListService(storageLocation);
+        GroupService groupService = new GroupService(storageLocation);
+
+        userService.saveUser(new User("memoryUser", "password123"));
+        toDoListService.assignToDoList("memoryUser");
+        groupService.createGroup("existing", "memoryGroup");
+        userService.removeUser("existing");
+        storageLocation.destroy();
+
+        assertTrue(storageLocation.isInMemory());
+        assertTrue(userService.userExists("memoryUser"));
+        assertTrue(toDoListService.loadToDoList("memoryUser").getTasks().isEmpty());
+        assertTrue(groupService.groupExists("memoryGroup"));
+        assertFalse(userService.userExists("existing"));
+        assertTrue(Files.exists(tempDir.resolve("users").resolve("existing.json")));
+        assertFalse(Files.exists(tempDir.resolve("users").resolve("memoryUser.json")));
+        assertFalse(Files.exists(tempDir.resolve("todolists")));
+        assertFalse(Files.exists(tempDir.resolve("groups")));
+    }
+
+    @Test
+    @DisplayName("The in-memory backend writes its files back on shutdown when asked to")
+    void memorySnapshot() throws IOException {
+        new UserService(new StorageLocation(tempDir.toString())).saveUser(new User("existing", "password123"));
+        StorageLocation storageLocation = new StorageLocation(tempDir.toString(), StorageLocation.MEMORY, true);
+        UserService userService = new UserService(storageLocation);
+        userService.saveUser(new User("memoryUser", "password123"));
+        userService.removeUser("existing");
+
+        storageLocation.destroy();
+
+        assertTrue(Files.exists(tempDir.resolve("users").resolve("memoryUser.json")));
+        assertFalse(Files.exists(tempDir.resolve("users").resolve("existing.json")));
+        assertTrue(new UserService(new StorageLocation(tempDir.toString())).userExists("memoryUser"));
+    }
+
+    @Test
+    @DisplayName("Unknown storage backends are rejected")
+    void unknownBackend() {
+        assertThrows(IllegalArgumentException.class, () -> new StorageLocation(tempDir.toString(), "tape", false));
+        assertFalse(new StorageLocation(tempDir.toString()).isInMemory());
+    }
+}
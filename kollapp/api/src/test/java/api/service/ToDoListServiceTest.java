@@ -2,10 +2,15 @@ package api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import core.Change;
+import core.ChangeSet;
+import core.HybridClock;
+import core.ReplicatedToDoList;
 import core.Task;
 import core.ToDoList;
 import core.User;
 import core.UserGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -13,6 +18,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.stream.Stream;
@@ -376,4 +382,219 @@ public class ToDoListServiceTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Update and remove single tasks by id")
+    @Tag("task")
+    public void testUpdateAndRemoveTask() {
+        ToDoList toDoList = new ToDoList();
+        Task first = new Task("First task");
+        Task second = new Task("Second task");
+        toDoList.addTask(first);
+        toDoList.addTask(second);
+        toDoListService.updateToDoList(user.getUsername(), toDoList);
+
+        Task edited = new Task(first);
+        edited.setCompleted(true);
+        toDoListService.updateTask(user.getUsername(), edited);
+        toDoListService.removeTask(user.getUsername(), second.getId());
+
+        ToDoList loadedList = toDoListService.loadToDoList(user.getUsername());
+        assertEquals(1, loadedList.getTasks().size());
+        assertTrue(loadedList.getTask(first.getId()).isCompleted());
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> toDoListService.removeTask(user.getUsername(), second.getId()));
+    }
+
+    @Test
+    @DisplayName("Update and remove single group tasks by id")
+    @Tag("group")
+    public void testUpdateAndRemoveGroupTask() {
+        ToDoList toDoList = new ToDoList();
+        Task task = new Task("Group task");
+        toDoList.addTask(task);
+        toDoListService.updateGroupToDoList(userGroup.getGroupName(), toDoList);
+
+        Task edited = new Task(task);
+        edited.setDescription("Edited");
+        toDoListService.updateGroupTask(userGroup.getGroupName(), edited);
+        assertEquals("Edited", toDoListService.loadGroupToDoList(userGroup.getGroupName()).getTask(task.getId()).getDescription());
+
+        toDoListService.removeGroupTask(userGroup.getGroupName(), task.getId());
+        assertTrue(toDoListService.loadGroupToDoList(userGroup.getGroupName()).getTasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Load to-do list saved without task ids")
+    @Tag("load")
+    public void testLoadToDoList_WithoutTaskIds() throws IOException {
+        Path file = testToDoListFolderPath.resolve(user.getUsername() + ".json");
+        Files.writeString(file, "{\"tasks\":[{\"taskName\":\"Old task\",\"completed\":false},"
+            + "{\"taskName\":\"Other task\",\"completed\":true}]}");
+
+        ToDoList loadedList = toDoListService.loadToDoList(user.getUsername());
+
+        assertEquals(2, loadedList.getTasks().size());
+        long id = loadedList.getTasks().get(0).getId();
+        assertNotEquals(0, id, "Old tasks should be assigned an id");
+        assertNotEquals(id, loadedList.getTasks().get(1).getId(), "Assigned ids should be unique");
+        assertEquals("Old task", loadedList.getTask(id).getTaskName());
+    }
+
+    @Test
+    @DisplayName("Updated to-do lists can be loaded before write-behind flushes them")
+    @Tag("file")
+    public void testWriteBehindUpdatesAreVisible() throws IOException {
+        WriteBehind writeBehind = new WriteBehind(tempDir.resolve("wal"), true, WriteBehind.SUPPORTED_ENTITIES,
+            Duration.ofHours(1), Duration.ofHours(1), Long.MAX_VALUE, true, new SimpleMeterRegistry());
+        writeBehind.start();
+        ToDoListService buffered = new ToDoListService(testToDoListFolderPath, groupTestFolderPath, userService,
+            writeBehind);
+        ToDoList toDoList = new ToDoList();
+        toDoList.addTask(new Task("Buffered", LocalDate.now(), "", "Low"));
+
+        buffered.updateToDoList(user.getUsername(), toDoList);
+        buffered.updateGroupToDoList(userGroup.getGroupName(), toDoList);
+
+        assertFalse(Files.exists(testToDoListFolderPath.resolve(user.getUsername() + ".json")));
+        assertEquals(1, buffered.loadToDoList(user.getUsername()).getTasks().size());
+        assertEquals(1, buffered.loadGroupToDoList(userGroup.getGroupName()).getTasks().size());
+
+        writeBehind.close();
+        assertEquals(1, toDoListService.loadToDoList(user.getUsername()).getTasks().size());
+        assertEquals(1, toDoListService.loadGroupToDoList(userGroup.getGroupName()).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Changes since a version list the added, changed and removed tasks")
+    @Tag("changes")
+    public void testToDoListChangesSinceVersion() {
+        toDoListService.assignToDoList(user.getUsername());
+        long version = toDoListService.getToDoListVersion(user.getUsername());
+        Task milk = new Task("Milk");
+        Task bread = new Task("Bread");
+        ToDoList toDoList = new ToDoList();
+        toDoList.addTask(milk);
+        toDoList.addTask(bread);
+        toDoListService.updateToDoList(user.getUsername(), toDoList);
+
+        milk.setCompleted(true);
+        toDoListService.updateTask(user.getUsername(), milk);
+        toDoListService.removeTask(user.getUsername(), bread.getId());
+
+        ChangeSet<Task> changes = toDoListService.getToDoListChanges(user.getUsername(), version);
+        assertFalse(changes.isSnapshotRequired());
+        assertEquals(toDoListService.getToDoListVersion(user.getUsername()), changes.getVersion());
+        assertEquals(4, changes.getChanges().size());
+        Change<Task> completed = changes.getChanges().get(2);
+        assertEquals(Long.toString(milk.getId()), completed.getKey());
+        assertTrue(completed.getValue().isCompleted());
+        assertEquals(Change.Type.REMOVE, changes.getChanges().get(3).getType());
+
+        assertTrue(toDoListService.getToDoListChanges(user.getUsername(), changes.getVersion()).getChanges().isEmpty());
+        assertTrue(toDoListService.getToDoListChanges(user.getUsername(), version - 1).isSnapshotRequired());
+        assertThrows(IllegalArgumentException.class, () -> toDoListService.getToDoListChanges("nobody", version));
+    }
+
+    @Test
+    @DisplayName("Group to-do lists have their own change log")
+    @Tag("changes")
+    public void testGroupToDoListChanges() {
+        long version = toDoListService.getGroupToDoListVersion(userGroup.getGroupName());
+        ToDoList toDoList = new ToDoList();
+        toDoList.addTask(new Task("Clean"));
+
+        toDoListService.updateGroupToDoList(userGroup.getGroupName(), toDoList);
+
+        assertEquals(1, toDoListService.getGroupToDoListChanges(userGroup.getGroupName(), version).getChanges().size());
+        assertEquals(version, toDoListService.getToDoListVersion(user.getUsername()));
+    }
+
+    @Test
+    @DisplayName("Edits two members make to the same group list at the same time are both kept")
+    @Tag("merge")
+    public void testMergeGroupToDoList() throws IOException {
+        Task milk = new Task("Milk");
+        Task bread = new Task("Bread");
+        ToDoList base = new ToDoList();
+        base.addTask(milk);
+        base.addTask(bread);
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.writeValue(groupTestFolderPath.resolve(userGroup.getGroupName() + ".json").toFile(), base);
+
+        ToDoList alice = new ToDoList(base);
+        alice.getTask(milk.getId()).setCompleted(true);
+        alice.addTask(new Task("Eggs"));
+        ToDoList bob = new ToDoList(base);
+        bob.removeTask(bread.getId());
+        long version = toDoListService.getGroupToDoListVersion(userGroup.getGroupName());
+        toDoListService.mergeGroupToDoList(userGroup.getGroupName(), ReplicatedToDoList.delta(base, alice, 1));
+        ReplicatedToDoList bobDelta = ReplicatedToDoList.delta(base, bob, 2);
+        toDoListService.mergeGroupToDoList(userGroup.getGroupName(), bobDelta);
+        ToDoList merged = toDoListService.mergeGroupToDoList(userGroup.getGroupName(), bobDelta);
+
+        ToDoList loaded = toDoListService.loadGroupToDoList(userGroup.getGroupName());
+        assertEquals(2, loaded.getTasks().size());
+        assertTrue(loaded.getTask(milk.getId()).isCompleted());
+        assertNull(loaded.getTask(bread.getId()));
+        assertEquals(2, merged.getTasks().size());
+        ReplicatedToDoList stored = mapper.readValue(
+            groupTestFolderPath.resolve(userGroup.getGroupName() + ".json").toFile(), ReplicatedToDoList.class);
+        assertTrue(stored.isRemoved(bread.getId()));
+        assertEquals(3, toDoListService.getGroupToDoListChanges(userGroup.getGroupName(), version).getChanges().size());
+        assertThrows(IllegalArgumentException.class, () -> toDoListService.mergeGroupToDoList(userGroup.getGroupName(), null));
+    }
+
+    @Test
+    @DisplayName("Update group to-do list - A list loaded before the last change is rejected")
+    @Tag("group")
+    public void testUpdateGroupToDoList_RejectsStaleList() {
+        String groupName = userGroup.getGroupName();
+        ToDoList base = new ToDoList();
+        base.addTask(new Task("Milk"));
+        toDoListService.updateGroupToDoList(groupName, base);
+        long version = toDoListService.getGroupToDoListVersion(groupName);
+        ToDoList alice = toDoListService.loadGroupToDoList(groupName);
+        alice.addTask(new Task("Eggs"));
+        ToDoList bob = toDoListService.loadGroupToDoList(groupName);
+        bob.getTasks().get(0).setCompleted(true);
+
+        toDoListService.updateGroupToDoList(groupName, alice, version);
+        toDoListService.updateGroupToDoList(groupName, alice, version);
+
+        assertThrows(IllegalStateException.class, () -> toDoListService.updateGroupToDoList(groupName, bob, version));
+        ToDoList loaded = toDoListService.loadGroupToDoList(groupName);
+        assertEquals(2, loaded.getTasks().size());
+        assertFalse(loaded.getTasks().get(0).isCompleted());
+    }
+
+    @Test
+    @DisplayName("Merge group to-do list - Tombstones older than the retention are dropped")
+    @Tag("group")
+    public void testMergeGroupToDoList_PrunesOldTombstones() throws IOException {
+        String groupName = userGroup.getGroupName();
+        Task milk = new Task("Milk");
+        Task bread = new Task("Bread");
+        ToDoList base = new ToDoList();
+        base.addTask(milk);
+        base.addTask(bread);
+        long start = HybridClock.stampAt(1_000_000);
+        long later = HybridClock.stampAt(1_000_000 + ToDoListService.TOMBSTONE_RETENTION.toMillis() + 1);
+        ToDoList withoutMilk = new ToDoList(base);
+        withoutMilk.removeTask(milk.getId());
+        ToDoList withoutBoth = new ToDoList(withoutMilk);
+        withoutBoth.removeTask(bread.getId());
+
+        toDoListService.mergeGroupToDoList(groupName, ReplicatedToDoList.delta(new ToDoList(), base, start));
+        toDoListService.mergeGroupToDoList(groupName, ReplicatedToDoList.delta(base, withoutMilk, start));
+        toDoListService.mergeGroupToDoList(groupName, ReplicatedToDoList.delta(withoutMilk, withoutBoth, later));
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        ReplicatedToDoList stored = mapper.readValue(
+            groupTestFolderPath.resolve(groupName + ".json").toFile(), ReplicatedToDoList.class);
+        assertFalse(stored.isRemoved(milk.getId()));
+        assertTrue(stored.isRemoved(bread.getId()));
+    }
+}
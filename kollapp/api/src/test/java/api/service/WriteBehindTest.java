@@ -0,0 +1,257 @@
+package api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("service")
+class WriteBehindTest {
+
+    private static final Duration LONG = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+    private Path walDirectory;
+    private Path walFile;
+    private final List<WriteBehind> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        walDirectory = tempDir.resolve(WriteBehind.WAL_DIRECTORY);
+        walFile = walDirectory.resolve(WriteBehind.WAL_FILE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (WriteBehind writeBehind : started) {
+            writeBehind.close();
+        }
+    }
+
+    private WriteBehind start(Duration flushInterval, Duration maxDelay, long maxPendingBytes) throws IOException {
+        WriteBehind writeBehind = new WriteBehind(walDirectory, true, WriteBehind.SUPPORTED_ENTITIES, flushInterval,
+            maxDelay, maxPendingBytes, true, registry);
+        writeBehind.start();
+        started.add(writeBehind);
+        return writeBehind;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitFlushed(WriteBehind writeBehind, Path file) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (writeBehind.pending(file) != null) {
+            assertTrue(System.nanoTime() < deadline, "The write should have been flushed");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Acknowledged writes are readable before they reach their file")
+    void pendingWritesAreReadable() throws IOException {
+        WriteBehind writeBehind = start(LONG, LONG, Long.MAX_VALUE);
+        Path file = tempDir.resolve("todolists").resolve("alice.json");
+
+        writeBehind.write("todolists", file, bytes("first"));
+        writeBehind.write("todolists", file, bytes("second"));
+
+        assertArrayEquals(bytes("second"), writeBehind.pending(file));
+        assertFalse(Files.exists(file));
+        assertTrue(Files.size(walFile) > 0);
+        assertEquals(2, registry.get(WriteBehind.APPEND_TIMER).tags("entity", "todolists").timer().count());
+        assertEquals(bytes("second").length, registry.get(WriteBehind.PENDING_GAUGE).gauge().value());
+    }
+
+    @Test
+    @DisplayName("A flush writes each file once with its latest contents and empties the log")
+    void flushCoalescesWrites() throws IOException {
+        WriteBehind writeBehind = start(LONG, LONG, Long.MAX_VALUE);
+        Path file = tempDir.resolve("grouptodolists").resolve("flat.json");
+        for (int i = 0; i < 10; i++) {
+            writeBehind.write("grouptodolists", file, bytes("version " + i));
+        }
+
+        writeBehind.flush();
+
+        assertEquals("version 9", Files.readString(file));
+        assertNull(writeBehind.pending(file));
+        assertEquals(0, Files.size(walFile));
+        assertEquals(1, registry.get(WriteBehind.FLUSH_COUNTER).tags("entity", "grouptodolists").counter().count());
+    }
+
+    @Test
+    @DisplayName("The flusher writes a file once it has been unchanged for the flush interval")
+    void quietFilesAreFlushed() throws Exception {
+        WriteBehind writeBehind = start(Duration.ofMillis(20), LONG, Long.MAX_VALUE);
+        Path file = tempDir.resolve("todolists").resolve("bob.json");
+
+        writeBehind.write("todolists", file, bytes("done"));
+        awaitFlushed(writeBehind, file);
+
+        assertEquals("done", Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Everything is flushed once more than the maximum pending bytes are waiting")
+    void pendingBytesLimitFlushes() throws Exception {
+        WriteBehind writeBehind = start(LONG, LONG, 8);
+        Path file = tempDir.resolve("groupexpenses").resolve("flat.json");
+
+        writeBehind.write("groupexpenses", file, bytes("[\"a lot of expenses\"]"));
+        awaitFlushed(writeBehind, file);
+
+        assertEquals("[\"a lot of expenses\"]", Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Closing flushes every pending write and later writes go straight to disk")
+    void closeDrainsPendingWrites() throws IOException {
+        WriteBehind writeBehind = start(LONG, LONG, Long.MAX_VALUE);
+        Path first = tempDir.resolve("todolists").resolve("alice.json");
+        Path second = tempDir.resolve("grouptodolists").resolve("flat.json");
+        writeBehind.write("todolists", first, bytes("alice"));
+        writeBehind.write("grouptodolists", second, bytes("flat"));
+
+        writeBehind.close();
+
+        assertEquals("alice", Files.readString(first));
+        assertEquals("flat", Files.readString(second));
+        assertEquals(0, Files.size(walFile));
+
+        writeBehind.write("todolists", first, bytes("after close"));
+        assertNull(writeBehind.pending(first));
+        assertEquals("after close", Files.readString(first));
+    }
+
+    @Test
+    @DisplayName("Starting replays the latest logged contents of each file left by a crash")
+    void startReplaysLog() throws IOException {
+        WriteBehind crashed = new WriteBehind(walDirectory, true, WriteBehind.SUPPORTED_ENTITIES, LONG, LONG,
+            Long.MAX_VALUE, true, registry);
+        crashed.start();
+        Path first = tempDir.resolve("todolists").resolve("alice.json");
+        Path second = tempDir.resolve("groupexpenses").resolve("flat.json");
+        crashed.write("todolists", first, bytes("old"));
+        crashed.write("groupexpenses", second, bytes("[]"));
+        crashed.write("todolists", first, bytes("new"));
+        byte[] log = Files.readAllBytes(walFile);
+        crashed.close();
+        Files.delete(first);
+        Files.delete(second);
+        Files.write(walFile, log);
+
+        new WriteBehind(walDirectory, false, Set.of(), LONG, LONG, 1, true, registry).start();
+
+        assertEquals("new", Files.readString(first));
+        assertEquals("[]", Files.readString(second));
+        assertFalse(Files.exists(walFile), "The replayed log should be removed");
+    }
+
+    @Test
+    @DisplayName("Starting replays the log into the storage backend the services read from")
+    void startReplaysLogIntoStorage() throws IOException {
+        WriteBehind crashed = start(LONG, LONG, Long.MAX_VALUE);
+        Path file = tempDir.resolve("todolists").resolve("alice.json");
+        crashed.write("todolists", file, bytes("new"));
+        byte[] log = Files.readAllBytes(walFile);
+        crashed.close();
+        Files.delete(file);
+        Files.write(walFile, log);
+
+        MemoryStorage memory = new MemoryStorage();
+        new WriteBehind(walDirectory, false, Set.of(), LONG, LONG, 1, true, memory, registry).start();
+
+        assertEquals("new", new String(memory.read(file), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(file), "The replayed file should not be written to disk");
+        assertFalse(Files.exists(walFile), "The replayed log should be removed");
+    }
+
+    @Test
+    @DisplayName("Replay stops at a torn record at the end of the log")
+    void replayIgnoresTornTail() throws IOException {
+        WriteBehind crashed = start(LONG, LONG, Long.MAX_VALUE);
+        Path file = tempDir.resolve("todolists").resolve("alice.json");
+        crashed.write("todolists", file, bytes("complete"));
+        byte[] log = Files.readAllBytes(walFile);
+        crashed.close();
+        Files.delete(file);
+        Files.write(walFile, log);
+        Files.write(walFile, new byte[] {0, 0, 0, 40, 47, 116}, StandardOpenOption.APPEND);
+
+        start(LONG, LONG, Long.MAX_VALUE);
+
+        assertEquals("complete", Files.readString(file));
+        assertEquals(0, Files.size(walFile));
+    }
+
+    @Test
+    @DisplayName("Replay stops at a record that fails its checksum")
+    void replayIgnoresCorruptRecords() throws IOException {
+        WriteBehind crashed = start(LONG, LONG, Long.MAX_VALUE);
+        Path first = tempDir.resolve("todolists").resolve("alice.json");
+        Path second = tempDir.resolve("todolists").resolve("bob.json");
+        crashed.write("todolists", first, bytes("kept"));
+        crashed.write("todolists", second, bytes("corrupt"));
+        byte[] log = Files.readAllBytes(walFile);
+        crashed.close();
+        Files.delete(first);
+        Files.delete(second);
+        log[log.length - 9] ^= 1;
+        Files.write(walFile, log);
+
+        start(LONG, LONG, Long.MAX_VALUE);
+
+        assertEquals("kept", Files.readString(first));
+        assertFalse(Files.exists(second));
+    }
+
+    @Test
+    @DisplayName("Only the supported entities can be buffered")
+    void rejectsUnsupportedEntities() {
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehind(walDirectory, true, Set.of("users"),
+            LONG, LONG, 1, true, registry));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehind(walDirectory, true,
+            WriteBehind.SUPPORTED_ENTITIES, Duration.ZERO, LONG, 1, true, registry));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehind(walDirectory, true,
+            WriteBehind.SUPPORTED_ENTITIES, LONG, Duration.ofSeconds(1), 1, true, registry));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehind(walDirectory, true,
+            WriteBehind.SUPPORTED_ENTITIES, LONG, LONG, 0, true, registry));
+    }
+
+    @Test
+    @DisplayName("Disabled write-behind handles no entity and writes files directly")
+    void disabledWritesDirectly() throws IOException {
+        WriteBehind disabled = new WriteBehind(walDirectory, false, WriteBehind.SUPPORTED_ENTITIES, LONG, LONG, 1,
+            true, registry);
+        disabled.start();
+        Path file = tempDir.resolve("alice.json");
+
+        disabled.write("todolists", file, bytes("direct"));
+
+        assertFalse(disabled.handles("todolists"));
+        assertFalse(WriteBehind.disabled().handles("todolists"));
+        assertEquals("direct", Files.readString(file));
+        assertFalse(Files.exists(walFile));
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ *
+ * <p>Delegates to the JMH launcher, but writes the results as JSON to {@code jmh-result.json}
+ * unless another result format is given with {@code -rf}, so runs can be compared between
+ * releases. Pass {@code -rff <file>} to choose another file.</p>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks selected by the given JMH command line.
+     *
+     * @param args the JMH command line arguments
+     * @throws Exception if JMH fails to run
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add(0, "-rf");
+            arguments.add(1, "json");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.Expense;
+import core.Settlement;
+
+/**
+ * Benchmarks for creating expenses and settling their participants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseBenchmark {
+
+    @Param({"10", "1000"})
+    private int participantCount;
+
+    private List<String> participants;
+    private Expense expense;
+    private String lastParticipant;
+    private Settlement lastSettlement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        participants = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            participants.add("user" + i);
+        }
+        lastParticipant = participants.get(participantCount - 1);
+
+        // Everyone but the last participant has settled, so the full scans below run to the end
+        expense = new Expense("Dinner", 100.0 * participantCount, "user0", participants);
+        for (Settlement settlement : expense.getSettlements()) {
+            settlement.setSettled(true);
+        }
+        List<Settlement> settlements = expense.getSettlements();
+        lastSettlement = settlements.get(settlements.size() - 1);
+        lastSettlement.setSettled(false);
+    }
+
+    @Benchmark
+    public Expense createExpense() {
+        return new Expense("Dinner", 100.0 * participantCount, "user0", participants);
+    }
+
+    /**
+     * Settles a participant on a new expense, which includes building its settlement index.
+     */
+    @Benchmark
+    public Expense createAndSettle() {
+        Expense created = new Expense("Dinner", 100.0 * participantCount, "user0", participants);
+        created.settleParticipant(lastParticipant);
+        return created;
+    }
+
+    /**
+     * Settles the last participant and resets the settlement, so every call does the same work.
+     */
+    @Benchmark
+    public boolean settleParticipant() {
+        expense.settleParticipant(lastParticipant);
+        boolean settled = lastSettlement.isSettled();
+        lastSettlement.setSettled(false);
+        return settled;
+    }
+
+    @Benchmark
+    public boolean isFullySettled() {
+        return expense.isFullySettled();
+    }
+}
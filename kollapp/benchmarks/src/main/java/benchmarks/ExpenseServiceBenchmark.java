@@ -0,0 +1,131 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.service.ExpenseService;
+import core.Balance;
+import core.Expense;
+import core.Transfer;
+
+/**
+ * Benchmarks for every {@link ExpenseService} method against a temporary store of group expenses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseServiceBenchmark {
+    private static final String GROUP_NAME = "group0";
+    private static final int MEMBER_COUNT = 10;
+
+    @Param({"50"})
+    private int groupCount;
+
+    @Param({"100", "1000"})
+    private int expenseCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private ExpenseService expenseService;
+    private List<Expense> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        expenseService = new ExpenseService(store.getLocation());
+
+        for (int g = 0; g < groupCount; g++) {
+            store.write("groupexpenses", "group" + g, createExpenses(g, expenseCount));
+        }
+        expenses = createExpenses(0, expenseCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    static List<Expense> createExpenses(int seed, int expenseCount) {
+        Random random = new Random(seed);
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add("user" + i);
+        }
+        List<Expense> expenses = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            Expense expense = new Expense("Expense " + i, 1 + random.nextInt(50000) / 100.0,
+                    members.get(random.nextInt(MEMBER_COUNT)), members);
+            if (random.nextInt(4) == 0) {
+                expense.settleParticipant(members.get(random.nextInt(MEMBER_COUNT)));
+            }
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    @Benchmark
+    public List<Expense> loadGroupExpenses() {
+        return expenseService.loadGroupExpenses(GROUP_NAME);
+    }
+
+    @Benchmark
+    public void updateGroupExpenses() {
+        expenseService.updateGroupExpenses(GROUP_NAME, expenses);
+    }
+
+    @Benchmark
+    public Map<String, Balance> getGroupBalances() {
+        return expenseService.getGroupBalances(GROUP_NAME);
+    }
+
+    @Benchmark
+    public Balance getUserBalance() {
+        return expenseService.getUserBalance("user0");
+    }
+
+    @Benchmark
+    public List<Transfer> getSettlementPlan() {
+        return expenseService.getSettlementPlan(GROUP_NAME);
+    }
+
+    @Benchmark
+    public int applySettlementPlan(UnsettledGroup group) {
+        return expenseService.applySettlementPlan(GROUP_NAME, group.plan);
+    }
+
+    /**
+     * Restores the unsettled expenses before each call, so {@code applySettlementPlan} always has work to do.
+     */
+    @State(Scope.Thread)
+    public static class UnsettledGroup {
+        private List<Transfer> plan;
+
+        @Setup(Level.Invocation)
+        public void setUp(ExpenseServiceBenchmark benchmark) {
+            benchmark.expenseService.updateGroupExpenses(GROUP_NAME, createExpenses(0, benchmark.expenseCount));
+            plan = benchmark.expenseService.getSettlementPlan(GROUP_NAME);
+        }
+    }
+}
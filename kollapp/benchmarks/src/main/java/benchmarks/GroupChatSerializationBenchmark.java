@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import core.GroupChat;
+import core.Message;
+
+/**
+ * Benchmarks for Jackson round-trips of group chats, configured the same way as the
+ * mapper in {@code GroupChatService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GroupChatSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int messageCount;
+
+    private ObjectMapper mapper;
+    private GroupChat groupChat;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+
+        groupChat = new GroupChat();
+        for (int i = 0; i < messageCount; i++) {
+            groupChat.addMessage(new Message("user" + (i % 50), "Message number " + i + " in the group chat"));
+        }
+        json = mapper.writeValueAsBytes(groupChat);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(groupChat);
+    }
+
+    @Benchmark
+    public GroupChat deserialize() throws IOException {
+        return mapper.readValue(json, GroupChat.class);
+    }
+
+    @Benchmark
+    public GroupChat roundTrip() throws IOException {
+        return mapper.readValue(mapper.writeValueAsBytes(groupChat), GroupChat.class);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.service.GroupChatService;
+import core.GroupChat;
+import core.Message;
+
+/**
+ * Benchmarks for every {@link GroupChatService} method against a temporary store with a
+ * chat history of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupChatServiceBenchmark {
+    private static final String GROUP_NAME = "group0";
+
+    @Param({"1000", "10000"})
+    private int messageCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private GroupChatService groupChatService;
+    private GroupChat history;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        groupChatService = new GroupChatService(store.getLocation());
+
+        history = new GroupChat();
+        for (int i = 0; i < messageCount; i++) {
+            history.addMessage(new Message("user" + (i % 20), "Message number " + i + " in the group chat"));
+        }
+    }
+
+    /**
+     * Restores the chat history, so messages sent in one iteration don't slow down the next.
+     */
+    @Setup(Level.Iteration)
+    public void resetHistory() {
+        store.write("groupchat", GROUP_NAME, history);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    @Benchmark
+    public void createGroupChat() {
+        groupChatService.createGroupChat("newGroup" + created++);
+    }
+
+    @Benchmark
+    public GroupChat getGroupChat() {
+        return groupChatService.getGroupChat(GROUP_NAME);
+    }
+
+    @Benchmark
+    public void sendMessage() {
+        groupChatService.sendMessage(GROUP_NAME, new Message("user0", "A new message"));
+    }
+
+    /**
+     * Sends messages from several threads at once, so sends queue up behind each other and are stored
+     * together.
+     */
+    @Benchmark
+    @Threads(8)
+    public void sendMessageConcurrently() {
+        groupChatService.sendMessage(GROUP_NAME, new Message("user0", "A new message"));
+    }
+
+    @Benchmark
+    public List<Message> getMessages() {
+        return groupChatService.getMessages(GROUP_NAME);
+    }
+}
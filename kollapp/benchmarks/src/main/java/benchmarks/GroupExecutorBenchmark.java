@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import api.service.EntityLock;
+import api.service.GroupExecutor;
+import api.service.JsonStore;
+import api.service.WriteBehind;
+import core.Task;
+import core.ToDoList;
+
+/**
+ * Throughput of group writes from many request threads: each write reads a group's to-do list, changes a
+ * task and writes the list back. {@code lockedWrite} guards the write with an {@link EntityLock}, as the
+ * services did before, {@code executorWrite} hands it to a {@link GroupExecutor}, and
+ * {@code batchedWrite} lets the writes queued behind each other share one read and one write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class GroupExecutorBenchmark {
+    private static final int TASK_COUNT = 100;
+
+    @Param({"1", "8"})
+    private int groupCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private JsonStore json;
+    private EntityLock lock;
+    private GroupExecutor executor;
+    private long[] taskIds;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        json = new JsonStore(new ObjectMapper().registerModule(new JavaTimeModule()),
+            store.getLocation().getStorage(), WriteBehind.disabled());
+        lock = new EntityLock("grouptodolists");
+        executor = new GroupExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        ToDoList toDoList = new ToDoList();
+        taskIds = new long[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = new Task("Task " + i);
+            toDoList.addTask(task);
+            taskIds[i] = task.getId();
+        }
+        for (int i = 0; i < groupCount; i++) {
+            store.write("grouptodolists", "group" + i, toDoList);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    /**
+     * The group and task a benchmark thread writes to; threads are spread evenly over the groups.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        private String group;
+        private File file;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(GroupExecutorBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            group = "group" + (thread % benchmark.groupCount);
+            file = benchmark.store.resolve("grouptodolists").resolve(group + ".json").toFile();
+            next = thread;
+        }
+    }
+
+    @Benchmark
+    public ToDoList lockedWrite(Writer writer) {
+        lock.lock("updateGroupTask", writer.group);
+        try {
+            return change(writer, read(writer));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public ToDoList executorWrite(Writer writer) {
+        return executor.execute(writer.group, "updateGroupTask", () -> change(writer, read(writer)));
+    }
+
+    @Benchmark
+    public ToDoList batchedWrite(Writer writer) throws IOException {
+        return executor.executeBatched(writer.group, "updateGroupTask", batch -> {
+            ToDoList toDoList = batch.get(writer.group, () -> json.read("grouptodolists", writer.file,
+                    ToDoList.class));
+            toDoList.getTask(taskIds[writer.next++ % TASK_COUNT]).setDescription("Changed by " + writer.next);
+            batch.write(writer.group, () -> json.write("grouptodolists", writer.file, toDoList));
+            return toDoList;
+        });
+    }
+
+    private ToDoList read(Writer writer) {
+        try {
+            return json.read("grouptodolists", writer.file, ToDoList.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ToDoList change(Writer writer, ToDoList toDoList) {
+        toDoList.getTask(taskIds[writer.next++ % TASK_COUNT]).setDescription("Changed by " + writer.next);
+        try {
+            json.write("grouptodolists", writer.file, toDoList);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return toDoList;
+    }
+}
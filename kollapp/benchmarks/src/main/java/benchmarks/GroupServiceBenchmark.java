@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.service.GroupService;
+import core.User;
+import core.UserGroup;
+
+/**
+ * Benchmarks for every {@link GroupService} method against a temporary store of users and groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupServiceBenchmark {
+
+    @Param({"200"})
+    private int groupCount;
+
+    @Param({"20", "200"})
+    private int memberCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private GroupService groupService;
+    private String[] groupNames;
+    private int next;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        groupService = new GroupService(store.getLocation());
+
+        for (int i = 0; i < memberCount; i++) {
+            store.write("users", "user" + i, new User("user" + i, UserServiceBenchmark.PASSWORD));
+        }
+        store.write("users", "outsider", new User("outsider", UserServiceBenchmark.PASSWORD));
+
+        groupNames = new String[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            groupNames[g] = "group" + g;
+            UserGroup group = new UserGroup(groupNames[g]);
+            for (int i = 0; i < memberCount; i++) {
+                group.addUser("user" + i);
+            }
+            store.write("groups", groupNames[g], group);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    private String nextGroupName() {
+        next = (next + 1) % groupCount;
+        return groupNames[next];
+    }
+
+    @Benchmark
+    public Optional<UserGroup> getGroup() {
+        return groupService.getGroup(nextGroupName());
+    }
+
+    @Benchmark
+    public boolean groupExists() {
+        return groupService.groupExists(nextGroupName());
+    }
+
+    /**
+     * Validates a user who is not yet a member, so every check runs.
+     */
+    @Benchmark
+    public String validateGroupAssignment() {
+        return groupService.validateGroupAssignment("outsider", nextGroupName());
+    }
+
+    @Benchmark
+    public void createGroup() {
+        groupService.createGroup("user0", "newGroup" + created++);
+    }
+
+    @Benchmark
+    public void assignUserToGroup(ResetGroup group) {
+        groupService.assignUserToGroup("outsider", group.groupName);
+    }
+
+    /**
+     * Writes a group without the outsider before each call, so {@code assignUserToGroup} always adds a member.
+     */
+    @State(Scope.Thread)
+    public static class ResetGroup {
+        private String groupName;
+
+        @Setup(Level.Invocation)
+        public void setUp(GroupServiceBenchmark benchmark) {
+            groupName = benchmark.groupNames[0];
+            UserGroup group = new UserGroup(groupName);
+            for (int i = 0; i < benchmark.memberCount; i++) {
+                group.addUser("user" + i);
+            }
+            benchmark.store.write("groups", groupName, group);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.User;
+import core.UserGroup;
+
+/**
+ * Benchmarks for group membership checks and updates on groups of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MembershipBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int members;
+
+    private UserGroup userGroup;
+    private User user;
+    private String lastMember;
+    private String lastGroup;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userGroup = new UserGroup("group");
+        user = new User("user", "password");
+        for (int i = 0; i < members; i++) {
+            userGroup.addUser("user" + i);
+            user.addUserGroup("group" + i);
+        }
+        lastMember = "user" + (members - 1);
+        lastGroup = "group" + (members - 1);
+    }
+
+    @Benchmark
+    public boolean containsMember() {
+        return userGroup.containsUser(lastMember);
+    }
+
+    @Benchmark
+    public boolean containsNonMember() {
+        return userGroup.containsUser("stranger");
+    }
+
+    @Benchmark
+    public UserGroup addAndRemoveMember() {
+        userGroup.addUser("newcomer");
+        userGroup.removeUser("newcomer");
+        return userGroup;
+    }
+
+    @Benchmark
+    public User addExistingUserGroup() {
+        user.addUserGroup(lastGroup);
+        return user;
+    }
+}
@@ -0,0 +1,116 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.Expense;
+import core.GroupChat;
+import core.Message;
+import core.Settlement;
+import core.Task;
+import core.ToDoList;
+import core.User;
+import core.UserGroup;
+
+/**
+ * Benchmarks for the read accessors of the core model classes.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} to see the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelReadBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private Expense expense;
+    private String lastParticipant;
+    private ToDoList toDoList;
+    private UserGroup userGroup;
+    private User user;
+    private GroupChat groupChat;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> participants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            participants.add("user" + i);
+        }
+        expense = new Expense("Dinner", 100.0 * size, "user0", participants);
+        lastParticipant = participants.get(size - 1);
+
+        toDoList = new ToDoList();
+        userGroup = new UserGroup("group");
+        user = new User("user0", "password");
+        groupChat = new GroupChat();
+        for (int i = 0; i < size; i++) {
+            toDoList.addTask(new Task("Task " + i));
+            userGroup.addUser("user" + i);
+            user.addUserGroup("group" + i);
+            groupChat.addMessage(new Message("user" + i, "Message " + i));
+        }
+    }
+
+    @Benchmark
+    public List<String> expenseParticipants() {
+        return expense.getParticipants();
+    }
+
+    @Benchmark
+    public List<Settlement> expenseSettlements() {
+        return expense.getSettlements();
+    }
+
+    @Benchmark
+    public double expenseSharePerPerson() {
+        return expense.getSharePerPerson();
+    }
+
+    @Benchmark
+    public boolean expenseHasParticipantSettled() {
+        return expense.hasParticipantSettled(lastParticipant);
+    }
+
+    @Benchmark
+    public boolean expenseIsFullySettled() {
+        return expense.isFullySettled();
+    }
+
+    @Benchmark
+    public List<Task> toDoListTasks() {
+        return toDoList.getTasks();
+    }
+
+    @Benchmark
+    public List<String> userGroupUsers() {
+        return userGroup.getUsers();
+    }
+
+    @Benchmark
+    public List<String> userUserGroups() {
+        return user.getUserGroups();
+    }
+
+    @Benchmark
+    public List<Message> groupChatMessages() {
+        return groupChat.getMessages();
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.ReplicatedToDoList;
+import core.Task;
+import core.ToDoList;
+
+/**
+ * Benchmarks for merging edits of large group to-do lists: computing the delta of a small edit, merging
+ * it into the stored copy, and merging two whole copies that both changed every task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplicatedToDoListBenchmark {
+
+    @Param({"1000", "10000"})
+    private int taskCount;
+
+    private ToDoList base;
+    private ToDoList edited;
+    private ReplicatedToDoList stored;
+    private ReplicatedToDoList delta;
+    private ReplicatedToDoList other;
+    private long stamp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = new ToDoList();
+        for (int i = 0; i < taskCount; i++) {
+            base.addTask(new Task("Task " + i));
+        }
+        edited = new ToDoList(base);
+        Task middle = edited.getTasks().get(taskCount / 2);
+        middle.setCompleted(true);
+        edited.addTask(new Task("Spare task"));
+        delta = ReplicatedToDoList.delta(base, edited, 1);
+
+        ToDoList renamed = new ToDoList(base);
+        for (Task task : renamed.getTasks()) {
+            task.setDescription("Renamed");
+        }
+        other = ReplicatedToDoList.delta(base, renamed, 2);
+        stored = new ReplicatedToDoList(base);
+    }
+
+    @Benchmark
+    public ReplicatedToDoList computeDelta() {
+        return ReplicatedToDoList.delta(base, edited, ++stamp);
+    }
+
+    /**
+     * Merges a small edit; merging it again on the next call changes nothing.
+     */
+    @Benchmark
+    public ReplicatedToDoList mergeDelta() {
+        stored.merge(delta);
+        return stored;
+    }
+
+    /**
+     * Merges a copy in which every task changed into a fresh copy of the list.
+     */
+    @Benchmark
+    public ReplicatedToDoList mergeWholeCopy() {
+        ReplicatedToDoList copy = new ReplicatedToDoList(base);
+        copy.merge(other);
+        return copy;
+    }
+}
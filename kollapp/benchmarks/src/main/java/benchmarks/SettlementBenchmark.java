@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.BalanceLedger;
+import core.DebtSimplifier;
+import core.Expense;
+import core.Transfer;
+
+/**
+ * Benchmarks for building balance ledgers and computing settlement plans
+ * on synthetic group ledgers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+
+    @Param({"10000"})
+    private int expenseCount;
+
+    @Param({"10", "200"})
+    private int memberCount;
+
+    private List<Expense> expenses;
+    private BalanceLedger ledger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add("user" + i);
+        }
+        expenses = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            int size = 2 + random.nextInt(Math.min(8, memberCount - 1));
+            List<String> participants = new ArrayList<>(size);
+            int start = random.nextInt(memberCount);
+            for (int j = 0; j < size; j++) {
+                participants.add(members.get((start + j) % memberCount));
+            }
+            Expense expense = new Expense("Expense " + i, 1 + random.nextInt(50000) / 100.0,
+                    participants.get(random.nextInt(size)), participants);
+            if (random.nextInt(4) == 0) {
+                expense.settleParticipant(participants.get(random.nextInt(size)));
+            }
+            expenses.add(expense);
+        }
+        ledger = BalanceLedger.fromExpenses(expenses);
+    }
+
+    @Benchmark
+    public BalanceLedger buildLedger() {
+        return BalanceLedger.fromExpenses(expenses);
+    }
+
+    @Benchmark
+    public List<Transfer> simplifyLedger() {
+        return DebtSimplifier.simplify(ledger.getBalances().values());
+    }
+
+    @Benchmark
+    public List<Transfer> buildAndSimplify() {
+        return DebtSimplifier.simplify(BalanceLedger.fromExpenses(expenses).getBalances().values());
+    }
+}
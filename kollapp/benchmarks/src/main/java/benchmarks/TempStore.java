@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import api.service.StorageLocation;
+
+/**
+ * A throwaway storage directory for the service benchmarks, so they never touch the
+ * files in the persistence module. Fixtures are written straight to the storage backend in
+ * the same JSON format the services use, which keeps setup fast for large stores.
+ *
+ * <p>With the {@code memory} backend the services keep their files in memory, so comparing
+ * the two backends separates the cost of the disk from the cost of the service code.</p>
+ */
+final class TempStore {
+    private final Path root;
+    private final StorageLocation location;
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Creates a new, empty storage directory on disk.
+     */
+    TempStore() {
+        this(StorageLocation.DISK);
+    }
+
+    /**
+     * Creates a new, empty store with the given backend.
+     *
+     * @param backend {@link StorageLocation#DISK} or {@link StorageLocation#MEMORY}
+     */
+    TempStore(String backend) {
+        try {
+            this.root = Files.createTempDirectory("kollapp-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.location = new StorageLocation(root.toString(), backend, false);
+    }
+
+    /**
+     * Returns the storage location to construct the services with.
+     *
+     * @return the storage root and backend of the store
+     */
+    StorageLocation getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns a subdirectory of the store for one kind of entity, creating it if needed.
+     *
+     * @param name the name of the subdirectory, for example {@code "users"}
+     * @return the path to the subdirectory
+     */
+    Path resolve(String name) {
+        Path path = root.resolve(name);
+        try {
+            Files.createDirectories(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return path;
+    }
+
+    /**
+     * Writes an entity to {@code <directory>/<name>.json}.
+     *
+     * @param directory the subdirectory for the kind of entity
+     * @param name the file name without extension, usually the username or group name
+     * @param value the entity to write
+     */
+    void write(String directory, String name, Object value) {
+        try {
+            location.getStorage().write(resolve(directory).resolve(name + ".json"), mapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the store and everything in it.
+     */
+    void delete() {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
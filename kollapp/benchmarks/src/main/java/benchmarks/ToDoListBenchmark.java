@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.Task;
+import core.ToDoList;
+
+/**
+ * Benchmarks for adding, updating and removing single tasks in large to-do lists.
+ * Every benchmark leaves the list at its original size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToDoListBenchmark {
+
+    @Param({"1000", "100000"})
+    private int taskCount;
+
+    private ToDoList toDoList;
+    private Task spare;
+    private Task middle;
+    private Task middleCopy;
+    private long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        toDoList = new ToDoList();
+        for (int i = 0; i < taskCount; i++) {
+            toDoList.addTask(new Task("Task " + i));
+        }
+        spare = new Task("Spare task");
+        middle = toDoList.getTasks().get(taskCount / 2);
+        middleCopy = new Task(middle);
+        middleId = middle.getId();
+    }
+
+    @Benchmark
+    public Task addAndRemoveById() {
+        toDoList.addTask(spare);
+        return toDoList.removeTask(spare.getId());
+    }
+
+    /**
+     * Removes a task by reference and adds it back, which moves it to the end of the list.
+     */
+    @Benchmark
+    public void removeAndAddTask() {
+        toDoList.removeTask(middle);
+        toDoList.addTask(middle);
+    }
+
+    /**
+     * Replaces a task with its copy and back again.
+     */
+    @Benchmark
+    public void updateTask() {
+        toDoList.updateTask(middleCopy);
+        toDoList.updateTask(middle);
+    }
+
+    @Benchmark
+    public Task getTask() {
+        return toDoList.getTask(middleId);
+    }
+
+    @Benchmark
+    public ToDoList copyToDoList() {
+        return new ToDoList(toDoList);
+    }
+}
@@ -0,0 +1,142 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.service.ToDoListService;
+import core.Task;
+import core.ToDoList;
+import core.User;
+
+/**
+ * Benchmarks for every {@link ToDoListService} method against a temporary store with one
+ * user list and one group list of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToDoListServiceBenchmark {
+    private static final String USERNAME = "user0";
+    private static final String GROUP_NAME = "group0";
+
+    @Param({"100", "1000"})
+    private int taskCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private ToDoListService toDoListService;
+    private ToDoList toDoList;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        toDoListService = new ToDoListService(store.getLocation());
+
+        store.write("users", USERNAME, new User(USERNAME, UserServiceBenchmark.PASSWORD));
+        store.write("users", "fresh", new User("fresh", UserServiceBenchmark.PASSWORD));
+        toDoList = createToDoList(taskCount);
+        store.write("todolists", USERNAME, toDoList);
+        store.write("grouptodolists", GROUP_NAME, toDoList);
+        task = new Task(toDoList.getTasks().get(taskCount / 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    static ToDoList createToDoList(int taskCount) {
+        ToDoList toDoList = new ToDoList();
+        String[] priorities = Task.PRIORITY_NAMES.toArray(new String[0]);
+        for (int i = 0; i < taskCount; i++) {
+            toDoList.addTask(new Task("Task " + i, LocalDate.of(2024, 1, 1).plusDays(i % 365),
+                    "Description of task " + i, priorities[i % priorities.length]));
+        }
+        return toDoList;
+    }
+
+    @Benchmark
+    public void assignToDoList() {
+        toDoListService.assignToDoList("fresh");
+    }
+
+    @Benchmark
+    public ToDoList loadToDoList() {
+        return toDoListService.loadToDoList(USERNAME);
+    }
+
+    @Benchmark
+    public void updateToDoList() {
+        toDoListService.updateToDoList(USERNAME, toDoList);
+    }
+
+    @Benchmark
+    public ToDoList loadGroupToDoList() {
+        return toDoListService.loadGroupToDoList(GROUP_NAME);
+    }
+
+    @Benchmark
+    public void updateGroupToDoList() {
+        toDoListService.updateGroupToDoList(GROUP_NAME, toDoList);
+    }
+
+    /**
+     * Toggles one task, as the app does when a task is checked off.
+     */
+    @Benchmark
+    public void updateTask() {
+        task.setCompleted(!task.isCompleted());
+        toDoListService.updateTask(USERNAME, task);
+    }
+
+    @Benchmark
+    public void updateGroupTask() {
+        task.setCompleted(!task.isCompleted());
+        toDoListService.updateGroupTask(GROUP_NAME, task);
+    }
+
+    @Benchmark
+    public void removeTask(FullLists lists) {
+        toDoListService.removeTask(USERNAME, lists.taskId);
+    }
+
+    @Benchmark
+    public void removeGroupTask(FullLists lists) {
+        toDoListService.removeGroupTask(GROUP_NAME, lists.taskId);
+    }
+
+    /**
+     * Writes the full lists before each call, so the removal benchmarks always find their task.
+     */
+    @State(Scope.Thread)
+    public static class FullLists {
+        private long taskId;
+
+        @Setup(Level.Invocation)
+        public void setUp(ToDoListServiceBenchmark benchmark) {
+            benchmark.store.write("todolists", USERNAME, benchmark.toDoList);
+            benchmark.store.write("grouptodolists", GROUP_NAME, benchmark.toDoList);
+            taskId = benchmark.task.getId();
+        }
+    }
+}
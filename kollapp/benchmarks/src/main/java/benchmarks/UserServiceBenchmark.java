@@ -0,0 +1,137 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import api.service.UserService;
+import core.User;
+
+/**
+ * Benchmarks for every {@link UserService} method against a temporary store of users.
+ * Password checks use BCrypt, so {@code saveUser} and {@code loadUser} are expected to be slow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+    static final String PASSWORD = "password123";
+
+    @Param({"1000"})
+    private int userCount;
+
+    @Param({"disk", "memory"})
+    private String backend;
+
+    private TempStore store;
+    private UserService userService;
+    private String[] usernames;
+    private int next;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TempStore(backend);
+        userService = new UserService(store.getLocation());
+
+        String hashedPassword = new BCryptPasswordEncoder().encode(PASSWORD);
+        usernames = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            usernames[i] = "user" + i;
+            User user = new User(usernames[i], hashedPassword);
+            for (int g = 0; g < 5; g++) {
+                user.addUserGroup("group" + (i + g) % 200);
+            }
+            store.write("users", usernames[i], user);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+    }
+
+    private String nextUsername() {
+        next = (next + 1) % userCount;
+        return usernames[next];
+    }
+
+    @Benchmark
+    public String saveUser() throws IOException {
+        String username = "newUser" + created++;
+        userService.saveUser(new User(username, PASSWORD));
+        return username;
+    }
+
+    @Benchmark
+    public Optional<User> loadUser() {
+        return userService.loadUser(nextUsername(), PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> getUser() {
+        return userService.getUser(nextUsername());
+    }
+
+    @Benchmark
+    public boolean userExists() {
+        return userService.userExists(nextUsername());
+    }
+
+    @Benchmark
+    public boolean confirmNewValidUser() {
+        return userService.confirmNewValidUser("newcomer", PASSWORD, PASSWORD);
+    }
+
+    @Benchmark
+    public String getUserValidationErrorMessage() {
+        return userService.getUserValidationErrorMessage("newcomer", PASSWORD, PASSWORD);
+    }
+
+    /**
+     * Assigns one of the groups the user already has, so the user file keeps its size.
+     */
+    @Benchmark
+    public void assignGroupToUser() {
+        String username = nextUsername();
+        userService.assignGroupToUser(username, "group" + next % 200);
+    }
+
+    @Benchmark
+    public void removeUser(RemovableUser removable) {
+        userService.removeUser(removable.username);
+    }
+
+    /**
+     * A user written to the store before each call, so {@code removeUser} always deletes a file.
+     */
+    @State(Scope.Thread)
+    public static class RemovableUser {
+        private String username;
+        private int count;
+
+        @Setup(Level.Invocation)
+        public void setUp(UserServiceBenchmark benchmark) {
+            username = "removable" + count++;
+            benchmark.store.write("users", username, new User(username, PASSWORD));
+        }
+    }
+}
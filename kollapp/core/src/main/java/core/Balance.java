@@ -0,0 +1,111 @@
+package core;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Represents the running balance of a single user, holding the total amount
+ * other participants owe the user and the total amount the user owes others.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Balance implements Serializable {
+    private String username;
+    private double owed;
+    private double owing;
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public Balance() {
+    }
+
+    /**
+     * Constructs an empty balance for the specified user.
+     *
+     * @param username the username the balance belongs to
+     */
+    public Balance(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Returns the username the balance belongs to.
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Returns the total amount other participants owe the user.
+     *
+     * @return the amount owed to the user
+     */
+    public double getOwed() {
+        return owed;
+    }
+
+    public void setOwed(double owed) {
+        this.owed = owed;
+    }
+
+    /**
+     * Returns the total amount the user owes other participants.
+     *
+     * @return the amount the user owes
+     */
+    public double getOwing() {
+        return owing;
+    }
+
+    public void setOwing(double owing) {
+        this.owing = owing;
+    }
+
+    /**
+     * Returns the net position of the user. A positive value means the user
+     * is owed money, a negative value means the user owes money.
+     *
+     * @return the net balance
+     */
+    public double getNet() {
+        return owed - owing;
+    }
+
+    /**
+     * Adds the amounts of another balance to this balance.
+     *
+     * @param other the balance to add
+     */
+    public void add(Balance other) {
+        this.owed += other.owed;
+        this.owing += other.owing;
+    }
+
+    /**
+     * Subtracts the amounts of another balance from this balance.
+     *
+     * @param other the balance to subtract
+     */
+    public void subtract(Balance other) {
+        this.owed -= other.owed;
+        this.owing -= other.owing;
+    }
+
+    /**
+     * Checks if the balance has no outstanding amounts.
+     *
+     * @return true if nothing is owed in either direction, false otherwise
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return owed == 0.0 && owing == 0.0;
+    }
+}
@@ -0,0 +1,112 @@
+package core;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a running balance per user for the expenses of a group.
+ * The ledger is updated incrementally as expenses are added or removed,
+ * so looking up the balance of a user does not require scanning every expense.
+ */
+public class BalanceLedger implements Serializable {
+    private static final double EPSILON = 1e-9;
+
+    private final Map<String, Balance> balances = new LinkedHashMap<>();
+
+    /**
+     * Constructs an empty ledger.
+     */
+    public BalanceLedger() {
+    }
+
+    /**
+     * Constructs a ledger containing the outstanding amounts of the given expenses.
+     *
+     * @param expenses the expenses to add to the ledger
+     * @return a ledger reflecting the given expenses
+     */
+    public static BalanceLedger fromExpenses(List<Expense> expenses) {
+        BalanceLedger ledger = new BalanceLedger();
+        for (Expense expense : expenses) {
+            ledger.addExpense(expense);
+        }
+        return ledger;
+    }
+
+    /**
+     * Adds the outstanding amounts of an expense to the ledger.
+     * Every participant who has not settled owes their share to the payer.
+     *
+     * @param expense the expense to add
+     * @throws IllegalArgumentException if the expense is null
+     */
+    public void addExpense(Expense expense) {
+        apply(expense, 1.0);
+    }
+
+    /**
+     * Removes the outstanding amounts of an expense from the ledger.
+     *
+     * @param expense the expense to remove
+     * @throws IllegalArgumentException if the expense is null
+     */
+    public void removeExpense(Expense expense) {
+        apply(expense, -1.0);
+    }
+
+    /**
+     * Returns the balance of a user. Users without outstanding amounts get an empty balance.
+     *
+     * @param username the username to look up
+     * @return the balance of the user
+     */
+    public Balance getBalance(String username) {
+        Balance balance = balances.get(username);
+        return balance != null ? balance : new Balance(username);
+    }
+
+    /**
+     * Returns an unmodifiable view of all balances in the ledger, keyed by username.
+     *
+     * @return the balances in the ledger
+     */
+    public Map<String, Balance> getBalances() {
+        return Collections.unmodifiableMap(balances);
+    }
+
+    private void apply(Expense expense, double sign) {
+        if (expense == null) {
+            throw new IllegalArgumentException("Expense cannot be null.");
+        }
+        if (expense.getParticipants().isEmpty() || expense.getPaidBy() == null) {
+            return;
+        }
+        double share = expense.getSharePerPerson();
+        for (Settlement settlement : expense.getSettlements()) {
+            if (!settlement.isSettled() && !settlement.getUsername().equals(expense.getPaidBy())) {
+                transfer(settlement.getUsername(), expense.getPaidBy(), sign * share);
+            }
+        }
+    }
+
+    private void transfer(String debtor, String creditor, double amount) {
+        Balance debtorBalance = balances.computeIfAbsent(debtor, Balance::new);
+        debtorBalance.setOwing(clean(debtorBalance.getOwing() + amount));
+        Balance creditorBalance = balances.computeIfAbsent(creditor, Balance::new);
+        creditorBalance.setOwed(clean(creditorBalance.getOwed() + amount));
+
+        if (debtorBalance.isEmpty()) {
+            balances.remove(debtor);
+        }
+        if (creditorBalance.isEmpty()) {
+            balances.remove(creditor);
+        }
+    }
+
+    private static double clean(double value) {
+        return Math.abs(value) < EPSILON ? 0.0 : value;
+    }
+}
@@ -0,0 +1,108 @@
+package core;
+
+import java.io.Serializable;
+
+/**
+ * One entry of the change log of an aggregate, such as a to-do list: a part of it that was added or
+ * replaced, or removed. Clients apply the changes in order to their copy to catch up without loading the
+ * whole aggregate again.
+ *
+ * @param <T> the type of the parts of the aggregate, for example {@link Task}
+ * @see ChangeSet
+ */
+public class Change<T> implements Serializable {
+
+    /**
+     * What happened to the part.
+     */
+    public enum Type {
+        /** The part was added, or replaced if one with the key exists. */
+        UPSERT,
+        /** The part was removed. */
+        REMOVE
+    }
+
+    private long sequence;
+    private Type type;
+    private String key;
+    private T value;
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public Change() {
+    }
+
+    /**
+     * Constructs a change that is not in a log yet.
+     *
+     * @param type what happened to the part
+     * @param key the key of the part, for example the id of a task
+     * @param value the new part, or null if it was removed
+     */
+    public Change(Type type, String key, T value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Returns a change that adds or replaces a part.
+     *
+     * @param <T> the type of the part
+     * @param key the key of the part
+     * @param value the new part
+     * @return the change
+     */
+    public static <T> Change<T> upsert(String key, T value) {
+        return new Change<>(Type.UPSERT, key, value);
+    }
+
+    /**
+     * Returns a change that removes a part.
+     *
+     * @param <T> the type of the part
+     * @param key the key of the part
+     * @return the change
+     */
+    public static <T> Change<T> remove(String key) {
+        return new Change<>(Type.REMOVE, key, null);
+    }
+
+    /**
+     * Returns the sequence number of the change. Later changes of an aggregate have higher numbers.
+     *
+     * @return the sequence number, or 0 if the change is not in a log yet
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public void setValue(T value) {
+        this.value = value;
+    }
+}
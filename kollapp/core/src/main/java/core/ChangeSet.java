@@ -0,0 +1,96 @@
+package core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes of an aggregate since a version a client holds, as returned by the {@code changes}
+ * endpoints. If the server no longer has all changes since that version, because its log was truncated
+ * or the server was restarted, the set has no changes and {@link #isSnapshotRequired()} is true: the
+ * client has to load the whole aggregate again.
+ *
+ * @param <T> the type of the parts of the aggregate, for example {@link Task}
+ */
+public class ChangeSet<T> implements Serializable {
+
+    /**
+     * The response header carrying the version of an aggregate loaded in full. A client passes it as
+     * {@code since} to ask for the changes made after it.
+     */
+    public static final String VERSION_HEADER = "X-Change-Version";
+
+    private long version;
+    private boolean snapshotRequired;
+    private List<Change<T>> changes = new ArrayList<>();
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public ChangeSet() {
+    }
+
+    /**
+     * Constructs a set of changes.
+     *
+     * @param version the version of the aggregate after the changes
+     * @param snapshotRequired whether the client has to load the whole aggregate instead
+     * @param changes the changes, oldest first
+     */
+    public ChangeSet(long version, boolean snapshotRequired, List<Change<T>> changes) {
+        this.version = version;
+        this.snapshotRequired = snapshotRequired;
+        this.changes = new ArrayList<>(changes);
+    }
+
+    /**
+     * Returns a set telling the client to load the whole aggregate.
+     *
+     * @param <T> the type of the parts of the aggregate
+     * @param version the current version of the aggregate
+     * @return the set, without changes
+     */
+    public static <T> ChangeSet<T> snapshot(long version) {
+        return new ChangeSet<>(version, true, List.of());
+    }
+
+    /**
+     * Returns the version of the aggregate after the changes.
+     *
+     * @return the version to ask for the next changes with
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns whether the changes since the requested version are no longer known.
+     *
+     * @return true if the client has to load the whole aggregate
+     */
+    public boolean isSnapshotRequired() {
+        return snapshotRequired;
+    }
+
+    public void setSnapshotRequired(boolean snapshotRequired) {
+        this.snapshotRequired = snapshotRequired;
+    }
+
+    /**
+     * Returns the changes, oldest first.
+     *
+     * @return an unmodifiable view of the changes
+     */
+    public List<Change<T>> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    public void setChanges(List<Change<T>> changes) {
+        this.changes = new ArrayList<>(changes);
+    }
+}
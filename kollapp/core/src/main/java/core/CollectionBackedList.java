@@ -0,0 +1,78 @@
+package core;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An unmodifiable list view over an ordered collection such as an insertion-ordered set or the
+ * values of a linked map. Membership checks, size and iteration are delegated to the collection,
+ * so {@code contains} is O(1) for sets. Positional access walks the collection and is O(n);
+ * callers should prefer iteration.
+ *
+ * @param <E> the type of the elements
+ */
+final class CollectionBackedList<E> extends AbstractList<E> implements Serializable {
+    private final Collection<E> elements;
+    private final Collection<E> readOnlyElements;
+
+    /**
+     * Constructs a list view over the given collection.
+     *
+     * @param elements the collection to view, expected to have a predictable iteration order
+     */
+    CollectionBackedList(Collection<E> elements) {
+        this.elements = elements;
+        this.readOnlyElements = Collections.unmodifiableCollection(elements);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= elements.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.size());
+        }
+        Iterator<E> iterator = elements.iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return elements.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return readOnlyElements.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof List)) return false;
+
+        Iterator<?> other = ((List<?>) o).iterator();
+        for (E element : elements) {
+            if (!other.hasNext() || !Objects.equals(element, other.next())) {
+                return false;
+            }
+        }
+        return !other.hasNext();
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
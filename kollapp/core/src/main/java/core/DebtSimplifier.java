@@ -0,0 +1,73 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Computes a settlement plan that clears the net balances of a group with few transfers.
+ *
+ * <p>Balances are netted per user and matched greedily: the largest debtor pays the largest
+ * creditor until one of them is cleared, and the remainder goes back on its heap. This yields at
+ * most {@code n - 1} transfers for {@code n} users with a non-zero balance and runs in
+ * {@code O(n log n)}. Amounts are handled in whole cents so the plan is exact and deterministic.</p>
+ */
+public final class DebtSimplifier {
+
+    private DebtSimplifier() {
+    }
+
+    /**
+     * Computes the transfers needed to clear the given balances.
+     *
+     * @param balances the balances to clear, typically taken from a {@link BalanceLedger}
+     * @return the transfers of the plan
+     * @throws IllegalArgumentException if the balances are null
+     */
+    public static List<Transfer> simplify(Collection<Balance> balances) {
+        if (balances == null) {
+            throw new IllegalArgumentException("Balances cannot be null.");
+        }
+        Comparator<Position> largestFirst = Comparator.comparingLong((Position p) -> p.cents).reversed()
+                .thenComparing(p -> p.username);
+        PriorityQueue<Position> creditors = new PriorityQueue<>(largestFirst);
+        PriorityQueue<Position> debtors = new PriorityQueue<>(largestFirst);
+
+        for (Balance balance : balances) {
+            long cents = Math.round(balance.getNet() * 100);
+            if (cents > 0) {
+                creditors.add(new Position(balance.getUsername(), cents));
+            } else if (cents < 0) {
+                debtors.add(new Position(balance.getUsername(), -cents));
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            Position creditor = creditors.poll();
+            Position debtor = debtors.poll();
+            long cents = Math.min(creditor.cents, debtor.cents);
+            transfers.add(new Transfer(debtor.username, creditor.username, cents / 100.0));
+
+            if (creditor.cents > cents) {
+                creditors.add(new Position(creditor.username, creditor.cents - cents));
+            }
+            if (debtor.cents > cents) {
+                debtors.add(new Position(debtor.username, debtor.cents - cents));
+            }
+        }
+        return transfers;
+    }
+
+    private static final class Position {
+        private final String username;
+        private final long cents;
+
+        private Position(String username, long cents) {
+            this.username = username;
+            this.cents = cents;
+        }
+    }
+}
@@ -2,19 +2,29 @@ package core;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Represents an expense in the application.
+ *
+ * <p>Every expense gets an identifier from {@link IdGenerator} when it is created, so it can be
+ * referred to independently of its position in the list of its group.</p>
  */
 public class Expense implements Serializable {
+    private long id;
     private String description;
     private double amount;
     private String paidBy;
     private List<String> participants;
     private List<Settlement> settlements;
+    private transient List<String> participantsView;
+    private transient List<Settlement> settlementsView;
+    private transient Map<String, Settlement> settlementIndex;
 
     // Default constructor
     public Expense() {
@@ -30,10 +40,11 @@ public class Expense implements Serializable {
      * @param participants A list of participants involved in the expense.
      */
     public Expense(String description, double amount, String paidBy, List<String> participants) {
+        this.id = IdGenerator.nextId();
         this.description = description;
         this.amount = amount;
         this.paidBy = paidBy;
-        this.participants = participants;
+        this.participants = new ArrayList<>(participants);
         this.settlements = new ArrayList<>();
 
         // Initialize settlements: everyone owes unless they are the payer
@@ -44,6 +55,24 @@ public class Expense implements Serializable {
         }
     }
 
+    /**
+     * Returns the identifier of the expense, or zero if none has been assigned yet.
+     *
+     * @return the expense identifier
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the identifier of the expense.
+     *
+     * @param id the identifier to set
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     // Getters and setters
     public String getDescription() {
         return description;
@@ -68,21 +97,28 @@ public class Expense implements Serializable {
     
 
     /**
-     * Retrieves the list of participants. If the participants list is null,
-     * it initializes it as an empty ArrayList.
+     * Retrieves an unmodifiable view of the participants. If the participants list is null,
+     * an empty list is returned.
      *
      * @return a list of participants
      */
     public List<String> getParticipants() {
-        return participants == null ? new ArrayList<>() : new ArrayList<>(participants);
+        if (participants == null) {
+            return Collections.emptyList();
+        }
+        if (participantsView == null) {
+            participantsView = Collections.unmodifiableList(participants);
+        }
+        return participantsView;
     }
 
     public void setParticipants(List<String> participants) {
         this.participants = new ArrayList<>(participants);
+        this.participantsView = null;
     }
     
     /**
-     * Retrieves the list of settlements for the expense. If the settlements list is null,
+     * Retrieves an unmodifiable view of the settlements for the expense. If the settlements list is null,
      * it initializes the list and optionally populates it based on the participants and
      * the person who paid.
      *
@@ -102,11 +138,16 @@ public class Expense implements Serializable {
                 }
             }
         }
-        return new ArrayList<>(settlements);
+        if (settlementsView == null) {
+            settlementsView = Collections.unmodifiableList(settlements);
+        }
+        return settlementsView;
     }
 
     public void setSettlements(List<Settlement> settlements) {
         this.settlements = new ArrayList<>(settlements);
+        this.settlementsView = null;
+        this.settlementIndex = null;
     }
 
     // Method to calculate share per person
@@ -119,8 +160,9 @@ public class Expense implements Serializable {
     // Method to check if all participants have settled
     @JsonIgnore
     public boolean isFullySettled() {
-        for (Settlement settlement : getSettlements()) {
-            if (!settlement.isSettled()) {
+        List<Settlement> list = getSettlements();
+        for (int i = 0; i < list.size(); i++) {
+            if (!list.get(i).isSettled()) {
                 return false;
             }
         }
@@ -133,11 +175,9 @@ public class Expense implements Serializable {
      * @param username the username of the participant whose settlement is to be marked as settled
      */
     public void settleParticipant(String username) {
-        for (Settlement settlement : getSettlements()) {
-            if (settlement.getUsername().equals(username)) {
-                settlement.setSettled(true);
-                break;
-            }
+        Settlement settlement = findSettlement(username);
+        if (settlement != null) {
+            settlement.setSettled(true);
         }
     }
 
@@ -152,12 +192,26 @@ public class Expense implements Serializable {
         if (username.equals(paidBy)) {
             return true; // Payer is considered settled
         }
-        for (Settlement settlement : getSettlements()) {
-            if (settlement.getUsername().equals(username)) {
-                return settlement.isSettled();
+        Settlement settlement = findSettlement(username);
+        return settlement == null || settlement.isSettled(); // Participants not in the settlement list are considered settled
+    }
+
+    /**
+     * Looks up the settlement of a participant through an index from username to settlement.
+     * The index is built on first use and rebuilt whenever the settlements are replaced.
+     *
+     * @param username the username of the participant
+     * @return the settlement of the participant, or null if the participant has none
+     */
+    private Settlement findSettlement(String username) {
+        if (settlementIndex == null) {
+            List<Settlement> list = getSettlements();
+            Map<String, Settlement> index = new HashMap<>(list.size() * 2);
+            for (int i = 0; i < list.size(); i++) {
+                index.putIfAbsent(list.get(i).getUsername(), list.get(i));
             }
+            settlementIndex = index;
         }
-        return true; // Participants not in the settlement list are considered settled
+        return settlementIndex.get(username);
     }
 }
-
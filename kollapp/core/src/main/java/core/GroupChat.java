@@ -4,8 +4,11 @@ package core;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * Represents a group chat containing a list of messages.
  */
@@ -13,12 +16,14 @@ public class GroupChat implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
     private final List<Message> messages;
+    private final List<Message> messagesView;
     
     /**
      * Constructs an empty GroupChat.
      */
     public GroupChat() {
         this.messages = new ArrayList<>();
+        this.messagesView = Collections.unmodifiableList(messages);
     }
     
     /**
@@ -27,11 +32,25 @@ public class GroupChat implements Serializable {
      * @return a list of messages
      */
     public List<Message> getMessages() {
-        return new ArrayList<>(messages);
+        return messagesView;
+    }
+
+    /**
+     * Replaces the messages of the group chat. Used by Jackson during deserialization.
+     * Messages saved before identifiers were introduced get a new one.
+     *
+     * @param messages the messages to set
+     */
+    @JsonProperty("messages")
+    private void setMessages(List<Message> messages) {
+        this.messages.clear();
+        for (Message message : messages) {
+            addMessage(message);
+        }
     }
 
     /**
-     * Adds a message to the group chat.
+     * Adds a message to the group chat. A message without an identifier is assigned a new one.
      *
      * @param message the message to add
      * @throws IllegalArgumentException if the message is null
@@ -40,6 +59,9 @@ public class GroupChat implements Serializable {
         if (message == null) {
             throw new IllegalArgumentException("Message cannot be null.");
         }
+        if (message.getId() == 0) {
+            message.setId(IdGenerator.nextId());
+        }
         messages.add(message);
     }
 }
@@ -0,0 +1,90 @@
+package core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues timestamps for ordering concurrent edits, such as the field stamps of a
+ * {@link ReplicatedToDoList}.
+ *
+ * <p>A timestamp holds the milliseconds since the Unix epoch in its upper bits and the node of the clock
+ * in the lowest {@value #NODE_BITS} bits, so timestamps of different clocks never tie. Every timestamp is
+ * greater than the ones the clock issued or {@linkplain #observe observed} before, even if the system
+ * clock goes back, so an edit made after seeing another one is always ordered after it.</p>
+ */
+public final class HybridClock {
+    /**
+     * The number of low bits holding the node of the clock.
+     */
+    public static final int NODE_BITS = 16;
+
+    private final long node;
+    private final LongSupplier clock;
+    private long last;
+
+    /**
+     * Constructs a clock with a random node, reading the system clock.
+     */
+    public HybridClock() {
+        this(ThreadLocalRandom.current().nextInt(1 << NODE_BITS), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a clock.
+     *
+     * @param node the node of the clock, from 0 to 2^{@value #NODE_BITS} - 1
+     * @param clock the time source in milliseconds
+     * @throws IllegalArgumentException if the node is out of range
+     */
+    HybridClock(int node, LongSupplier clock) {
+        if (node < 0 || node >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Node must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a new timestamp, greater than every timestamp issued or observed before.
+     *
+     * @return the timestamp
+     */
+    public synchronized long next() {
+        long candidate = clock.getAsLong() << NODE_BITS | node;
+        if (candidate <= last) {
+            candidate = ((last >>> NODE_BITS) + 1) << NODE_BITS | node;
+        }
+        last = candidate;
+        return candidate;
+    }
+
+    /**
+     * Moves the clock past a timestamp received from another clock.
+     *
+     * @param timestamp the timestamp
+     */
+    public synchronized void observe(long timestamp) {
+        last = Math.max(last, timestamp);
+    }
+
+    /**
+     * Returns the time encoded in a timestamp.
+     *
+     * @param timestamp the timestamp
+     * @return the milliseconds since the Unix epoch
+     */
+    public static long timeOf(long timestamp) {
+        return timestamp >>> NODE_BITS;
+    }
+
+    /**
+     * Returns the lowest timestamp of a time, so that every timestamp issued at or after the time is at
+     * least as high.
+     *
+     * @param millis the milliseconds since the Unix epoch
+     * @return the timestamp
+     */
+    public static long stampAt(long millis) {
+        return millis << NODE_BITS;
+    }
+}
@@ -6,9 +6,13 @@ import java.util.Objects;
 
 /**
  * Represents a message in the group chat.
+ *
+ * <p>Every message gets an identifier from {@link IdGenerator} when it is created, so messages can be
+ * ordered and paged by identifier. Equality is still decided by the author, text and timestamp.</p>
  */
 public class Message implements Serializable {
     private static final long serialVersionUID = 1L;
+    private long id;
     private String author;
     private String text;
     private LocalDateTime timestamp;
@@ -26,11 +30,30 @@ public class Message implements Serializable {
      * @param text   the text of the message
      */
     public Message(String author, String text) {
+        this.id = IdGenerator.nextId();
         this.author = author;
         this.text = text;
         this.timestamp = LocalDateTime.now();
     }
 
+    /**
+     * Returns the identifier of the message, or zero if none has been assigned yet.
+     *
+     * @return the message identifier
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the identifier of the message.
+     *
+     * @param id the identifier to set
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Returns the author of the message.
      * 
@@ -0,0 +1,303 @@
+package core;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * A to-do list that several members can edit at the same time, whose copies are merged without locking.
+ *
+ * <p>The tasks form a set keyed by their identifier. Since an identifier is only ever added once, a
+ * removed task is kept as a tombstone and stays removed, even if another copy still changes it. Each
+ * field of a task (name, completion, date, description and priority) is a register that keeps the value
+ * with the highest {@link HybridClock} timestamp, so concurrent changes of different fields of a task
+ * are all kept, and of the same field the later one wins. Of two values with the same timestamp, such as
+ * those of tasks saved before timestamps, the greater by their text wins, so every copy keeps the same
+ * one. Merging is commutative, associative and
+ * idempotent, so copies that have seen the same edits hold the same list, whatever order the edits
+ * arrived in. A merge takes time linear in the size of the merged copy.</p>
+ *
+ * <p>An edit is usually sent as a {@link #delta delta}, holding only the changed fields and removed
+ * tasks. The JSON of a copy has the tasks under {@code tasks}, like a {@link ToDoList}, so it can be
+ * read as one; the timestamps are listed under {@code stamps} in the field order above, and the
+ * tombstones under {@code removed}. Tasks without timestamps, such as those of a list saved before,
+ * lose to any change.</p>
+ *
+ * <p>Tombstones are kept until they are {@linkplain #pruneRemoved pruned}, which the copy that is stored
+ * does once they are older than any copy still expected to be merged into it.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"tasks", "stamps", "removed"})
+public class ReplicatedToDoList implements Serializable {
+    private static final Field[] FIELDS = Field.values();
+
+    private final NavigableMap<Long, Task> tasks = new TreeMap<>();
+    private final Map<Long, long[]> stamps = new HashMap<>();
+    private final Map<Long, Long> removed = new HashMap<>();
+    private long latestStamp;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ReplicatedToDoList() {
+    }
+
+    /**
+     * Constructs a list holding copies of the tasks of a to-do list, without timestamps.
+     *
+     * @param toDoList the to-do list to copy
+     */
+    public ReplicatedToDoList(ToDoList toDoList) {
+        for (Task task : toDoList.getTasks()) {
+            put(new Task(task), new long[FIELDS.length]);
+        }
+    }
+
+    /**
+     * Constructs a list from its JSON. Tasks without an identifier get a new one.
+     */
+    @JsonCreator
+    ReplicatedToDoList(@JsonProperty("tasks") List<Task> tasks, @JsonProperty("stamps") Map<Long, long[]> stamps,
+            @JsonProperty("removed") Map<Long, Long> removed) {
+        if (removed != null) {
+            removed.forEach(this::remove);
+        }
+        if (tasks != null) {
+            for (Task task : tasks) {
+                long[] taskStamps = stamps == null ? null : stamps.get(task.getId());
+                if (task.getId() == 0) {
+                    task.setId(IdGenerator.nextId());
+                }
+                if (!this.removed.containsKey(task.getId())) {
+                    put(task, taskStamps != null && taskStamps.length == FIELDS.length
+                            ? taskStamps.clone() : new long[FIELDS.length]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the edit that turns one to-do list into another, as a list holding the tasks that were
+     * added or changed, with the given timestamp on the changed fields, and tombstones of the tasks
+     * that were removed. Tasks are matched by their identifier.
+     *
+     * @param base the list before the edit
+     * @param edited the list after the edit
+     * @param stamp the timestamp of the edit, usually from {@link HybridClock#next()}
+     * @return the delta
+     * @throws IllegalArgumentException if a list is null
+     */
+    public static ReplicatedToDoList delta(ToDoList base, ToDoList edited, long stamp) {
+        if (base == null || edited == null) {
+            throw new IllegalArgumentException("To-do lists cannot be null.");
+        }
+        ReplicatedToDoList delta = new ReplicatedToDoList();
+        for (Task task : edited.getTasks()) {
+            Task before = base.getTask(task.getId());
+            long[] taskStamps = new long[FIELDS.length];
+            boolean changed = false;
+            for (Field field : FIELDS) {
+                if (before == null || !Objects.equals(field.getter.apply(before), field.getter.apply(task))) {
+                    taskStamps[field.ordinal()] = stamp;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                delta.put(new Task(task), taskStamps);
+            }
+        }
+        for (Task task : base.getTasks()) {
+            if (edited.getTask(task.getId()) == null) {
+                delta.remove(task.getId(), stamp);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Merges another copy or a delta into this list.
+     *
+     * @param other the copy to merge
+     * @throws IllegalArgumentException if the copy is null
+     */
+    public void merge(ReplicatedToDoList other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The list to merge cannot be null.");
+        }
+        other.removed.forEach(this::remove);
+        for (Task theirs : other.tasks.values()) {
+            long id = theirs.getId();
+            if (removed.containsKey(id)) {
+                continue;
+            }
+            long[] theirStamps = other.stamps.get(id);
+            Task mine = tasks.get(id);
+            if (mine == null) {
+                put(new Task(theirs), theirStamps.clone());
+                continue;
+            }
+            long[] myStamps = stamps.get(id);
+            for (Field field : FIELDS) {
+                int i = field.ordinal();
+                if (theirStamps[i] > myStamps[i] || theirStamps[i] == myStamps[i]
+                        && compare(field.getter.apply(theirs), field.getter.apply(mine)) > 0) {
+                    field.copy.accept(theirs, mine);
+                    myStamps[i] = theirStamps[i];
+                }
+            }
+        }
+        latestStamp = Math.max(latestStamp, other.latestStamp);
+    }
+
+    /**
+     * Edits this list to hold the same tasks as a to-do list, stamping the changes with the given
+     * timestamp. Tasks another copy adds later are kept. The to-do list is compared with this copy, so it
+     * should have been edited from this copy as it is now; an edit of an older copy is merged as a
+     * {@link #delta delta} from that copy instead, or it undoes the changes made since.
+     *
+     * @param toDoList the tasks the list should hold
+     * @param stamp the timestamp of the edit
+     * @throws IllegalArgumentException if the to-do list is null
+     */
+    public void assign(ToDoList toDoList, long stamp) {
+        merge(delta(toToDoList(), toDoList, stamp));
+    }
+
+    /**
+     * Drops the tombstones of tasks removed before a timestamp. A copy that still holds such a task adds
+     * it again when merged, so the timestamp should be older than the copies still in use.
+     *
+     * @param before the timestamp, usually from {@link HybridClock#stampAt(long)}
+     * @return the number of tombstones dropped
+     */
+    public int pruneRemoved(long before) {
+        int size = removed.size();
+        removed.values().removeIf(stamp -> stamp < before);
+        return size - removed.size();
+    }
+
+    /**
+     * Returns whether the list holds neither tasks nor tombstones, as the delta of an edit that changed
+     * nothing does.
+     *
+     * @return true if the list is empty
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return tasks.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Returns the tasks of the list, ordered by identifier, which is the order they were created in.
+     * Positional access takes linear time.
+     *
+     * @return an unmodifiable view of the tasks
+     */
+    @JsonProperty("tasks")
+    public List<Task> getTasks() {
+        return new CollectionBackedList<>(tasks.values());
+    }
+
+    /**
+     * Returns whether a task was removed from the list.
+     *
+     * @param id the identifier of the task
+     * @return true if the list holds a tombstone of the task
+     */
+    public boolean isRemoved(long id) {
+        return removed.containsKey(id);
+    }
+
+    /**
+     * Returns the highest timestamp in the list, for a {@link HybridClock} to {@linkplain
+     * HybridClock#observe observe}.
+     *
+     * @return the highest timestamp, or 0 if the list has none
+     */
+    @JsonIgnore
+    public long getLatestStamp() {
+        return latestStamp;
+    }
+
+    /**
+     * Returns copies of the tasks as a to-do list.
+     *
+     * @return the to-do list
+     */
+    public ToDoList toToDoList() {
+        ToDoList toDoList = new ToDoList();
+        for (Task task : tasks.values()) {
+            toDoList.addTask(new Task(task));
+        }
+        return toDoList;
+    }
+
+    @JsonProperty("stamps")
+    private Map<Long, long[]> getStamps() {
+        return stamps;
+    }
+
+    @JsonProperty("removed")
+    private Map<Long, Long> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Orders two values of a field by their text, with no value first.
+     */
+    private static int compare(Object theirs, Object mine) {
+        if (Objects.equals(theirs, mine)) {
+            return 0;
+        }
+        if (theirs == null || mine == null) {
+            return theirs == null ? -1 : 1;
+        }
+        return theirs.toString().compareTo(mine.toString());
+    }
+
+    private void put(Task task, long[] taskStamps) {
+        tasks.put(task.getId(), task);
+        stamps.put(task.getId(), taskStamps);
+        for (long stamp : taskStamps) {
+            latestStamp = Math.max(latestStamp, stamp);
+        }
+    }
+
+    private void remove(long id, long stamp) {
+        removed.merge(id, stamp, Math::max);
+        tasks.remove(id);
+        stamps.remove(id);
+        latestStamp = Math.max(latestStamp, stamp);
+    }
+
+    /**
+     * The fields of a task that are merged one by one.
+     */
+    private enum Field {
+        NAME(Task::getTaskName, (from, to) -> to.setTaskName(from.getTaskName())),
+        COMPLETED(Task::isCompleted, (from, to) -> to.setCompleted(from.isCompleted())),
+        DATE(Task::getDateTime, (from, to) -> to.setDateTime(from.getDateTime())),
+        DESCRIPTION(Task::getDescription, (from, to) -> to.setDescription(from.getDescription())),
+        PRIORITY(Task::getPriority, (from, to) -> to.setPriority(from.getPriority()));
+
+        private final Function<Task, Object> getter;
+        private final BiConsumer<Task, Task> copy;
+
+        Field(Function<Task, Object> getter, BiConsumer<Task, Task> copy) {
+            this.getter = getter;
+            this.copy = copy;
+        }
+    }
+}
@@ -8,11 +8,13 @@ import java.util.List;
 /**
  * Represents a task in the to-do list, containing properties such as name, 
  * completion status, date, description, and priority.
+ * Each task carries a time-ordered identifier that stays the same across copies and saves.
  */
 public class Task implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    private long id;
     private String taskName;
     private boolean isCompleted;
     private LocalDate dateTime;
@@ -30,6 +32,7 @@ public class Task implements Serializable {
      * @param task the Task to copy
      */
     public Task(Task task) {
+        this.id = task.id;
         this.taskName = task.taskName;
         this.isCompleted = task.isCompleted;
         this.dateTime = task.dateTime;
@@ -54,6 +57,7 @@ public class Task implements Serializable {
         if (priority != null && !PRIORITY_NAMES.contains(priority)) {
             throw new IllegalArgumentException("Invalid priority level.");
         }
+        this.id = IdGenerator.nextId();
         this.taskName = taskName.trim();
         this.dateTime = dateTime;
         this.isCompleted = false;
@@ -71,10 +75,29 @@ public class Task implements Serializable {
         if (taskName.isBlank()) {
             throw new IllegalArgumentException("Task name cannot be empty.");
         }
+        this.id = IdGenerator.nextId();
         this.taskName = taskName.trim();
         this.isCompleted = false;
     }
 
+    /**
+     * Returns the identifier of the task, or zero if none has been assigned yet.
+     *
+     * @return the task identifier
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the identifier of the task.
+     *
+     * @param id the identifier to set
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Returns the task name.
      *
@@ -102,6 +125,15 @@ public class Task implements Serializable {
         return dateTime;
     }
 
+    /**
+     * Sets the date and time associated with the task.
+     *
+     * @param dateTime the date and time to set, or null for none
+     */
+    public void setDateTime(LocalDate dateTime) {
+        this.dateTime = dateTime;
+    }
+
     /**
      * Returns the completion status of the task.
      *
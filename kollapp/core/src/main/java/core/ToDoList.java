@@ -1,17 +1,23 @@
 package core;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Represents a to-do list that contains multiple tasks.
+ *
+ * <p>Tasks are kept in insertion order and indexed by their identifier, so single tasks can be
+ * looked up, updated and removed in constant time.</p>
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ToDoList implements Serializable {
-    private List<Task> tasks = new ArrayList<>();
+    private final Map<Long, Task> tasks = new LinkedHashMap<>();
+    private transient List<Task> tasksView;
 
     /**
      * Default constructor for creating an empty ToDoList.
@@ -26,30 +32,82 @@ public class ToDoList implements Serializable {
      */
     public ToDoList(ToDoList toDoList) {
         for (Task task : toDoList.getTasks()) {
-            tasks.add(new Task(task));
+            tasks.put(task.getId(), new Task(task));
         }
     }
 
     /**
-     * Adds a task to the to-do list.
+     * Adds a task to the to-do list. A task without an identifier is assigned a new one.
      *
      * @param newTask the task to add
-     * @throws IllegalArgumentException if the task is null
+     * @throws IllegalArgumentException if the task is null or a task with the same identifier is already in the list
      */
     public void addTask(Task newTask) {
         if (newTask == null) {
             throw new IllegalArgumentException("Task cannot be null.");
         }
-        tasks.add(newTask);
+        if (newTask.getId() == 0) {
+            newTask.setId(IdGenerator.nextId());
+        }
+        if (tasks.putIfAbsent(newTask.getId(), newTask) != null) {
+            throw new IllegalArgumentException("A task with this id is already in the list.");
+        }
     }
 
     /**
-     * Returns a copy of the list of tasks.
+     * Returns an unmodifiable view of the list of tasks. Look tasks up with {@link #getTask(long)}:
+     * positional access walks the tasks in linear time.
      *
      * @return a list of tasks
      */
     public List<Task> getTasks() {
-        return new ArrayList<>(tasks);
+        if (tasksView == null) {
+            tasksView = new CollectionBackedList<>(tasks.values());
+        }
+        return tasksView;
+    }
+
+    /**
+     * Returns the task with the given identifier.
+     *
+     * @param id the identifier of the task
+     * @return the task, or null if no task has the identifier
+     */
+    public Task getTask(long id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * Replaces the task that has the same identifier as the given task, keeping its position.
+     *
+     * @param task the updated task
+     * @throws IllegalArgumentException if the task is null
+     * @throws IndexOutOfBoundsException if no task with the identifier is in the list
+     */
+    public void updateTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        if (tasks.replace(task.getId(), task) == null) {
+            throw new IndexOutOfBoundsException("Task is not in the list.");
+        }
+    }
+
+    /**
+     * Replaces the tasks of the to-do list. Used by Jackson during deserialization.
+     * Tasks saved before identifiers were introduced, or with a duplicate identifier, get a new one.
+     *
+     * @param tasks the tasks to set
+     */
+    @JsonProperty("tasks")
+    private void setTasks(List<Task> tasks) {
+        this.tasks.clear();
+        for (Task task : tasks) {
+            if (task.getId() == 0 || this.tasks.containsKey(task.getId())) {
+                task.setId(IdGenerator.nextId());
+            }
+            this.tasks.put(task.getId(), task);
+        }
     }
 
     /**
@@ -59,9 +117,23 @@ public class ToDoList implements Serializable {
      * @throws IndexOutOfBoundsException if the task is not in the list
      */
     public void removeTask(Task task) {
-        if (!tasks.contains(task)) {
+        if (task == null || !tasks.remove(task.getId(), task)) {
+            throw new IndexOutOfBoundsException("Task is not in the list.");
+        }
+    }
+
+    /**
+     * Removes the task with the given identifier from the to-do list.
+     *
+     * @param id the identifier of the task to remove
+     * @return the removed task
+     * @throws IndexOutOfBoundsException if no task with the identifier is in the list
+     */
+    public Task removeTask(long id) {
+        Task removed = tasks.remove(id);
+        if (removed == null) {
             throw new IndexOutOfBoundsException("Task is not in the list.");
         }
-        tasks.remove(task);
+        return removed;
     }
 }
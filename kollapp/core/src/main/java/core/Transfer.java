@@ -0,0 +1,91 @@
+package core;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents a single payment from one user to another in a settlement plan.
+ */
+public class Transfer implements Serializable {
+    private String from;
+    private String to;
+    private double amount;
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public Transfer() {
+    }
+
+    /**
+     * Constructs a transfer of the given amount between two users.
+     *
+     * @param from the username of the user paying
+     * @param to the username of the user receiving the payment
+     * @param amount the amount to pay
+     */
+    public Transfer(String from, String to, double amount) {
+        this.from = from;
+        this.to = to;
+        this.amount = amount;
+    }
+
+    /**
+     * Returns the username of the user paying.
+     *
+     * @return the paying user
+     */
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    /**
+     * Returns the username of the user receiving the payment.
+     *
+     * @return the receiving user
+     */
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    /**
+     * Returns the amount to pay.
+     *
+     * @return the amount
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Compares transfers by users and by amount rounded to whole cents.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Transfer transfer = (Transfer) o;
+
+        return Math.round(amount * 100) == Math.round(transfer.amount * 100) &&
+                Objects.equals(from, transfer.from) &&
+                Objects.equals(to, transfer.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, Math.round(amount * 100));
+    }
+}
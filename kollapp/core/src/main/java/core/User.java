@@ -1,8 +1,11 @@
 package core;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Represents a user in the system, containing a username, password, 
@@ -11,7 +14,8 @@ import java.util.List;
 public class User implements Serializable {
     private String username;
     private String hashedPassword;
-    private List<String> userGroups = new ArrayList<>();
+    private final Set<String> userGroups = new LinkedHashSet<>();
+    private final List<String> userGroupsView = new CollectionBackedList<>(userGroups);
 
     /**
      * Default constructor required for Jackson deserialization.
@@ -50,12 +54,24 @@ public class User implements Serializable {
     }
 
     /**
-     * Returns a list of the user's groups.
+     * Returns an unmodifiable view of the user's groups. Membership checks are constant time, but
+     * {@code get(int)} walks the groups; copy the list with {@link List#copyOf} before indexing into it.
      *
      * @return a list of user groups
      */
     public List<String> getUserGroups() {
-        return new ArrayList<>(userGroups);
+        return userGroupsView;
+    }
+
+    /**
+     * Replaces the user's groups. Used by Jackson during deserialization.
+     *
+     * @param userGroups the groups to set
+     */
+    @JsonProperty("userGroups")
+    private void setUserGroups(List<String> userGroups) {
+        this.userGroups.clear();
+        this.userGroups.addAll(userGroups);
     }
 
     /**
@@ -64,9 +80,7 @@ public class User implements Serializable {
      * @param userGroup the group to add
      */
     public void addUserGroup(String userGroup) {
-        if (!this.userGroups.contains(userGroup)) {
-            this.userGroups.add(userGroup);
-        }
+        this.userGroups.add(userGroup);
     }
 
     public void setUsername(String username) {
@@ -1,15 +1,17 @@
 package core;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a group of users, containing the group's name and a list of users.
  */
 public class UserGroup implements Serializable {
     private String groupName;
-    private List<String> users = new ArrayList<>();
+    private final Set<String> users = new LinkedHashSet<>();
+    private final List<String> usersView = new CollectionBackedList<>(users);
 
     /**
      * Default constructor required for Jackson deserialization.
@@ -45,12 +47,13 @@ public class UserGroup implements Serializable {
     }
 
     /**
-     * Returns a copy of the list of users in the group.
+     * Returns an unmodifiable view of the list of users in the group. {@code contains} is constant time,
+     * while {@code get(int)} takes time linear in the index, so iterate over the users or index a copy.
      *
      * @return a list of users
      */
     public List<String> getUsers() {
-        return new ArrayList<>(users);
+        return usersView;
     }
 
     /**
@@ -59,7 +62,9 @@ public class UserGroup implements Serializable {
      * @param users the list of user names to be set
      */
     public void setUsers(List<String> users) {
-        this.users = new ArrayList<>(users);
+        Set<String> newUsers = new LinkedHashSet<>(users);
+        this.users.clear();
+        this.users.addAll(newUsers);
     }
 
     /**
@@ -72,10 +77,9 @@ public class UserGroup implements Serializable {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be null or empty.");
         }
-        if (users.contains(username)) {
+        if (!users.add(username)) {
             throw new IllegalArgumentException("User already exists in the group.");
         }
-        users.add(username);
     }
 
     /**
@@ -88,10 +92,9 @@ public class UserGroup implements Serializable {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be null or empty.");
         }
-        if (!users.contains(username)) {
+        if (!users.remove(username)) {
             throw new IllegalArgumentException("User does not exist in the group.");
         }
-        users.remove(username);
     }
 
     /**
@@ -0,0 +1,98 @@
+package core.logging;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The correlation ID that ties the log lines of the client and the server for one request together.
+ *
+ * <p>The client sends it in the {@value #HEADER} header, the server adopts it for the request, or
+ * makes one up if it is missing or malformed, and returns it in the same header. On both sides it is
+ * kept in the SLF4J MDC under {@value #MDC_KEY}, so every log line written while handling the request
+ * carries it.</p>
+ */
+public final class CorrelationId {
+    /**
+     * The name of the HTTP header carrying the correlation ID.
+     */
+    public static final String HEADER = "X-Correlation-Id";
+
+    /**
+     * The MDC key of the correlation ID.
+     */
+    public static final String MDC_KEY = "correlationId";
+
+    private static final int MAX_LENGTH = 64;
+
+    private CorrelationId() {
+    }
+
+    /**
+     * Creates a new random correlation ID of 16 hexadecimal digits.
+     *
+     * @return the new correlation ID
+     */
+    public static String create() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    /**
+     * Returns whether a received value can be used as correlation ID: 1 to 64 letters, digits, dashes,
+     * underscores or dots, so it can be logged without escaping.
+     *
+     * @param value the received value
+     * @return true if the value is a valid correlation ID
+     */
+    public static boolean isValid(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the correlation ID of the current thread.
+     *
+     * @return the correlation ID, or null if none is set
+     */
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * Returns the correlation ID of the current thread, or a new one if none is set. The new ID is not
+     * stored, so independent calls get different IDs.
+     *
+     * @return the correlation ID to send
+     */
+    public static String currentOrCreate() {
+        String current = current();
+        return current != null ? current : create();
+    }
+
+    /**
+     * Sets the correlation ID of the current thread.
+     *
+     * @param correlationId the correlation ID
+     */
+    public static void set(String correlationId) {
+        MDC.put(MDC_KEY, correlationId);
+    }
+
+    /**
+     * Removes the correlation ID of the current thread.
+     */
+    public static void clear() {
+        MDC.remove(MDC_KEY);
+    }
+}
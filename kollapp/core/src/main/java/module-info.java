@@ -6,7 +6,9 @@ module core {
     requires com.fasterxml.jackson.annotation;
     requires javafx.graphics;
     requires spring.context;
+    requires org.slf4j;
     
     opens core to com.fasterxml.jackson.databind;
     exports core;
+    exports core.logging;
 }
\ No newline at end of file
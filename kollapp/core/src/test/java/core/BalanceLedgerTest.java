@@ -0,0 +1,73 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link BalanceLedger} class.
+ */
+@Tag("balanceledger")
+public class BalanceLedgerTest {
+
+    private BalanceLedger ledger;
+    private Expense dinner;
+
+    @BeforeEach
+    @DisplayName("Initialize BalanceLedger and Expense before each test")
+    void setUp() {
+        ledger = new BalanceLedger();
+        dinner = new Expense("Dinner", 90.0, "Alice", new ArrayList<>(Arrays.asList("Alice", "Bob", "Charlie")));
+    }
+
+    @Test
+    @DisplayName("Test adding an expense records owed and owing amounts")
+    @Tag("add")
+    void testAddExpense() {
+        ledger.addExpense(dinner);
+
+        assertEquals(60.0, ledger.getBalance("Alice").getOwed(), 1e-9, "Alice should be owed two shares");
+        assertEquals(0.0, ledger.getBalance("Alice").getOwing(), 1e-9, "Alice should owe nothing");
+        assertEquals(30.0, ledger.getBalance("Bob").getOwing(), 1e-9, "Bob should owe one share");
+        assertEquals(-30.0, ledger.getBalance("Charlie").getNet(), 1e-9, "Charlie should have a negative net balance");
+    }
+
+    @Test
+    @DisplayName("Test removing an expense clears its amounts")
+    @Tag("remove")
+    void testRemoveExpense() {
+        ledger.addExpense(dinner);
+        ledger.removeExpense(dinner);
+
+        assertTrue(ledger.getBalances().isEmpty(), "Ledger should be empty after removing the only expense");
+        assertTrue(ledger.getBalance("Alice").isEmpty(), "Unknown users should get an empty balance");
+    }
+
+    @Test
+    @DisplayName("Test building a ledger from several expenses")
+    @Tag("fromExpenses")
+    void testFromExpenses() {
+        Expense taxi = new Expense("Taxi", 20.0, "Bob", new ArrayList<>(Arrays.asList("Alice", "Bob")));
+        BalanceLedger built = BalanceLedger.fromExpenses(List.of(dinner, taxi));
+
+        assertEquals(50.0, built.getBalance("Alice").getNet(), 1e-9, "Alice should be owed 60 and owe 10");
+        assertEquals(-20.0, built.getBalance("Bob").getNet(), 1e-9, "Bob should owe 30 and be owed 10");
+        assertThrows(UnsupportedOperationException.class, () -> built.getBalances().clear(),
+            "Balances view should be unmodifiable");
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments are rejected")
+    @Tag("validation")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ledger.addExpense(null));
+        assertThrows(IllegalArgumentException.class, () -> ledger.removeExpense(null));
+    }
+}
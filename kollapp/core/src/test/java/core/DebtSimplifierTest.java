@@ -0,0 +1,70 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link DebtSimplifier} class.
+ */
+@Tag("debtsimplifier")
+public class DebtSimplifierTest {
+
+    @Test
+    @DisplayName("Test a chain of debts collapses into a single transfer")
+    @Tag("simplify")
+    void testChainCollapses() {
+        List<Expense> expenses = List.of(
+            new Expense("Taxi", 20.0, "Bob", new ArrayList<>(Arrays.asList("Alice", "Bob"))),
+            new Expense("Lunch", 20.0, "Charlie", new ArrayList<>(Arrays.asList("Bob", "Charlie"))));
+        BalanceLedger ledger = BalanceLedger.fromExpenses(expenses);
+
+        List<Transfer> plan = DebtSimplifier.simplify(ledger.getBalances().values());
+
+        assertEquals(List.of(new Transfer("Alice", "Charlie", 10.0)), plan,
+            "Alice should pay Charlie directly instead of going through Bob");
+    }
+
+    @Test
+    @DisplayName("Test the plan clears every balance with at most n - 1 transfers")
+    @Tag("simplify")
+    void testPlanClearsBalances() {
+        List<String> users = Arrays.asList("u0", "u1", "u2", "u3", "u4", "u5");
+        Random random = new Random(42);
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            expenses.add(new Expense("Expense " + i, 1 + random.nextInt(300), users.get(random.nextInt(users.size())),
+                new ArrayList<>(users)));
+        }
+        BalanceLedger ledger = BalanceLedger.fromExpenses(expenses);
+
+        List<Transfer> plan = DebtSimplifier.simplify(ledger.getBalances().values());
+
+        Map<String, Double> remaining = new HashMap<>();
+        ledger.getBalances().values().forEach(b -> remaining.put(b.getUsername(), b.getNet()));
+        for (Transfer transfer : plan) {
+            assertTrue(transfer.getAmount() > 0, "Transfers should have a positive amount");
+            remaining.merge(transfer.getFrom(), transfer.getAmount(), Double::sum);
+            remaining.merge(transfer.getTo(), -transfer.getAmount(), Double::sum);
+        }
+        assertTrue(plan.size() <= users.size() - 1, "Plan should need at most n - 1 transfers");
+        remaining.values().forEach(net -> assertEquals(0.0, net, 0.05, "Every balance should be cleared"));
+    }
+
+    @Test
+    @DisplayName("Test empty and invalid input")
+    @Tag("validation")
+    void testEmptyAndInvalidInput() {
+        assertTrue(DebtSimplifier.simplify(List.of()).isEmpty(), "No balances should give an empty plan");
+        assertThrows(IllegalArgumentException.class, () -> DebtSimplifier.simplify(null));
+    }
+}
@@ -156,4 +156,29 @@ public class ExpenseTest {
         assertTrue(expense.hasParticipantSettled("NonParticipant"), 
             "Non-participants should be considered settled");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test participants and settlements are unmodifiable views")
+    @Tag("getter")
+    void testViews() {
+        assertSame(expense.getParticipants(), expense.getParticipants(), "Repeated calls should return the same view");
+        assertSame(expense.getSettlements(), expense.getSettlements(), "Repeated calls should return the same view");
+        assertThrows(UnsupportedOperationException.class, () -> expense.getParticipants().add("Dave"));
+        assertThrows(UnsupportedOperationException.class, () -> expense.getSettlements().clear());
+    }
+
+    @Test
+    @DisplayName("Test settlement lookups follow replaced settlements")
+    @Tag("settle")
+    void testSettlementLookupAfterReplace() {
+        assertFalse(expense.hasParticipantSettled("Bob"), "Bob should not have settled yet");
+
+        expense.setSettlements(List.of(new Settlement("Bob", true), new Settlement("Dave", false)));
+
+        assertTrue(expense.hasParticipantSettled("Bob"), "Bob should be settled after replacing settlements");
+        assertTrue(expense.hasParticipantSettled("Charlie"), "Charlie has no settlement and counts as settled");
+        expense.settleParticipant("Dave");
+        assertTrue(expense.hasParticipantSettled("Dave"), "Dave should be settled");
+        assertTrue(expense.isFullySettled(), "Expense should be fully settled");
+    }
+}
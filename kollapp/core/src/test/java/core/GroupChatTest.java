@@ -54,4 +54,36 @@ public class GroupChatTest {
 
         assertEquals("Message cannot be null.", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Test getMessages returns an unmodifiable view")
+    @Tag("getter")
+    void testMessagesView() {
+        Message message = new Message("User", "Hello World");
+        groupChat.addMessage(message);
+        List<Message> messages = groupChat.getMessages();
+
+        assertSame(messages, groupChat.getMessages(), "Repeated calls should return the same view");
+        assertThrows(UnsupportedOperationException.class, () -> messages.clear(),
+            "The view should not be modifiable");
+    }
+
+    @Test
+    @DisplayName("Test messages get increasing identifiers")
+    @Tag("id")
+    void testMessageIds() {
+        Message first = new Message("User", "First");
+        Message second = new Message("User", "Second");
+        Message withoutId = new Message();
+        withoutId.setAuthor("User");
+        withoutId.setText("Third");
+
+        this.groupChat.addMessage(first);
+        this.groupChat.addMessage(second);
+        this.groupChat.addMessage(withoutId);
+
+        assertTrue(first.getId() > 0, "A new message should have an identifier");
+        assertTrue(second.getId() > first.getId(), "Later messages should have larger identifiers");
+        assertTrue(withoutId.getId() > second.getId(), "A message without an identifier should get one");
+    }
 }
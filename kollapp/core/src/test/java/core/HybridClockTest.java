@@ -0,0 +1,50 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link HybridClock} class.
+ */
+@Tag("hybridclock")
+public class HybridClockTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    @DisplayName("Test timestamps keep increasing when the system clock stands still or goes back")
+    @Tag("next")
+    void testTimestampsIncrease() {
+        HybridClock clock = new HybridClock(7, now::get);
+
+        long first = clock.next();
+        long second = clock.next();
+        now.set(500);
+        long third = clock.next();
+
+        assertEquals(1_000, HybridClock.timeOf(first));
+        assertEquals(7, first & ((1 << HybridClock.NODE_BITS) - 1), "The node should be in the low bits");
+        assertTrue(second > first);
+        assertTrue(third > second);
+    }
+
+    @Test
+    @DisplayName("Test a timestamp issued after observing another one is greater than it")
+    @Tag("observe")
+    void testObserve() {
+        HybridClock ahead = new HybridClock(1, () -> 5_000);
+        HybridClock behind = new HybridClock(2, now::get);
+
+        long remote = ahead.next();
+        behind.observe(remote);
+
+        assertTrue(behind.next() > remote);
+        assertThrows(IllegalArgumentException.class, () -> new HybridClock(1 << HybridClock.NODE_BITS, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new HybridClock(-1, now::get));
+    }
+}
@@ -0,0 +1,79 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link IdGenerator} class.
+ */
+@Tag("idgenerator")
+public class IdGeneratorTest {
+
+    @Test
+    @DisplayName("Test ids are unique and strictly increasing")
+    @Tag("nextId")
+    void testIdsIncrease() {
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long id = IdGenerator.nextId();
+            assertTrue(id > previous, "Every id should be larger than the one before it");
+            assertTrue(ids.add(id), "Ids should not repeat");
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Test the creation time can be read back from an id")
+    @Tag("timestamp")
+    void testTimestampOf() {
+        long before = System.currentTimeMillis();
+        long id = IdGenerator.nextId();
+        long after = System.currentTimeMillis();
+
+        assertTrue(IdGenerator.timestampOf(id) >= before, "Timestamp should not be before generation");
+        assertTrue(IdGenerator.timestampOf(id) <= after + 1000, "Timestamp should be close to generation time");
+    }
+
+    @Test
+    @DisplayName("Test ids of one node keep increasing within a millisecond and when the clock goes back")
+    @Tag("nextId")
+    void testIdsOfOneNode() {
+        AtomicLong now = new AtomicLong(1_000);
+        IdGenerator generator = new IdGenerator(5, now::get);
+
+        long previous = 0;
+        for (int i = 0; i < 3 * (1 << IdGenerator.SEQUENCE_BITS); i++) {
+            long id = generator.next();
+            assertTrue(id > previous, "Every id should be larger than the one before it");
+            assertEquals(5, IdGenerator.nodeOf(id), "The node should be encoded in every id");
+            previous = id;
+        }
+        assertEquals(1_002, IdGenerator.timestampOf(previous), "A used up millisecond should move to the next");
+        now.set(500);
+        assertTrue(generator.next() > previous, "Ids should increase when the clock goes back");
+    }
+
+    @Test
+    @DisplayName("Test ids of different nodes in the same millisecond differ")
+    @Tag("node")
+    void testIdsOfDifferentNodes() {
+        IdGenerator first = new IdGenerator(1, () -> 1_000);
+        IdGenerator second = new IdGenerator(2, () -> 1_000);
+
+        long firstId = first.next();
+        long secondId = second.next();
+
+        assertNotEquals(firstId, secondId);
+        assertEquals(IdGenerator.timestampOf(firstId), IdGenerator.timestampOf(secondId));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(1 << IdGenerator.NODE_BITS, () -> 0));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(-1, () -> 0));
+    }
+}
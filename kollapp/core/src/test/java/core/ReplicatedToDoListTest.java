@@ -0,0 +1,158 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link ReplicatedToDoList} class.
+ */
+@Tag("replicatedtodolist")
+public class ReplicatedToDoListTest {
+
+    private ToDoList base;
+    private Task milk;
+    private Task bread;
+
+    @BeforeEach
+    @DisplayName("Initialize a shared to-do list with two tasks")
+    void setUp() {
+        base = new ToDoList();
+        milk = new Task("Milk");
+        bread = new Task("Bread");
+        base.addTask(milk);
+        base.addTask(bread);
+    }
+
+    private static List<String> describe(ReplicatedToDoList list) {
+        return list.getTasks().stream()
+            .map(task -> task.getTaskName() + (task.isCompleted() ? " (done)" : "") + " " + task.getPriority())
+            .collect(Collectors.toList());
+    }
+
+    private ToDoList edit(Consumer<ToDoList> change) {
+        ToDoList edited = new ToDoList(base);
+        change.accept(edited);
+        return edited;
+    }
+
+    @Test
+    @DisplayName("Test concurrent edits merge to the same list in any order")
+    @Tag("merge")
+    void testMergeIsCommutative() {
+        ToDoList alice = edit(list -> list.getTask(milk.getId()).setCompleted(true));
+        ToDoList bob = edit(list -> {
+            list.getTask(milk.getId()).setPriority("High");
+            list.addTask(new Task("Eggs"));
+        });
+        ReplicatedToDoList aliceDelta = ReplicatedToDoList.delta(base, alice, 10);
+        ReplicatedToDoList bobDelta = ReplicatedToDoList.delta(base, bob, 11);
+
+        ReplicatedToDoList first = new ReplicatedToDoList(base);
+        first.merge(aliceDelta);
+        first.merge(bobDelta);
+        ReplicatedToDoList second = new ReplicatedToDoList(base);
+        second.merge(bobDelta);
+        second.merge(aliceDelta);
+        second.merge(aliceDelta);
+
+        assertEquals(List.of("Milk (done) High", "Bread null", "Eggs null"), describe(first));
+        assertEquals(describe(first), describe(second));
+        assertEquals(11, first.getLatestStamp());
+    }
+
+    @Test
+    @DisplayName("Test the later change of the same field wins")
+    @Tag("merge")
+    void testLastWriterWins() {
+        ReplicatedToDoList replica = new ReplicatedToDoList(base);
+        ReplicatedToDoList later = ReplicatedToDoList.delta(base, edit(list -> list.getTask(bread.getId())
+            .setTaskName("Rye bread")), 20);
+        ReplicatedToDoList earlier = ReplicatedToDoList.delta(base, edit(list -> list.getTask(bread.getId())
+            .setTaskName("White bread")), 15);
+
+        replica.merge(later);
+        replica.merge(earlier);
+
+        assertEquals("Rye bread", replica.toToDoList().getTask(bread.getId()).getTaskName());
+    }
+
+    @Test
+    @DisplayName("Test a removed task stays removed while a concurrent edit keeps the other tasks")
+    @Tag("merge")
+    void testRemoveWins() {
+        ReplicatedToDoList replica = new ReplicatedToDoList(base);
+        ReplicatedToDoList removal = ReplicatedToDoList.delta(base, edit(list -> list.removeTask(milk.getId())), 5);
+        ReplicatedToDoList update = ReplicatedToDoList.delta(base, edit(list -> list.getTask(milk.getId())
+            .setDescription("Oat")), 6);
+
+        replica.merge(removal);
+        replica.merge(update);
+
+        assertTrue(replica.isRemoved(milk.getId()));
+        assertNull(replica.toToDoList().getTask(milk.getId()));
+        assertNotNull(replica.toToDoList().getTask(bread.getId()));
+    }
+
+    @Test
+    @DisplayName("Test assigning a list only stamps what changed and keeps tasks added later")
+    @Tag("assign")
+    void testAssign() {
+        ReplicatedToDoList replica = new ReplicatedToDoList(base);
+        ToDoList done = edit(list -> list.getTask(milk.getId()).setCompleted(true));
+        ToDoList eggs = new ToDoList();
+        eggs.addTask(new Task("Eggs"));
+
+        replica.assign(done, 4);
+        replica.merge(ReplicatedToDoList.delta(base, edit(list -> list.getTask(milk.getId()).setPriority("Low")), 2));
+        replica.merge(ReplicatedToDoList.delta(new ToDoList(), eggs, 5));
+
+        assertEquals(1, ReplicatedToDoList.delta(base, done, 4).getTasks().size(),
+            "Only the changed task should be in the delta");
+        assertEquals(List.of("Milk (done) Low", "Bread null", "Eggs null"), describe(replica));
+        assertThrows(IllegalArgumentException.class, () -> replica.merge(null));
+        assertThrows(IllegalArgumentException.class, () -> ReplicatedToDoList.delta(null, base, 1));
+    }
+
+    @Test
+    @DisplayName("Test values with the same timestamp merge to the same one in any order")
+    @Tag("merge")
+    void testEqualStampsConverge() {
+        ReplicatedToDoList left = new ReplicatedToDoList(base);
+        ReplicatedToDoList right = new ReplicatedToDoList(edit(list -> list.getTask(milk.getId()).setPriority("High")));
+        ReplicatedToDoList leftFirst = new ReplicatedToDoList(base);
+        ReplicatedToDoList rightFirst = new ReplicatedToDoList(base);
+
+        leftFirst.merge(left);
+        leftFirst.merge(right);
+        rightFirst.merge(right);
+        rightFirst.merge(left);
+
+        assertEquals(describe(leftFirst), describe(rightFirst));
+        assertEquals(List.of("Milk High", "Bread null"), describe(leftFirst));
+    }
+
+    @Test
+    @DisplayName("Test pruning drops only the tombstones older than the timestamp")
+    @Tag("prune")
+    void testPruneRemoved() {
+        ReplicatedToDoList replica = new ReplicatedToDoList(base);
+        replica.merge(ReplicatedToDoList.delta(base, edit(list -> list.removeTask(milk.getId())), 5));
+        replica.merge(ReplicatedToDoList.delta(base, edit(list -> list.removeTask(bread.getId())), 9));
+
+        assertEquals(1, replica.pruneRemoved(6));
+
+        assertFalse(replica.isRemoved(milk.getId()));
+        assertTrue(replica.isRemoved(bread.getId()));
+        assertFalse(replica.isEmpty());
+        assertTrue(ReplicatedToDoList.delta(base, base, 7).isEmpty());
+        assertEquals(5L << HybridClock.NODE_BITS, HybridClock.stampAt(5));
+    }
+}
@@ -168,4 +168,17 @@ class TaskTest {
         task2.setCompleted(false);
         Assertions.assertFalse(task2.isCompleted(), "Task should not be completed");
     }
+
+    @Test
+    @DisplayName("Test tasks get unique time-ordered ids that survive copies")
+    @Tag("id")
+    void testTaskId() {
+        assertEquals(0, new Task().getId(), "Task created for Jackson should not have an id yet");
+        assertTrue(task1.getId() > 0, "New task should get an id");
+        assertTrue(task2.getId() > task1.getId(), "Later tasks should get larger ids");
+        assertEquals(task2.getId(), new Task(task2).getId(), "Copy should keep the id");
+
+        task1.setId(42);
+        assertEquals(42, task1.getId(), "Id should be updated");
+    }
 }
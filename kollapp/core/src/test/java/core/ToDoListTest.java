@@ -120,4 +120,56 @@ class ToDoListTest {
         assertEquals(task2, tasks.get(1), "Second task should be task2");
         assertEquals(task3, tasks.get(2), "Third task should be task3");
     }
+
+    @Test
+    @DisplayName("Test getTasks returns an unmodifiable live view")
+    @Tag("getter")
+    public void testGetTasksReturnsView() {
+        List<Task> tasks = toDoList.getTasks();
+        toDoList.addTask(task1);
+
+        assertSame(tasks, toDoList.getTasks(), "Repeated calls should return the same view");
+        assertEquals(1, tasks.size(), "The view should reflect added tasks");
+        assertThrows(UnsupportedOperationException.class, () -> tasks.add(task2),
+            "The view should not be modifiable");
+    }
+
+    @Test
+    @DisplayName("Test looking up, updating and removing tasks by id")
+    @Tag("id")
+    public void testTasksById() {
+        toDoList.addTask(task1);
+        toDoList.addTask(task2);
+        toDoList.addTask(task3);
+
+        assertSame(task2, toDoList.getTask(task2.getId()), "Task should be found by its id");
+        assertNull(toDoList.getTask(-1), "Unknown id should give null");
+
+        Task edited = new Task(task2);
+        edited.setCompleted(true);
+        toDoList.updateTask(edited);
+        assertEquals(List.of(task1, edited, task3), toDoList.getTasks(), "Updated task should keep its position");
+
+        assertSame(task1, toDoList.removeTask(task1.getId()), "Removing by id should return the task");
+        assertEquals(List.of(edited, task3), toDoList.getTasks(), "Task should be removed");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> toDoList.removeTask(task1.getId()));
+        assertThrows(IndexOutOfBoundsException.class, () -> toDoList.updateTask(task1));
+        assertThrows(IndexOutOfBoundsException.class, () -> toDoList.removeTask(task2),
+            "Removing a stale copy should fail");
+        assertThrows(IllegalArgumentException.class, () -> toDoList.addTask(new Task(task3)),
+            "Adding a task with an existing id should fail");
+    }
+
+    @Test
+    @DisplayName("Test tasks without an id get one when added")
+    @Tag("id")
+    public void testAddAssignsMissingId() {
+        Task legacy = new Task();
+        legacy.setTaskName("Legacy task");
+        toDoList.addTask(legacy);
+
+        assertNotEquals(0, legacy.getId(), "Task without an id should be assigned one");
+        assertSame(legacy, toDoList.getTask(legacy.getId()), "Assigned id should be indexed");
+    }
 }
@@ -128,4 +128,22 @@ public class UserGroupTest {
         assertNotNull(defaultGroup.getUsers(), "The users list should not be null");
         assertEquals(0, defaultGroup.getUsers().size(), "The users list should be empty");
     }
+
+    @Test
+    @DisplayName("Test users keep insertion order after removals and replacement")
+    @Tag("order")
+    void testUsersKeepInsertionOrder() {
+        userGroup.addUser("c");
+        userGroup.addUser("a");
+        userGroup.addUser("b");
+        userGroup.removeUser("a");
+        userGroup.addUser("a");
+
+        assertEquals(List.of("c", "b", "a"), userGroup.getUsers(), "Users should be listed in insertion order");
+        assertEquals("b", userGroup.getUsers().get(1), "Positional access should follow insertion order");
+        assertTrue(userGroup.getUsers().contains("b"), "The users view should report members");
+
+        userGroup.setUsers(List.of("x", "y", "x"));
+        assertEquals(List.of("x", "y"), userGroup.getUsers(), "Duplicate users should be dropped when replacing");
+    }
 }
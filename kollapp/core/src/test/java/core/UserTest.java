@@ -96,4 +96,27 @@ public class UserTest {
         assertTrue(userGroups.contains(group1), "User groups should contain Group A");
         assertTrue(userGroups.contains(group2), "User groups should contain Group B");
     }
+
+    @Test
+    @DisplayName("Test getUserGroups returns an unmodifiable view")
+    @Tag("getter")
+    void testUserGroupsView() {
+        user.addUserGroup("Group A");
+        List<String> userGroups = user.getUserGroups();
+
+        assertSame(userGroups, user.getUserGroups(), "Repeated calls should return the same view");
+        assertThrows(UnsupportedOperationException.class, () -> userGroups.add("Group B"),
+            "The view should not be modifiable");
+    }
+
+    @Test
+    @DisplayName("Test adding an existing user group keeps a single entry in order")
+    @Tag("add")
+    void testAddExistingUserGroupKeepsOrder() {
+        user.addUserGroup("Group B");
+        user.addUserGroup("Group A");
+        user.addUserGroup("Group B");
+
+        assertEquals(List.of("Group B", "Group A"), user.getUserGroups(), "Groups should be unique and in insertion order");
+    }
 }
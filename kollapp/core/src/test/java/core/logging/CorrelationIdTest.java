@@ -0,0 +1,58 @@
+package core.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link CorrelationId} class.
+ */
+@Tag("logging")
+public class CorrelationIdTest {
+
+    @AfterEach
+    void tearDown() {
+        CorrelationId.clear();
+    }
+
+    @Test
+    @DisplayName("Test new ids are 16 hexadecimal digits and differ")
+    @Tag("create")
+    void testCreate() {
+        String id = CorrelationId.create();
+
+        assertTrue(id.matches("[0-9a-f]{16}"), id);
+        assertTrue(CorrelationId.isValid(id));
+        assertNotEquals(id, CorrelationId.create());
+    }
+
+    @Test
+    @DisplayName("Test only short ids of safe characters are accepted")
+    @Tag("isValid")
+    void testIsValid() {
+        assertTrue(CorrelationId.isValid("req-42_a.B"));
+        assertFalse(CorrelationId.isValid(null));
+        assertFalse(CorrelationId.isValid(""));
+        assertFalse(CorrelationId.isValid("a".repeat(65)));
+        assertFalse(CorrelationId.isValid("line\nbreak"));
+        assertFalse(CorrelationId.isValid("quote\""));
+    }
+
+    @Test
+    @DisplayName("Test the id of the current thread is kept in the MDC")
+    @Tag("current")
+    void testCurrent() {
+        assertNull(CorrelationId.current());
+        assertNotNull(CorrelationId.currentOrCreate());
+        assertNull(CorrelationId.current(), "A created id should not be stored");
+
+        CorrelationId.set("abc");
+        assertEquals("abc", CorrelationId.current());
+        assertEquals("abc", CorrelationId.currentOrCreate());
+        CorrelationId.clear();
+        assertNull(CorrelationId.current());
+    }
+}
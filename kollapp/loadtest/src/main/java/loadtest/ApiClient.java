@@ -0,0 +1,141 @@
+package loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * A thin HTTP client for the KollApp REST API that records the latency of every request.
+ */
+final class ApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final LatencyRecorder recorder;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Constructs a client for the server at the given address.
+     *
+     * @param baseUri the address of the server, for example {@code http://localhost:8080}
+     * @param recorder the recorder to report latencies to
+     */
+    ApiClient(URI baseUri, LatencyRecorder recorder) {
+        this.baseUri = baseUri;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param endpoint the endpoint template to record the latency under
+     * @param path the path of the request
+     * @param startNanos when the request was meant to start
+     * @return the response body, or null if the server did not answer with a 2xx status
+     * @throws IOException if the request cannot be sent
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    String get(String endpoint, String path, long startNanos) throws IOException, InterruptedException {
+        return send(endpoint, request(path).GET().build(), startNanos);
+    }
+
+    /**
+     * Sends a POST request with an optional JSON body.
+     *
+     * @param endpoint the endpoint template to record the latency under
+     * @param path the path of the request
+     * @param body the object to send as JSON, or null to send no body
+     * @param startNanos when the request was meant to start
+     * @return the response body, or null if the server did not answer with a 2xx status
+     * @throws IOException if the request cannot be sent
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    String post(String endpoint, String path, Object body, long startNanos) throws IOException, InterruptedException {
+        return send(endpoint, request(path).POST(json(body)).build(), startNanos);
+    }
+
+    /**
+     * Sends a POST request with a form encoded body.
+     *
+     * @param endpoint the endpoint template to record the latency under
+     * @param path the path of the request
+     * @param form the form fields, already encoded, for example {@code username=alice}
+     * @param startNanos when the request was meant to start
+     * @return the response body, or null if the server did not answer with a 2xx status
+     * @throws IOException if the request cannot be sent
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    String postForm(String endpoint, String path, String form, long startNanos) throws IOException, InterruptedException {
+        HttpRequest request = request(path)
+                .setHeader("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return send(endpoint, request, startNanos);
+    }
+
+    /**
+     * Sends a PUT request with a JSON body.
+     *
+     * @param endpoint the endpoint template to record the latency under
+     * @param path the path of the request
+     * @param body the object to send as JSON
+     * @param startNanos when the request was meant to start
+     * @return the response body, or null if the server did not answer with a 2xx status
+     * @throws IOException if the request cannot be sent
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    String put(String endpoint, String path, Object body, long startNanos) throws IOException, InterruptedException {
+        return send(endpoint, request(path).PUT(json(body)).build(), startNanos);
+    }
+
+    /**
+     * Reads a JSON response body.
+     *
+     * @param <T> the type to read
+     * @param body the response body
+     * @param type the type to read
+     * @return the parsed value
+     * @throws IOException if the body is not valid JSON for the type
+     */
+    <T> T read(String body, TypeReference<T> type) throws IOException {
+        return mapper.readValue(body, type);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    }
+
+    private String send(String endpoint, HttpRequest request, long startNanos) throws IOException, InterruptedException {
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - startNanos, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - startNanos, success);
+        return success ? response.body() : null;
+    }
+}
@@ -0,0 +1,79 @@
+package loadtest;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Parses {@code --name=value} and {@code --name value} arguments for the command line tools of this module.
+ */
+final class CommandLine {
+
+    private CommandLine() {
+    }
+
+    /**
+     * Parses the arguments and passes each option to the handler. {@code --help} is the only option
+     * without a value and is passed with a null value.
+     *
+     * @param args the arguments
+     * @param handler receives the name, without the leading dashes, and the value of each option
+     * @throws IllegalArgumentException if an argument is not an option, lacks a value or the handler
+     *     rejects it; a {@link NumberFormatException} from the handler is reported as an invalid value
+     */
+    static void parse(String[] args, BiConsumer<String, String> handler) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            String value = null;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            } else if (!name.equals("help")) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for option --" + name);
+                }
+                value = args[++i];
+            }
+            try {
+                handler.accept(name, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for option --" + name + ": " + value, e);
+            }
+        }
+    }
+
+    /**
+     * Checks that a numeric option is positive.
+     *
+     * @param <T> the type of the value
+     * @param name the name of the option
+     * @param value the value
+     * @return the value
+     * @throws IllegalArgumentException if the value is zero or negative
+     */
+    static <T extends Number> T positive(String name, T value) {
+        if (value.doubleValue() <= 0) {
+            throw new IllegalArgumentException("Option --" + name + " must be positive.");
+        }
+        return value;
+    }
+
+    /**
+     * Checks that a numeric option is not negative.
+     *
+     * @param <T> the type of the value
+     * @param name the name of the option
+     * @param value the value
+     * @return the value
+     * @throws IllegalArgumentException if the value is negative
+     */
+    static <T extends Number> T notNegative(String name, T value) {
+        if (value.doubleValue() < 0) {
+            throw new IllegalArgumentException("Option --" + name + " cannot be negative.");
+        }
+        return value;
+    }
+}
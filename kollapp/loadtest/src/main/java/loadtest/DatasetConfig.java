@@ -0,0 +1,145 @@
+package loadtest;
+
+import static loadtest.CommandLine.notNegative;
+import static loadtest.CommandLine.positive;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The settings of a generated dataset, parsed from {@code --name=value} or {@code --name value} arguments.
+ */
+final class DatasetConfig {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: DatasetGeneratorMain --output=DIR [options]",
+            "  --output=DIR          storage root to write to; existing files with the same names are replaced",
+            "  --seed=N              random seed; the same seed and sizes give the same files (default 42)",
+            "  --users=N             number of users (default 100000)",
+            "  --groups=N            number of groups (default 20000)",
+            "  --max-group-size=N    largest group; sizes from 2 up follow a Zipf distribution (default 40,",
+            "                        or --users if smaller)",
+            "  --zipf=S              Zipf exponent of the group sizes (default 1.2)",
+            "  --tasks=N             tasks per user to-do list (default 20)",
+            "  --group-tasks=N       tasks per group to-do list (default 10)",
+            "  --messages=N          chat messages in total, spread over groups by size (default 10000000)",
+            "  --expenses=N          expenses per group (default 20)",
+            "  --threads=N           writer threads (default: available processors)",
+            "  --help                print this message");
+
+    private static final int DEFAULT_MAX_GROUP_SIZE = 40;
+
+    private Path output;
+    private long seed = 42;
+    private int users = 100_000;
+    private int groups = 20_000;
+    private int maxGroupSize;
+    private double zipfExponent = 1.2;
+    private int tasks = 20;
+    private int groupTasks = 10;
+    private long messages = 10_000_000;
+    private int expenses = 20;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean help;
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args the arguments
+     * @return the parsed configuration
+     * @throws IllegalArgumentException if an option is unknown, lacks a value or has an invalid value,
+     *     or if the output directory is missing
+     */
+    static DatasetConfig parse(String... args) {
+        DatasetConfig config = new DatasetConfig();
+        CommandLine.parse(args, config::set);
+        if (!config.help) {
+            config.validate();
+        }
+        return config;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "output" -> output = Paths.get(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "users" -> users = positive(name, Integer.parseInt(value));
+            case "groups" -> groups = notNegative(name, Integer.parseInt(value));
+            case "max-group-size" -> maxGroupSize = positive(name, Integer.parseInt(value));
+            case "zipf" -> zipfExponent = notNegative(name, Double.parseDouble(value));
+            case "tasks" -> tasks = notNegative(name, Integer.parseInt(value));
+            case "group-tasks" -> groupTasks = notNegative(name, Integer.parseInt(value));
+            case "messages" -> messages = notNegative(name, Long.parseLong(value));
+            case "expenses" -> expenses = notNegative(name, Integer.parseInt(value));
+            case "threads" -> threads = positive(name, Integer.parseInt(value));
+            case "help" -> help = true;
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    private void validate() {
+        if (output == null) {
+            throw new IllegalArgumentException("Option --output is required.");
+        }
+        if (maxGroupSize == 0) {
+            maxGroupSize = Math.min(DEFAULT_MAX_GROUP_SIZE, users);
+        }
+        if (maxGroupSize < 2 || maxGroupSize > users) {
+            throw new IllegalArgumentException("Option --max-group-size must be between 2 and --users.");
+        }
+    }
+
+    Path getOutput() {
+        return output;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getGroups() {
+        return groups;
+    }
+
+    int getMaxGroupSize() {
+        return maxGroupSize;
+    }
+
+    double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    int getTasks() {
+        return tasks;
+    }
+
+    int getGroupTasks() {
+        return groupTasks;
+    }
+
+    long getMessages() {
+        return messages;
+    }
+
+    int getExpenses() {
+        return expenses;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    boolean isHelp() {
+        return help;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + ", users=" + users + ", groups=" + groups + ", max-group-size=" + maxGroupSize
+            + ", zipf=" + zipfExponent + ", tasks=" + tasks + ", group-tasks=" + groupTasks
+            + ", messages=" + messages + ", expenses=" + expenses + ", threads=" + threads;
+    }
+}
@@ -0,0 +1,303 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import api.service.StorageLocation;
+import core.Expense;
+import core.GroupChat;
+import core.Message;
+import core.Task;
+import core.ToDoList;
+import core.User;
+import core.UserGroup;
+
+/**
+ * Writes a synthetic dataset straight into a storage root, in the same layout and JSON format as the
+ * API services, so the server can be started against it.
+ *
+ * <p>Users are named {@code user0..}, groups {@code group0..}. Group sizes follow a Zipf distribution
+ * from 2 up to the configured maximum, and members are dealt from a shuffled list of all users so every
+ * user is in a group once there are enough places. Chat messages are spread over groups by size.
+ * Every entity draws from its own random stream derived from the seed and its index, so the files are
+ * the same for the same settings no matter how many threads write them.</p>
+ */
+final class DatasetGenerator {
+    /**
+     * The BCrypt hash of {@link DatasetSeeder#PASSWORD}, the password of every generated user. It is
+     * fixed so that generating stays fast and the user files are reproducible.
+     */
+    static final String PASSWORD_HASH = "$2a$10$55B4IimHn1w2vXDf5hcYcOZD1yIxORm0h9p1C2EN6APe/D1ZoPeWC";
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String[] PRIORITIES = {"Low", "Medium", "High"};
+    private static final String[] WORDS = {
+        "dinner", "rent", "tonight", "who", "cleaning", "bought", "milk", "tomorrow", "can", "someone",
+        "pizza", "bathroom", "paid", "the", "is", "kitchen", "party", "I", "we", "need", "shopping", "ok"
+    };
+    private static final String[] EXPENSES = {
+        "Groceries", "Rent", "Electricity", "Internet", "Cleaning supplies", "Dinner", "Toilet paper", "Party"
+    };
+
+    private static final int SIZE_STREAM = 1;
+    private static final int USER_STREAM = 2;
+    private static final int GROUP_STREAM = 3;
+
+    private final DatasetConfig config;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param config the dataset settings
+     */
+    DatasetGenerator(DatasetConfig config) {
+        this.config = config;
+        this.mapper = new ObjectMapper();
+        this.mapper.registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Writes the dataset.
+     *
+     * @param log the stream to print progress to
+     * @throws IOException if a file cannot be written
+     * @throws InterruptedException if the thread is interrupted while writing
+     */
+    void generate(PrintStream log) throws IOException, InterruptedException {
+        Path root = config.getOutput();
+        for (String directory : StorageLocation.DIRECTORIES) {
+            Files.createDirectories(root.resolve(directory));
+        }
+
+        int[][] groupMembers = assignMembers();
+        int[][] userGroups = invert(groupMembers);
+        long[] messageCounts = spreadMessages(groupMembers);
+        long[] firstMessageIds = new long[messageCounts.length];
+        for (int g = 1; g < messageCounts.length; g++) {
+            firstMessageIds[g] = firstMessageIds[g - 1] + messageCounts[g - 1];
+        }
+        long memberships = 0;
+        for (int[] members : groupMembers) {
+            memberships += members.length;
+        }
+        log.printf("Writing %d users, %d groups with %d memberships and %d messages to %s...%n",
+                config.getUsers(), config.getGroups(), memberships, config.getMessages(), root);
+
+        long start = System.nanoTime();
+        forEach(config.getUsers(), u -> writeUser(root, u, userGroups[u]));
+        log.printf("Users written after %ds%n", (System.nanoTime() - start) / 1_000_000_000);
+        forEach(config.getGroups(), g -> writeGroup(root, g, groupMembers[g], 1 + firstMessageIds[g], messageCounts[g]));
+        log.printf("Groups written after %ds%n", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    static String groupName(int index) {
+        return "group" + index;
+    }
+
+    private int[][] assignMembers() {
+        int users = config.getUsers();
+        int[] shuffled = IntStream.range(0, users).toArray();
+        SplittableRandom random = random(SIZE_STREAM, -1);
+        for (int i = users - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+
+        ZipfDistribution sizes = new ZipfDistribution(config.getMaxGroupSize() - 1, config.getZipfExponent());
+        int[][] groupMembers = new int[config.getGroups()][];
+        long slot = 0;
+        for (int g = 0; g < groupMembers.length; g++) {
+            int size = 1 + sizes.sample(random(SIZE_STREAM, g).nextDouble());
+            int[] members = new int[size];
+            for (int m = 0; m < size; m++) {
+                members[m] = shuffled[(int) (slot++ % users)];
+            }
+            groupMembers[g] = members;
+        }
+        return groupMembers;
+    }
+
+    private int[][] invert(int[][] groupMembers) {
+        int[] counts = new int[config.getUsers()];
+        for (int[] members : groupMembers) {
+            for (int member : members) {
+                counts[member]++;
+            }
+        }
+        int[][] userGroups = new int[counts.length][];
+        for (int u = 0; u < counts.length; u++) {
+            userGroups[u] = new int[counts[u]];
+            counts[u] = 0;
+        }
+        for (int g = 0; g < groupMembers.length; g++) {
+            for (int member : groupMembers[g]) {
+                userGroups[member][counts[member]++] = g;
+            }
+        }
+        return userGroups;
+    }
+
+    private long[] spreadMessages(int[][] groupMembers) {
+        long[] counts = new long[groupMembers.length];
+        long totalSize = 0;
+        for (int[] members : groupMembers) {
+            totalSize += members.length;
+        }
+        if (totalSize == 0) {
+            return counts;
+        }
+        long assigned = 0;
+        for (int g = 0; g < counts.length; g++) {
+            counts[g] = config.getMessages() * groupMembers[g].length / totalSize;
+            assigned += counts[g];
+        }
+        for (int g = 0; assigned < config.getMessages(); g++, assigned++) {
+            counts[g]++;
+        }
+        return counts;
+    }
+
+    private void writeUser(Path root, int index, int[] groups) throws IOException {
+        String username = username(index);
+        User user = new User(username, PASSWORD_HASH);
+        for (int group : groups) {
+            user.addUserGroup(groupName(group));
+        }
+        mapper.writeValue(root.resolve("users").resolve(username + ".json").toFile(), user);
+
+        SplittableRandom random = random(USER_STREAM, index);
+        long firstTaskId = 1 + (long) index * config.getTasks();
+        mapper.writeValue(root.resolve("todolists").resolve(username + ".json").toFile(),
+                createToDoList(random, firstTaskId, config.getTasks()));
+    }
+
+    private void writeGroup(Path root, int index, int[] memberIndices, long firstMessageId, long messageCount)
+            throws IOException {
+        String groupName = groupName(index);
+        String file = groupName + ".json";
+        List<String> members = new ArrayList<>(memberIndices.length);
+        for (int member : memberIndices) {
+            members.add(username(member));
+        }
+        SplittableRandom random = random(GROUP_STREAM, index);
+
+        UserGroup group = new UserGroup(groupName);
+        group.setUsers(members);
+        mapper.writeValue(root.resolve("groups").resolve(file).toFile(), group);
+
+        long firstTaskId = 1 + (long) config.getUsers() * config.getTasks() + (long) index * config.getGroupTasks();
+        mapper.writeValue(root.resolve("grouptodolists").resolve(file).toFile(),
+                createToDoList(random, firstTaskId, config.getGroupTasks()));
+
+        GroupChat chat = new GroupChat();
+        LocalDateTime timestamp = START;
+        for (long m = 0; m < messageCount; m++) {
+            timestamp = timestamp.plusSeconds(1 + random.nextInt(3600));
+            Message message = new Message(members.get(random.nextInt(members.size())), sentence(random));
+            message.setId(firstMessageId + m);
+            message.setTimestamp(timestamp);
+            chat.addMessage(message);
+        }
+        mapper.writeValue(root.resolve("groupchat").resolve(file).toFile(), chat);
+
+        long firstExpenseId = 1 + (long) index * config.getExpenses();
+        List<Expense> expenses = new ArrayList<>(config.getExpenses());
+        for (int e = 0; e < config.getExpenses(); e++) {
+            Expense expense = createExpense(random, members);
+            expense.setId(firstExpenseId + e);
+            expenses.add(expense);
+        }
+        mapper.writeValue(root.resolve("groupexpenses").resolve(file).toFile(), expenses);
+    }
+
+    private static ToDoList createToDoList(SplittableRandom random, long firstTaskId, int taskCount) {
+        ToDoList toDoList = new ToDoList();
+        for (int t = 0; t < taskCount; t++) {
+            Task task = new Task("Task " + t, START.toLocalDate().plusDays(random.nextInt(365)), "",
+                    PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            task.setId(firstTaskId + t);
+            task.setCompleted(random.nextInt(10) < 3);
+            toDoList.addTask(task);
+        }
+        return toDoList;
+    }
+
+    private static Expense createExpense(SplittableRandom random, List<String> members) {
+        String paidBy = members.get(random.nextInt(members.size()));
+        List<String> participants = new ArrayList<>(members.size());
+        for (String member : members) {
+            if (member.equals(paidBy) || random.nextInt(10) < 7) {
+                participants.add(member);
+            }
+        }
+        double amount = (100 + random.nextInt(100_000)) / 100.0;
+        Expense expense = new Expense(EXPENSES[random.nextInt(EXPENSES.length)], amount, paidBy, participants);
+        for (String participant : participants) {
+            if (!participant.equals(paidBy) && random.nextInt(10) < 3) {
+                expense.settleParticipant(participant);
+            }
+        }
+        return expense;
+    }
+
+    private static String sentence(SplittableRandom random) {
+        int words = 3 + random.nextInt(13);
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private SplittableRandom random(int stream, long index) {
+        return new SplittableRandom(config.getSeed() * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index);
+    }
+
+    private void forEach(int count, IndexedWrite write) throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(config.getThreads());
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+                try {
+                    write.accept(i);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Generating the dataset failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedWrite {
+        void accept(int index) throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+package loadtest;
+
+/**
+ * Command line entry point of the dataset generator. Run
+ * {@code mvn -pl loadtest exec:java -Dexec.mainClass=loadtest.DatasetGeneratorMain -Dexec.args="--help"}
+ * for the options.
+ */
+public final class DatasetGeneratorMain {
+
+    private DatasetGeneratorMain() {
+    }
+
+    /**
+     * Writes a synthetic dataset to a storage root.
+     *
+     * @param args the command line options
+     * @throws Exception if the dataset cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        DatasetConfig config;
+        try {
+            config = DatasetConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(DatasetConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (config.isHelp()) {
+            System.out.println(DatasetConfig.USAGE);
+            return;
+        }
+
+        System.out.println("Generating dataset (" + config + ")");
+        new DatasetGenerator(config).generate(System.out);
+    }
+}
@@ -0,0 +1,74 @@
+package loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import core.ToDoList;
+import core.User;
+import core.UserGroup;
+
+/**
+ * Reads the virtual users to act as from an existing store, such as one written by {@link DatasetGenerator}.
+ */
+final class DatasetLoader {
+    private final Path root;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructs a loader.
+     *
+     * @param root the storage root to read
+     */
+    DatasetLoader(Path root) {
+        this.root = root;
+        this.mapper = new ObjectMapper();
+        this.mapper.registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Reads up to {@code count} users that belong to a group and have tasks, in order of username. Each
+     * acts in its first group, and all users are expected to have the password {@link DatasetSeeder#PASSWORD}.
+     *
+     * @param count the number of users to read
+     * @return the users, fewer than {@code count} if the store does not have enough such users
+     * @throws IOException if the store cannot be read
+     */
+    List<VirtualUser> load(int count) throws IOException {
+        List<Path> userFiles;
+        try (Stream<Path> files = Files.list(root.resolve("users"))) {
+            userFiles = files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+
+        List<VirtualUser> users = new ArrayList<>(count);
+        for (Path userFile : userFiles) {
+            if (users.size() == count) {
+                break;
+            }
+            User user = mapper.readValue(userFile.toFile(), User.class);
+            Path toDoListFile = root.resolve("todolists").resolve(user.getUsername() + ".json");
+            if (user.getUserGroups().isEmpty() || !Files.exists(toDoListFile)) {
+                continue;
+            }
+            ToDoList toDoList = mapper.readValue(toDoListFile.toFile(), ToDoList.class);
+            if (toDoList.getTasks().isEmpty()) {
+                continue;
+            }
+            String groupName = user.getUserGroups().get(0);
+            UserGroup group = mapper.readValue(root.resolve("groups").resolve(groupName + ".json").toFile(),
+                    UserGroup.class);
+            users.add(new VirtualUser(user.getUsername(), DatasetSeeder.PASSWORD, groupName, group.getUsers(),
+                    toDoList.getTasks()));
+        }
+        return users;
+    }
+}
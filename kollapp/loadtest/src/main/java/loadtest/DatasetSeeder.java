@@ -0,0 +1,154 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.Expense;
+import core.Task;
+import core.ToDoList;
+import core.User;
+
+/**
+ * Seeds users, groups, group chats, expenses and to-do lists through the REST API, in parallel.
+ */
+final class DatasetSeeder {
+    static final String PASSWORD = "password123";
+
+    private final ApiClient client;
+    private final int threads;
+
+    /**
+     * Constructs a seeder.
+     *
+     * @param client the client to send the seeding requests with
+     * @param threads the number of requests to send at once
+     */
+    DatasetSeeder(ApiClient client, int threads) {
+        this.client = client;
+        this.threads = threads;
+    }
+
+    /**
+     * Creates the users and their data. Users are split into groups of {@code groupSize} in order.
+     *
+     * @param userCount the number of users to create
+     * @param groupSize the number of members per group
+     * @param taskCount the number of tasks in each user's to-do list
+     * @return the created users
+     * @throws IllegalStateException if the server rejects a seeding request
+     * @throws InterruptedException if the thread is interrupted while seeding
+     */
+    List<VirtualUser> seed(int userCount, int groupSize, int taskCount) throws InterruptedException {
+        List<String> usernames = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            usernames.add("loaduser" + i);
+        }
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < userCount; i += groupSize) {
+            groups.add(usernames.subList(i, Math.min(i + groupSize, userCount)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            runAll(pool, usernames, this::createUser);
+            List<Integer> groupIndices = new ArrayList<>(groups.size());
+            for (int g = 0; g < groups.size(); g++) {
+                groupIndices.add(g);
+            }
+            runAll(pool, groupIndices, g -> createGroup(groupName(g), groups.get(g)));
+            List<VirtualUser> users = new ArrayList<>(userCount);
+            for (int g = 0; g < groups.size(); g++) {
+                List<String> members = groups.get(g);
+                for (String username : members) {
+                    users.add(new VirtualUser(username, PASSWORD, groupName(g), members, createTasks(username, taskCount)));
+                }
+            }
+            runAll(pool, users, this::createToDoList);
+            return users;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String groupName(int index) {
+        return "loadgroup" + index;
+    }
+
+    private static List<Task> createTasks(String username, int taskCount) {
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Task("Task " + i + " for " + username));
+        }
+        return tasks;
+    }
+
+    private void createUser(String username) throws IOException, InterruptedException {
+        check("POST /users", client.post("POST /users", "/api/v1/users", new User(username, PASSWORD), System.nanoTime()));
+    }
+
+    private void createGroup(String groupName, List<String> members) throws IOException, InterruptedException {
+        String owner = members.get(0);
+        check("POST /groups/{username}/{groupName}", client.post("POST /groups/{username}/{groupName}",
+                "/api/v1/groups/" + owner + "/" + groupName, null, System.nanoTime()));
+        for (String member : members) {
+            if (!member.equals(owner)) {
+                check("POST /groups/{groupName}/assignUser", client.postForm("POST /groups/{groupName}/assignUser",
+                        "/api/v1/groups/" + groupName + "/assignUser", "username=" + member, System.nanoTime()));
+            }
+            check("POST /users/{username}/assignGroup", client.postForm("POST /users/{username}/assignGroup",
+                    "/api/v1/users/" + member + "/assignGroup", "groupName=" + groupName, System.nanoTime()));
+        }
+        check("POST /groupchats/{groupName}", client.post("POST /groupchats/{groupName}",
+                "/api/v1/groupchats/" + groupName, null, System.nanoTime()));
+
+        List<Expense> expenses = new ArrayList<>();
+        for (String member : members) {
+            expenses.add(new Expense("Shared expense", 100.0, member, members));
+        }
+        check("PUT /expenses/groups/{groupName}", client.put("PUT /expenses/groups/{groupName}",
+                "/api/v1/expenses/groups/" + groupName, expenses, System.nanoTime()));
+    }
+
+    private void createToDoList(VirtualUser user) throws IOException, InterruptedException {
+        String path = "/api/v1/todolists/" + user.getUsername();
+        check("POST /todolists/{username}", client.post("POST /todolists/{username}", path, null, System.nanoTime()));
+        ToDoList toDoList = new ToDoList();
+        user.getTasks().forEach(toDoList::addTask);
+        check("PUT /todolists/{username}", client.put("PUT /todolists/{username}", path, toDoList, System.nanoTime()));
+    }
+
+    private static void check(String endpoint, String response) {
+        if (response == null) {
+            throw new IllegalStateException("Seeding request failed: " + endpoint);
+        }
+    }
+
+    private <T> void runAll(ExecutorService pool, List<T> items, SeedStep<T> step) throws InterruptedException {
+        List<Future<Void>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            Callable<Void> call = () -> {
+                step.apply(item);
+                return null;
+            };
+            futures.add(pool.submit(call));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding failed", e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SeedStep<T> {
+        void apply(T item) throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,101 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import api.KollAppSpringApplication;
+import api.service.StorageLocation;
+
+/**
+ * Runs the KollApp server in this JVM on a random port, storing its files in a temporary directory
+ * that is deleted when the server is closed.
+ */
+final class EmbeddedServer implements AutoCloseable {
+    private final Path storageRoot;
+    private final boolean temporary;
+    private final ConfigurableApplicationContext context;
+    private final URI baseUri;
+
+    private EmbeddedServer(Path storageRoot, boolean temporary, ConfigurableApplicationContext context) {
+        this.storageRoot = storageRoot;
+        this.temporary = temporary;
+        this.context = context;
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        this.baseUri = URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * Starts a server against a new temporary store.
+     *
+     * @return the running server
+     * @throws IOException if the temporary store cannot be created
+     */
+    static EmbeddedServer start() throws IOException {
+        Path storageRoot = Files.createTempDirectory("kollapp-loadtest");
+        for (String directory : StorageLocation.DIRECTORIES) {
+            Files.createDirectories(storageRoot.resolve(directory));
+        }
+        return new EmbeddedServer(storageRoot, true, run(storageRoot));
+    }
+
+    /**
+     * Starts a server against an existing store, which is kept when the server is closed.
+     *
+     * @param storageRoot the storage root
+     * @return the running server
+     * @throws IllegalArgumentException if the storage root is not a directory
+     */
+    static EmbeddedServer start(Path storageRoot) {
+        if (!Files.isDirectory(storageRoot)) {
+            throw new IllegalArgumentException("Store does not exist: " + storageRoot);
+        }
+        return new EmbeddedServer(storageRoot, false, run(storageRoot.toAbsolutePath()));
+    }
+
+    private static ConfigurableApplicationContext run(Path storageRoot) {
+        return new SpringApplicationBuilder(KollAppSpringApplication.class)
+            .properties(
+                "server.port=0",
+                "kollapp.storage.root=" + storageRoot,
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN")
+            .run();
+    }
+
+    /**
+     * Returns the address of the server.
+     *
+     * @return the base address, for example {@code http://localhost:54321}
+     */
+    URI getBaseUri() {
+        return baseUri;
+    }
+
+    Path getStorageRoot() {
+        return storageRoot;
+    }
+
+    /**
+     * Stops the server and deletes its store if it is temporary.
+     */
+    @Override
+    public void close() {
+        context.close();
+        if (!temporary) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(storageRoot)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
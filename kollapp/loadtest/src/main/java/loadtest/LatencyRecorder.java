@@ -0,0 +1,148 @@
+package loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records request latencies per endpoint in HdrHistograms and reports throughput and percentiles.
+ * Recording is wait-free, so many request threads can record at once.
+ */
+final class LatencyRecorder {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records the outcome of one request.
+     *
+     * @param endpoint the endpoint template, for example {@code GET /todolists/{username}}
+     * @param latencyNanos the time from the intended start of the request to its response
+     * @param success whether the server answered with a 2xx status
+     */
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        if (success) {
+            stats.latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        } else {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, for example at the end of the warmup.
+     */
+    void reset() {
+        endpoints.values().forEach(stats -> {
+            stats.latencies.reset();
+            stats.errors.reset();
+        });
+    }
+
+    /**
+     * Takes the histograms recorded since the last reset or snapshot.
+     *
+     * @return the latency histogram of each endpoint that was called, in microseconds, sorted by endpoint
+     */
+    Map<String, Result> snapshot() {
+        Map<String, Result> results = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> {
+            Result result = new Result(stats.latencies.getIntervalHistogram(), stats.errors.sumThenReset());
+            if (result.histogram.getTotalCount() > 0 || result.errors > 0) {
+                results.put(endpoint, result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Prints a table with the throughput and latency percentiles of each endpoint.
+     *
+     * @param results the results to print, as returned by {@link #snapshot()}
+     * @param elapsed the length of the measurement
+     * @param out the stream to print to
+     */
+    static void report(Map<String, Result> results, Duration elapsed, PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%-42s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            printRow(out, entry.getKey(), result.histogram, result.errors, seconds);
+            total.add(result.histogram);
+            totalErrors += result.errors;
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, (histogram.getTotalCount() + errors) / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Writes the full percentile distribution of each endpoint to {@code <endpoint>.hgrm} files,
+     * which can be plotted with the HdrHistogram plotter.
+     *
+     * @param results the results to write, as returned by {@link #snapshot()}
+     * @param directory the directory to write to, which must exist
+     * @throws FileNotFoundException if a file cannot be created
+     */
+    static void writeDistributions(Map<String, Result> results, Path directory) throws FileNotFoundException {
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(directory.resolve(fileName).toFile())) {
+                entry.getValue().histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    /**
+     * The latencies and error count of one endpoint over a measurement.
+     */
+    static final class Result {
+        private final Histogram histogram;
+        private final long errors;
+
+        Result(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+
+        /**
+         * Returns the latencies of the successful requests, in microseconds.
+         *
+         * @return the latency histogram
+         */
+        Histogram getHistogram() {
+            return histogram;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+    }
+
+    private static final class Endpoint {
+        private final Recorder latencies = new Recorder(SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+    }
+}
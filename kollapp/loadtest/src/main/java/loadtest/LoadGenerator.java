@@ -0,0 +1,111 @@
+package loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the scenario mix against the server, either closed-loop or open-loop.
+ *
+ * <p>In a closed loop each thread starts its next scenario as soon as the previous one finishes,
+ * so the offered load drops when the server slows down. In an open loop scenarios start at a fixed
+ * rate whatever the server does, and latencies are measured from the moment a scenario was meant to
+ * start. Time spent queued behind slow requests is therefore counted, which avoids coordinated
+ * omission in the reported percentiles.</p>
+ */
+final class LoadGenerator {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final ApiClient client;
+    private final List<VirtualUser> users;
+    private final ScenarioMix mix;
+    private final int concurrency;
+    private final double rate;
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param config the load test settings
+     * @param client the client to send requests with
+     * @param users the users to act as, picked at random for every scenario
+     */
+    LoadGenerator(LoadTestConfig config, ApiClient client, List<VirtualUser> users) {
+        this.client = client;
+        this.users = List.copyOf(users);
+        this.mix = config.getMix();
+        this.concurrency = config.getConcurrency();
+        this.rate = config.getRate();
+    }
+
+    /**
+     * Generates load for the given time and waits for the started scenarios to finish.
+     *
+     * @param length how long to generate load
+     * @throws InterruptedException if the thread is interrupted
+     */
+    void run(Duration length) throws InterruptedException {
+        if (length.isZero()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + length.toNanos();
+        try {
+            if (rate > 0) {
+                runOpenLoop(pool, deadline);
+            } else {
+                runClosedLoop(pool, deadline);
+            }
+            pool.shutdown();
+            pool.awaitTermination(length.plus(DRAIN_TIMEOUT).toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runClosedLoop(ExecutorService pool, long deadline) {
+        for (int i = 0; i < concurrency; i++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    runScenario(System.nanoTime());
+                }
+            });
+        }
+    }
+
+    private void runOpenLoop(ExecutorService pool, long deadline) throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * interval;
+            if (intendedStart >= deadline) {
+                return;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            pool.execute(() -> runScenario(intendedStart));
+        }
+    }
+
+    private void runScenario(long startNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        Scenario scenario = mix.pick(random.nextDouble());
+        try {
+            scenario.run(client, user, startNanos);
+        } catch (IOException e) {
+            // Already recorded as an error for the endpoint
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
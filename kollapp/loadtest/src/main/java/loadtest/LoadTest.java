@@ -0,0 +1,82 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A complete load test run: start the server, seed it or read users from an existing store, warm up,
+ * measure and collect the results.
+ */
+final class LoadTest {
+    private final LoadTestConfig config;
+
+    /**
+     * Constructs a load test.
+     *
+     * @param config the load test settings
+     */
+    LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param log the stream to print progress to
+     * @return the measured latencies of each endpoint
+     * @throws IOException if the server cannot be started or the dataset cannot be read
+     * @throws InterruptedException if the thread is interrupted
+     */
+    Map<String, LatencyRecorder.Result> run(PrintStream log) throws IOException, InterruptedException {
+        if (config.getBaseUri() != null) {
+            return run(config.getBaseUri(), null, log);
+        }
+        if (config.getDataset() != null) {
+            log.println("Starting server against " + config.getDataset() + "...");
+            try (EmbeddedServer server = EmbeddedServer.start(config.getDataset())) {
+                log.println("Server listening on " + server.getBaseUri());
+                return run(server.getBaseUri(), new DatasetLoader(config.getDataset()).load(config.getUsers()), log);
+            }
+        }
+        log.println("Starting server against a temporary store...");
+        try (EmbeddedServer server = EmbeddedServer.start()) {
+            log.println("Server listening on " + server.getBaseUri() + ", storing files in " + server.getStorageRoot());
+            return run(server.getBaseUri(), null, log);
+        }
+    }
+
+    private Map<String, LatencyRecorder.Result> run(URI baseUri, List<VirtualUser> storedUsers, PrintStream log)
+            throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient client = new ApiClient(baseUri, recorder);
+
+        List<VirtualUser> users = storedUsers;
+        if (users == null) {
+            log.printf("Seeding %d users with %d tasks each...%n", config.getUsers(), config.getTasks());
+            users = new DatasetSeeder(client, config.getConcurrency())
+                .seed(config.getUsers(), config.getGroupSize(), config.getTasks());
+            recorder.reset();
+        } else if (users.isEmpty()) {
+            throw new IllegalStateException("The dataset has no users with a group and tasks.");
+        } else {
+            log.printf("Acting as %d users of the dataset%n", users.size());
+        }
+
+        LoadGenerator generator = new LoadGenerator(config, client, users);
+        log.printf("Warming up for %ds...%n", config.getWarmup().getSeconds());
+        generator.run(config.getWarmup());
+        recorder.reset();
+
+        log.printf("Measuring for %ds (%s)...%n", config.getDuration().getSeconds(), config);
+        generator.run(config.getDuration());
+        return recorder.snapshot();
+    }
+
+    Duration getDuration() {
+        return config.getDuration();
+    }
+}
@@ -0,0 +1,158 @@
+package loadtest;
+
+import static loadtest.CommandLine.notNegative;
+import static loadtest.CommandLine.positive;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * The settings of a load test run, parsed from {@code --name=value} or {@code --name value} arguments.
+ */
+final class LoadTestConfig {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: LoadTestMain [options]",
+            "  --users=N          number of users to seed, or to act as with --dataset (default 50)",
+            "  --group-size=N     members per group (default 5)",
+            "  --tasks=N          tasks per user to-do list (default 20)",
+            "  --concurrency=N    request threads (default 16)",
+            "  --rate=R           open-loop arrival rate in requests per second; 0 runs closed-loop (default 0)",
+            "  --warmup=S         warmup in seconds, not recorded (default 10)",
+            "  --duration=S       measurement in seconds (default 30)",
+            "  --mix=LIST         scenario weights, for example login=5,loadTodoList=30,toggleTask=25,",
+            "                     sendMessage=15,loadMessages=15,addExpense=10 (the default)",
+            "  --base-url=URL     test a running server instead of starting one against a temporary store",
+            "  --dataset=DIR      start the server against an existing store, such as one written by",
+            "                     DatasetGeneratorMain, and act as --users of its users instead of seeding;",
+            "                     the run changes the store",
+            "  --hgrm-dir=DIR     also write the percentile distribution of each endpoint to DIR",
+            "  --help             print this message");
+
+    private int users = 50;
+    private int groupSize = 5;
+    private int tasks = 20;
+    private int concurrency = 16;
+    private double rate;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private ScenarioMix mix = ScenarioMix.defaultMix();
+    private URI baseUri;
+    private Path dataset;
+    private Path hgrmDirectory;
+    private boolean help;
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args the arguments
+     * @return the parsed configuration
+     * @throws IllegalArgumentException if an option is unknown, lacks a value or has an invalid value
+     */
+    static LoadTestConfig parse(String... args) {
+        LoadTestConfig config = new LoadTestConfig();
+        CommandLine.parse(args, config::set);
+        if (config.baseUri != null && config.dataset != null) {
+            throw new IllegalArgumentException("Options --base-url and --dataset cannot be combined.");
+        }
+        return config;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "users" -> users = positive(name, Integer.parseInt(value));
+            case "group-size" -> groupSize = positive(name, Integer.parseInt(value));
+            case "tasks" -> tasks = positive(name, Integer.parseInt(value));
+            case "concurrency" -> concurrency = positive(name, Integer.parseInt(value));
+            case "rate" -> rate = notNegative(name, Double.parseDouble(value));
+            case "warmup" -> warmup = Duration.ofSeconds(notNegative(name, Long.parseLong(value)));
+            case "duration" -> duration = Duration.ofSeconds(positive(name, Long.parseLong(value)));
+            case "mix" -> mix = ScenarioMix.parse(value);
+            case "base-url" -> baseUri = URI.create(value);
+            case "dataset" -> dataset = Paths.get(value);
+            case "hgrm-dir" -> hgrmDirectory = Paths.get(value);
+            case "help" -> help = true;
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getGroupSize() {
+        return groupSize;
+    }
+
+    int getTasks() {
+        return tasks;
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Returns the open-loop arrival rate.
+     *
+     * @return the requests started per second, or zero for a closed loop
+     */
+    double getRate() {
+        return rate;
+    }
+
+    boolean isOpenLoop() {
+        return rate > 0;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    ScenarioMix getMix() {
+        return mix;
+    }
+
+    /**
+     * Returns the address of an external server to test.
+     *
+     * @return the server address, or null to start a server against a temporary store
+     */
+    URI getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Returns an existing store to start the server against.
+     *
+     * @return the storage root, or null to seed a temporary store through the API
+     */
+    Path getDataset() {
+        return dataset;
+    }
+
+    /**
+     * Returns the directory to write percentile distributions to.
+     *
+     * @return the directory, or null if none should be written
+     */
+    Path getHgrmDirectory() {
+        return hgrmDirectory;
+    }
+
+    boolean isHelp() {
+        return help;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + ", group-size=" + groupSize + ", tasks=" + tasks
+            + ", concurrency=" + concurrency + ", " + (isOpenLoop() ? "open-loop rate=" + rate + "/s" : "closed-loop")
+            + ", warmup=" + warmup.getSeconds() + "s, duration=" + duration.getSeconds() + "s, mix=" + mix;
+    }
+}
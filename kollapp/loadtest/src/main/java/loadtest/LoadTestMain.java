@@ -0,0 +1,47 @@
+package loadtest;
+
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Command line entry point of the load test. Run {@code mvn -pl loadtest exec:java -Dexec.args="--help"}
+ * for the options.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    /**
+     * Runs a load test and prints the throughput and latency percentiles of each endpoint.
+     *
+     * @param args the command line options
+     * @throws Exception if the load test fails
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (config.isHelp()) {
+            System.out.println(LoadTestConfig.USAGE);
+            return;
+        }
+
+        LoadTest loadTest = new LoadTest(config);
+        Map<String, LatencyRecorder.Result> results = loadTest.run(System.out);
+        System.out.println();
+        LatencyRecorder.report(results, loadTest.getDuration(), System.out);
+
+        if (config.getHgrmDirectory() != null) {
+            Files.createDirectories(config.getHgrmDirectory());
+            LatencyRecorder.writeDistributions(results, config.getHgrmDirectory());
+            System.out.println("Percentile distributions written to " + config.getHgrmDirectory());
+        }
+    }
+}
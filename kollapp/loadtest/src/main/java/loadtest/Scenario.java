@@ -0,0 +1,112 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import core.Expense;
+import core.Message;
+import core.Task;
+
+/**
+ * The user actions the load generator can perform, each mirroring the requests the desktop client sends.
+ */
+enum Scenario {
+    LOGIN("login") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            client.post("POST /users/login", "/api/v1/users/login?username=" + user.getUsername()
+                    + "&password=" + user.getPassword(), null, startNanos);
+        }
+    },
+    LOAD_TODO_LIST("loadTodoList") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            client.get("GET /todolists/{username}", "/api/v1/todolists/" + user.getUsername(), startNanos);
+        }
+    },
+    TOGGLE_TASK("toggleTask") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            Task task = new Task(user.randomTask());
+            task.setCompleted(ThreadLocalRandom.current().nextBoolean());
+            client.put("PUT /todolists/{username}/tasks/{taskId}",
+                    "/api/v1/todolists/" + user.getUsername() + "/tasks/" + task.getId(), task, startNanos);
+        }
+    },
+    SEND_MESSAGE("sendMessage") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            Message message = new Message(user.getUsername(), "Load test message " + ThreadLocalRandom.current().nextInt());
+            client.post("POST /groupchats/{groupName}/messages",
+                    "/api/v1/groupchats/" + user.getGroupName() + "/messages", message, startNanos);
+        }
+    },
+    LOAD_MESSAGES("loadMessages") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            client.get("GET /groupchats/{groupName}/messages",
+                    "/api/v1/groupchats/" + user.getGroupName() + "/messages", startNanos);
+        }
+    },
+    ADD_EXPENSE("addExpense") {
+        @Override
+        void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException {
+            // Like the client, read the group's expenses and write the whole list back with one more entry
+            String path = "/api/v1/expenses/groups/" + user.getGroupName();
+            String body = client.get("GET /expenses/groups/{groupName}", path, startNanos);
+            if (body == null) {
+                return;
+            }
+            List<Expense> expenses = new ArrayList<>(client.read(body, new TypeReference<List<Expense>>() { }));
+            expenses.add(new Expense("Groceries", 1 + ThreadLocalRandom.current().nextInt(500),
+                    user.getUsername(), user.getGroupMembers()));
+            client.put("PUT /expenses/groups/{groupName}", path, expenses, System.nanoTime());
+        }
+    };
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the name used for the scenario on the command line.
+     *
+     * @return the scenario key
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Performs the scenario for a user.
+     *
+     * @param client the client to send requests with
+     * @param user the user performing the action
+     * @param startNanos when the first request was meant to start, used as the start of its latency
+     * @throws IOException if a request cannot be sent
+     * @throws InterruptedException if the thread is interrupted while waiting for a response
+     */
+    abstract void run(ApiClient client, VirtualUser user, long startNanos) throws IOException, InterruptedException;
+
+    /**
+     * Returns the scenario with the given command line name.
+     *
+     * @param key the scenario key
+     * @return the scenario
+     * @throws IllegalArgumentException if no scenario has the key
+     */
+    static Scenario fromKey(String key) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + key);
+    }
+}
@@ -0,0 +1,110 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A weighted mix of scenarios, such as {@code login=5,loadTodoList=30,toggleTask=25}.
+ */
+final class ScenarioMix {
+    private final Map<Scenario, Integer> weights;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    /**
+     * Constructs a mix from scenario weights.
+     *
+     * @param weights the weight of each scenario; scenarios with weight zero are never picked
+     * @throws IllegalArgumentException if a weight is negative or all weights are zero
+     */
+    ScenarioMix(Map<Scenario, Integer> weights) {
+        List<Scenario> picked = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Scenario, Integer> entry : new EnumMap<>(weights).entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Scenario weight cannot be negative: " + entry.getKey().getKey());
+            }
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                picked.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Scenario mix must contain at least one scenario.");
+        }
+        this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+        this.scenarios = picked.toArray(new Scenario[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        this.totalWeight = total;
+    }
+
+    /**
+     * Returns the default mix, which is dominated by reads like the desktop client.
+     *
+     * @return the default mix
+     */
+    static ScenarioMix defaultMix() {
+        return parse("login=5,loadTodoList=30,toggleTask=25,sendMessage=15,loadMessages=15,addExpense=10");
+    }
+
+    /**
+     * Parses a mix from a comma-separated list of {@code scenario=weight} pairs.
+     *
+     * @param mix the mix to parse
+     * @return the parsed mix
+     * @throws IllegalArgumentException if the mix is malformed or names an unknown scenario
+     */
+    static ScenarioMix parse(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight but got: " + pair);
+            }
+            try {
+                weights.put(Scenario.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for scenario " + parts[0] + ": " + parts[1], e);
+            }
+        }
+        return new ScenarioMix(weights);
+    }
+
+    /**
+     * Picks a scenario for a uniformly distributed value.
+     *
+     * @param value a value in {@code [0, 1)}
+     * @return the scenario whose share of the total weight contains the value
+     */
+    Scenario pick(double value) {
+        int target = (int) (value * totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    Map<Scenario, Integer> getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        weights.forEach((scenario, weight) -> {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(scenario.getKey()).append('=').append(weight);
+        });
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import core.Task;
+
+/**
+ * A seeded user the load generator acts as, with the data it needs to address its own entities.
+ */
+final class VirtualUser {
+    private final String username;
+    private final String password;
+    private final String groupName;
+    private final List<String> groupMembers;
+    private final List<Task> tasks;
+
+    /**
+     * Constructs a virtual user.
+     *
+     * @param username the username
+     * @param password the plain text password
+     * @param groupName the group the user belongs to
+     * @param groupMembers the members of the group, including the user
+     * @param tasks the tasks in the user's to-do list
+     */
+    VirtualUser(String username, String password, String groupName, List<String> groupMembers, List<Task> tasks) {
+        this.username = username;
+        this.password = password;
+        this.groupName = groupName;
+        this.groupMembers = List.copyOf(groupMembers);
+        this.tasks = List.copyOf(tasks);
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    String getGroupName() {
+        return groupName;
+    }
+
+    List<String> getGroupMembers() {
+        return groupMembers;
+    }
+
+    List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns one of the user's tasks at random.
+     *
+     * @return a task, which callers must copy before changing it
+     */
+    Task randomTask() {
+        return tasks.get(ThreadLocalRandom.current().nextInt(tasks.size()));
+    }
+}
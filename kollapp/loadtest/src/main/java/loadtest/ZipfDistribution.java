@@ -0,0 +1,52 @@
+package loadtest;
+
+import java.util.Arrays;
+
+/**
+ * A Zipf distribution over the ranks {@code 1..n}, where rank {@code k} has a probability proportional
+ * to {@code 1 / k^exponent}. Sampling inverts a precomputed cumulative table in {@code O(log n)}.
+ */
+final class ZipfDistribution {
+    private final double[] cumulative;
+
+    /**
+     * Constructs a Zipf distribution.
+     *
+     * @param n the number of ranks
+     * @param exponent the skew; zero gives a uniform distribution
+     * @throws IllegalArgumentException if {@code n} is not positive or the exponent is negative
+     */
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of ranks must be positive.");
+        }
+        if (exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Exponent cannot be negative.");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Maps a uniform random number to a rank.
+     *
+     * @param uniform a number in {@code [0, 1)}
+     * @return the rank, between 1 and {@code n}
+     */
+    int sample(double uniform) {
+        int index = Arrays.binarySearch(cumulative, uniform);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            index++;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+}
@@ -0,0 +1,58 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link DatasetConfig} class.
+ */
+@Tag("datasetconfig")
+class DatasetConfigTest {
+
+    @Test
+    @DisplayName("Test defaults describe the large dataset")
+    @Tag("parse")
+    void testDefaults() {
+        DatasetConfig config = DatasetConfig.parse("--output", "/tmp/data");
+
+        assertEquals(Paths.get("/tmp/data"), config.getOutput());
+        assertEquals(100_000, config.getUsers());
+        assertEquals(20_000, config.getGroups());
+        assertEquals(40, config.getMaxGroupSize());
+        assertEquals(10_000_000, config.getMessages());
+        assertTrue(config.getThreads() > 0);
+    }
+
+    @Test
+    @DisplayName("Test options are parsed and the largest group is capped by the number of users")
+    @Tag("parse")
+    void testOptions() {
+        DatasetConfig config = DatasetConfig.parse("--output=out", "--users=10", "--groups=3", "--seed=7",
+            "--zipf=0.5", "--messages=100", "--threads=2");
+
+        assertEquals(10, config.getUsers());
+        assertEquals(10, config.getMaxGroupSize());
+        assertEquals(7, config.getSeed());
+        assertEquals(0.5, config.getZipfExponent());
+        assertEquals(2, config.getThreads());
+        assertTrue(DatasetConfig.parse("--help").isHelp(), "Help should not require an output directory");
+    }
+
+    @Test
+    @DisplayName("Test invalid options are rejected")
+    @Tag("validation")
+    void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> DatasetConfig.parse("--users=10"));
+        assertThrows(IllegalArgumentException.class, () -> DatasetConfig.parse("--output=out", "--users=0"));
+        assertThrows(IllegalArgumentException.class, () -> DatasetConfig.parse("--output=out", "--max-group-size=1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> DatasetConfig.parse("--output=out", "--users=5", "--max-group-size=6"));
+        assertThrows(IllegalArgumentException.class, () -> DatasetConfig.parse("--output=out", "--messages=-1"));
+        assertThrows(IllegalArgumentException.class, () -> DatasetConfig.parse("--output=out", "--colour=red"));
+    }
+}
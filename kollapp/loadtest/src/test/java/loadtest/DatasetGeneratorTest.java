@@ -0,0 +1,125 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import core.Expense;
+import core.GroupChat;
+import core.ToDoList;
+import core.User;
+import core.UserGroup;
+
+/**
+ * Unit tests for the {@link DatasetGenerator} class.
+ */
+@Tag("datasetgenerator")
+class DatasetGeneratorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("Test the dataset has the configured size and consistent memberships")
+    @Tag("generate")
+    void testDatasetContents(@TempDir Path root) throws Exception {
+        generate(root, "--threads=2");
+
+        assertEquals(200, count(root.resolve("users")));
+        assertEquals(200, count(root.resolve("todolists")));
+        assertEquals(50, count(root.resolve("groups")));
+        assertEquals(50, count(root.resolve("grouptodolists")));
+
+        long messages = 0;
+        long memberships = 0;
+        for (int g = 0; g < 50; g++) {
+            String file = DatasetGenerator.groupName(g) + ".json";
+            UserGroup group = mapper.readValue(root.resolve("groups").resolve(file).toFile(), UserGroup.class);
+            assertTrue(group.getUsers().size() >= 2 && group.getUsers().size() <= 12, "Group sizes should be 2 to 12");
+            memberships += group.getUsers().size();
+            for (String member : group.getUsers()) {
+                User user = mapper.readValue(root.resolve("users").resolve(member + ".json").toFile(), User.class);
+                assertTrue(user.getUserGroups().contains(group.getGroupName()), "Members should list their group");
+            }
+            messages += mapper.readValue(root.resolve("groupchat").resolve(file).toFile(), GroupChat.class)
+                .getMessages().size();
+            List<Expense> expenses = mapper.readValue(root.resolve("groupexpenses").resolve(file).toFile(),
+                new TypeReference<List<Expense>>() { });
+            assertEquals(4, expenses.size());
+            expenses.forEach(e -> assertTrue(group.getUsers().containsAll(e.getParticipants())));
+        }
+        assertEquals(1000, messages, "All messages should be spread over the groups");
+        assertTrue(memberships >= 200, "This configuration has enough places for every user");
+        for (int u = 0; u < 200; u++) {
+            User user = mapper.readValue(root.resolve("users").resolve(DatasetGenerator.username(u) + ".json").toFile(),
+                User.class);
+            assertFalse(user.getUserGroups().isEmpty(), "Every user should be in a group");
+        }
+
+        ToDoList toDoList = mapper.readValue(root.resolve("todolists").resolve("user7.json").toFile(), ToDoList.class);
+        assertEquals(5, toDoList.getTasks().size());
+        assertEquals(36, toDoList.getTasks().get(0).getId(), "Task ids should follow from the user index");
+    }
+
+    @Test
+    @DisplayName("Test the same seed gives the same files regardless of threads")
+    @Tag("generate")
+    void testDeterministic(@TempDir Path root) throws Exception {
+        generate(root.resolve("a"), "--threads=1");
+        generate(root.resolve("b"), "--threads=3");
+        generate(root.resolve("c"), "--threads=1", "--seed=43");
+
+        List<Path> files = list(root.resolve("a"));
+        assertEquals(files, list(root.resolve("b")));
+        boolean differsWithOtherSeed = false;
+        for (Path file : files) {
+            byte[] a = Files.readAllBytes(root.resolve("a").resolve(file));
+            assertArrayEquals(a, Files.readAllBytes(root.resolve("b").resolve(file)), "File should match: " + file);
+            differsWithOtherSeed |= !Arrays.equals(a, Files.readAllBytes(root.resolve("c").resolve(file)));
+        }
+        assertTrue(differsWithOtherSeed, "Another seed should give another dataset");
+    }
+
+    @Test
+    @DisplayName("Test generated users can log in with the shared password")
+    @Tag("password")
+    void testPasswordHash() {
+        assertTrue(new BCryptPasswordEncoder().matches(DatasetSeeder.PASSWORD, DatasetGenerator.PASSWORD_HASH));
+    }
+
+    private static void generate(Path root, String... extra) throws Exception {
+        String[] args = Stream.concat(Stream.of("--output=" + root, "--users=200", "--groups=50",
+            "--max-group-size=12", "--zipf=0.8", "--tasks=5", "--group-tasks=3", "--messages=1000", "--expenses=4"),
+            Stream.of(extra)).toArray(String[]::new);
+        new DatasetGenerator(DatasetConfig.parse(args)).generate(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    private static long count(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static List<Path> list(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).map(root::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+}
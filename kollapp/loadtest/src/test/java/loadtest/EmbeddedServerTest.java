@@ -0,0 +1,55 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link EmbeddedServer} class.
+ */
+@Tag("embeddedserver")
+class EmbeddedServerTest {
+
+    @Test
+    @DisplayName("Test the server exposes request and storage metrics and deletes its temporary store")
+    @Tag("metrics")
+    void testMetricsEndpoint() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        Path storageRoot;
+        try (EmbeddedServer server = EmbeddedServer.start()) {
+            storageRoot = server.getStorageRoot();
+            URI baseUri = server.getBaseUri();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/v1/groupchats/metrics"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, created.statusCode());
+            assertTrue(created.headers().firstValue("Server-Timing").orElse("").contains("write;dur="),
+                "Responses should break down the server time");
+
+            HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(baseUri.resolve("/actuator/prometheus"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, metrics.statusCode());
+            String body = metrics.body();
+            assertTrue(body.contains("http_server_requests_seconds_bucket{"), "Requests should have a latency histogram");
+            assertTrue(body.contains("uri=\"/api/v1/groupchats/{groupName}\""), "Requests should be tagged by endpoint");
+            assertTrue(body.contains("kollapp_storage_io_seconds_count{entity=\"groupchat\",operation=\"write\""),
+                "Storage writes should be timed");
+            assertTrue(body.contains("kollapp_storage_files{entity=\"groupchat\""), "File counts should be published");
+            assertTrue(body.contains("tomcat_threads_busy_threads"), "Request thread usage should be published");
+
+            HttpResponse<String> jfr = client.send(HttpRequest.newBuilder(baseUri.resolve("/actuator/jfr"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, jfr.statusCode(), "The recording endpoint should not be exposed by default");
+        }
+        assertFalse(Files.exists(storageRoot), "The temporary store should be deleted");
+    }
+}
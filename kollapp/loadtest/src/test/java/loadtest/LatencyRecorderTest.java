@@ -0,0 +1,76 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link LatencyRecorder} class.
+ */
+@Tag("latencyrecorder")
+class LatencyRecorderTest {
+
+    @Test
+    @DisplayName("Test latencies and errors are recorded per endpoint")
+    @Tag("record")
+    void testRecord() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("GET /a", TimeUnit.MILLISECONDS.toNanos(i), true);
+        }
+        recorder.record("GET /a", TimeUnit.MILLISECONDS.toNanos(5), false);
+        recorder.record("PUT /b", TimeUnit.MILLISECONDS.toNanos(2), true);
+
+        Map<String, LatencyRecorder.Result> results = recorder.snapshot();
+
+        LatencyRecorder.Result a = results.get("GET /a");
+        assertEquals(100, a.getHistogram().getTotalCount());
+        assertEquals(1, a.getErrors());
+        assertEquals(50_000, a.getHistogram().getValueAtPercentile(50), 100, "Median should be about 50 ms in micros");
+        assertEquals(1, results.get("PUT /b").getHistogram().getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Test reset discards the warmup")
+    @Tag("reset")
+    void testReset() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET /a", 1_000_000, true);
+        recorder.record("GET /a", 1_000_000, false);
+        recorder.reset();
+        recorder.record("GET /a", 2_000_000, true);
+
+        LatencyRecorder.Result a = recorder.snapshot().get("GET /a");
+        assertEquals(1, a.getHistogram().getTotalCount());
+        assertEquals(0, a.getErrors());
+        recorder.reset();
+        assertTrue(recorder.snapshot().isEmpty(), "Endpoints without requests should be left out");
+    }
+
+    @Test
+    @DisplayName("Test the report has a row per endpoint and a total")
+    @Tag("report")
+    void testReport() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET /a", 1_000_000, true);
+        recorder.record("PUT /b", 3_000_000, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        LatencyRecorder.report(recorder.snapshot(), Duration.ofSeconds(2), new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\\R");
+        assertEquals(4, lines.length, "Report should have a header, two endpoints and a total");
+        assertTrue(lines[1].startsWith("GET /a"));
+        assertTrue(lines[3].startsWith("total"));
+        assertTrue(lines[3].contains("1.0"), "Two requests in two seconds should give one request per second");
+    }
+}
@@ -0,0 +1,62 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link LoadTestConfig} class.
+ */
+@Tag("loadtestconfig")
+class LoadTestConfigTest {
+
+    @Test
+    @DisplayName("Test defaults run a closed loop with the default mix")
+    @Tag("parse")
+    void testDefaults() {
+        LoadTestConfig config = LoadTestConfig.parse();
+
+        assertFalse(config.isOpenLoop(), "Default should be a closed loop");
+        assertEquals(50, config.getUsers());
+        assertEquals(Duration.ofSeconds(30), config.getDuration());
+        assertNull(config.getBaseUri(), "Default should start an embedded server");
+        assertEquals(ScenarioMix.defaultMix().getWeights(), config.getMix().getWeights());
+    }
+
+    @Test
+    @DisplayName("Test both option styles are parsed")
+    @Tag("parse")
+    void testOptions() {
+        LoadTestConfig config = LoadTestConfig.parse("--users=200", "--rate", "150.5", "--duration=5",
+            "--mix=login=1,toggleTask=3", "--base-url", "http://localhost:8080");
+
+        assertEquals(200, config.getUsers());
+        assertTrue(config.isOpenLoop(), "A rate should select the open loop");
+        assertEquals(150.5, config.getRate());
+        assertEquals(Duration.ofSeconds(5), config.getDuration());
+        assertEquals(3, config.getMix().getWeights().get(Scenario.TOGGLE_TASK));
+        assertEquals(URI.create("http://localhost:8080"), config.getBaseUri());
+        assertEquals(Paths.get("data"), LoadTestConfig.parse("--dataset=data").getDataset());
+        assertTrue(LoadTestConfig.parse("--help").isHelp());
+    }
+
+    @Test
+    @DisplayName("Test invalid options are rejected")
+    @Tag("validation")
+    void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("--unknown=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("--users"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("--users=abc"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("--concurrency=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("--rate=-1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parse("users=1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> LoadTestConfig.parse("--dataset=data", "--base-url=http://localhost:8080"));
+    }
+}
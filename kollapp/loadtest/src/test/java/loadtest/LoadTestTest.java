@@ -0,0 +1,61 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * End-to-end test that runs a short load test against an embedded server.
+ */
+@Tag("loadtest")
+class LoadTestTest {
+
+    @Test
+    @DisplayName("Test a short open-loop run exercises every scenario without errors")
+    @Tag("run")
+    void testShortRun() throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse("--users=4", "--group-size=2", "--tasks=3",
+            "--concurrency=4", "--rate=40", "--warmup=0", "--duration=2",
+            "--mix=login=1,loadTodoList=1,toggleTask=1,sendMessage=1,loadMessages=1,addExpense=1");
+
+        Map<String, LatencyRecorder.Result> results = new LoadTest(config)
+            .run(new PrintStream(new ByteArrayOutputStream()));
+
+        assertFalse(results.isEmpty(), "Requests should have been recorded");
+        long requests = 0;
+        for (Map.Entry<String, LatencyRecorder.Result> entry : results.entrySet()) {
+            assertEquals(0, entry.getValue().getErrors(), "No request should fail: " + entry.getKey());
+            requests += entry.getValue().getHistogram().getTotalCount();
+        }
+        assertTrue(requests >= 40, "About 80 scenarios should have run, but got " + requests + " requests");
+        assertTrue(results.containsKey("PUT /todolists/{username}/tasks/{taskId}"));
+        assertTrue(results.containsKey("POST /groupchats/{groupName}/messages"));
+    }
+
+    @Test
+    @DisplayName("Test a short closed-loop run against a generated dataset without errors")
+    @Tag("run")
+    void testRunAgainstDataset(@TempDir Path root) throws Exception {
+        new DatasetGenerator(DatasetConfig.parse("--output=" + root, "--users=20", "--groups=6", "--max-group-size=5",
+            "--tasks=4", "--messages=200", "--expenses=3")).generate(new PrintStream(new ByteArrayOutputStream()));
+        LoadTestConfig config = LoadTestConfig.parse("--dataset=" + root, "--users=8", "--concurrency=2",
+            "--warmup=0", "--duration=2", "--mix=loadTodoList=1,toggleTask=1,sendMessage=1,loadMessages=1,addExpense=1");
+
+        Map<String, LatencyRecorder.Result> results = new LoadTest(config)
+            .run(new PrintStream(new ByteArrayOutputStream()));
+
+        assertFalse(results.isEmpty(), "Requests should have been recorded");
+        results.forEach((endpoint, result) ->
+            assertEquals(0, result.getErrors(), "No request should fail: " + endpoint));
+        assertTrue(Files.exists(root.resolve("users").resolve("user0.json")), "The dataset should be kept");
+    }
+}
@@ -0,0 +1,54 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link ScenarioMix} class.
+ */
+@Tag("scenariomix")
+class ScenarioMixTest {
+
+    @Test
+    @DisplayName("Test scenarios are picked in proportion to their weights")
+    @Tag("pick")
+    void testPick() {
+        ScenarioMix mix = ScenarioMix.parse("login=1,loadTodoList=3");
+
+        assertEquals(Scenario.LOGIN, mix.pick(0.0));
+        assertEquals(Scenario.LOGIN, mix.pick(0.24));
+        assertEquals(Scenario.LOAD_TODO_LIST, mix.pick(0.25));
+        assertEquals(Scenario.LOAD_TODO_LIST, mix.pick(0.999));
+    }
+
+    @Test
+    @DisplayName("Test scenarios with weight zero are never picked")
+    @Tag("pick")
+    void testZeroWeight() {
+        ScenarioMix mix = ScenarioMix.parse("login=0,sendMessage=2");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Scenario.SEND_MESSAGE, mix.pick(i / 100.0));
+        }
+        assertEquals("login=0,sendMessage=2", mix.toString());
+    }
+
+    @Test
+    @DisplayName("Test invalid mixes are rejected")
+    @Tag("validation")
+    void testInvalidMix() {
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("dance=1"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("login"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("login=x"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("login=0"));
+        Map<Scenario, Integer> negative = new EnumMap<>(Scenario.class);
+        negative.put(Scenario.LOGIN, -1);
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioMix(negative));
+    }
+}
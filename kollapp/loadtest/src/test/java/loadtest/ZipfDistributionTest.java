@@ -0,0 +1,52 @@
+package loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link ZipfDistribution} class.
+ */
+@Tag("zipfdistribution")
+class ZipfDistributionTest {
+
+    @Test
+    @DisplayName("Test rank k is drawn in proportion to 1 / k^s")
+    @Tag("sample")
+    void testProportions() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[11];
+        for (int i = 0; i < 200_000; i++) {
+            counts[zipf.sample(random.nextDouble())]++;
+        }
+
+        assertEquals(0, counts[0], "Ranks should start at 1");
+        assertEquals(2.0, (double) counts[1] / counts[2], 0.1, "Rank 1 should be twice as likely as rank 2");
+        assertEquals(10.0, (double) counts[1] / counts[10], 0.7, "Rank 1 should be ten times as likely as rank 10");
+    }
+
+    @Test
+    @DisplayName("Test the bounds of the uniform input map to the first and last rank")
+    @Tag("sample")
+    void testBounds() {
+        ZipfDistribution uniform = new ZipfDistribution(4, 0.0);
+
+        assertEquals(1, uniform.sample(0.0));
+        assertEquals(2, uniform.sample(0.25));
+        assertEquals(4, uniform.sample(Math.nextDown(1.0)));
+        assertEquals(1, new ZipfDistribution(1, 2.0).sample(0.5));
+    }
+
+    @Test
+    @DisplayName("Test invalid parameters are rejected")
+    @Tag("validation")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(5, -1.0));
+    }
+}
@@ -0,0 +1,84 @@
+package logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Formats log events as one JSON object per line, so logs can be searched by field, for example
+ * every line of one request by its {@code correlationId}:
+ *
+ * <pre>{@code
+ * {"time":"2024-05-01T12:00:00.123Z","level":"INFO","thread":"http-nio-8080-exec-1",
+ *  "logger":"api.controller.UserController","message":"Assigning group friends to user alice",
+ *  "correlationId":"5f2c9e01a4b3d6e7"}
+ * }</pre>
+ *
+ * <p>Every MDC entry becomes a field of its own, and an exception is added as {@code exception} with
+ * its stack trace.</p>
+ */
+public class JsonLayout extends LayoutBase<ILoggingEvent> {
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append('{');
+        field(json, "time", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        json.append(',');
+        field(json, "level", event.getLevel().toString());
+        json.append(',');
+        field(json, "thread", event.getThreadName());
+        json.append(',');
+        field(json, "logger", event.getLoggerName());
+        json.append(',');
+        field(json, "message", event.getFormattedMessage());
+        for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+            json.append(',');
+            field(json, entry.getKey(), entry.getValue());
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            json.append(',');
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        json.append('}').append(CoreConstants.LINE_SEPARATOR);
+        return json.toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        string(json, name);
+        json.append(':');
+        if (value == null) {
+            json.append("null");
+        } else {
+            string(json, value);
+        }
+    }
+
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,97 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number that tells producers whether the slot is free for the
+ * position they claimed and tells the consumer whether the element in it has been published. Producers
+ * claim positions with a compare-and-set on the tail and never wait for each other or for the consumer;
+ * when the buffer is full, {@link #offer} fails instead of blocking.</p>
+ *
+ * @param <E> the type of the elements
+ */
+final class RingBuffer<E> {
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * Constructs an empty buffer.
+     *
+     * @param capacity the number of elements the buffer can hold, a power of two
+     * @throws IllegalArgumentException if the capacity is not a positive power of two
+     */
+    RingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room. Safe to call from any number of threads.
+     *
+     * @param element the element to add
+     * @return true if the element was added, false if the buffer was full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published element. Must only be called by the single consumer thread.
+     *
+     * @return the element, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * Returns whether no published element is waiting. Must only be called by the consumer thread.
+     *
+     * @return true if {@link #poll} would return null
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,184 @@
+package logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A Logback appender that hands events to its attached appenders on a background thread, so the
+ * logging thread never waits for the console or a file.
+ *
+ * <p>Events are passed through a lock-free {@link RingBuffer} instead of the blocking queue of
+ * Logback's {@code AsyncAppender}, so request threads do not contend on a lock with each other either.
+ * When the buffer is full, events below the {@code blockingLevel} (default {@code WARN}) are dropped
+ * and counted, while warnings and errors wait for room. The message and MDC, including the
+ * correlation ID, are captured on the logging thread before the event is queued.</p>
+ *
+ * <pre>{@code
+ * <appender name="ASYNC" class="logging.RingBufferAppender">
+ *   <capacity>8192</capacity>
+ *   <appender-ref ref="CONSOLE"/>
+ * </appender>
+ * }</pre>
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+    static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private int capacity = DEFAULT_CAPACITY;
+    private Level blockingLevel = Level.WARN;
+    private volatile RingBuffer<ILoggingEvent> buffer;
+    private volatile boolean running;
+    private Thread worker;
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the lowest level that waits for room in a full buffer instead of being dropped.
+     *
+     * @param blockingLevel the level, for example {@code WARN}
+     */
+    public void setBlockingLevel(String blockingLevel) {
+        this.blockingLevel = Level.toLevel(blockingLevel, Level.WARN);
+    }
+
+    public String getBlockingLevel() {
+        return blockingLevel.toString();
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        try {
+            buffer = new RingBuffer<>(capacity);
+        } catch (IllegalArgumentException e) {
+            addError("Invalid capacity " + capacity + " for appender " + getName() + ": " + e.getMessage());
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "logback-ring-buffer-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        RingBuffer<ILoggingEvent> queue = buffer;
+        while (!queue.offer(event)) {
+            if (!event.getLevel().isGreaterOrEqual(blockingLevel) || !running) {
+                dropped.incrementAndGet();
+                return;
+            }
+            wakeWorker();
+            Thread.onSpinWait();
+        }
+        if (idle.get()) {
+            wakeWorker();
+        }
+    }
+
+    private void wakeWorker() {
+        if (idle.compareAndSet(true, false)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drain() {
+        RingBuffer<ILoggingEvent> queue = buffer;
+        while (running || !queue.isEmpty()) {
+            ILoggingEvent event = queue.poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            idle.set(true);
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle.set(false);
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,80 @@
+package logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+/**
+ * Unit tests for the {@link JsonLayout} class.
+ */
+@Tag("logging")
+public class JsonLayoutTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("api.controller.UserController");
+    private final JsonLayout layout = new JsonLayout();
+
+    private static final Pattern FIELD = Pattern.compile("\"((?:[^\"\\\\]++|\\\\.)*+)\":\"((?:[^\"\\\\]++|\\\\.)*+)\"");
+
+    private String layout(LoggingEvent event) {
+        String line = layout.doLayout(event);
+        assertTrue(line.endsWith(System.lineSeparator()), "Every event should be one line");
+        assertEquals(1, line.split("\n").length, "Newlines in values should be escaped");
+        assertTrue(line.startsWith("{") && line.trim().endsWith("}"), line);
+        return line;
+    }
+
+    private static String field(String line, String name) {
+        Matcher matcher = FIELD.matcher(line);
+        while (matcher.find()) {
+            if (matcher.group(1).equals(name)) {
+                return matcher.group(2);
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Test an event becomes one JSON object with its MDC entries as fields")
+    @Tag("layout")
+    void testLayout() {
+        LoggingEvent event = new LoggingEvent("fqcn", logger, Level.INFO, "Assigning group {} to \"{}\"\n",
+            null, new Object[] {"friends", "alice"});
+        event.setMDCPropertyMap(Map.of("correlationId", "abc123"));
+        event.setTimeStamp(0);
+
+        String line = layout(event);
+
+        assertEquals("1970-01-01T00:00:00Z", field(line, "time"));
+        assertEquals("INFO", field(line, "level"));
+        assertEquals("api.controller.UserController", field(line, "logger"));
+        assertEquals("Assigning group friends to \\\"alice\\\"\\n", field(line, "message"));
+        assertEquals("abc123", field(line, "correlationId"));
+        assertNull(field(line, "exception"));
+    }
+
+    @Test
+    @DisplayName("Test exceptions are included with their stack trace")
+    @Tag("layout")
+    void testException() {
+        LoggingEvent event = new LoggingEvent("fqcn", logger, Level.ERROR, "Failed\u0001",
+            new IllegalStateException("broken"), null);
+        event.setMDCPropertyMap(Map.of());
+
+        String line = layout(event);
+
+        assertEquals("Failed\\u0001", field(line, "message"));
+        assertTrue(field(line, "exception").startsWith("java.lang.IllegalStateException: broken"));
+    }
+}
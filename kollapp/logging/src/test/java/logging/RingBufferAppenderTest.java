@@ -0,0 +1,144 @@
+package logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Unit tests for the {@link RingBufferAppender} class.
+ */
+@Tag("logging")
+public class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private RingBufferAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        logger = context.getLogger("test");
+        logger.setAdditive(false);
+        logger.setLevel(Level.DEBUG);
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("async");
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Test events reach the attached appender in order with the MDC of the logging thread")
+    @Tag("append")
+    void testEventsAreDelivered() {
+        ListAppender<ILoggingEvent> list = new ListAppender<>();
+        list.setContext(context);
+        list.start();
+        appender.addAppender(list);
+        appender.start();
+        logger.addAppender(appender);
+
+        MDC.put("correlationId", "abc123");
+        for (int i = 0; i < 100; i++) {
+            logger.info("message {}", Integer.toString(i));
+        }
+        MDC.clear();
+        appender.stop();
+
+        assertEquals(100, list.list.size());
+        assertEquals("message 0", list.list.get(0).getFormattedMessage());
+        assertEquals("message 99", list.list.get(99).getFormattedMessage());
+        assertEquals("abc123", list.list.get(50).getMDCPropertyMap().get("correlationId"));
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Test a full buffer drops info events but keeps warnings")
+    @Tag("append")
+    void testFullBufferDropsBelowBlockingLevel() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch first = new CountDownLatch(1);
+        BlockingAppender blocking = new BlockingAppender(first, release);
+        blocking.setContext(context);
+        blocking.start();
+        appender.setCapacity(4);
+        appender.addAppender(blocking);
+        appender.start();
+        logger.addAppender(appender);
+
+        logger.info("taken by the worker");
+        first.await();
+        for (int i = 0; i < 10; i++) {
+            logger.info("info {}", Integer.toString(i));
+        }
+        assertEquals(6, appender.getDroppedCount(), "Info events beyond the capacity should be dropped");
+
+        Thread warning = new Thread(() -> logger.warn("kept"));
+        warning.start();
+        release.countDown();
+        warning.join();
+        appender.stop();
+
+        List<String> messages = blocking.messages();
+        assertEquals(6, messages.size());
+        assertEquals("kept", messages.get(messages.size() - 1));
+        assertEquals(6, appender.getDroppedCount(), "Warnings should wait for room instead of being dropped");
+    }
+
+    @Test
+    @DisplayName("Test an invalid capacity keeps the appender from starting")
+    @Tag("start")
+    void testInvalidCapacity() {
+        appender.setCapacity(100);
+        appender.start();
+
+        assertFalse(appender.isStarted());
+    }
+
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch first;
+        private final CountDownLatch release;
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+        BlockingAppender(CountDownLatch first, CountDownLatch release) {
+            this.first = first;
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            first.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<String> messages() {
+            return events.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+        }
+    }
+}
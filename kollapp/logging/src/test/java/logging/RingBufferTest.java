@@ -0,0 +1,91 @@
+package logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link RingBuffer} class.
+ */
+@Tag("logging")
+public class RingBufferTest {
+
+    @Test
+    @DisplayName("Test elements come out in the order they went in and offers fail when full")
+    @Tag("offer")
+    void testFifoAndFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4), "A full buffer should reject elements");
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4), "A polled slot should be reusable");
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test the capacity must be a positive power of two")
+    @Tag("constructor")
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(6));
+        assertEquals(8, new RingBuffer<>(8).capacity());
+    }
+
+    @Test
+    @DisplayName("Test no element is lost or duplicated with concurrent producers")
+    @Tag("concurrency")
+    void testConcurrentProducers() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        int[] lastPerProducer = new int[producers];
+        Arrays.fill(lastPerProducer, -1);
+        while (received.size() < producers * perProducer) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertTrue(received.add(element), "Element " + element + " was received twice");
+            int producer = element / perProducer;
+            assertTrue(element > lastPerProducer[producer], "Elements of one producer should stay in order");
+            lastPerProducer[producer] = element;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package client;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import core.logging.CorrelationId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the requests of the API handlers, so every call is handled the same way.
+ *
+ * <ul>
+ *   <li>The request gets an {@code X-Correlation-Id} header: the {@link CorrelationId} of the current
+ *   thread if one is set, for example for all calls of one user action, or a new one otherwise. The
+ *   server logs its lines for the request with the same ID.</li>
+ *   <li>A request without a timeout gets the one of {@link Resilience#timeout(String, String)}, and the call
+ *   goes through the retries and circuit breaker of the shared {@link Resilience}.</li>
+ *   <li>The response time and {@code Server-Timing} header are recorded in {@link ServerTimings}.</li>
+ *   <li>The call is logged at debug level, and failures at warn level.</li>
+ * </ul>
+ */
+public final class ApiCall {
+    private static final Logger LOG = LoggerFactory.getLogger(ApiCall.class);
+
+    /**
+     * How long the HTTP clients of the handlers wait for a connection.
+     */
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+
+    private ApiCall() {
+    }
+
+    /**
+     * Creates the HTTP client the API handlers send their requests with.
+     *
+     * @return a client with the {@link #CONNECT_TIMEOUT}
+     */
+    public static HttpClient newHttpClient() {
+        return HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+    }
+
+    /**
+     * Sends a request.
+     *
+     * @param <T> the type of the response body
+     * @param httpClient the client to send the request with
+     * @param action the name to log and collect the timing under, for example {@code users.loadUser}
+     * @param request the request to send
+     * @param bodyHandler the handler for the response body
+     * @return the response
+     * @throws CircuitOpenException if the server is not called because the breaker of the action is open
+     * @throws IOException if the request fails
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public static <T> HttpResponse<T> send(HttpClient httpClient, String action, HttpRequest request,
+            HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        String correlationId = CorrelationId.currentOrCreate();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true)
+                .setHeader(CorrelationId.HEADER, correlationId);
+        if (request.timeout().isEmpty()) {
+            builder.timeout(Resilience.timeout(action, request.method()));
+        }
+        HttpRequest correlated = builder.build();
+        try {
+            return Resilience.getShared().execute(action, request.method(),
+                () -> sendOnce(httpClient, action, correlationId, correlated, bodyHandler));
+        } catch (IOException e) {
+            LOG.warn("{} [{}] failed: {}", action, correlationId, e.getMessage());
+            throw e;
+        }
+    }
+
+    private static <T> HttpResponse<T> sendOnce(HttpClient httpClient, String action, String correlationId,
+            HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<T> response = httpClient.send(request, bodyHandler);
+        long elapsed = System.nanoTime() - start;
+        if (response != null) {
+            ServerTimings.getShared().record(action, elapsed, response.headers());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} [{}] {} in {} ms", action, correlationId, response.statusCode(), elapsed / 1_000_000);
+            }
+        }
+        return response;
+    }
+}
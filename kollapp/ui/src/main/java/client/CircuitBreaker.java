@@ -0,0 +1,109 @@
+package client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling an endpoint that keeps failing, so the app fails fast instead of waiting for a timeout on
+ * every click, and probes it again after a while.
+ *
+ * <ul>
+ *   <li>{@link State#CLOSED}: calls go through. After the failure threshold of failures in a row, the
+ *   breaker opens.</li>
+ *   <li>{@link State#OPEN}: calls are rejected until the open duration has passed.</li>
+ *   <li>{@link State#HALF_OPEN}: one call goes through as a probe. It closes the breaker if it succeeds,
+ *   and opens it again if it fails.</li>
+ * </ul>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The state of a breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+
+    /**
+     * Constructs a closed breaker.
+     *
+     * @param failureThreshold the number of failures in a row that opens the breaker, or 0 to never open
+     * @param openDuration how long the breaker rejects calls before it lets a probe through
+     * @param clock the time source in nanoseconds
+     * @throws IllegalArgumentException if the threshold is negative or the duration is null or negative
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold < 0) {
+            throw new IllegalArgumentException("Failure threshold cannot be negative");
+        }
+        if (openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Open duration cannot be negative");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Asks to make a call. An open breaker lets the first call after the open duration through as a probe.
+     *
+     * @return true if the call may be made
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            case HALF_OPEN:
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    public synchronized void onSuccess() {
+        failures = 0;
+        probing = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed call, opening the breaker after the threshold or after a failed probe.
+     */
+    public synchronized void onFailure() {
+        failures++;
+        probing = false;
+        if (failureThreshold > 0 && (state == State.HALF_OPEN || failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Returns the state of the breaker.
+     *
+     * @return the current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+}
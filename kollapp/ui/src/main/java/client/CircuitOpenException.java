@@ -0,0 +1,21 @@
+package client;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling an endpoint whose {@link CircuitBreaker} is open. It is an
+ * {@link IOException}, so the API handlers treat it like an unreachable server and fall back to the
+ * {@link ClientCache}.
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param action the API call that was rejected
+     */
+    public CircuitOpenException(String action) {
+        super("Circuit open for " + action + ", not calling the server");
+    }
+}
@@ -0,0 +1,693 @@
+package client;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache on disk of the JSON the API handlers receive, so views can be shown without waiting for the
+ * server, and the app keeps working while the server is down.
+ *
+ * <p>Each resource is kept under a key such as {@code todolists/alice} with a local version, which grows
+ * with every change, and the hash of the body the server last confirmed. Changes made while the server
+ * cannot be reached are stored in the cache as local changes and queued in the {@link Outbox}, which is
+ * replayed in the background until the server is back. A refresh from the server never replaces a local
+ * change that is still queued.</p>
+ *
+ * <p>An entry also keeps the change version the server sent with the body, if any, so a
+ * {@link VersionedFetch} can ask the server for the changes since that version instead of the whole
+ * resource; see {@link DeltaSync}.</p>
+ *
+ * <p>The shared cache used by the API handlers is {@link #disabled()} until the app opens one, so the
+ * handlers only talk to the server by default.</p>
+ */
+public final class ClientCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ClientCache.class);
+
+    /**
+     * The system property that sets the cache directory.
+     */
+    public static final String DIRECTORY_PROPERTY = "kollapp.cache.dir";
+
+    private static final String ENTRIES_DIRECTORY = "entries";
+    private static final long REPLAY_INTERVAL_SECONDS = 5;
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private static final ClientCache DISABLED = new ClientCache();
+    private static volatile ClientCache shared = DISABLED;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Outbox outbox;
+    private ScheduledExecutorService executor;
+
+    private ClientCache() {
+        this.directory = null;
+        this.outbox = null;
+    }
+
+    private ClientCache(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory.resolve(ENTRIES_DIRECTORY));
+        this.outbox = new Outbox(this, directory.resolve("outbox.json"));
+    }
+
+    /**
+     * Opens the cache in a directory, keeping the entries and queued changes stored there.
+     *
+     * @param directory the cache directory, created if needed
+     * @return the cache
+     * @throws IOException if the directory cannot be created or the outbox cannot be read
+     * @throws IllegalArgumentException if the directory is null
+     */
+    public static ClientCache open(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Cache directory cannot be null");
+        }
+        return new ClientCache(directory);
+    }
+
+    /**
+     * Returns the directory the app keeps its cache in: the {@value #DIRECTORY_PROPERTY} system property,
+     * or {@code .kollapp/cache} in the home directory.
+     *
+     * @return the default cache directory
+     */
+    public static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".kollapp", "cache");
+    }
+
+    /**
+     * Returns a cache that keeps nothing, so every call goes to the server.
+     *
+     * @return the disabled cache
+     */
+    public static ClientCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns the cache the API handlers use.
+     *
+     * @return the shared cache, {@link #disabled()} unless the app opened one
+     */
+    public static ClientCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Sets the cache the API handlers use.
+     *
+     * @param cache the cache, or null to disable caching
+     */
+    public static void setShared(ClientCache cache) {
+        shared = cache == null ? DISABLED : cache;
+    }
+
+    /**
+     * Returns whether the cache keeps anything.
+     *
+     * @return false for the {@link #disabled()} cache
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the queue of changes waiting for the server.
+     *
+     * @return the outbox, or null if the cache is disabled
+     */
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Returns the cached entry of a resource.
+     *
+     * @param key the key of the resource
+     * @return the entry, or empty if the resource is not cached
+     */
+    public Optional<Entry> get(String key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Entry entry = entries.computeIfAbsent(key, this::readEntry);
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Returns the cached body of a resource.
+     *
+     * @param key the key of the resource
+     * @return the body, or empty if the resource is not cached
+     */
+    public Optional<String> getBody(String key) {
+        return get(key).map(Entry::getBody);
+    }
+
+    /**
+     * Stores a body received from or accepted by the server. It is skipped while a local change of the
+     * resource is queued, so the change is not lost before it is replayed.
+     *
+     * @param key the key of the resource
+     * @param body the body the server confirmed
+     * @return true if the body was stored
+     */
+    public boolean storeFromServer(String key, String body) {
+        return storeFromServer(key, body, 0);
+    }
+
+    /**
+     * Stores a body received from the server along with its change version, like
+     * {@link #storeFromServer(String, String)}.
+     *
+     * @param key the key of the resource
+     * @param body the body the server confirmed
+     * @param sequence the change version of the body, or 0 if it is not known
+     * @return true if the body was stored
+     */
+    public boolean storeFromServer(String key, String body, long sequence) {
+        if (!isEnabled() || outbox.hasPending(key)) {
+            return false;
+        }
+        store(key, body, hash(body), sequence);
+        return true;
+    }
+
+    /**
+     * Stores a change the server has not confirmed yet, keeping the hash of the last confirmed body as
+     * the base the change was made on.
+     *
+     * @param key the key of the resource
+     * @param body the changed body
+     * @return the hash of the body the change is based on, or null if the resource was not cached
+     */
+    public String storeLocal(String key, String body) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String base = get(key).map(Entry::getServerHash).orElse(null);
+        store(key, body, base, 0);
+        return base;
+    }
+
+    /**
+     * Loads a resource from the server, falling back to the cached body if the server cannot be reached.
+     * While a local change of the resource is queued, the cached body is returned without asking the
+     * server, since it is newer than what the server has.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, returning null if the server has no such resource
+     * @return the body, or empty if the server has no such resource or is down and nothing is cached
+     */
+    Optional<String> load(String key, Fetch fetch) {
+        return load(key, versioned(fetch));
+    }
+
+    /**
+     * Loads a resource like {@link #load(String, Fetch)}, with a fetch that may only ask for the changes
+     * since the cached version.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, given the cached entry
+     * @return the body, or empty if the server has no such resource or is down and nothing is cached
+     */
+    Optional<String> load(String key, VersionedFetch fetch) {
+        if (isEnabled() && outbox.hasPending(key)) {
+            replayInBackground();
+            return getBody(key);
+        }
+        try {
+            Fetched fetched = fetch.fetch(get(key));
+            String body = fetched == null ? null : fetched.getBody();
+            if (body != null) {
+                storeFromServer(key, body, fetched.getSequence());
+                replayInBackground();
+            }
+            return Optional.ofNullable(body);
+        } catch (IOException e) {
+            return getBody(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getBody(key);
+        }
+    }
+
+    /**
+     * Returns the cached body of a resource at once and refreshes it in the background, or loads it with
+     * {@link #load(String, Fetch)} if it is not cached.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, returning null if the server has no such resource
+     * @param onChange called on a background thread with the body from the server, if it differs
+     * @return the body, or empty if the resource is neither cached nor on the server
+     */
+    Optional<String> loadCachedFirst(String key, Fetch fetch, Consumer<String> onChange) {
+        return loadCachedFirst(key, versioned(fetch), onChange);
+    }
+
+    /**
+     * Returns the cached body of a resource at once and refreshes it in the background, like
+     * {@link #loadCachedFirst(String, Fetch, Consumer)}, with a fetch that may only ask for the changes
+     * since the cached version.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, given the cached entry
+     * @param onChange called on a background thread with the body from the server, if it differs
+     * @return the body, or empty if the resource is neither cached nor on the server
+     */
+    Optional<String> loadCachedFirst(String key, VersionedFetch fetch, Consumer<String> onChange) {
+        Optional<String> cached = getBody(key);
+        if (cached.isEmpty()) {
+            return load(key, fetch);
+        }
+        if (!outbox.hasPending(key)) {
+            refreshInBackground(key, fetch, onChange);
+        }
+        return cached;
+    }
+
+    /**
+     * Replaces a resource on the server. If the server cannot be reached, or an earlier change of the
+     * resource is still queued, the change is stored in the cache and queued instead.
+     *
+     * @param key the key of the resource
+     * @param action the name of the API call
+     * @param url the URL of the resource
+     * @param body the new body
+     * @param send sends the body, returning whether the server accepted it
+     * @return true if the server accepted the change or it was queued
+     */
+    boolean replace(String key, String action, String url, String body, Send send) {
+        if (isEnabled() && outbox.hasPending(key)) {
+            outbox.enqueue(Outbox.Mutation.put(action, url, body, key, storeLocal(key, body)));
+            replayInBackground();
+            return true;
+        }
+        try {
+            boolean accepted = send.send();
+            if (accepted) {
+                storeFromServer(key, body);
+            }
+            return accepted;
+        } catch (IOException e) {
+            if (!isEnabled()) {
+                return false;
+            }
+            outbox.enqueue(Outbox.Mutation.put(action, url, body, key, storeLocal(key, body)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sends an edit to be merged into a resource on the server, such as the changed tasks of a group
+     * to-do list, and stores the merged body the server returns. If the server cannot be reached, or a
+     * change of the resource is still queued, the edited body is stored in the cache and the edit is
+     * queued instead. The server merges edits instead of replacing the resource, so a queued edit is
+     * replayed without checking the resource for changes.
+     *
+     * @param key the key of the resource
+     * @param action the name of the API call
+     * @param url the URL to send the edit to
+     * @param body the whole body after the edit, stored while the edit is queued
+     * @param edit the edit to send
+     * @param send sends the edit, returning the merged body, or null if the server rejected it
+     * @return true if the server accepted the edit or it was queued
+     */
+    boolean merge(String key, String action, String url, String body, String edit, Merge send) {
+        if (isEnabled() && outbox.hasPending(key)) {
+            storeLocal(key, body);
+            outbox.enqueue(Outbox.Mutation.patch(action, url, edit, key));
+            replayInBackground();
+            return true;
+        }
+        try {
+            Fetched merged = send.send();
+            if (merged == null) {
+                return false;
+            }
+            storeFromServer(key, merged.getBody(), merged.getSequence());
+            return true;
+        } catch (IOException e) {
+            if (!isEnabled()) {
+                return false;
+            }
+            storeLocal(key, body);
+            outbox.enqueue(Outbox.Mutation.patch(action, url, edit, key));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Posts an addition to a resource, such as a chat message. If the server cannot be reached, the post
+     * is queued instead.
+     *
+     * @param action the name of the API call
+     * @param url the URL to post to
+     * @param body the body to post
+     * @param send sends the body, returning whether the server accepted it
+     * @return true if the server accepted the post or it was queued
+     */
+    boolean append(String action, String url, String body, Send send) {
+        try {
+            return send.send();
+        } catch (IOException e) {
+            if (!isEnabled()) {
+                return false;
+            }
+            outbox.enqueue(Outbox.Mutation.post(action, url, body));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Runs a fetch from the server in the background and stores its result. The consumer is called, on
+     * the background thread, only if the body differs from the cached one.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, returning null if the server has no such resource
+     * @param onChange called with the new body
+     */
+    public void refreshInBackground(String key, Fetch fetch, Consumer<String> onChange) {
+        refreshInBackground(key, versioned(fetch), onChange);
+    }
+
+    /**
+     * Runs a fetch from the server in the background like {@link #refreshInBackground(String, Fetch,
+     * Consumer)}, with a fetch that may only ask for the changes since the cached version.
+     *
+     * @param key the key of the resource
+     * @param fetch the fetch, given the cached entry
+     * @param onChange called with the new body
+     */
+    public void refreshInBackground(String key, VersionedFetch fetch, Consumer<String> onChange) {
+        if (!isEnabled()) {
+            return;
+        }
+        executor().execute(() -> {
+            try {
+                Optional<Entry> cached = get(key);
+                Fetched fetched = fetch.fetch(cached);
+                if (fetched == null || fetched.getBody() == null) {
+                    return;
+                }
+                boolean changed = !fetched.getBody().equals(cached.map(Entry::getBody).orElse(null));
+                boolean newer = fetched.getSequence() != cached.map(Entry::getSequence).orElse(0L);
+                if ((changed || newer) && storeFromServer(key, fetched.getBody(), fetched.getSequence()) && changed) {
+                    onChange.accept(fetched.getBody());
+                }
+            } catch (IOException e) {
+                LOG.debug("Could not refresh {}: {}", key, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Replays the outbox in the background, if it has queued changes.
+     */
+    public void replayInBackground() {
+        if (isEnabled() && outbox.size() > 0) {
+            executor().execute(outbox::replay);
+        }
+    }
+
+    /**
+     * Stops the background thread. Queued changes stay in the outbox on disk and are replayed the next
+     * time the cache is opened.
+     */
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns the hash the cache compares bodies by. JSON is hashed with its keys sorted and without
+     * whitespace, so the same resource has the same hash whether the client or the server wrote it.
+     *
+     * @param body the body
+     * @return the SHA-256 hash of the body, in hex
+     */
+    public static String hash(String body) {
+        String canonical;
+        try {
+            canonical = CANONICAL_MAPPER.writeValueAsString(CANONICAL_MAPPER.readValue(body, Object.class));
+        } catch (IOException e) {
+            canonical = body;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kollapp-cache-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(() -> {
+                if (outbox.size() > 0) {
+                    outbox.replay();
+                }
+            }, REPLAY_INTERVAL_SECONDS, REPLAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        return executor;
+    }
+
+    private static VersionedFetch versioned(Fetch fetch) {
+        return cached -> {
+            String body = fetch.fetch();
+            return body == null ? null : new Fetched(body, 0);
+        };
+    }
+
+    private void store(String key, String body, String serverHash, long sequence) {
+        Entry entry = entries.compute(key, (k, current) -> {
+            Entry previous = current == null ? readEntry(k) : current;
+            long version = previous == null ? 1 : previous.getVersion() + 1;
+            return new Entry(version, serverHash, body, sequence);
+        });
+        try {
+            Path file = entryFile(key);
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temporary, objectMapper.writeValueAsBytes(entry));
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Entry readEntry(String key) {
+        Path file = entryFile(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), Entry.class);
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(ENTRIES_DIRECTORY).resolve(URLEncoder.encode(key, StandardCharsets.UTF_8) + ".json");
+    }
+
+    /**
+     * Fetches the body of a resource from the server.
+     */
+    @FunctionalInterface
+    public interface Fetch {
+
+        /**
+         * Fetches the body.
+         *
+         * @return the body, or null if the server has no such resource
+         * @throws IOException if the server cannot be reached
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        String fetch() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Fetches the body of a resource from the server, knowing what is cached, so it can ask only for
+     * the changes since the cached version.
+     */
+    @FunctionalInterface
+    public interface VersionedFetch {
+
+        /**
+         * Fetches the body.
+         *
+         * @param cached the cached entry, or empty if the resource is not cached
+         * @return the body with its change version, or null if the server has no such resource
+         * @throws IOException if the server cannot be reached
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        Fetched fetch(Optional<Entry> cached) throws IOException, InterruptedException;
+    }
+
+    /**
+     * A body fetched from the server.
+     */
+    public static final class Fetched {
+        private final String body;
+        private final long sequence;
+
+        /**
+         * Constructs a fetched body.
+         *
+         * @param body the body
+         * @param sequence the change version of the body, or 0 if it is not known
+         */
+        public Fetched(String body, long sequence) {
+            this.body = body;
+            this.sequence = sequence;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * Sends a change to the server.
+     */
+    @FunctionalInterface
+    interface Send {
+
+        /**
+         * Sends the change.
+         *
+         * @return true if the server accepted it
+         * @throws IOException if the server cannot be reached
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        boolean send() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Sends an edit to be merged on the server.
+     */
+    @FunctionalInterface
+    interface Merge {
+
+        /**
+         * Sends the edit.
+         *
+         * @return the merged body, or null if the server rejected the edit
+         * @throws IOException if the server cannot be reached
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        Fetched send() throws IOException, InterruptedException;
+    }
+
+    /**
+     * A cached resource.
+     */
+    public static final class Entry {
+        private final long version;
+        private final String serverHash;
+        private final String body;
+        private final long sequence;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param version the local version, starting at 1
+         * @param serverHash the hash of the body the server last confirmed, or null if none was
+         * @param body the body
+         * @param sequence the change version the server sent with the body, or 0 if it is not known
+         */
+        @JsonCreator
+        public Entry(@JsonProperty("version") long version, @JsonProperty("serverHash") String serverHash,
+                @JsonProperty("body") String body, @JsonProperty("sequence") long sequence) {
+            this.version = version;
+            this.serverHash = serverHash;
+            this.body = body;
+            this.sequence = sequence;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getServerHash() {
+            return serverHash;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns whether the body has a change the server has not confirmed.
+         *
+         * @return true if the body differs from the one the server last confirmed
+         */
+        @JsonIgnore
+        public boolean isLocal() {
+            return serverHash == null || !serverHash.equals(hash(body));
+        }
+    }
+}
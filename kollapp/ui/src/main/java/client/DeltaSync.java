@@ -0,0 +1,197 @@
+package client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import core.Change;
+import core.ChangeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Brings a cached aggregate, such as a to-do list, up to date by fetching only the changes the server
+ * logged since the cached version, from the {@code changes?since=} endpoint next to the aggregate.
+ *
+ * <p>The changes are applied to the cached JSON, so the result is written exactly as the server would
+ * send the whole aggregate and keeps the same hash in the {@link ClientCache}. The whole aggregate is
+ * fetched instead if nothing usable is cached, the cached body has a local change, or the server answers
+ * with a snapshot hint or does not have the endpoint. The version of a whole aggregate is read from the
+ * {@value ChangeSet#VERSION_HEADER} header.</p>
+ */
+final class DeltaSync {
+    private static final Logger LOG = LoggerFactory.getLogger(DeltaSync.class);
+    private static final TypeReference<ChangeSet<JsonNode>> CHANGE_SET = new TypeReference<>() {
+    };
+
+    /**
+     * Applies the changes of a to-do list, keyed by task id, to its {@code tasks}.
+     */
+    static final Applier TASKS = (aggregate, change) -> {
+        ArrayNode tasks = array((ObjectNode) aggregate, "tasks");
+        int index = indexOf(tasks, node -> change.getKey().equals(node.path("id").asText()));
+        apply(tasks, index, change);
+    };
+
+    /**
+     * Applies the changes of a list of expenses, keyed by expense id.
+     */
+    static final Applier EXPENSES = (aggregate, change) -> {
+        ArrayNode expenses = (ArrayNode) aggregate;
+        int index = indexOf(expenses, node -> change.getKey().equals(node.path("id").asText()));
+        apply(expenses, index, change);
+    };
+
+    /**
+     * Applies the changes of a group's members, keyed by username, to its {@code users}.
+     */
+    static final Applier USERS = (aggregate, change) -> {
+        ArrayNode users = array((ObjectNode) aggregate, "users");
+        int index = indexOf(users, node -> change.getKey().equals(node.asText()));
+        apply(users, index, change);
+    };
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Applier applier;
+
+    /**
+     * Constructs a sync for one kind of aggregate.
+     *
+     * @param httpClient the client to send the requests with
+     * @param applier applies one change to the JSON of the aggregate
+     */
+    DeltaSync(HttpClient httpClient, Applier applier) {
+        this.httpClient = httpClient;
+        this.applier = applier;
+    }
+
+    /**
+     * Returns the fetch of an aggregate for the {@link ClientCache}.
+     *
+     * @param url the URL of the aggregate; its changes are at {@code url + "/changes"}
+     * @param action the name of the API call loading the whole aggregate
+     * @param changesAction the name of the API call loading the changes
+     * @return the fetch
+     */
+    ClientCache.VersionedFetch fetch(String url, String action, String changesAction) {
+        return cached -> {
+            Optional<ClientCache.Entry> base = cached.filter(entry -> entry.getSequence() > 0 && !entry.isLocal());
+            if (base.isPresent()) {
+                ClientCache.Fetched caughtUp = catchUp(url, changesAction, base.get());
+                if (caughtUp != null) {
+                    return caughtUp;
+                }
+            }
+            return fetchAll(url, action);
+        };
+    }
+
+    private ClientCache.Fetched catchUp(String url, String action, ClientCache.Entry base)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url + "/changes?since=" + base.getSequence()))
+                .GET()
+                .build();
+        HttpResponse<String> response = ApiCall.send(httpClient, action, request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            LOG.debug("No changes for {} ({}), loading it all", url, response.statusCode());
+            return null;
+        }
+        try {
+            ChangeSet<JsonNode> changes = objectMapper.readValue(response.body(), CHANGE_SET);
+            if (changes.isSnapshotRequired()) {
+                return null;
+            }
+            if (changes.getChanges().isEmpty()) {
+                return new ClientCache.Fetched(base.getBody(), changes.getVersion());
+            }
+            JsonNode aggregate = objectMapper.readTree(base.getBody());
+            for (Change<JsonNode> change : changes.getChanges()) {
+                applier.apply(aggregate, change);
+            }
+            LOG.debug("Applied {} changes to {}", changes.getChanges().size(), url);
+            return new ClientCache.Fetched(objectMapper.writeValueAsString(aggregate), changes.getVersion());
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not apply the changes of {}, loading it all: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private ClientCache.Fetched fetchAll(String url, String action) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .build();
+        HttpResponse<String> response = ApiCall.send(httpClient, action, request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            LOG.warn("Failed to load {}. Response: {}", url, response);
+            return null;
+        }
+        return new ClientCache.Fetched(response.body(), version(response));
+    }
+
+    /**
+     * Reads the version of a whole aggregate from the {@value ChangeSet#VERSION_HEADER} header.
+     *
+     * @param response the response holding the aggregate
+     * @return the version, or 0 if the response has none
+     */
+    static long version(HttpResponse<?> response) {
+        Optional<String> version = response.headers() == null
+                ? Optional.empty() : response.headers().firstValue(ChangeSet.VERSION_HEADER);
+        if (version.isPresent()) {
+            try {
+                return Long.parseLong(version.get());
+            } catch (NumberFormatException e) {
+                LOG.debug("Ignoring invalid version {} of {}", version.get(), response.uri());
+            }
+        }
+        return 0;
+    }
+
+    private static ArrayNode array(ObjectNode aggregate, String field) {
+        JsonNode node = aggregate.get(field);
+        return node instanceof ArrayNode ? (ArrayNode) node : aggregate.putArray(field);
+    }
+
+    private static int indexOf(ArrayNode array, Predicate<JsonNode> matches) {
+        for (int i = 0; i < array.size(); i++) {
+            if (matches.test(array.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void apply(ArrayNode array, int index, Change<JsonNode> change) {
+        if (change.getType() == Change.Type.REMOVE) {
+            if (index >= 0) {
+                array.remove(index);
+            }
+        } else if (index >= 0) {
+            array.set(index, change.getValue());
+        } else {
+            array.add(change.getValue());
+        }
+    }
+
+    /**
+     * Applies one change to the JSON of an aggregate, in place.
+     */
+    @FunctionalInterface
+    interface Applier {
+        void apply(JsonNode aggregate, Change<JsonNode> change);
+    }
+}
@@ -1,9 +1,12 @@
 package client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import core.Expense;
 import core.UserGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
@@ -16,8 +19,11 @@ import java.util.List;
 import java.util.Optional;
 
 public class ExpenseApiHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(ExpenseApiHandler.class);
+
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final DeltaSync sync;
     private final String baseUrl = "http://localhost:8080/api/v1/expenses";
 
     /**
@@ -29,10 +35,11 @@ public class ExpenseApiHandler {
         this.httpClient = createHttpClient();
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.sync = new DeltaSync(httpClient, DeltaSync.EXPENSES);
     }
     
     protected HttpClient createHttpClient() {
-        return HttpClient.newHttpClient();
+        return ApiCall.newHttpClient();
     }
 
     /**
@@ -44,38 +51,22 @@ public class ExpenseApiHandler {
     }
 
     /**
-     * Loads the expenses for a given user group from the server.
+     * Loads the expenses for a given user group from the server. If they are cached, only the expenses
+     * changed since are fetched. If the server cannot be reached, the cached expenses are returned.
      *
      * @param group the user group whose expenses are to be loaded
      * @return a list of expenses for the specified group, or null if no expenses are found or an error occurs
      */
     public Optional<List<Expense>> loadGroupExpenses(UserGroup group) {
         String url = baseUrl + "/groups/" + URLEncoder.encode(group.getGroupName(), StandardCharsets.UTF_8);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                List<Expense> expenses = objectMapper.readValue(response.body(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
-                return Optional.of(expenses);
-            } else if (response.statusCode() == 404) {
-                System.err.println("List not found. Status code: " + response.statusCode());
-                return Optional.empty();
-            } else {
-                System.err.println("Failed to load group expenses. Status code: " + response.statusCode());
-                return Optional.empty();
-            }
-        } catch (IOException | InterruptedException e) {
-            System.err.println("An error occurred while loading group expenses: " + e.getMessage());
-            return Optional.empty();
-        }
+        return ClientCache.getShared()
+                .load(cacheKey(group), sync.fetch(url, "expenses.loadGroupExpenses", "expenses.getGroupExpenseChanges"))
+                .flatMap(this::readExpenses);
     }
 
     /**
-     * Updates the expenses for a given user group by sending a PUT request to the server.
+     * Updates the expenses for a given user group by sending a PUT request to the server. If the server
+     * cannot be reached, the expenses are cached and queued to be sent when it is back.
      *
      * @param group the user group whose expenses are to be updated
      * @param expenses the list of expenses to be updated for the group
@@ -84,19 +75,43 @@ public class ExpenseApiHandler {
     public boolean updateGroupExpenses(UserGroup group, List<Expense> expenses) {
         String encodedGroupName = encodePathSegment(group.getGroupName());
         String url = baseUrl + "/groups/" + encodedGroupName;
-        
+
+        String jsonBody;
         try {
-            String jsonBody = objectMapper.writeValueAsString(expenses);
+            jsonBody = objectMapper.writeValueAsString(expenses);
+        } catch (JsonProcessingException e) {
+            LOG.warn("An error occurred while updating group expenses: {}", e.getMessage());
+            return false;
+        }
+        return ClientCache.getShared().replace(cacheKey(group), "expenses.updateGroupExpenses", url, jsonBody, () -> {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
                     .header("Content-Type", "application/json")
                     .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200;
-        } catch (IOException | InterruptedException e) {
-            System.err.println("An error occurred while updating group expenses: " + e.getMessage());
-            return false;
+            try {
+                HttpResponse<String> response = ApiCall.send(httpClient, "expenses.updateGroupExpenses", request,
+                        HttpResponse.BodyHandlers.ofString());
+                return response.statusCode() == 200;
+            } catch (IOException e) {
+                LOG.warn("An error occurred while updating group expenses: {}", e.getMessage());
+                throw e;
+            }
+        });
+    }
+
+    private Optional<List<Expense>> readExpenses(String body) {
+        try {
+            List<Expense> expenses = objectMapper.readValue(body,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Expense.class));
+            return Optional.of(expenses);
+        } catch (JsonProcessingException e) {
+            LOG.warn("An error occurred while loading group expenses: {}", e.getMessage());
+            return Optional.empty();
         }
     }
+
+    private static String cacheKey(UserGroup group) {
+        return "expenses/groups/" + group.getGroupName();
+    }
 }
@@ -13,17 +13,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import core.UserGroup;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class GroupApiHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(GroupApiHandler.class);
+
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final DeltaSync sync;
 
     public GroupApiHandler() {
         this.httpClient = createHttpClient();
         this.objectMapper = new ObjectMapper();
+        this.sync = new DeltaSync(httpClient, DeltaSync.USERS);
     }
 
     protected HttpClient createHttpClient() {
-        return HttpClient.newHttpClient();
+        return ApiCall.newHttpClient();
     }
 
     /**
@@ -35,28 +42,22 @@ public class GroupApiHandler {
     }
 
     /**
-     * Retrieves a UserGroup from the API.
+     * Retrieves a UserGroup from the API, or from the cache if the server cannot be reached. If the group is
+     * cached, only the members who joined or left since are fetched.
      */
     public Optional<UserGroup> getGroup(String groupName) {
         String encodedGroupName = encodePathSegment(groupName);
         String url = "http://localhost:8080/api/v1/groups/" + encodedGroupName;
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                String responseBody = response.body();
-                UserGroup group = objectMapper.readValue(responseBody, UserGroup.class);
-                return Optional.of(group);
-            } else {
-                return Optional.empty();
-            }
-        } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while retrieving group: " + e.getMessage());
-            return Optional.empty();
-        }
+        return ClientCache.getShared()
+                .load("groups/" + groupName, sync.fetch(url, "groups.getGroup", "groups.getGroupChanges"))
+                .flatMap(body -> {
+                    try {
+                        return Optional.of(objectMapper.readValue(body, UserGroup.class));
+                    } catch (IOException e) {
+                        LOG.warn("An error occurred while retrieving group: {}", e.getMessage());
+                        return Optional.empty();
+                    }
+                });
     }
 
     /**
@@ -76,16 +77,17 @@ public class GroupApiHandler {
                 .build();
     
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groups.createGroup", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 201) {
-                System.out.println("Group created successfully.");
+                LOG.debug("Group created successfully.");
                 return true;
             } else {
-                System.out.println("Failed to create group. Status Code: " + response.statusCode());
+                LOG.warn("Failed to create group. Response: {}", response);
                 return false;
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while creating group: " + e.getMessage());
+            LOG.warn("An error occurred while creating group: {}", e.getMessage());
             return false;
         }
     }
@@ -105,14 +107,14 @@ public class GroupApiHandler {
                 .build();
     
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groups.assignUserToGroup", request,
+                    HttpResponse.BodyHandlers.ofString());
     
-            System.out.println("Response status code: " + response.statusCode());
-            System.out.println("Response body: " + response.body());
+            LOG.debug("Assign user response: {} {}", response, response.body());
     
             return response.statusCode() == 200 || response.statusCode() == 201;
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while assigning user to group: " + e.getMessage());
+            LOG.warn("An error occurred while assigning user to group: {}", e.getMessage());
             return false;
         }
     }
@@ -128,10 +130,11 @@ public class GroupApiHandler {
                 .GET()
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groups.groupExists", request,
+                    HttpResponse.BodyHandlers.ofString());
             return response.statusCode() == 200 && Boolean.parseBoolean(response.body());
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while checking if group exists: " + e.getMessage());
+            LOG.warn("An error occurred while checking if group exists: {}", e.getMessage());
             return false;
         }
     }
@@ -141,7 +144,7 @@ public class GroupApiHandler {
             encodePathSegment(username),
             encodePathSegment(groupName));
     
-        System.out.println("Validating group assignment - URL: " + url);
+        LOG.debug("Validating group assignment - URL: {}", url);
         
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
@@ -149,9 +152,9 @@ public class GroupApiHandler {
                 .build();
     
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            System.out.println("Validation response code: " + response.statusCode());
-            System.out.println("Validation response body: " + response.body());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groups.validateGroupAssignment", request,
+                    HttpResponse.BodyHandlers.ofString());
+            LOG.debug("Validation response: {} {}", response, response.body());
             
             if (response.statusCode() == 200) {
                 return null;
@@ -160,7 +163,7 @@ public class GroupApiHandler {
             }
         } catch (IOException | InterruptedException e) {
             String error = "An error occurred while validating group assignment: " + e.getMessage();
-            System.out.println(error);
+            LOG.warn(error);
             return error;
         }
     }
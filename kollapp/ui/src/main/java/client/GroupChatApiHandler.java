@@ -18,10 +18,20 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import core.GroupChat;
 import core.Message;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Handler class for interacting with the GroupChat REST API.
  */
 public class GroupChatApiHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(GroupChatApiHandler.class);
+
+    /**
+     * The number of the newest messages of a chat kept in the {@link ClientCache}.
+     */
+    static final int CACHED_MESSAGES = 100;
+
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String baseUrl = "http://localhost:8080/api/v1/groupchats/";
@@ -43,7 +53,7 @@ public class GroupChatApiHandler {
     }
 
     protected HttpClient createHttpClient() {
-        return HttpClient.newHttpClient();
+        return ApiCall.newHttpClient();
     }
 
     /**
@@ -63,28 +73,33 @@ public class GroupChatApiHandler {
                     .header("Accept", "application/json")
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groupchats.createGroupChat", request,
+
+                    HttpResponse.BodyHandlers.ofString());
 
             if (response.statusCode() == 201) {
-                System.out.println("Group chat created successfully.");
+                LOG.debug("Group chat created successfully.");
                 return true;
             } else {
-                System.out.println("Failed to create group chat. Status Code: " + response.statusCode());
+                LOG.warn("Failed to create group chat. Response: {}", response);
                 return false;
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while creating group chat: " + e.getMessage());
+            LOG.warn("An error occurred while creating group chat: {}", e.getMessage());
             return false;
         }
     }
 
     /**
-     * Retrieves a GroupChat from the API.
+     * Retrieves a GroupChat from the API. The newest {@link #CACHED_MESSAGES} messages are cached, and
+     * returned if the server cannot be reached.
      *
      * @param groupName The name of the group chat to retrieve.
      * @return An Optional containing the GroupChat if found; otherwise, Optional.empty().
      */
     public Optional<GroupChat> getGroupChat(String groupName) {
+        ClientCache cache = ClientCache.getShared();
+        String key = "groupchats/" + groupName;
         try {
             String encodedGroupName = encodePathSegment(groupName);
             String url = baseUrl + encodedGroupName;
@@ -95,56 +110,84 @@ public class GroupChatApiHandler {
                     .header("Accept", "application/json")
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groupchats.getGroupChat", request,
+
+                    HttpResponse.BodyHandlers.ofString());
 
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
                 GroupChat groupChat = objectMapper.readValue(responseBody, GroupChat.class);
+                if (cache.isEnabled()) {
+                    cache.storeFromServer(key, objectMapper.writeValueAsString(recentMessages(groupChat)));
+                    cache.replayInBackground();
+                }
                 return Optional.of(groupChat);
             } else {
-                System.out.println("Group chat not found. Status Code: " + response.statusCode());
+                LOG.warn("Group chat not found. Response: {}", response);
                 return Optional.empty();
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while retrieving group chat: " + e.getMessage());
-            return Optional.empty();
+            LOG.warn("An error occurred while retrieving group chat: {}", e.getMessage());
+            return cache.getBody(key).flatMap(body -> {
+                try {
+                    return Optional.of(objectMapper.readValue(body, GroupChat.class));
+                } catch (IOException readError) {
+                    return Optional.empty();
+                }
+            });
         }
     }
 
     /**
-     * Sends a message to a specific group chat by making an HTTP POST request to the API.
+     * Sends a message to a specific group chat by making an HTTP POST request to the API. If the server
+     * cannot be reached, the message is queued to be sent when it is back.
      *
      * @param groupName The name of the group chat.
      * @param message   The message to send.
-     * @return true if the message was sent successfully; false otherwise.
+     * @return true if the message was sent or queued successfully; false otherwise.
      */
     public boolean sendMessage(String groupName, Message message) {
+        String encodedGroupName = encodePathSegment(groupName);
+        String url = baseUrl + encodedGroupName + "/messages";
+        String requestBody;
         try {
-            String encodedGroupName = encodePathSegment(groupName);
-            String url = baseUrl + encodedGroupName + "/messages";
+            requestBody = objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
+            LOG.warn("An error occurred while sending message: {}", e.getMessage());
+            return false;
+        }
+        return ClientCache.getShared().append("groupchats.sendMessage", url, requestBody, () -> {
+            try {
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create(url))
+                        .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                        .header("Content-Type", "application/json")
+                        .header("Accept", "application/json")
+                        .build();
 
-            String requestBody = objectMapper.writeValueAsString(message);
+                HttpResponse<String> response = ApiCall.send(httpClient, "groupchats.sendMessage", request,
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .header("Content-Type", "application/json")
-                    .header("Accept", "application/json")
-                    .build();
+                        HttpResponse.BodyHandlers.ofString());
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200 || response.statusCode() == 201) {
-                System.out.println("Message sent successfully.");
-                return true;
-            } else {
-                System.out.println("Failed to send message. Status Code: " + response.statusCode());
-                return false;
+                if (response.statusCode() == 200 || response.statusCode() == 201) {
+                    LOG.debug("Message sent successfully.");
+                    return true;
+                } else {
+                    LOG.warn("Failed to send message. Response: {}", response);
+                    return false;
+                }
+            } catch (IOException e) {
+                LOG.warn("An error occurred while sending message: {}", e.getMessage());
+                throw e;
             }
-        } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while sending message: " + e.getMessage());
-            return false;
-        }
+        });
+    }
+
+    private static GroupChat recentMessages(GroupChat groupChat) {
+        List<Message> messages = groupChat.getMessages();
+        GroupChat recent = new GroupChat();
+        messages.subList(Math.max(0, messages.size() - CACHED_MESSAGES), messages.size()).forEach(recent::addMessage);
+        return recent;
     }
 
     /**
@@ -164,18 +207,20 @@ public class GroupChatApiHandler {
                     .header("Accept", "application/json")
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "groupchats.getMessages", request,
+
+                    HttpResponse.BodyHandlers.ofString());
 
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
                 List<Message> messages = objectMapper.readValue(responseBody, new TypeReference<List<Message>>() { });
                 return Optional.of(messages);
             } else {
-                System.out.println("Failed to retrieve messages. Status Code: " + response.statusCode());
+                LOG.warn("Failed to retrieve messages. Response: {}", response);
                 return Optional.empty();
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while retrieving messages: " + e.getMessage());
+            LOG.warn("An error occurred while retrieving messages: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -196,11 +241,13 @@ public class GroupChatApiHandler {
                     .method("HEAD", HttpRequest.BodyPublishers.noBody())
                     .build();
 
-            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            HttpResponse<Void> response = ApiCall.send(httpClient, "groupchats.groupChatExists", request,
+
+                    HttpResponse.BodyHandlers.discarding());
 
             return response.statusCode() == 200;
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while checking group chat existence: " + e.getMessage());
+            LOG.warn("An error occurred while checking group chat existence: {}", e.getMessage());
             return false;
         }
     }
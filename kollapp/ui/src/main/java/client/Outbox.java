@@ -0,0 +1,364 @@
+package client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The changes made while the server could not be reached, kept on disk in the order they were made and
+ * replayed once the server is back.
+ *
+ * <p>A replacement of a whole resource, such as a to-do list, remembers the hash of the body it was based
+ * on. Before it is replayed, the resource is fetched again: if someone else changed it in the meantime,
+ * the change is dropped as a {@link #getConflicts() conflict} and the cache takes the body from the
+ * server. Later replacements of a resource that is already queued are merged into the queued one, since
+ * only the last body matters. Appends, such as chat messages, and edits the server merges, such as those
+ * of a group to-do list, are replayed without a check.</p>
+ */
+public final class Outbox {
+    private static final Logger LOG = LoggerFactory.getLogger(Outbox.class);
+
+    private final ClientCache cache;
+    private final Path file;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Mutation> queue = new ArrayList<>();
+    private final List<Mutation> conflicts = new ArrayList<>();
+    private final Object replayLock = new Object();
+    private HttpClient httpClient;
+
+    Outbox(ClientCache cache, Path file) throws IOException {
+        this.cache = cache;
+        this.file = file;
+        if (Files.exists(file)) {
+            queue.addAll(objectMapper.readValue(file.toFile(), new TypeReference<List<Mutation>>() { }));
+        }
+    }
+
+    /**
+     * Queues a change. A replacement of a resource that already has a queued replacement takes its place
+     * in the queue, keeping the base of the queued one.
+     *
+     * @param mutation the change to queue
+     * @throws IllegalArgumentException if the mutation is null
+     */
+    public synchronized void enqueue(Mutation mutation) {
+        if (mutation == null) {
+            throw new IllegalArgumentException("Mutation cannot be null");
+        }
+        int queued = indexOfReplacement(mutation.getKey());
+        if (mutation.isReplacement() && queued >= 0) {
+            queue.set(queued, queue.get(queued).withBody(mutation.getBody()));
+        } else {
+            queue.add(mutation);
+        }
+        save();
+        LOG.info("Queued {} for when the server is back ({} queued)", mutation.getAction(), queue.size());
+    }
+
+    /**
+     * Returns whether a change of a resource is queued.
+     *
+     * @param key the key of the resource
+     * @return true if a change of the resource is waiting for the server
+     */
+    public synchronized boolean hasPending(String key) {
+        if (key == null) {
+            return false;
+        }
+        for (Mutation mutation : queue) {
+            if (key.equals(mutation.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of queued changes.
+     *
+     * @return the size of the queue
+     */
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the changes dropped because the resource changed on the server before they were replayed.
+     *
+     * @return the conflicting changes, oldest first
+     */
+    public synchronized List<Mutation> getConflicts() {
+        return List.copyOf(conflicts);
+    }
+
+    /**
+     * Replays the queued changes with a client of its own.
+     *
+     * @return the number of changes the server accepted
+     */
+    public int replay() {
+        HttpClient client;
+        synchronized (this) {
+            if (httpClient == null) {
+                httpClient = ApiCall.newHttpClient();
+            }
+            client = httpClient;
+        }
+        return replay(client);
+    }
+
+    /**
+     * Replays the queued changes in order, stopping at the first one the server cannot be reached for.
+     * Changes the server rejects are dropped, so one bad change does not block the others.
+     *
+     * @param client the client to send the changes with
+     * @return the number of changes the server accepted
+     */
+    public int replay(HttpClient client) {
+        synchronized (replayLock) {
+            int accepted = 0;
+            while (true) {
+                Mutation next;
+                synchronized (this) {
+                    if (queue.isEmpty()) {
+                        return accepted;
+                    }
+                    next = queue.get(0);
+                }
+                Outcome outcome;
+                String serverBody = null;
+                try {
+                    serverBody = next.getBaseHash() == null ? null : fetch(client, next);
+                    if (next.getBaseHash() != null
+                            && (serverBody == null || !next.getBaseHash().equals(ClientCache.hash(serverBody)))) {
+                        outcome = Outcome.CONFLICT;
+                    } else {
+                        outcome = send(client, next) ? Outcome.ACCEPTED : Outcome.REJECTED;
+                    }
+                } catch (IOException e) {
+                    LOG.debug("Server still unreachable, keeping {} queued changes: {}", size(), e.getMessage());
+                    return accepted;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return accepted;
+                }
+                if (outcome == Outcome.ACCEPTED) {
+                    accepted++;
+                }
+                complete(next, outcome, serverBody);
+            }
+        }
+    }
+
+    private void complete(Mutation sent, Outcome outcome, String serverBody) {
+        boolean removed;
+        synchronized (this) {
+            if (outcome == Outcome.ACCEPTED && queue.get(0) != sent) {
+                // A later change was merged into this one while it was sent: keep it, based on what was sent
+                queue.set(0, queue.get(0).withBaseHash(ClientCache.hash(sent.getBody())));
+                removed = false;
+            } else {
+                Mutation dropped = queue.remove(0);
+                removed = true;
+                if (outcome == Outcome.CONFLICT) {
+                    conflicts.add(dropped);
+                }
+            }
+            save();
+        }
+        switch (outcome) {
+            case ACCEPTED:
+                if (removed && sent.isReplacement()) {
+                    cache.storeFromServer(sent.getKey(), sent.getBody());
+                }
+                break;
+            case CONFLICT:
+                LOG.warn("Dropped {}: {} was changed on the server while offline", sent.getAction(), sent.getKey());
+                if (serverBody != null) {
+                    cache.storeFromServer(sent.getKey(), serverBody);
+                }
+                break;
+            default:
+                LOG.warn("Dropped {}: the server rejected it", sent.getAction());
+                break;
+        }
+    }
+
+    private String fetch(HttpClient client, Mutation mutation) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(mutation.getUrl()))
+                .GET()
+                .build();
+        HttpResponse<String> response = ApiCall.send(client, mutation.getAction() + ".check", request,
+                HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? response.body() : null;
+    }
+
+    private boolean send(HttpClient client, Mutation mutation) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(mutation.getUrl()))
+                .method(mutation.getMethod(), HttpRequest.BodyPublishers.ofString(mutation.getBody()))
+                .header("Content-Type", "application/json")
+                .build();
+        HttpResponse<String> response = ApiCall.send(client, mutation.getAction(), request,
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 500) {
+            throw new IOException("Server error " + response.statusCode());
+        }
+        return response.statusCode() / 100 == 2;
+    }
+
+    private int indexOfReplacement(String key) {
+        for (int i = 0; i < queue.size(); i++) {
+            Mutation queued = queue.get(i);
+            if (queued.isReplacement() && queued.getKey().equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void save() {
+        try {
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temporary, objectMapper.writeValueAsBytes(queue));
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not save the outbox: {}", e.getMessage());
+        }
+    }
+
+    private enum Outcome {
+        ACCEPTED, CONFLICT, REJECTED
+    }
+
+    /**
+     * A queued change: a request to send again once the server is back.
+     */
+    public static final class Mutation {
+        private final String action;
+        private final String method;
+        private final String url;
+        private final String body;
+        private final String key;
+        private final String baseHash;
+
+        /**
+         * Constructs a mutation.
+         *
+         * @param action the name of the API call, for example {@code todolists.updateToDoList}
+         * @param method the HTTP method
+         * @param url the URL to send the body to
+         * @param body the JSON body
+         * @param key the cache key of the replaced resource, or null for an append
+         * @param baseHash the hash of the body the replacement is based on, or null to skip the check
+         */
+        @JsonCreator
+        public Mutation(@JsonProperty("action") String action, @JsonProperty("method") String method,
+                @JsonProperty("url") String url, @JsonProperty("body") String body,
+                @JsonProperty("key") String key, @JsonProperty("baseHash") String baseHash) {
+            this.action = action;
+            this.method = method;
+            this.url = url;
+            this.body = body;
+            this.key = key;
+            this.baseHash = baseHash;
+        }
+
+        /**
+         * Creates a replacement of a whole resource with {@code PUT}.
+         *
+         * @param action the name of the API call
+         * @param url the URL of the resource, also used to check it for changes
+         * @param body the new body
+         * @param key the cache key of the resource
+         * @param baseHash the hash of the body the change is based on, or null to skip the check
+         * @return the mutation
+         */
+        public static Mutation put(String action, String url, String body, String key, String baseHash) {
+            return new Mutation(action, "PUT", url, body, key, baseHash);
+        }
+
+        /**
+         * Creates an edit that the server merges into a resource, with {@code PATCH}. It is replayed
+         * without a conflict check, and kept apart from the other changes of the resource.
+         *
+         * @param action the name of the API call
+         * @param url the URL to send the edit to
+         * @param body the edit
+         * @param key the cache key of the edited resource
+         * @return the mutation
+         */
+        public static Mutation patch(String action, String url, String body, String key) {
+            return new Mutation(action, "PATCH", url, body, key, null);
+        }
+
+        /**
+         * Creates an append with {@code POST}.
+         *
+         * @param action the name of the API call
+         * @param url the URL to post to
+         * @param body the body to post
+         * @return the mutation
+         */
+        public static Mutation post(String action, String url, String body) {
+            return new Mutation(action, "POST", url, body, null, null);
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getBaseHash() {
+            return baseHash;
+        }
+
+        boolean isReplacement() {
+            return key != null && "PUT".equals(method);
+        }
+
+        Mutation withBody(String newBody) {
+            return new Mutation(action, method, url, newBody, key, baseHash);
+        }
+
+        Mutation withBaseHash(String newBaseHash) {
+            return new Mutation(action, method, url, body, key, newBaseHash);
+        }
+    }
+}
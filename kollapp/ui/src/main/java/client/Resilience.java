@@ -0,0 +1,349 @@
+package client;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timeouts, retries and circuit breakers for the calls of {@link ApiCall}, so a slow server does not hang
+ * the app and a server that is down is not waited for on every click.
+ *
+ * <ul>
+ *   <li>Every request gets a timeout: {@value #READ_TIMEOUT_SECONDS} seconds for reads,
+ *   {@value #WRITE_TIMEOUT_SECONDS} seconds for writes, or {@code kollapp.client.timeout.<action>}
+ *   milliseconds if that system property is set, for example
+ *   {@code kollapp.client.timeout.groupchats.getGroupChat}.</li>
+ *   <li>Idempotent requests ({@code GET}, {@code HEAD}, {@code PUT}, {@code PATCH}, {@code DELETE}) are
+ *   retried after a connection failure, a timeout, or a 502, 503 or 504 response. {@code PATCH} counts as
+ *   idempotent because the only one sent is a stamped to-do list delta, which the server merges the same way
+ *   however often it arrives. The wait before each retry is random up to an exponentially growing bound, so
+ *   clients do not retry in step. {@code POST} is never retried.</li>
+ *   <li>Each action has a {@link CircuitBreaker}. While it is open, calls fail at once with a
+ *   {@link CircuitOpenException}. A call that ends without a response or an {@link IOException}, for example
+ *   because the thread was interrupted, counts as a failure, so a probe it was making is released.</li>
+ * </ul>
+ *
+ * <p>The shared instance is {@link #disabled()}, which only applies timeouts, until the app sets
+ * {@link #defaults()}. The counts of calls, retries, timeouts and rejected calls are kept per action, and
+ * listeners are told when a breaker changes state.</p>
+ */
+public final class Resilience {
+    private static final Logger LOG = LoggerFactory.getLogger(Resilience.class);
+
+    /**
+     * The prefix of the system properties that set the timeout of an action, in milliseconds.
+     */
+    public static final String TIMEOUT_PROPERTY_PREFIX = "kollapp.client.timeout.";
+
+    static final long READ_TIMEOUT_SECONDS = 5;
+    static final long WRITE_TIMEOUT_SECONDS = 10;
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "PATCH", "DELETE");
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private static volatile Resilience shared = disabled();
+
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final LongSupplier clock;
+    private final Sleeper sleeper;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, CircuitBreaker.State>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs the policy.
+     *
+     * @param maxAttempts the number of attempts of an idempotent request, at least 1
+     * @param baseBackoff the bound of the wait before the first retry, doubled for each further retry
+     * @param maxBackoff the largest bound of the wait before a retry
+     * @param failureThreshold the number of failed calls in a row that opens a breaker, or 0 to never open
+     * @param openDuration how long an open breaker rejects calls before it lets a probe through
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public Resilience(int maxAttempts, Duration baseBackoff, Duration maxBackoff, int failureThreshold,
+            Duration openDuration) {
+        this(maxAttempts, baseBackoff, maxBackoff, failureThreshold, openDuration, System::nanoTime, Thread::sleep);
+    }
+
+    Resilience(int maxAttempts, Duration baseBackoff, Duration maxBackoff, int failureThreshold,
+            Duration openDuration, LongSupplier clock, Sleeper sleeper) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (baseBackoff == null || baseBackoff.isNegative() || maxBackoff == null || maxBackoff.isNegative()) {
+            throw new IllegalArgumentException("Backoff cannot be negative");
+        }
+        if (failureThreshold < 0 || openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Failure threshold and open duration cannot be negative");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Returns the policy the app uses: 3 attempts, waits of up to 100 ms doubling to 2 s, and breakers
+     * that open after 5 failures in a row for 10 seconds.
+     *
+     * @return a new policy with the default settings
+     */
+    public static Resilience defaults() {
+        return new Resilience(3, Duration.ofMillis(100), Duration.ofSeconds(2), 5, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Returns a policy that only applies timeouts: one attempt and no breakers.
+     *
+     * @return a new disabled policy
+     */
+    public static Resilience disabled() {
+        return new Resilience(1, Duration.ZERO, Duration.ZERO, 0, Duration.ZERO);
+    }
+
+    /**
+     * Returns the policy {@link ApiCall} uses.
+     *
+     * @return the shared policy
+     */
+    public static Resilience getShared() {
+        return shared;
+    }
+
+    /**
+     * Sets the policy {@link ApiCall} uses.
+     *
+     * @param resilience the policy, or null for {@link #disabled()}
+     */
+    public static void setShared(Resilience resilience) {
+        shared = resilience == null ? disabled() : resilience;
+    }
+
+    /**
+     * Returns the timeout of a request.
+     *
+     * @param action the name of the API call
+     * @param method the HTTP method
+     * @return the timeout set for the action, or the default for reads or writes
+     */
+    public static Duration timeout(String action, String method) {
+        String configured = System.getProperty(TIMEOUT_PROPERTY_PREFIX + action);
+        if (configured != null) {
+            try {
+                return Duration.ofMillis(Long.parseLong(configured.trim()));
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring invalid timeout {} for {}", configured, action);
+            }
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        return Duration.ofSeconds(read ? READ_TIMEOUT_SECONDS : WRITE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Makes a call through the breaker of its action, retrying it if it is idempotent.
+     *
+     * @param <T> the type of the response body
+     * @param action the name of the API call
+     * @param method the HTTP method
+     * @param call sends the request once
+     * @return the response of the last attempt
+     * @throws CircuitOpenException if the breaker of the action is open
+     * @throws IOException if the last attempt failed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public <T> HttpResponse<T> execute(String action, String method, Call<T> call)
+            throws IOException, InterruptedException {
+        CircuitBreaker breaker = breakers.computeIfAbsent(action,
+                ignored -> new CircuitBreaker(failureThreshold, openDuration, clock));
+        Statistics stats = statistics.computeIfAbsent(action, ignored -> new Statistics());
+        stats.calls.incrementAndGet();
+        CircuitBreaker.State before = breaker.getState();
+        if (!breaker.tryAcquire()) {
+            stats.rejected.incrementAndGet();
+            throw new CircuitOpenException(action);
+        }
+        int attempts = IDEMPOTENT_METHODS.contains(method) ? maxAttempts : 1;
+        boolean recorded = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    HttpResponse<T> response = call.send();
+                    boolean serverError = response != null && response.statusCode() >= 500;
+                    if (!serverError) {
+                        recorded = true;
+                        breaker.onSuccess();
+                        return response;
+                    }
+                    if (attempt >= attempts || !RETRYABLE_STATUSES.contains(response.statusCode())) {
+                        stats.failures.incrementAndGet();
+                        recorded = true;
+                        breaker.onFailure();
+                        return response;
+                    }
+                } catch (IOException e) {
+                    if (e instanceof HttpTimeoutException) {
+                        stats.timeouts.incrementAndGet();
+                    }
+                    if (attempt >= attempts) {
+                        stats.failures.incrementAndGet();
+                        recorded = true;
+                        breaker.onFailure();
+                        throw e;
+                    }
+                }
+                stats.retries.incrementAndGet();
+                sleeper.sleep(backoff(attempt));
+            }
+        } finally {
+            if (!recorded) {
+                breaker.onFailure();
+            }
+            CircuitBreaker.State after = breaker.getState();
+            if (after != before) {
+                LOG.warn("Circuit for {} is now {}", action, after);
+                listeners.forEach(listener -> listener.accept(action, after));
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the breaker of an action.
+     *
+     * @param action the name of the API call
+     * @return the state, {@link CircuitBreaker.State#CLOSED} if the action was not called yet
+     */
+    public CircuitBreaker.State getState(String action) {
+        CircuitBreaker breaker = breakers.get(action);
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * Returns the states of the breakers by action.
+     *
+     * @return the states of all actions called so far, sorted by action
+     */
+    public Map<String, CircuitBreaker.State> getStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        breakers.forEach((action, breaker) -> states.put(action, breaker.getState()));
+        return states;
+    }
+
+    /**
+     * Returns whether any breaker is not closed, meaning the server is down or was until recently.
+     *
+     * @return true if calls of some action are being rejected or probed
+     */
+    public boolean isDegraded() {
+        return breakers.values().stream().anyMatch(breaker -> breaker.getState() != CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Returns the counts of an action.
+     *
+     * @param action the name of the API call
+     * @return the counts, or null if the action was not called yet
+     */
+    public Statistics getStatistics(String action) {
+        return statistics.get(action);
+    }
+
+    /**
+     * Adds a listener that is told when a breaker changes state, on the thread of the call.
+     *
+     * @param listener called with the action and its new state
+     */
+    public void addStateListener(BiConsumer<String, CircuitBreaker.State> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addStateListener(BiConsumer)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeStateListener(BiConsumer<String, CircuitBreaker.State> listener) {
+        listeners.remove(listener);
+    }
+
+    private long backoff(int attempt) {
+        long bound = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Sends a request once.
+     *
+     * @param <T> the type of the response body
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+
+        /**
+         * Sends the request.
+         *
+         * @return the response
+         * @throws IOException if the request fails
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        HttpResponse<T> send() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Waits before a retry.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /**
+     * The counts of one action.
+     */
+    public static final class Statistics {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        public long getRetries() {
+            return retries.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getRejected() {
+            return rejected.get();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the saves of a resource made in quick succession and sends only the last one, so ticking
+ * several tasks sends one request with the whole list instead of one per click.
+ *
+ * <p>A save is sent at the latest one window after the first save of a resource that is still waiting,
+ * on a background thread. {@link #flush()} sends all waiting saves at once, for example before another
+ * list is shown or the app is closed; views call {@link #flushInBackground()} instead, so the UI thread
+ * does not wait for the server. Saves are sent one at a time, in the order their resources were first
+ * saved.</p>
+ *
+ * <p>Each save reports its result to its own callback; the callbacks of saves replaced by a later one are
+ * not called. If a save fails, the later saves of the resource that are already waiting are dropped as
+ * well, since they contain the failed changes.</p>
+ */
+public final class SaveQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(SaveQueue.class);
+
+    /**
+     * How long the first save of a resource waits for more saves.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(300);
+
+    private static final SaveQueue SHARED = new SaveQueue(DEFAULT_WINDOW);
+
+    private final long windowMillis;
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private final Object sendLock = new Object();
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param window how long the first save of a resource waits for more saves
+     * @throws IllegalArgumentException if the window is null or negative
+     */
+    public SaveQueue(Duration window) {
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("Window cannot be negative");
+        }
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Returns the queue the views save through.
+     *
+     * @return the shared queue
+     */
+    public static SaveQueue getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Queues a save, replacing the one of the same resource that is still waiting.
+     *
+     * @param key the resource, for example {@code todolists/alice}
+     * @param save sends the save, returning whether it succeeded
+     * @param onResult called on the sending thread with the result, unless the save is replaced
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public void submit(String key, BooleanSupplier save, Consumer<Boolean> onResult) {
+        if (key == null || save == null || onResult == null) {
+            throw new IllegalArgumentException("Key, save and callback cannot be null");
+        }
+        boolean first;
+        synchronized (this) {
+            first = pending.put(key, new Pending(save, onResult)) == null;
+        }
+        if (first) {
+            executor().schedule(() -> send(key), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns whether a save of a resource is waiting.
+     *
+     * @param key the resource
+     * @return true if a save is waiting to be sent
+     */
+    public synchronized boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Returns the number of resources with a waiting save.
+     *
+     * @return the number of waiting saves
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Sends all waiting saves on the calling thread, and waits for a save that is being sent.
+     */
+    public void flush() {
+        synchronized (sendLock) {
+            List<String> keys;
+            synchronized (this) {
+                keys = new ArrayList<>(pending.keySet());
+            }
+            for (String key : keys) {
+                send(key);
+            }
+        }
+    }
+
+    /**
+     * Sends all waiting saves on the queue's background thread, like {@link #flush()}.
+     *
+     * @return completed once the saves waiting when this is called are sent
+     */
+    public CompletableFuture<Void> flushInBackground() {
+        return CompletableFuture.runAsync(this::flush, executor());
+    }
+
+    private void send(String key) {
+        synchronized (sendLock) {
+            Pending next;
+            synchronized (this) {
+                next = pending.remove(key);
+            }
+            if (next == null) {
+                return;
+            }
+            boolean saved;
+            try {
+                saved = next.save.getAsBoolean();
+            } catch (RuntimeException e) {
+                LOG.warn("Saving {} failed: {}", key, e.getMessage());
+                saved = false;
+            }
+            if (!saved) {
+                synchronized (this) {
+                    if (pending.remove(key) != null) {
+                        LOG.warn("Dropped the later changes of {} after a failed save", key);
+                    }
+                }
+            }
+            next.onResult.accept(saved);
+        }
+    }
+
+    private synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kollapp-saves");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static final class Pending {
+        private final BooleanSupplier save;
+        private final Consumer<Boolean> onResult;
+
+        private Pending(BooleanSupplier save, Consumer<Boolean> onResult) {
+            this.save = save;
+            this.onResult = onResult;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package client;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the {@code Server-Timing} headers of the API responses, so a slow action in the app can be
+ * traced to the server phase it spent its time in: {@code lock}, {@code read}, {@code deserialize},
+ * {@code logic}, {@code serialize} or {@code write}.
+ *
+ * <p>Statistics are kept per action, for example {@code groupchats.getGroupChat}, and per phase. Two
+ * client-side phases are added: {@code client}, the whole time until the response arrived, and
+ * {@code network}, the part of it the server did not account for. Requests slower than the slow
+ * threshold are logged with their breakdown.</p>
+ */
+public final class ServerTimings {
+    private static final Logger LOG = LoggerFactory.getLogger(ServerTimings.class);
+
+    /**
+     * The name of the response header.
+     */
+    public static final String HEADER = "Server-Timing";
+
+    private static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofSeconds(1);
+    private static final ServerTimings SHARED = new ServerTimings(DEFAULT_SLOW_THRESHOLD);
+
+    private final long slowThresholdNanos;
+    private final Map<String, Map<String, Statistics>> actions = new LinkedHashMap<>();
+
+    /**
+     * Constructs an empty collector.
+     *
+     * @param slowThreshold the client time from which a request is logged
+     * @throws IllegalArgumentException if the threshold is null or negative
+     */
+    public ServerTimings(Duration slowThreshold) {
+        if (slowThreshold == null || slowThreshold.isNegative()) {
+            throw new IllegalArgumentException("Slow threshold cannot be negative");
+        }
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Returns the collector {@link ApiCall} records into.
+     *
+     * @return the shared collector
+     */
+    public static ServerTimings getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Parses a {@code Server-Timing} header value. Metrics without a duration are skipped.
+     *
+     * @param header the header value, for example {@code read;dur=1.2, total;dur=3.4}
+     * @return the durations in milliseconds by metric name, in header order
+     */
+    public static Map<String, Double> parse(String header) {
+        Map<String, Double> durations = new LinkedHashMap<>();
+        if (header == null) {
+            return durations;
+        }
+        for (String metric : header.split(",")) {
+            String[] parameters = metric.split(";");
+            String name = parameters[0].trim();
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (!name.isEmpty() && parameter.startsWith("dur=")) {
+                    try {
+                        durations.merge(name, Double.parseDouble(parameter.substring("dur=".length())), Double::sum);
+                    } catch (NumberFormatException e) {
+                        // Ignore malformed durations rather than failing the request
+                    }
+                }
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Records the timing of one response.
+     *
+     * @param action the name to collect the timing under
+     * @param clientNanos the time from sending the request until the response arrived
+     * @param headers the response headers, possibly without a {@code Server-Timing} header
+     */
+    public void record(String action, long clientNanos, HttpHeaders headers) {
+        Map<String, Double> phases = parse(headers == null ? null : headers.firstValue(HEADER).orElse(null));
+        double clientMillis = clientNanos / 1_000_000.0;
+        Double serverMillis = phases.get("total");
+        phases.put("client", clientMillis);
+        if (serverMillis != null) {
+            phases.put("network", Math.max(0, clientMillis - serverMillis));
+        }
+
+        synchronized (this) {
+            Map<String, Statistics> statistics = actions.computeIfAbsent(action, key -> new LinkedHashMap<>());
+            phases.forEach((phase, millis) -> statistics.computeIfAbsent(phase, key -> new Statistics()).add(millis));
+        }
+        if (clientNanos >= slowThresholdNanos && LOG.isInfoEnabled()) {
+            LOG.info("Slow request {}: {}", action, format(phases));
+        }
+    }
+
+    /**
+     * Returns the actions that have been recorded.
+     *
+     * @return the action names, sorted
+     */
+    public synchronized Set<String> getActions() {
+        return new TreeSet<>(actions.keySet());
+    }
+
+    /**
+     * Returns the statistics of one action.
+     *
+     * @param action the action
+     * @return copies of the statistics by phase, empty if the action has not been recorded
+     */
+    public synchronized Map<String, Statistics> getStatistics(String action) {
+        Map<String, Statistics> copy = new LinkedHashMap<>();
+        actions.getOrDefault(action, Collections.emptyMap()).forEach((phase, stats) -> copy.put(phase, stats.copy()));
+        return copy;
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public synchronized void reset() {
+        actions.clear();
+    }
+
+    private static String format(Map<String, Double> phases) {
+        StringBuilder text = new StringBuilder();
+        phases.forEach((phase, millis) -> {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(phase).append('=').append(String.format(Locale.ROOT, "%.1fms", millis));
+        });
+        return text.toString();
+    }
+
+    /**
+     * The count, total and maximum of the durations of one phase, in milliseconds.
+     */
+    public static final class Statistics {
+        private long count;
+        private double totalMillis;
+        private double maxMillis;
+
+        private void add(double millis) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        private Statistics copy() {
+            Statistics copy = new Statistics();
+            copy.count = count;
+            copy.totalMillis = totalMillis;
+            copy.maxMillis = maxMillis;
+            return copy;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+    }
+}
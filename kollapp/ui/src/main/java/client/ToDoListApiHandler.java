@@ -1,9 +1,14 @@
 package client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import core.HybridClock;
+import core.ReplicatedToDoList;
 import core.ToDoList;
 import core.User;
 import core.UserGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
@@ -13,13 +18,18 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 public class ToDoListApiHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(ToDoListApiHandler.class);
+    private static final HybridClock CLOCK = new HybridClock();
+
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final DeltaSync sync;
     private final String baseUrl = "http://localhost:8080/api/v1/todolists";
 
     public ToDoListApiHandler() {
@@ -27,10 +37,11 @@ public class ToDoListApiHandler {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.sync = new DeltaSync(httpClient, DeltaSync.TASKS);
     }
 
     protected HttpClient createHttpClient() {
-        return HttpClient.newHttpClient();
+        return ApiCall.newHttpClient();
     }
 
     private String encodePathSegment(String segment) {
@@ -39,28 +50,35 @@ public class ToDoListApiHandler {
     }
 
     /**
-     * Loads the to-do list for a specific user.
+     * Loads the to-do list for a specific user. If the list is cached, only the tasks changed since are
+     * fetched. If the server cannot be reached, the cached list is returned.
      *
      * @param user the user whose to-do list is to be loaded
      * @return the ToDoList object if successful, null otherwise
      */
     public Optional<ToDoList> loadToDoList(User user) {
         String url = baseUrl + "/" + encodePathSegment(user.getUsername());
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+        return ClientCache.getShared()
+                .load(cacheKey(user), sync.fetch(url, "todolists.loadToDoList",
+                        "todolists.getToDoListChanges"))
+                .flatMap(this::readToDoList);
+    }
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return Optional.of(objectMapper.readValue(response.body(), ToDoList.class));
-            } else {
-                return Optional.empty();
-            }
-        } catch (IOException | InterruptedException e) {
-            return Optional.empty();
-        }
+    /**
+     * Returns the cached to-do list of a user at once, and fetches it from the server in the background.
+     * If the list is not cached, it is loaded like {@link #loadToDoList(User)}.
+     *
+     * @param user the user whose to-do list is to be loaded
+     * @param onRefresh called on a background thread with the list from the server, if it differs from the
+     *     cached one
+     * @return the cached or loaded list, or empty if there is none
+     */
+    public Optional<ToDoList> loadToDoList(User user, Consumer<ToDoList> onRefresh) {
+        String url = baseUrl + "/" + encodePathSegment(user.getUsername());
+        return ClientCache.getShared()
+                .loadCachedFirst(cacheKey(user), sync.fetch(url, "todolists.loadToDoList",
+                        "todolists.getToDoListChanges"), body -> readToDoList(body).ifPresent(onRefresh))
+                .flatMap(this::readToDoList);
     }
 
     /**
@@ -76,7 +94,8 @@ public class ToDoListApiHandler {
                 .POST(HttpRequest.BodyPublishers.noBody())
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "todolists.assignToDoList", request,
+                    HttpResponse.BodyHandlers.ofString());
             int statusCode = response.statusCode();
             return statusCode == 201 || statusCode == 200;
         } catch (IOException | InterruptedException e) {
@@ -85,7 +104,8 @@ public class ToDoListApiHandler {
     }
 
     /**
-     * Updates the to-do list for a specific user.
+     * Updates the to-do list for a specific user. If the server cannot be reached, the list is cached and
+     * queued to be sent when it is back.
      *
      * @param user The user whose to-do list is being updated.
      * @param toDoList the updated ToDoList object
@@ -97,66 +117,132 @@ public class ToDoListApiHandler {
         }
 
         String url = baseUrl + "/" + encodePathSegment(user.getUsername());
-
-        try {
-            String jsonBody = objectMapper.writeValueAsString(toDoList);
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
-                    .header("Content-Type", "application/json")
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200;
-        } catch (IOException | InterruptedException e) {
-            return false;
-        }
+        return replace(url, "todolists.updateToDoList", cacheKey(user), toDoList);
     }
 
     /**
-     * Loads the to-do list for a specific user group.
+     * Loads the to-do list for a specific user group. If the list is cached, only the tasks changed since
+     * are fetched. If the server cannot be reached, the cached list is returned.
      *
      * @param userGroup the user group whose to-do list is to be loaded
      * @return the ToDoList object if successful, null otherwise
      */
     public Optional<ToDoList> loadGroupToDoList(UserGroup userGroup) {
         String url = baseUrl + "/groups/" + URLEncoder.encode(userGroup.getGroupName(), StandardCharsets.UTF_8);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return Optional.of(objectMapper.readValue(response.body(), ToDoList.class));
-            } else {
-                System.err.println("Failed to load group to-do list. Status code: " + response.statusCode());
-                return Optional.empty();
-            }
-        } catch (IOException | InterruptedException e) {
-            return Optional.empty();
-        }
+        return ClientCache.getShared()
+                .load(cacheKey(userGroup), sync.fetch(url, "todolists.loadGroupToDoList",
+                        "todolists.getGroupToDoListChanges"))
+                .flatMap(this::readToDoList);
+    }
+
+    /**
+     * Returns the cached to-do list of a group at once, and fetches it from the server in the background.
+     * If the list is not cached, it is loaded like {@link #loadGroupToDoList(UserGroup)}.
+     *
+     * @param userGroup the user group whose to-do list is to be loaded
+     * @param onRefresh called on a background thread with the list from the server, if it differs from the
+     *     cached one
+     * @return the cached or loaded list, or empty if there is none
+     */
+    public Optional<ToDoList> loadGroupToDoList(UserGroup userGroup, Consumer<ToDoList> onRefresh) {
+        String url = baseUrl + "/groups/" + URLEncoder.encode(userGroup.getGroupName(), StandardCharsets.UTF_8);
+        return ClientCache.getShared()
+                .loadCachedFirst(cacheKey(userGroup), sync.fetch(url, "todolists.loadGroupToDoList",
+                        "todolists.getGroupToDoListChanges"), body -> readToDoList(body).ifPresent(onRefresh))
+                .flatMap(this::readToDoList);
     }
 
     /**
-     * Updates the to-do list for a specific user group.
+     * Updates the to-do list for a specific user group. The list is not replaced: what differs from the
+     * cached list is merged like {@link #mergeGroupToDoList}, so changes other members made since the list
+     * was loaded are kept. Without a cached list, its tasks are merged and none are removed. If the server
+     * cannot be reached, the list is cached and the changes are queued to be sent when it is back.
      *
      * @param userGroup the user group whose to-do list is to be updated
      * @param toDoList  the updated ToDoList object
      * @return true if successful, false otherwise
      */
     public boolean updateGroupToDoList(UserGroup userGroup, ToDoList toDoList) {
+        ToDoList base = ClientCache.getShared().getBody(cacheKey(userGroup))
+                .flatMap(this::readToDoList)
+                .orElseGet(ToDoList::new);
+        return mergeGroupToDoList(userGroup, base, toDoList);
+    }
+
+    /**
+     * Sends the changes made to a group's to-do list, so the server merges them with the changes other
+     * members made at the same time instead of replacing the list. Only the tasks that differ from the
+     * base are sent. If the server cannot be reached, the edited list is cached and the changes are queued
+     * to be sent when it is back.
+     *
+     * @param userGroup the user group whose to-do list is edited
+     * @param base the list the edit was made on, as last loaded from or accepted by the server
+     * @param edited the edited list
+     * @return true if the server merged the changes or they were queued, false otherwise
+     */
+    public boolean mergeGroupToDoList(UserGroup userGroup, ToDoList base, ToDoList edited) {
         String url = baseUrl + "/groups/" + encodePathSegment(userGroup.getGroupName());
+        String action = "todolists.mergeGroupToDoList";
+        String jsonBody;
+        String delta;
         try {
-            String jsonBody = objectMapper.writeValueAsString(toDoList);
+            jsonBody = objectMapper.writeValueAsString(edited);
+            delta = objectMapper.writeValueAsString(ReplicatedToDoList.delta(base, edited, CLOCK.next()));
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+        return ClientCache.getShared().merge(cacheKey(userGroup), action, url, jsonBody, delta, () -> {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(delta))
+                    .header("Content-Type", "application/json")
+                    .build();
+            HttpResponse<String> response = ApiCall.send(httpClient, action, request,
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                LOG.warn("Failed to merge the to-do list of {}. Response: {}", userGroup.getGroupName(), response);
+                return null;
+            }
+            return new ClientCache.Fetched(response.body(), DeltaSync.version(response));
+        });
+    }
+
+    /**
+     * Sends a to-do list to the server, or queues it in the cache's outbox while the server is down.
+     */
+    private boolean replace(String url, String action, String key, ToDoList toDoList) {
+        String jsonBody;
+        try {
+            jsonBody = objectMapper.writeValueAsString(toDoList);
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+        return ClientCache.getShared().replace(key, action, url, jsonBody, () -> {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
                     .header("Content-Type", "application/json")
                     .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, action, request,
+                    HttpResponse.BodyHandlers.ofString());
             return response.statusCode() == 200;
-        } catch (IOException | InterruptedException e) {
-            return false;
+        });
+    }
+
+    private Optional<ToDoList> readToDoList(String body) {
+        try {
+            return Optional.of(objectMapper.readValue(body, ToDoList.class));
+        } catch (JsonProcessingException e) {
+            LOG.warn("Could not read to-do list: {}", e.getMessage());
+            return Optional.empty();
         }
     }
+
+    private static String cacheKey(User user) {
+        return "todolists/" + user.getUsername();
+    }
+
+    private static String cacheKey(UserGroup userGroup) {
+        return "todolists/groups/" + userGroup.getGroupName();
+    }
 }
@@ -13,7 +13,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import core.User;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class UserApiHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(UserApiHandler.class);
+
     private final HttpClient httpClient;
 
     public UserApiHandler() {
@@ -21,7 +26,7 @@ public class UserApiHandler {
     }
 
     protected HttpClient createHttpClient() {
-        return HttpClient.newHttpClient();
+        return ApiCall.newHttpClient();
     }
 
     /**
@@ -38,7 +43,8 @@ public class UserApiHandler {
                 .GET()
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.userExists", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
                 return Boolean.parseBoolean(response.body().trim());
             } else {
@@ -46,7 +52,7 @@ public class UserApiHandler {
                 return false;
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while retrieving user data: " + e.getMessage());
+            LOG.warn("An error occurred while retrieving user data: {}", e.getMessage());
             return false;
         }
     }
@@ -61,17 +67,18 @@ public class UserApiHandler {
                 .POST(HttpRequest.BodyPublishers.ofString(formData))
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.loadUser", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
                 ObjectMapper objectMapper = new ObjectMapper();
                 return Optional.of(objectMapper.readValue(responseBody, User.class));
             } else {
-                System.err.println("Error: " + response.statusCode() + " - " + response.body());
+                LOG.warn("Error: {} - {}", response, response.body());
                 return Optional.empty();
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while retrieving user data: " + e.getMessage());
+            LOG.warn("An error occurred while retrieving user data: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -88,16 +95,17 @@ public class UserApiHandler {
                 .POST(HttpRequest.BodyPublishers.ofString(formData))
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.confirmNewValidUser", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
                 return Boolean.parseBoolean(responseBody);
             } else {
-                System.err.println("Error: " + response.statusCode() + " - " + response.body());
+                LOG.warn("Error: {} - {}", response, response.body());
                 return false;
             }
         } catch (Exception e) {
-            System.out.println("An error occurred while validating user data: " + e.getMessage());
+            LOG.warn("An error occurred while validating user data: {}", e.getMessage());
             return false;
         }
     }
@@ -110,7 +118,7 @@ public class UserApiHandler {
         try {
             jsonInputString = objectMapper.writeValueAsString(user);
         } catch (Exception e) {
-            System.out.println("An error occurred while retrieving user data: " + e.getMessage());
+            LOG.warn("An error occurred while retrieving user data: {}", e.getMessage());
             return;
         }
     
@@ -122,15 +130,15 @@ public class UserApiHandler {
                 .build();
     
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.saveUser", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                String responseBody = response.body();
-                System.out.println(responseBody);
+                LOG.debug("Saved user: {}", response.body());
             } else {
-                System.err.println("Error: " + response.statusCode() + " - " + response.body());
+                LOG.warn("Error: {} - {}", response, response.body());
             }
         } catch (Exception e) {
-            System.out.println("An error occurred while saving user data: " + e.getMessage());
+            LOG.warn("An error occurred while saving user data: {}", e.getMessage());
         }
     }
 
@@ -146,7 +154,8 @@ public class UserApiHandler {
                 .POST(HttpRequest.BodyPublishers.ofString(formData))
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.getUserValidationErrorMessage", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
                 String responseBody = response.body();
                 return String.valueOf(responseBody);
@@ -154,7 +163,7 @@ public class UserApiHandler {
                 return "Error: " + response.statusCode() + " - " + response.body();
             }
         } catch (Exception e) {
-            System.out.println("An error occurred while validating user: " + e.getMessage());
+            LOG.warn("An error occurred while validating user: {}", e.getMessage());
             return "An error occurred while validating the user.";
         }
     }
@@ -166,21 +175,22 @@ public class UserApiHandler {
                 .DELETE()
                 .build();
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.removeUser", request,
+                    HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
                 return true;
             } else if (response.statusCode() == 400) {
-                System.err.println("Bad Request: The server could not understand the request due to invalid syntax.");
+                LOG.warn("Bad Request: The server could not understand the request due to invalid syntax.");
                 return false;
             } else if (response.statusCode() == 500) {
-                System.err.println("Internal Server Error: The server encountered an unexpected condition.");
+                LOG.warn("Internal Server Error: The server encountered an unexpected condition.");
                 return false;
             } else {
-                System.err.println("Error: " + response.statusCode() + " - " + response.body());
+                LOG.warn("Error: {} - {}", response, response.body());
                 return false;
             }
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred while trying to remove user: " + e.getMessage());
+            LOG.warn("An error occurred while trying to remove user: {}", e.getMessage());
             return false;
         }
     }
@@ -198,12 +208,13 @@ public class UserApiHandler {
                 .build();
     
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = ApiCall.send(httpClient, "users.assignGroupToUser", request,
+                    HttpResponse.BodyHandlers.ofString());
     
     
             return response.statusCode() == 200 || response.statusCode() == 201;
         } catch (IOException | InterruptedException e) {
-            System.out.println("An error occurred assigning group to user: " + e.getMessage());
+            LOG.warn("An error occurred assigning group to user: {}", e.getMessage());
             return false;
         }
     }
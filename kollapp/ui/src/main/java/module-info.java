@@ -5,6 +5,7 @@ module ui {
     requires transitive javafx.graphics;
     requires transitive javafx.base;
     requires java.net.http;
+    requires org.slf4j;
     requires transitive com.fasterxml.jackson.databind;
     requires transitive com.fasterxml.jackson.datatype.jsr310;
 
@@ -2,11 +2,9 @@ package ui;
 
 import java.time.LocalDate;
 
-import client.ToDoListApiHandler;
 import core.Task;
 import core.ToDoList;
 import core.User;
-import core.UserGroup;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -40,13 +38,12 @@ public class AddNewTaskController {
     private TextArea taskDescriptionField;
     
     private ToDoList toDoList;
-    private ToDoListApiHandler toDoListApiHandler;
     private User user;
     private KollAppController kollAppController;
 
     /**
      * Initializes the task window with the provided user, to-do list, and main controller.
-     * Sets up the to-do list handler and populates the priority field with priority names.
+     * Populates the priority field with priority names.
      *
      * @param user The user associated with the task window.
      * @param toDoList The to-do list to be managed in the task window.
@@ -57,16 +54,14 @@ public class AddNewTaskController {
         this.toDoList = toDoList;
         this.user = user;
         this.kollAppController = kollAppController;
-        this.toDoListApiHandler = new ToDoListApiHandler();
         priorityField.getItems().addAll(Task.PRIORITY_NAMES);
     }
 
     /**
      * Handles the action of adding a new task to the to-do list.
      * Collects the task details (name, description, date, priority) entered by the user,
-     * creates a new task, and updates the to-do list accordingly. Depending on the context,
-     * the task is added either to the group’s to-do list or to the user's personal list.
-     * After updating, the view is refreshed, and the window is closed.
+     * creates a new task, and adds it to the to-do list in view, which the main controller
+     * then saves. After updating, the view is refreshed, and the window is closed.
      *
      * @param event The event triggered by clicking the "Add Task" button.
      */
@@ -81,14 +76,8 @@ public class AddNewTaskController {
             Task newTask = new Task(taskName, dateTime, description, priority);
             toDoList.addTask(newTask);
 
-            UserGroup groupInView = kollAppController.getGroupInView();
-            if (groupInView != null) {
-                // Add task to the group's to-do list
-                toDoListApiHandler.updateGroupToDoList(groupInView, toDoList);
-            } else {
-                // Add task to the user's personal to-do list
-                toDoListApiHandler.updateToDoList(user, toDoList);
-            }
+            // Save through the main view, so the task is sent together with other queued changes of the list
+            kollAppController.saveToDoList();
             kollAppController.updateTableView();
 
             // Close the current window
@@ -1,41 +1,63 @@
 package ui;
 
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import client.GroupChatApiHandler;
 import core.GroupChat;
 import core.Message;
 import core.User;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
-import javafx.scene.layout.VBox;
 
 /**
  * Controller class for handling the group chat UI.
+ *
+ * <p>Messages are shown in a {@link ListView}, which only creates cells for the rows that are visible
+ * and reuses them while scrolling. The list starts with the newest {@link #PAGE_SIZE} messages, and an
+ * older page is added each time the user scrolls to the top. Refreshing only appends the messages that
+ * are new since the last refresh, so the rows already shown are kept.</p>
  */
 public class GroupChatController {
 
-    @FXML
-    private ScrollPane viewMessagePane;
+    /**
+     * The number of messages shown when the chat opens and added each time the user scrolls to the top.
+     */
+    static final int PAGE_SIZE = 100;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MMM dd, HH:mm");
 
     @FXML
-    private TextArea messageTextArea;
+    private ListView<Message> messageList;
 
     @FXML
-    private VBox vboxMessages;
+    private TextArea messageTextArea;
 
+    private final ObservableList<Message> shownMessages = FXCollections.observableArrayList();
+    private List<Message> history = List.of();
+    private boolean loadingOlderMessages;
     private User user;
     private GroupChatApiHandler groupChatApiHandler;
-    private String groupName; 
+    private String groupName;
 
     protected void setGroupChatApiHandler(GroupChatApiHandler groupChatApiHandler) {
         this.groupChatApiHandler = groupChatApiHandler;
     }
 
+    @FXML
+    private void initialize() {
+        messageList.setItems(shownMessages);
+        messageList.setCellFactory(MessageCell::new);
+    }
+
     @FXML
     public void initializeGroupChatWindow(User user, String groupName) {
         this.user = user;
@@ -58,47 +80,106 @@ public class GroupChatController {
 
         updateMessageView();
     }
-    
+
+    /**
+     * Fetches the chat and appends the messages that are new since the last refresh, then scrolls to the
+     * newest message. The shown messages are replaced only if the chat no longer starts with them, for
+     * example after switching groups.
+     */
     protected void updateMessageView() {
         Optional<GroupChat> optionalGroupChat = groupChatApiHandler.getGroupChat(this.groupName);
-        if (!optionalGroupChat.isPresent()) {
-            vboxMessages.getChildren().clear();
-            return;
-        }
-        GroupChat groupChat = optionalGroupChat.get();
-        List<Message> messages = groupChat.getMessages();
-
-        // Clear the VBox before adding updated messages
-        vboxMessages.getChildren().clear();
-
-        // Add each message to the VBox
-        for (Message message : messages) {
-            String author = message.getAuthor();
-            String text = message.getText();
-            LocalDateTime timestamp = message.getTimestamp();
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, HH:mm");
-            String formattedTimestamp = timestamp.format(formatter);
-            TextArea messageArea = new TextArea("[" + formattedTimestamp + "] " + author + ": " + text);
-
-            // Set the message area properties
-            messageArea.setWrapText(true);
-            messageArea.setEditable(false); 
-            messageArea.setMinHeight(50); 
-            messageArea.setMaxHeight(50);
-
-            // Add the message to the VBox
-            vboxMessages.getChildren().add(messageArea);
+        List<Message> messages = optionalGroupChat.map(GroupChat::getMessages).orElse(List.of());
+
+        int known = history.size();
+        boolean appendOnly = known <= messages.size()
+                && (known == 0 || sameMessage(history.get(known - 1), messages.get(known - 1)));
+        history = List.copyOf(messages);
+        if (appendOnly && !shownMessages.isEmpty()) {
+            shownMessages.addAll(messages.subList(known, messages.size()));
+        } else {
+            shownMessages.setAll(messages.subList(Math.max(0, messages.size() - PAGE_SIZE), messages.size()));
         }
+
         // Clear the message text area after sending the message
         messageTextArea.clear();
 
-         // Scroll to the bottom to show the latest message
-        viewMessagePane.setVvalue(1.0);
+        // Scroll to the bottom to show the latest message
+        if (!shownMessages.isEmpty()) {
+            messageList.scrollTo(shownMessages.size() - 1);
+        }
     }
 
-    public VBox getVboxMessages() {
-        return vboxMessages;
+    /**
+     * Adds the page of messages before the oldest shown message, keeping the rows on screen in place.
+     *
+     * @return the number of messages added, 0 if the whole history is shown
+     */
+    protected int loadOlderMessages() {
+        int shownFrom = history.size() - shownMessages.size();
+        if (shownFrom <= 0) {
+            return 0;
+        }
+        int from = Math.max(0, shownFrom - PAGE_SIZE);
+        shownMessages.addAll(0, history.subList(from, shownFrom));
+        messageList.scrollTo(shownFrom - from);
+        return shownFrom - from;
     }
-}
 
+    public ListView<Message> getMessageList() {
+        return messageList;
+    }
+
+    static String formatMessage(Message message) {
+        return "[" + message.getTimestamp().format(TIMESTAMP_FORMAT) + "] " + message.getAuthor() + ": "
+            + message.getText();
+    }
+
+    private static boolean sameMessage(Message shown, Message fetched) {
+        return Objects.equals(shown.getAuthor(), fetched.getAuthor())
+            && Objects.equals(shown.getText(), fetched.getText())
+            && Objects.equals(shown.getTimestamp(), fetched.getTimestamp());
+    }
+
+    /**
+     * Loads the previous page once the first row becomes visible. The load is deferred because the list
+     * cannot change while it lays out its cells.
+     */
+    private void requestOlderMessages() {
+        if (loadingOlderMessages || history.size() == shownMessages.size()) {
+            return;
+        }
+        loadingOlderMessages = true;
+        Platform.runLater(() -> {
+            loadingOlderMessages = false;
+            loadOlderMessages();
+        });
+    }
+
+    /**
+     * A row of the chat. The list reuses a few of these for all messages, so a cell only swaps the text of
+     * its label when it is moved to another message.
+     */
+    private final class MessageCell extends ListCell<Message> {
+        private final Label label = new Label();
+
+        private MessageCell(ListView<Message> list) {
+            label.setWrapText(true);
+            label.maxWidthProperty().bind(list.widthProperty().subtract(30));
+            setPrefWidth(0);
+        }
+
+        @Override
+        protected void updateItem(Message message, boolean empty) {
+            super.updateItem(message, empty);
+            if (empty || message == null) {
+                setGraphic(null);
+                return;
+            }
+            label.setText(formatMessage(message));
+            setGraphic(label);
+            if (getIndex() == 0) {
+                requestOlderMessages();
+            }
+        }
+    }
+}
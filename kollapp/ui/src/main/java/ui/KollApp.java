@@ -1,17 +1,27 @@
 package ui;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import client.ClientCache;
+import client.Resilience;
+import client.SaveQueue;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The main class for the KollApp application.
  */
 public class KollApp extends Application {
+    private static final Logger LOG = LoggerFactory.getLogger(KollApp.class);
+    private static final long STOP_TIMEOUT_SECONDS = 30;
 
     /**
      * Starts the JavaFX application by setting up the primary stage.
@@ -21,6 +31,8 @@ public class KollApp extends Application {
      */
     @Override
     public void start(Stage stage) throws IOException {
+        Resilience.setShared(Resilience.defaults());
+        openCache();
         FXMLLoader fxmlLoader = new FXMLLoader(this.getClass().getResource("LoginScreen.fxml"));
         stage.setTitle("Login to KollApp");
         Parent parent = fxmlLoader.load();
@@ -28,6 +40,37 @@ public class KollApp extends Application {
         stage.show();
     }
 
+    /**
+     * Sends the saves still waiting and stops the background sync of the cache. Changes queued in the
+     * cache's outbox are sent the next time the app starts. The saves are sent on the queue's thread, and
+     * waited for at most {@value #STOP_TIMEOUT_SECONDS} seconds.
+     */
+    @Override
+    public void stop() {
+        try {
+            SaveQueue.getShared().flushInBackground().get(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOG.warn("Could not send the waiting saves before closing: {}", e.toString());
+        }
+        ClientCache.getShared().close();
+    }
+
+    /**
+     * Opens the cache the API handlers use, so views are shown from it and changes are queued while the
+     * server is down. The app runs without a cache if it cannot be opened.
+     */
+    private static void openCache() {
+        try {
+            ClientCache cache = ClientCache.open(ClientCache.defaultDirectory());
+            ClientCache.setShared(cache);
+            cache.replayInBackground();
+        } catch (IOException e) {
+            LOG.warn("Running without a local cache: {}", e.getMessage());
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -3,17 +3,32 @@ package ui;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
+import client.CircuitBreaker;
 import client.GroupApiHandler;
+import client.Resilience;
+import client.SaveQueue;
 import client.ToDoListApiHandler;
 import core.Task;
 import core.ToDoList;
 import core.User;
 import core.UserGroup;
 import javafx.animation.ScaleTransition;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -38,11 +53,16 @@ import javafx.stage.Modality;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Controller class for the KollApp application.
  */
 public class KollAppController {
+    private static final Logger LOG = LoggerFactory.getLogger(KollAppController.class);
+    private static final String SERVER_UNREACHABLE = "Server unreachable, showing saved data";
+    private static final String SAVE_FAILED = "Could not save your changes, they were undone";
 
     @FXML
     private GridPane taskGridView;
@@ -91,14 +111,33 @@ public class KollAppController {
 
     @FXML
     private Label currentlyViewingPath;
+
+    @FXML
+    private Label connectionStatusLabel;
     
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    /**
+     * The tasks of the to-do list in view. The pending and completed views filter this list, so a change
+     * to one task updates the view it belongs to without rebuilding either.
+     */
+    private final ObservableList<Task> tasks = FXCollections.observableArrayList();
+    private final SortedList<Task> pendingTasks = new SortedList<>(new FilteredList<>(tasks, task -> !task.isCompleted()));
+    private final SortedList<Task> completedTasks = new SortedList<>(new FilteredList<>(tasks, Task::isCompleted));
+
     private ToDoList toDoList;
+    private ToDoList savedToDoList;
     private User user;
     private String groupNameChat;
+    private String taskOwner;
     private UserGroup groupInView;
 
     private ToDoListApiHandler toDoListApiHandler = new ToDoListApiHandler();
     private GroupApiHandler groupApiHandler = new GroupApiHandler();
+    private SaveQueue saveQueue = SaveQueue.getShared();
+    private final Resilience resilience = Resilience.getShared();
+    private final BiConsumer<String, CircuitBreaker.State> connectionListener =
+            (action, state) -> Platform.runLater(this::updateConnectionStatus);
 
     public void setUser(User user) {
         this.user = user;
@@ -155,6 +194,20 @@ public class KollAppController {
         checkBoxColumn.setReorderable(false);
         checkBoxColumn.setResizable(false);
         checkBoxColumn.setSortable(false);
+
+        initializeColumns();
+        pendingTasks.comparatorProperty().bind(tableView.comparatorProperty());
+        completedTasks.comparatorProperty().bind(tableView.comparatorProperty());
+        tableView.setItems(pendingTasks);
+
+        // Show a warning while the server is not answering
+        resilience.addStateListener(connectionListener);
+        updateConnectionStatus();
+    }
+
+    private void updateConnectionStatus() {
+        connectionStatusLabel.setText(SERVER_UNREACHABLE);
+        connectionStatusLabel.setVisible(resilience.isDegraded());
     }
 
     /**
@@ -191,13 +244,15 @@ public class KollAppController {
      * @param user The user whose to-do list is to be displayed
      */
     public void initializeToDoList(User user) {
-        Optional<ToDoList> toDoList = toDoListApiHandler.loadToDoList(user);
+        this.taskOwner = user.getUsername();
+        Optional<ToDoList> toDoList = toDoListApiHandler.loadToDoList(user, refreshWhileViewing(taskOwner));
         if (toDoList.isPresent()) {
             this.toDoList = toDoList.get();
         } else {
             this.toDoList = new ToDoList();
         }
         this.user = user;
+        this.savedToDoList = new ToDoList(this.toDoList);
         updateTableView();
     }
 
@@ -286,15 +341,15 @@ public class KollAppController {
     private void handleLabelClick(MouseEvent event) {
         boolean isViewingCompletedTasks = completedLabel.getText().equals("Completed Tasks");
 
-        // Toggle task view based on current label state
+        // Toggle task view based on current label state. Both views are kept up to date, so switching
+        // only swaps the list shown by the table.
         if (isViewingCompletedTasks) {
             // Switch to Completed Tasks view
-            // this.updateGridViewCompletedTasks();
-            this.updateTableViewCompletedTasks();
+            tableView.setItems(completedTasks);
             completedLabel.setText("Pending Tasks");
         } else {
             // Switch to Pending Tasks view
-            this.updateTableView();
+            tableView.setItems(pendingTasks);
             completedLabel.setText("Completed Tasks");
         }
 
@@ -309,69 +364,179 @@ public class KollAppController {
         }
     }
 
+    /**
+     * Shows the pending tasks of the to-do list in view, after applying its changes to the table.
+     */
     @FXML
     public void updateTableView() {
-        // Clear the current items in the TableView
-        tableView.getItems().clear();
+        refreshTasks();
+        tableView.setItems(pendingTasks);
+    }
+
+    /**
+     * Applies the tasks of the to-do list in view to the list behind the table, as fine-grained changes.
+     * Tasks that are unchanged keep their rows, changed tasks are replaced in place, removed tasks are
+     * removed in one change, and new tasks are appended in one change.
+     */
+    private void refreshTasks() {
         if (toDoList == null) {
             toDoList = new ToDoList(); // Ensure toDoList is initialized
         }
-        
-        // Get the list of incomplete tasks and add them to the TableView
-        List<Task> tasks = toDoList.getTasks();
-        for (Task task : tasks) {
-            if (!task.isCompleted()) { // Only add incomplete tasks
-                tableView.getItems().add(task);
+        Map<Long, Task> fetched = new LinkedHashMap<>();
+        for (Task task : toDoList.getTasks()) {
+            fetched.put(task.getId(), task);
+        }
+
+        List<Task> removed = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task shown = tasks.get(i);
+            Task task = fetched.remove(shown.getId());
+            if (task == null) {
+                removed.add(shown);
+            } else if (!sameTask(shown, task)) {
+                tasks.set(i, task);
             }
         }
-    
-        // Set up the CheckBox column to mark tasks as completed when checked
+        tasks.removeAll(removed);
+        tasks.addAll(fetched.values());
+    }
+
+    /**
+     * Marks a task as completed, saves the to-do list and moves the task to the completed view.
+     *
+     * @param task the task shown in the table
+     */
+    private void completeTask(Task task) {
+        Task current = toDoList.getTask(task.getId());
+        if (current == null) {
+            return;
+        }
+        current.setCompleted(true);
+        saveToDoList();
+        int index = tasks.indexOf(task);
+        if (index >= 0) {
+            tasks.set(index, current);
+        }
+    }
+
+    /**
+     * Removes a completed task from the to-do list, saves it and removes the task from the table.
+     *
+     * @param task the task shown in the table
+     */
+    private void removeTask(Task task) {
+        if (toDoList.getTask(task.getId()) != null) {
+            toDoList.removeTask(task.getId());
+            saveToDoList();
+        }
+        tasks.remove(task);
+    }
+
+    /**
+     * Saves the to-do list in view. The change is already shown, so the save is queued: saves made in
+     * quick succession, such as ticking several tasks, are sent as one request. If the request fails, the
+     * list is rolled back to the last version the server accepted and a warning is shown. A group's list is
+     * not replaced: only what changed since the last accepted version is sent, and merged with the edits of
+     * other members.
+     */
+    public void saveToDoList() {
+        if (toDoList == null) {
+            return;
+        }
+        ToDoList snapshot = new ToDoList(toDoList);
+        ToDoList base = savedToDoList == null ? new ToDoList() : new ToDoList(savedToDoList);
+        User owner = user;
+        UserGroup group = groupInView;
+        String viewed = taskOwner;
+        saveQueue.submit(saveKey(), () -> group == null
+                ? toDoListApiHandler.updateToDoList(owner, snapshot)
+                : toDoListApiHandler.mergeGroupToDoList(group, base, snapshot),
+                saved -> Platform.runLater(() -> {
+                    if (saved) {
+                        if (Objects.equals(viewed, taskOwner)) {
+                            savedToDoList = snapshot;
+                        }
+                        if (SAVE_FAILED.equals(connectionStatusLabel.getText())) {
+                            updateConnectionStatus();
+                        }
+                    } else if (Objects.equals(viewed, taskOwner) && savedToDoList != null) {
+                        LOG.warn("Could not save the to-do list of {}, undoing the last changes", viewed);
+                        toDoList = new ToDoList(savedToDoList);
+                        refreshTasks();
+                        connectionStatusLabel.setText(SAVE_FAILED);
+                        connectionStatusLabel.setVisible(true);
+                    } else {
+                        LOG.warn("Could not save the to-do list of {}", viewed);
+                    }
+                }));
+    }
+
+    /**
+     * Sends the saves that are still queued, before another list is shown or the app is closed. They are
+     * sent on the queue's thread, since sending holds the queue while the server answers or is retried.
+     */
+    public void flushSaves() {
+        saveQueue.flushInBackground();
+    }
+
+    private String saveKey() {
+        return groupInView == null
+            ? "todolists/" + user.getUsername()
+            : "todolists/groups/" + groupInView.getGroupName();
+    }
+
+    private static boolean sameTask(Task shown, Task fetched) {
+        return shown.isCompleted() == fetched.isCompleted()
+            && Objects.equals(shown.getTaskName(), fetched.getTaskName())
+            && Objects.equals(shown.getDateTime(), fetched.getDateTime())
+            && Objects.equals(shown.getDescription(), fetched.getDescription())
+            && Objects.equals(shown.getPriority(), fetched.getPriority());
+    }
+
+    /**
+     * Sets up the columns of the table once. The cells are reused for whichever tasks are shown, so they
+     * read the task of their row instead of keeping one.
+     */
+    private void initializeColumns() {
+        // Set up the CheckBox column: checking a pending task completes it, unchecking a completed task removes it
         checkBoxColumn.setCellFactory(column -> new TableCell<>() {
-            private final CheckBox completeCheckBox = new CheckBox();
-    
+            private final CheckBox checkBox = new CheckBox();
+
+            {
+                checkBox.setOnAction(event -> {
+                    Task task = getTableRow().getItem();
+                    if (task == null) {
+                        return;
+                    }
+                    if (checkBox.isSelected() && !task.isCompleted()) {
+                        completeTask(task);
+                    } else if (!checkBox.isSelected() && task.isCompleted()) {
+                        removeTask(task);
+                    }
+                });
+            }
+
             @Override
             protected void updateItem(Boolean item, boolean empty) {
                 super.updateItem(item, empty);
-    
-                if (empty) {
+                if (empty || item == null) {
                     setGraphic(null);
                 } else {
-                    Task task = getTableView().getItems().get(getIndex());
-    
                     // Set the CheckBox state to reflect the task's completion status
-                    completeCheckBox.setSelected(task.isCompleted());
-    
-                    // Set action listener on the CheckBox
-                    completeCheckBox.setOnAction(event -> {
-                        if (completeCheckBox.isSelected()) {
-                            // Mark the task as completed
-                            task.setCompleted(true);
-    
-                            // Update the persistence layer
-                            if (groupInView == null) {
-                                toDoListApiHandler.updateToDoList(user, toDoList);
-                            } else {
-                                toDoListApiHandler.updateGroupToDoList(groupInView, toDoList);
-                            }
-    
-                            // Remove the task from the table directly without calling updateTableView
-                            tableView.getItems().remove(task);
-                        }
-                    });
-    
-                    // Display the CheckBox in the cell
-                    setGraphic(completeCheckBox);
+                    checkBox.setSelected(item);
+                    setGraphic(checkBox);
                 }
             }
         });
-    
+        checkBoxColumn.setCellValueFactory(cellData -> new SimpleBooleanProperty(cellData.getValue().isCompleted()));
+
         // Configure Task Name column
         taskNameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getTaskName()));
-    
+
         // Configure Date column with centered alignment
         dateColumn.setCellValueFactory(cellData -> {
             LocalDate dateTime = cellData.getValue().getDateTime();
-            String date = dateTime != null ? dateTime.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) : "";
+            String date = dateTime != null ? dateTime.format(DATE_FORMAT) : "";
             return new SimpleStringProperty(date);
         });
         dateColumn.setCellFactory(column -> new TableCell<>() {
@@ -386,10 +551,10 @@ public class KollAppController {
                 }
             }
         });
-    
+
         // Configure Description column
         descriptionColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getDescription()));
-    
+
         // Configure Priority column with centered alignment and color coding
         priorityColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPriority()));
         priorityColumn.setCellFactory(column -> new TableCell<>() {
@@ -425,6 +590,8 @@ public class KollAppController {
 
     @FXML
     public void logOut(ActionEvent event) {
+        flushSaves();
+        resilience.removeStateListener(connectionListener);
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("LoginScreen.fxml"));
             Parent root = fxmlLoader.load();
@@ -448,64 +615,31 @@ public class KollAppController {
         }
     }
 
+    /**
+     * Shows the completed tasks of the to-do list in view, after applying its changes to the table.
+     */
     @FXML
     public void updateTableViewCompletedTasks() {
-        // Clear the current items in the TableView
-        tableView.getItems().clear();
-    
-        // Get the list of completed tasks
-        List<Task> tasks = toDoList.getTasks();
-        for (Task task : tasks) {
-            if (task.isCompleted()) {
-                tableView.getItems().add(task);
-            }
-        }
-    
-        // Set up the CheckBox column to remove tasks when checked
-        checkBoxColumn.setCellFactory(column -> new TableCell<>() {
-            private final CheckBox removeCheckBox = new CheckBox();
-    
-            @Override
-            protected void updateItem(Boolean item, boolean empty) {
-                super.updateItem(item, empty);
-                
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    setGraphic(removeCheckBox);
-                    Task task = getTableView().getItems().get(getIndex());
-    
-                    // Set CheckBox state and action
-                    removeCheckBox.setSelected(true); // Checked by default
-                    removeCheckBox.setOnAction(event -> {
-                        if (!removeCheckBox.isSelected()) {
-                            // Remove task from ToDoList
-                            toDoList.removeTask(task);
-    
-                            // Update persistence layer
-                            if (groupInView == null) {
-                                toDoListApiHandler.updateToDoList(user, toDoList);
-                            } else {
-                                toDoListApiHandler.updateGroupToDoList(groupInView, toDoList);
-                            }
-    
-                            // Refresh the TableView to reflect the task removal
-                            updateTableViewCompletedTasks();
-                        }
-                    });
-                }
-            }
-        });
-    
-        // Configure other columns to display task data
-        taskNameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getTaskName()));
-        dateColumn.setCellValueFactory(cellData -> {
-            LocalDate dateTime = cellData.getValue().getDateTime();
-            String date = dateTime != null ? dateTime.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) : "";
-            return new SimpleStringProperty(date);
-        });
-        descriptionColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getDescription()));
-        priorityColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPriority()));
+        refreshTasks();
+        tableView.setItems(completedTasks);
+    }
+
+    /**
+     * Returns the pending tasks shown by the table, for tests.
+     *
+     * @return the pending tasks, in the order of the to-do list
+     */
+    protected ObservableList<Task> getPendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * Returns the completed tasks shown by the table, for tests.
+     *
+     * @return the completed tasks, in the order of the to-do list
+     */
+    protected ObservableList<Task> getCompletedTasks() {
+        return completedTasks;
     }
 
     /**
@@ -514,10 +648,12 @@ public class KollAppController {
      * @param taskOwner The name of the user or group whose tasks to display
      */
     public void changeCurrentTaskView(String taskOwner) {
+        flushSaves();
+        this.taskOwner = taskOwner;
         if (taskOwner.equals(this.user.getUsername())) {
             groupInView = null;
 
-            Optional<ToDoList> toDoList = toDoListApiHandler.loadToDoList(this.user);
+            Optional<ToDoList> toDoList = toDoListApiHandler.loadToDoList(this.user, refreshWhileViewing(taskOwner));
             if (toDoList.isPresent()) {
                 this.toDoList = toDoList.get();
             } else {
@@ -531,7 +667,7 @@ public class KollAppController {
                 this.groupNameChat = group.getGroupName();
                 groupInView = group;
                 try {
-                    this.toDoList = toDoListApiHandler.loadGroupToDoList(group).get();
+                    this.toDoList = toDoListApiHandler.loadGroupToDoList(group, refreshWhileViewing(taskOwner)).get();
                 } catch (IllegalArgumentException e) {
                     System.out.println("Error loading group tasks: " + e.getMessage());
                 }
@@ -539,6 +675,27 @@ public class KollAppController {
                 System.out.println("Group not found: " + taskOwner);
             }
         }
+        if (this.toDoList != null) {
+            this.savedToDoList = new ToDoList(this.toDoList);
+        }
+    }
+
+    /**
+     * Returns a callback for a to-do list shown from the cache: when the list arrives from the server, its
+     * changes are applied to the table, unless another list is in view by then.
+     *
+     * @param owner the name of the user or group whose list is loaded
+     * @return the callback, which may be called from any thread
+     */
+    private Consumer<ToDoList> refreshWhileViewing(String owner) {
+        return refreshed -> Platform.runLater(() -> {
+            // A queued save is newer than the list from the server
+            if (owner.equals(taskOwner) && !saveQueue.isPending(saveKey())) {
+                toDoList = refreshed;
+                savedToDoList = new ToDoList(refreshed);
+                refreshTasks();
+            }
+        });
     }
 
     /**
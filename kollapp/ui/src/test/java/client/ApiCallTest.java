@@ -0,0 +1,120 @@
+package client;
+
+import core.logging.CorrelationId;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link ApiCall} class.
+ */
+class ApiCallTest {
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:8080/api/v1/users/alice"))
+            .header("Accept", "application/json")
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        ServerTimings.getShared().reset();
+        CorrelationId.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> respond(String serverTiming) throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.headers()).thenReturn(HttpHeaders.of(
+                Map.of(ServerTimings.HEADER, List.of(serverTiming)), (name, value) -> true));
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+        return response;
+    }
+
+    private HttpRequest sentRequest() throws Exception {
+        ArgumentCaptor<HttpRequest> sent = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(sent.capture(), eq(HttpResponse.BodyHandlers.ofString()));
+        return sent.getValue();
+    }
+
+    @Test
+    @DisplayName("Calls are recorded in the shared server timings")
+    @Tag("send")
+    void sendRecordsServerTiming() throws Exception {
+        HttpResponse<String> response = respond("read;dur=1.5, total;dur=2");
+
+        assertSame(response, ApiCall.send(httpClient, "users.loadUser", request, HttpResponse.BodyHandlers.ofString()));
+
+        assertEquals(1, ServerTimings.getShared().getStatistics("users.loadUser").get("read").getCount());
+    }
+
+    @Test
+    @DisplayName("Every call carries a new correlation id and keeps the other headers")
+    @Tag("correlation")
+    void sendAddsNewCorrelationId() throws Exception {
+        respond("total;dur=1");
+
+        ApiCall.send(httpClient, "users.loadUser", request, HttpResponse.BodyHandlers.ofString());
+
+        HttpRequest sent = sentRequest();
+        assertTrue(CorrelationId.isValid(sent.headers().firstValue(CorrelationId.HEADER).orElse(null)));
+        assertEquals("application/json", sent.headers().firstValue("Accept").orElse(null));
+        assertEquals(request.uri(), sent.uri());
+    }
+
+    @Test
+    @DisplayName("Calls made while a correlation id is set use that id")
+    @Tag("correlation")
+    void sendUsesCurrentCorrelationId() throws Exception {
+        respond("total;dur=1");
+        CorrelationId.set("action-1");
+
+        ApiCall.send(httpClient, "users.loadUser", request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("action-1", sentRequest().headers().firstValue(CorrelationId.HEADER).orElse(null));
+    }
+
+    @Test
+    @DisplayName("Requests without a timeout get the default of their method")
+    @Tag("send")
+    void sendSetsTimeout() throws Exception {
+        respond("total;dur=1");
+
+        ApiCall.send(httpClient, "users.loadUser", request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(Optional.of(Duration.ofSeconds(5)), sentRequest().timeout());
+    }
+
+    @Test
+    @DisplayName("Failed calls are rethrown")
+    @Tag("send")
+    void sendRethrowsFailures() throws Exception {
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenThrow(new IOException("Connection refused"));
+
+        assertThrows(IOException.class,
+                () -> ApiCall.send(httpClient, "users.loadUser", request, HttpResponse.BodyHandlers.ofString()));
+        assertTrue(ServerTimings.getShared().getStatistics("users.loadUser").isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CircuitBreaker} class.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    @DisplayName("The breaker opens after the threshold of failures in a row")
+    @Tag("breaker")
+    void opensAfterThreshold() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("After the open duration one probe is let through and decides the state")
+    @Tag("breaker")
+    void probesAfterOpenDuration() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("A breaker with threshold 0 never opens, and invalid settings are rejected")
+    @Tag("breaker")
+    void zeroThresholdNeverOpens() {
+        CircuitBreaker never = new CircuitBreaker(0, Duration.ZERO, now::get);
+        for (int i = 0; i < 10; i++) {
+            never.onFailure();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, never.getState());
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(-1, Duration.ZERO, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1, Duration.ofSeconds(-1), now::get));
+    }
+}
@@ -0,0 +1,136 @@
+package client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ClientCache} class.
+ */
+class ClientCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private ClientCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Entries are versioned and kept on disk")
+    @Tag("cache")
+    void entriesArePersisted() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+        assertTrue(cache.storeFromServer("todolists/alice", "{\"tasks\":[]}"));
+        cache.storeLocal("todolists/alice", "{\"tasks\":[{\"taskName\":\"Milk\"}]}");
+
+        ClientCache reopened = ClientCache.open(cacheDirectory);
+        ClientCache.Entry entry = reopened.get("todolists/alice").orElseThrow();
+
+        assertEquals(2, entry.getVersion());
+        assertEquals("{\"tasks\":[{\"taskName\":\"Milk\"}]}", entry.getBody());
+        assertEquals(ClientCache.hash("{\"tasks\":[]}"), entry.getServerHash());
+        assertTrue(entry.isLocal());
+        assertTrue(reopened.get("todolists/bob").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Loading falls back to the cached body while the server is down")
+    @Tag("cache")
+    void loadFallsBackToCache() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+
+        assertEquals(Optional.of("{\"a\":1}"), cache.load("groups/flat", () -> "{\"a\":1}"));
+        assertEquals(Optional.of("{\"a\":1}"), cache.load("groups/flat", () -> {
+            throw new IOException("Connection refused");
+        }));
+        assertEquals(Optional.empty(), cache.load("groups/other", () -> {
+            throw new IOException("Connection refused");
+        }));
+    }
+
+    @Test
+    @DisplayName("Changes made while offline are cached and queued once per resource")
+    @Tag("cache")
+    void replaceQueuesWhileOffline() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+        cache.storeFromServer("todolists/alice", "{\"tasks\":[]}");
+        ClientCache.Send offline = () -> {
+            throw new IOException("Connection refused");
+        };
+
+        assertTrue(cache.replace("todolists/alice", "todolists.updateToDoList", "http://server/alice", "{\"v\":1}", offline));
+        assertTrue(cache.replace("todolists/alice", "todolists.updateToDoList", "http://server/alice", "{\"v\":2}",
+            () -> fail("A resource with a queued change must not be sent before the queue")));
+
+        assertEquals(1, cache.getOutbox().size());
+        assertTrue(cache.getOutbox().hasPending("todolists/alice"));
+        assertEquals(Optional.of("{\"v\":2}"), cache.getBody("todolists/alice"));
+        assertFalse(cache.storeFromServer("todolists/alice", "{\"tasks\":[]}"),
+            "A refresh must not replace a queued change");
+        assertEquals(Optional.of("{\"v\":2}"), cache.load("todolists/alice", () -> "{\"tasks\":[]}"));
+    }
+
+    @Test
+    @DisplayName("Edits merged by the server are queued apart and replayed without a conflict check")
+    @Tag("cache")
+    void mergeQueuesWhileOffline() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+        String url = "http://server/groups/flat";
+
+        assertTrue(cache.merge("todolists/groups/flat", "todolists.mergeGroupToDoList", url, "{\"v\":1}", "{\"d\":1}",
+            () -> new ClientCache.Fetched("{\"v\":0}", 7)));
+        assertEquals(7, cache.get("todolists/groups/flat").orElseThrow().getSequence());
+        assertTrue(cache.merge("todolists/groups/flat", "todolists.mergeGroupToDoList", url, "{\"v\":2}", "{\"d\":2}",
+            () -> {
+                throw new IOException("Connection refused");
+            }));
+        assertTrue(cache.merge("todolists/groups/flat", "todolists.mergeGroupToDoList", url, "{\"v\":3}", "{\"d\":3}",
+            () -> fail("A resource with a queued change must not be sent before the queue")));
+
+        assertEquals(2, cache.getOutbox().size(), "Merged edits must not replace each other in the queue");
+        assertTrue(cache.getOutbox().hasPending("todolists/groups/flat"));
+        assertEquals(Optional.of("{\"v\":3}"), cache.getBody("todolists/groups/flat"));
+    }
+
+    @Test
+    @DisplayName("The disabled cache keeps nothing and reports offline changes as failed")
+    @Tag("cache")
+    void disabledCacheKeepsNothing() {
+        ClientCache disabled = ClientCache.disabled();
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.storeFromServer("groups/flat", "{}"));
+        assertEquals(Optional.empty(), disabled.load("groups/flat", () -> {
+            throw new IOException("Connection refused");
+        }));
+        assertFalse(disabled.replace("groups/flat", "groups.update", "http://server/flat", "{}", () -> {
+            throw new IOException("Connection refused");
+        }));
+        assertFalse(disabled.append("groupchats.sendMessage", "http://server/flat", "{}", () -> {
+            throw new IOException("Connection refused");
+        }));
+    }
+
+    @Test
+    @DisplayName("Bodies are hashed independently of key order and whitespace")
+    @Tag("cache")
+    void hashIsCanonical() {
+        assertEquals(ClientCache.hash("{\"a\":1,\"b\":[2,3]}"), ClientCache.hash("{ \"b\": [2, 3], \"a\": 1 }"));
+        assertNotEquals(ClientCache.hash("{\"a\":1}"), ClientCache.hash("{\"a\":2}"));
+        assertEquals(ClientCache.hash("not json"), ClientCache.hash("not json"));
+    }
+}
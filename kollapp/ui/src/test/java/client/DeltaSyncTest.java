@@ -0,0 +1,124 @@
+package client;
+
+import core.ChangeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link DeltaSync} class.
+ */
+class DeltaSyncTest {
+    private static final String URL = "http://localhost:8080/api/v1/todolists/alice";
+    private static final String KEY = "todolists/alice";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final List<String> requested = new ArrayList<>();
+    private ClientCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(Map<String, HttpResponse<String>> responses) throws Exception {
+        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation -> {
+            HttpRequest request = invocation.getArgument(0);
+            String uri = request.uri().toString();
+            requested.add(uri.substring(URL.length()));
+            return responses.get(uri);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status, String body, String version) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        when(response.headers()).thenReturn(HttpHeaders.of(
+            version == null ? Map.of() : Map.of(ChangeSet.VERSION_HEADER, List.of(version)), (name, value) -> true));
+        return response;
+    }
+
+    @Test
+    @DisplayName("A cached to-do list is brought up to date with the changes since its version")
+    @Tag("sync")
+    void appliesChangesToCachedCopy() throws Exception {
+        cache.storeFromServer(KEY, "{\"tasks\":[{\"id\":\"1\",\"taskName\":\"Milk\"},{\"id\":\"2\",\"taskName\":\"Tea\"}]}", 100);
+        respond(Map.of(URL + "/changes?since=100", response(200,
+            "{\"version\":103,\"snapshotRequired\":false,\"changes\":["
+                + "{\"sequence\":101,\"type\":\"UPSERT\",\"key\":\"1\",\"value\":{\"id\":\"1\",\"taskName\":\"Oat milk\"}},"
+                + "{\"sequence\":102,\"type\":\"UPSERT\",\"key\":\"3\",\"value\":{\"id\":\"3\",\"taskName\":\"Eggs\"}},"
+                + "{\"sequence\":103,\"type\":\"REMOVE\",\"key\":\"2\"}]}", null)));
+
+        Optional<String> body = cache.load(KEY, new DeltaSync(httpClient, DeltaSync.TASKS)
+            .fetch(URL, "todolists.loadToDoList", "todolists.getToDoListChanges"));
+
+        String expected = "{\"tasks\":[{\"id\":\"1\",\"taskName\":\"Oat milk\"},{\"id\":\"3\",\"taskName\":\"Eggs\"}]}";
+        assertEquals(Optional.of(expected), body);
+        assertEquals(List.of("/changes?since=100"), requested);
+        assertEquals(103, cache.get(KEY).orElseThrow().getSequence());
+        assertEquals(ClientCache.hash(expected), cache.get(KEY).orElseThrow().getServerHash());
+    }
+
+    @Test
+    @DisplayName("A snapshot hint loads the whole aggregate and its version from the header")
+    @Tag("sync")
+    void loadsSnapshotWhenHinted() throws Exception {
+        cache.storeFromServer(KEY, "[{\"amount\":5}]", 100);
+        respond(Map.of(
+            URL + "/changes?since=100", response(200, "{\"version\":900,\"snapshotRequired\":true,\"changes\":[]}", null),
+            URL, response(200, "[{\"amount\":5},{\"amount\":7}]", "900")));
+
+        Optional<String> body = cache.load(KEY, new DeltaSync(httpClient, DeltaSync.EXPENSES)
+            .fetch(URL, "expenses.loadGroupExpenses", "expenses.getGroupExpenseChanges"));
+
+        assertEquals(Optional.of("[{\"amount\":5},{\"amount\":7}]"), body);
+        assertEquals(List.of("/changes?since=100", ""), requested);
+        assertEquals(900, cache.get(KEY).orElseThrow().getSequence());
+    }
+
+    @Test
+    @DisplayName("Nothing versioned in the cache loads the whole aggregate without asking for changes")
+    @Tag("sync")
+    void loadsWholeAggregateWithoutVersion() throws Exception {
+        respond(Map.of(URL, response(200, "{\"groupName\":\"flat\",\"users\":[\"alice\"]}", "42")));
+        DeltaSync sync = new DeltaSync(httpClient, DeltaSync.USERS);
+
+        cache.load(KEY, sync.fetch(URL, "groups.getGroup", "groups.getGroupChanges"));
+        cache.storeLocal(KEY, "{\"groupName\":\"flat\",\"users\":[\"alice\",\"bob\"]}");
+        cache.load(KEY, sync.fetch(URL, "groups.getGroup", "groups.getGroupChanges"));
+
+        assertEquals(List.of("", ""), requested);
+        assertEquals(42, cache.get(KEY).orElseThrow().getSequence());
+    }
+}
@@ -0,0 +1,134 @@
+package client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link Outbox} class.
+ */
+class OutboxTest {
+    private static final String URL = "http://localhost:8080/api/v1/todolists/alice";
+    private static final String KEY = "todolists/alice";
+    private static final String SERVER_BODY = "{\"tasks\":[]}";
+    private static final String LOCAL_BODY = "{\"tasks\":[{\"taskName\":\"Milk\"}]}";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private ClientCache cache;
+    private Outbox outbox;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = ClientCache.open(cacheDirectory);
+        outbox = cache.getOutbox();
+        cache.storeFromServer(KEY, SERVER_BODY);
+        outbox.enqueue(Outbox.Mutation.put("todolists.updateToDoList", URL, LOCAL_BODY, KEY,
+            cache.storeLocal(KEY, LOCAL_BODY)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(String method, int status, String body) throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        when(httpClient.send(argThat(request -> request != null && request.method().equals(method)), any()))
+            .thenReturn((HttpResponse) response);
+    }
+
+    private List<String> sentMethods() throws Exception {
+        ArgumentCaptor<HttpRequest> sent = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, atLeastOnce()).send(sent.capture(), any());
+        return sent.getAllValues().stream().map(HttpRequest::method).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("A queued change is sent once the server still has the version it was based on")
+    @Tag("outbox")
+    void replaySendsUnchangedResource() throws Exception {
+        respond("GET", 200, "{ \"tasks\": [] }");
+        respond("PUT", 200, "");
+
+        assertEquals(1, outbox.replay(httpClient));
+
+        assertEquals(List.of("GET", "PUT"), sentMethods());
+        assertEquals(0, outbox.size());
+        assertTrue(outbox.getConflicts().isEmpty());
+        assertFalse(cache.get(KEY).orElseThrow().isLocal());
+    }
+
+    @Test
+    @DisplayName("A queued change is dropped as a conflict if the resource changed on the server")
+    @Tag("outbox")
+    void replayDetectsConflict() throws Exception {
+        String changed = "{\"tasks\":[{\"taskName\":\"Bread\"}]}";
+        respond("GET", 200, changed);
+
+        assertEquals(0, outbox.replay(httpClient));
+
+        assertEquals(List.of("GET"), sentMethods());
+        assertEquals(0, outbox.size());
+        assertEquals(1, outbox.getConflicts().size());
+        assertEquals(LOCAL_BODY, outbox.getConflicts().get(0).getBody());
+        assertEquals(Optional.of(changed), cache.getBody(KEY));
+    }
+
+    @Test
+    @DisplayName("Queued changes stay on disk while the server is down")
+    @Tag("outbox")
+    void replayKeepsQueueWhileOffline() throws Exception {
+        when(httpClient.send(any(), any())).thenThrow(new IOException("Connection refused"));
+        outbox.enqueue(Outbox.Mutation.post("groupchats.sendMessage", URL + "/messages", "{\"text\":\"hi\"}"));
+
+        assertEquals(0, outbox.replay(httpClient));
+
+        assertEquals(2, outbox.size());
+        Outbox reopened = ClientCache.open(cacheDirectory).getOutbox();
+        assertEquals(2, reopened.size());
+        assertTrue(reopened.hasPending(KEY));
+    }
+
+    @Test
+    @DisplayName("Appends are replayed without a check, and rejected changes are dropped")
+    @Tag("outbox")
+    void replaySendsAppends() throws Exception {
+        respond("GET", 200, SERVER_BODY);
+        respond("PUT", 400, "");
+        respond("POST", 201, "");
+        outbox.enqueue(Outbox.Mutation.post("groupchats.sendMessage", URL + "/messages", "{\"text\":\"hi\"}"));
+
+        assertEquals(1, outbox.replay(httpClient));
+
+        assertEquals(List.of("GET", "PUT", "POST"), sentMethods());
+        assertEquals(0, outbox.size());
+        assertTrue(outbox.getConflicts().isEmpty());
+    }
+}
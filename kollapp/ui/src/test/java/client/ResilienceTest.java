@@ -0,0 +1,165 @@
+package client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link Resilience} class.
+ */
+class ResilienceTest {
+    private static final String ACTION = "todolists.loadToDoList";
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Long> waits = new ArrayList<>();
+    private final Resilience resilience = new Resilience(3, Duration.ofMillis(100), Duration.ofMillis(150), 2,
+        Duration.ofSeconds(10), now::get, waits::add);
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(Resilience.TIMEOUT_PROPERTY_PREFIX + ACTION);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Idempotent calls are retried with waits up to the growing bound")
+    @Tag("retry")
+    void retriesIdempotentCalls() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        HttpResponse<String> ok = response(200);
+
+        HttpResponse<String> result = resilience.execute(ACTION, "GET", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new HttpTimeoutException("request timed out");
+            }
+            return attempts.get() == 2 ? response(503) : ok;
+        });
+
+        assertSame(ok, result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, waits.size());
+        assertTrue(waits.get(0) >= 0 && waits.get(0) <= 100);
+        assertTrue(waits.get(1) >= 0 && waits.get(1) <= 150);
+        Resilience.Statistics statistics = resilience.getStatistics(ACTION);
+        assertEquals(1, statistics.getCalls());
+        assertEquals(2, statistics.getRetries());
+        assertEquals(1, statistics.getTimeouts());
+        assertEquals(0, statistics.getFailures());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState(ACTION));
+    }
+
+    @Test
+    @DisplayName("POST calls and client errors are not retried")
+    @Tag("retry")
+    void doesNotRetryPostsOrClientErrors() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IOException.class, () -> resilience.execute("groupchats.sendMessage", "POST", () -> {
+            attempts.incrementAndGet();
+            throw new IOException("Connection reset");
+        }));
+        assertEquals(404, resilience.execute(ACTION, "GET", () -> {
+            attempts.incrementAndGet();
+            return response(404);
+        }).statusCode());
+
+        assertEquals(2, attempts.get());
+        assertTrue(waits.isEmpty());
+    }
+
+    @Test
+    @DisplayName("An action that keeps failing is rejected without calling the server, then probed")
+    @Tag("breaker")
+    void opensCircuitPerAction() throws Exception {
+        List<String> changes = new ArrayList<>();
+        resilience.addStateListener((action, state) -> changes.add(action + "=" + state));
+        AtomicInteger attempts = new AtomicInteger();
+        Resilience.Call<String> failing = () -> {
+            attempts.incrementAndGet();
+            throw new IOException("Connection refused");
+        };
+
+        assertThrows(IOException.class, () -> resilience.execute(ACTION, "GET", failing));
+        assertThrows(IOException.class, () -> resilience.execute(ACTION, "GET", failing));
+        assertEquals(6, attempts.get());
+        assertTrue(resilience.isDegraded());
+
+        assertThrows(CircuitOpenException.class, () -> resilience.execute(ACTION, "GET", failing));
+        assertEquals(6, attempts.get());
+        assertEquals(1, resilience.getStatistics(ACTION).getRejected());
+        assertEquals(200, resilience.execute("users.loadUser", "GET", () -> response(200)).statusCode());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(200, resilience.execute(ACTION, "GET", () -> response(200)).statusCode());
+
+        assertFalse(resilience.isDegraded());
+        assertEquals(List.of(ACTION + "=OPEN", ACTION + "=CLOSED"), changes);
+    }
+
+    @Test
+    @DisplayName("A probe that is interrupted releases the breaker, so a later probe is let through")
+    @Tag("breaker")
+    void interruptedProbeIsReleased() throws Exception {
+        Resilience.Call<String> failing = () -> {
+            throw new IOException("Connection refused");
+        };
+        assertThrows(IOException.class, () -> resilience.execute(ACTION, "GET", failing));
+        assertThrows(IOException.class, () -> resilience.execute(ACTION, "GET", failing));
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThrows(InterruptedException.class, () -> resilience.execute(ACTION, "GET", () -> {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, resilience.getState(ACTION));
+            throw new InterruptedException();
+        }));
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState(ACTION));
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(200, resilience.execute(ACTION, "GET", () -> response(200)).statusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState(ACTION));
+    }
+
+    @Test
+    @DisplayName("PATCH calls are retried")
+    @Tag("retry")
+    void retriesPatchCalls() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        HttpResponse<String> result = resilience.execute("todolists.mergeGroupToDoList", "PATCH",
+            () -> attempts.incrementAndGet() == 1 ? response(503) : response(200));
+
+        assertEquals(200, result.statusCode());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Timeouts default by method and can be set per action")
+    @Tag("timeout")
+    void timeoutPerAction() {
+        assertEquals(Duration.ofSeconds(5), Resilience.timeout(ACTION, "GET"));
+        assertEquals(Duration.ofSeconds(10), Resilience.timeout(ACTION, "PUT"));
+
+        System.setProperty(Resilience.TIMEOUT_PROPERTY_PREFIX + ACTION, "250");
+
+        assertEquals(Duration.ofMillis(250), Resilience.timeout(ACTION, "GET"));
+    }
+}
@@ -0,0 +1,103 @@
+package client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SaveQueue} class.
+ */
+class SaveQueueTest {
+
+    @Test
+    @DisplayName("Saves of a resource within the window are sent as one")
+    @Tag("saves")
+    void coalescesSaves() throws InterruptedException {
+        SaveQueue queue = new SaveQueue(Duration.ofMillis(100));
+        List<String> sent = new CopyOnWriteArrayList<>();
+        List<Boolean> results = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 1; i <= 3; i++) {
+            String body = "v" + i;
+            queue.submit("todolists/alice", () -> sent.add(body), saved -> {
+                results.add(saved);
+                done.countDown();
+            });
+        }
+        assertTrue(queue.isPending("todolists/alice"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v3"), sent);
+        assertEquals(List.of(true), results);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Flushing sends the waiting saves at once, in order")
+    @Tag("saves")
+    void flushSendsAtOnce() {
+        SaveQueue queue = new SaveQueue(Duration.ofMinutes(1));
+        List<String> sent = new CopyOnWriteArrayList<>();
+
+        queue.submit("todolists/alice", () -> sent.add("alice"), saved -> { });
+        queue.submit("todolists/groups/flat", () -> sent.add("flat"), saved -> { });
+        queue.flush();
+
+        assertEquals(List.of("alice", "flat"), sent);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Flushing in the background sends the waiting saves on the queue's thread")
+    @Tag("saves")
+    void flushInBackgroundSendsOnQueueThread() throws Exception {
+        SaveQueue queue = new SaveQueue(Duration.ofMinutes(1));
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        queue.submit("todolists/alice", () -> threads.add(Thread.currentThread()), saved -> { });
+        queue.flushInBackground().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, threads.size());
+        assertNotSame(Thread.currentThread(), threads.get(0));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("A failed save reports the failure and drops the later saves of the resource")
+    @Tag("saves")
+    void failureDropsLaterSaves() throws InterruptedException {
+        SaveQueue queue = new SaveQueue(Duration.ofMinutes(1));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Boolean> results = new CopyOnWriteArrayList<>();
+        queue.submit("todolists/alice", () -> {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }, results::add);
+
+        Thread flusher = new Thread(queue::flush);
+        flusher.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        queue.submit("todolists/alice", () -> fail("A save after a failed one must be dropped"), results::add);
+        release.countDown();
+        flusher.join(5000);
+
+        assertEquals(List.of(false), results);
+        assertFalse(queue.isPending("todolists/alice"));
+        assertThrows(IllegalArgumentException.class, () -> new SaveQueue(Duration.ofMillis(-1)));
+    }
+}
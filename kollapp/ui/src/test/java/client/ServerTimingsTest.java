@@ -0,0 +1,79 @@
+package client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ServerTimings} class.
+ */
+class ServerTimingsTest {
+
+    private static final String HEADER_VALUE = "lock;dur=0.5, read;dur=1.25, deserialize;dur=2, logic;dur=0.25, "
+            + "total;dur=4";
+
+    private static HttpHeaders headers(String serverTiming) {
+        return HttpHeaders.of(Map.of(ServerTimings.HEADER, List.of(serverTiming)), (name, value) -> true);
+    }
+
+    @Test
+    @DisplayName("Parse a Server-Timing header into durations per metric")
+    @Tag("parse")
+    void parseHeader() {
+        Map<String, Double> durations = ServerTimings.parse(HEADER_VALUE + ", cache;desc=\"hit\", bad;dur=x");
+
+        assertEquals(List.of("lock", "read", "deserialize", "logic", "total"), List.copyOf(durations.keySet()));
+        assertEquals(1.25, durations.get("read"));
+        assertEquals(4.0, durations.get("total"));
+        assertTrue(ServerTimings.parse(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Record statistics per action and phase, including client and network time")
+    @Tag("record")
+    void recordStatistics() {
+        ServerTimings timings = new ServerTimings(Duration.ofMinutes(1));
+
+        timings.record("users.loadUser", 10_000_000, headers(HEADER_VALUE));
+        timings.record("users.loadUser", 6_000_000, headers("read;dur=3.25, total;dur=5"));
+
+        Map<String, ServerTimings.Statistics> statistics = timings.getStatistics("users.loadUser");
+        assertEquals(2, statistics.get("read").getCount());
+        assertEquals(4.5, statistics.get("read").getTotalMillis(), 1e-9);
+        assertEquals(3.25, statistics.get("read").getMaxMillis(), 1e-9);
+        assertEquals(1, statistics.get("lock").getCount());
+        assertEquals(8.0, statistics.get("client").getMeanMillis(), 1e-9);
+        assertEquals(7.0, statistics.get("network").getTotalMillis(), 1e-9);
+        assertEquals(Set.of("users.loadUser"), timings.getActions());
+        assertTrue(timings.getStatistics("users.saveUser").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Responses without the header only record the client time")
+    @Tag("record")
+    void recordWithoutHeader() {
+        ServerTimings timings = new ServerTimings(Duration.ofMinutes(1));
+
+        timings.record("groups.getGroup", 2_000_000, HttpHeaders.of(Map.of(), (name, value) -> true));
+        timings.record("groups.getGroup", 2_000_000, null);
+
+        Map<String, ServerTimings.Statistics> statistics = timings.getStatistics("groups.getGroup");
+        assertEquals(List.of("client"), List.copyOf(statistics.keySet()));
+        assertEquals(2, statistics.get("client").getCount());
+    }
+
+    @Test
+    @DisplayName("A negative slow threshold is rejected")
+    @Tag("constructor")
+    void negativeThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ServerTimings(Duration.ofMillis(-1)));
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import client.ToDoListApiHandler;
+import core.Task;
 import core.ToDoList;
 import core.User;
 import core.UserGroup;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -19,6 +21,7 @@ import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -238,7 +241,7 @@ class ToDoListApiHandlerTest {
     }
 
     @Test
-    @DisplayName("Update group to-do list - Success scenario")
+    @DisplayName("Update group to-do list - Success scenario, merged with PATCH")
     @Tag("updateGroupToDoList")
     public void updateGroupToDoList_Success() throws IOException, InterruptedException {
         when(mockResponse.statusCode()).thenReturn(200);
@@ -248,7 +251,8 @@ class ToDoListApiHandlerTest {
         boolean result = toDoListApiHandler.updateGroupToDoList(testGroup, testToDoList);
 
         assertTrue(result);
-        verify(mockHttpClient).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+        verify(mockHttpClient).send(argThat(request -> "PATCH".equals(request.method())),
+            eq(HttpResponse.BodyHandlers.ofString()));
     }
 
     @Test
@@ -277,4 +281,60 @@ class ToDoListApiHandlerTest {
         assertFalse(result);
         verify(mockHttpClient).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Merge group to-do list - The changes are sent with PATCH")
+    @Tag("mergeGroupToDoList")
+    public void mergeGroupToDoList_Success() throws IOException, InterruptedException {
+        Task milk = new Task("Milk");
+        Task bread = new Task("Bread");
+        testToDoList.addTask(milk);
+        testToDoList.addTask(bread);
+        ToDoList edited = new ToDoList(testToDoList);
+        edited.getTask(milk.getId()).setCompleted(true);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(objectMapper.writeValueAsString(edited));
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(mockResponse);
+
+        assertTrue(toDoListApiHandler.mergeGroupToDoList(testGroup, testToDoList, edited));
+
+        verify(mockHttpClient).send(argThat(request -> "PATCH".equals(request.method())
+            && request.uri().getPath().endsWith("/groups/testGroup")),
+            eq(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    @Test
+    @DisplayName("Merge group to-do list - Failure scenario")
+    @Tag("mergeGroupToDoList")
+    public void mergeGroupToDoList_Failure() throws IOException, InterruptedException {
+        when(mockResponse.statusCode()).thenReturn(400);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(mockResponse);
+
+        assertFalse(toDoListApiHandler.mergeGroupToDoList(testGroup, testToDoList, testToDoList));
+    }
+
+    @Test
+    @DisplayName("Offline - Changes are queued and the cached list is loaded")
+    @Tag("offline")
+    public void updateToDoList_Offline(@TempDir Path cacheDirectory) throws IOException, InterruptedException {
+        ClientCache cache = ClientCache.open(cacheDirectory);
+        ClientCache.setShared(cache);
+        try {
+            testToDoList.addTask(new Task("Buy milk"));
+            when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenThrow(new IOException("Network error"));
+
+            assertTrue(toDoListApiHandler.updateToDoList(testUser, testToDoList));
+            assertEquals(1, cache.getOutbox().size());
+
+            Optional<ToDoList> result = toDoListApiHandler.loadToDoList(testUser);
+            assertTrue(result.isPresent());
+            assertEquals("Buy milk", result.get().getTasks().get(0).getTaskName());
+        } finally {
+            ClientCache.setShared(null);
+            cache.close();
+        }
+    }
+}
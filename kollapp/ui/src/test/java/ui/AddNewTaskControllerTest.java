@@ -107,6 +107,7 @@ public class AddNewTaskControllerTest {
         assertEquals("This is a test description.", addedTask.getDescription());
         assertEquals("High", addedTask.getPriority());
         assertEquals(fixedDate, addedTask.getDateTime());
+        verify(mockKollAppController).saveToDoList();
     }
 
     /**
@@ -24,8 +24,7 @@ import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.control.TextArea;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListView;
 import javafx.stage.Stage;
 
 /**
@@ -160,15 +159,50 @@ public class GroupChatControllerTest {
         assertEquals(testUser.getUsername(), lastMessage.getAuthor(), "Last message author should be the test user");
 
         // Verify that the UI has updated
-        VBox messageBox = robot.lookup("#vboxMessages").queryAs(VBox.class);
-        assertNotNull(messageBox, "Message box should not be null");
+        ListView<Message> messageList = robot.lookup("#messageList").queryListView();
+        assertNotNull(messageList, "Message list should not be null");
 
-        // Check that the message box has the correct number of messages
-        assertEquals(initialCount + 1, messageBox.getChildren().size(), "Message box should contain the new message");
+        // Check that the message list has the correct number of messages
+        assertEquals(initialCount + 1, messageList.getItems().size(), "Message list should contain the new message");
+        assertSame(testMessages.get(0), messageList.getItems().get(0), "Existing messages should be kept");
 
         // Verify the last message in the UI
-        TextArea lastMessageArea = (TextArea) messageBox.getChildren().get(messageBox.getChildren().size() - 1);
-        assertTrue(lastMessageArea.getText().contains("Test message"), "UI should display 'Test message'");
-        assertTrue(lastMessageArea.getText().contains(testUser.getUsername()), "UI should display the test user's username");
+        String lastMessageText = GroupChatController.formatMessage(
+            messageList.getItems().get(messageList.getItems().size() - 1));
+        assertTrue(lastMessageText.contains("Test message"), "UI should display 'Test message'");
+        assertTrue(lastMessageText.contains(testUser.getUsername()), "UI should display the test user's username");
+        assertTrue(robot.lookup(".list-cell").queryAll().size() < messageList.getItems().size() + 10,
+            "Cells should only be created for visible rows");
+    }
+
+    @Test
+    @DisplayName("Long chats open with the newest page and load older pages on demand")
+    @Tag("chat")
+    public void testLoadsHistoryInPages(FxRobot robot) {
+        GroupChat longChat = new GroupChat();
+        for (int i = 0; i < 250; i++) {
+            longChat.addMessage(new Message("user" + (i % 3), "Old message " + i));
+        }
+        robot.interact(() -> {
+            controller.setGroupChatApiHandler(new TestGroupChatApiHandler(longChat));
+            controller.initializeGroupChatWindow(testUser, "longGroup");
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        ListView<Message> messageList = controller.getMessageList();
+        assertEquals(GroupChatController.PAGE_SIZE, messageList.getItems().size(), "Only the newest page should be shown");
+        assertEquals("Old message 249", messageList.getItems().get(messageList.getItems().size() - 1).getText());
+        assertTrue(robot.lookup(".list-cell").queryAll().size() < 50, "Cells should only be created for visible rows");
+
+        List<Integer> added = new ArrayList<>();
+        robot.interact(() -> {
+            added.add(controller.loadOlderMessages());
+            added.add(controller.loadOlderMessages());
+            added.add(controller.loadOlderMessages());
+        });
+
+        assertEquals(List.of(100, 50, 0), added);
+        assertEquals(250, messageList.getItems().size());
+        assertEquals("Old message 0", messageList.getItems().get(0).getText());
     }
 }
@@ -1,11 +1,14 @@
 package ui;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
@@ -26,6 +29,7 @@ import core.ToDoList;
 import core.User;
 import core.UserGroup;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -47,6 +51,9 @@ public class KollAppControllerTest {
 
     private static boolean headless = true;
 
+    private KollAppController controller;
+    private ToDoList toDoList;
+
     /**
      * Enables headless mode if required, allowing TestFX tests to run without a display.
      */
@@ -84,19 +91,19 @@ public class KollAppControllerTest {
     @Start
     private void start(Stage stage) throws Exception {
         ToDoListApiHandler mockApiHandler = mock(ToDoListApiHandler.class);
-        ToDoList toDoList = new ToDoList();
+        toDoList = new ToDoList();
         toDoList.addTask(new Task("Test Task", LocalDate.now(), "Test Description", "High"));
-        when(mockApiHandler.loadToDoList(any(User.class))).thenReturn(Optional.of(toDoList));
+        when(mockApiHandler.loadToDoList(any(User.class), any())).thenReturn(Optional.of(toDoList));
 
         GroupApiHandler mockGroupApiHandler = mock(GroupApiHandler.class);
         UserGroup testGroup = new UserGroup("TestGroup");
         when(mockGroupApiHandler.getGroup("TestGroup")).thenReturn(Optional.of(testGroup));
-        when(mockApiHandler.loadGroupToDoList(testGroup)).thenReturn(Optional.of(new ToDoList()));
+        when(mockApiHandler.loadGroupToDoList(eq(testGroup), any())).thenReturn(Optional.of(new ToDoList()));
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/ui/Kollektiv.fxml"));
         Parent root = loader.load();
 
-        KollAppController controller = loader.getController();
+        controller = loader.getController();
 
         Field apiHandlerField = KollAppController.class.getDeclaredField("toDoListApiHandler");
         apiHandlerField.setAccessible(true);
@@ -230,4 +237,41 @@ public class KollAppControllerTest {
         robot.sleep(500);
         Assertions.assertThat(tableView.getItems()).hasSize(0);
     }
+
+    @Test
+    @DisplayName("Refreshing the table applies only the tasks that changed")
+    public void shouldApplyTaskChangesIncrementally(FxRobot robot) {
+        @SuppressWarnings("unchecked")
+        TableView<Task> tableView = robot.lookup("#tableView").queryAs(TableView.class);
+        Task shown = tableView.getItems().get(0);
+        List<ListChangeListener.Change<? extends Task>> changes = new ArrayList<>();
+        ObservableList<Task> pendingTasks = controller.getPendingTasks();
+        pendingTasks.addListener((ListChangeListener<Task>) changes::add);
+
+        robot.interact(controller::updateTableView);
+        Assertions.assertThat(changes).isEmpty();
+        Assertions.assertThat(tableView.getItems().get(0)).isSameAs(shown);
+
+        Task added = new Task("Second Task", LocalDate.now(), "Another Description", "Low");
+        robot.interact(() -> {
+            toDoList.addTask(added);
+            controller.updateTableView();
+        });
+        Assertions.assertThat(changes).hasSize(1);
+        Assertions.assertThat(tableView.getItems()).containsExactly(shown, added);
+
+        Task completed = new Task(added);
+        completed.setCompleted(true);
+        robot.interact(() -> {
+            toDoList.updateTask(completed);
+            controller.updateTableView();
+        });
+        Assertions.assertThat(changes).hasSize(2);
+        Assertions.assertThat(tableView.getItems()).containsExactly(shown);
+        Assertions.assertThat(controller.getCompletedTasks()).containsExactly(completed);
+
+        robot.clickOn("#completedLabel");
+        Assertions.assertThat(tableView.getItems()).isSameAs(controller.getCompletedTasks());
+        Assertions.assertThat(changes).hasSize(2);
+    }
 }